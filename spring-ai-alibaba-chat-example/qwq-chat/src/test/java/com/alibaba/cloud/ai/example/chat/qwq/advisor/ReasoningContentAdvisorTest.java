@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.chat.qwq.advisor;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReasoningContentAdvisorTest {
+
+	@Test
+	void thinkTagsWrapTheReasoningChunksOnce() {
+		StubChatModel model = new StubChatModel(reasoning("a"), reasoning("b"), answer("c"), answer("d"));
+
+		assertThat(stream(model, false)).containsExactly("<think>a", "b", "</think>c", "d");
+	}
+
+	@Test
+	void thinkIsClosedWhenTheStreamEndsWhileReasoning() {
+		StubChatModel model = new StubChatModel(reasoning("a"), reasoning("b"));
+
+		assertThat(stream(model, false)).containsExactly("<think>a", "b", "</think>");
+	}
+
+	@Test
+	void reasoningAndAnswerInTheSameChunk() {
+		StubChatModel model = new StubChatModel(chunk("a", "b"), answer("c"));
+
+		assertThat(stream(model, false)).containsExactly("<think>a</think>b", "c");
+	}
+
+	@Test
+	void chunksWithoutReasoningArePassedThrough() {
+		StubChatModel model = new StubChatModel(answer("a"), answer("b"));
+
+		assertThat(stream(model, false)).containsExactly("a", "b");
+	}
+
+	@Test
+	void reasoningAfterTheAnswerIsDropped() {
+		StubChatModel model = new StubChatModel(reasoning("a"), answer("b"), reasoning("c"), answer("d"));
+
+		assertThat(stream(model, false)).containsExactly("<think>a", "</think>b", "d");
+	}
+
+	@Test
+	void dropReasoningOnlyKeepsTheAnswer() {
+		StubChatModel model = new StubChatModel(reasoning("a"), reasoning("b"), answer("c"), answer("d"));
+
+		assertThat(stream(model, true)).containsExactly("c", "d");
+	}
+
+	@Test
+	void everyRequestStartsFromAFreshState() {
+		// 同一个 advisor 实例处理多次请求，上一次请求的状态不影响下一次
+		ChatClient client = client(new StubChatModel(reasoning("a"), answer("b")), false);
+
+		assertThat(client.prompt("first").stream().content().collectList().block())
+			.containsExactly("<think>a", "</think>b");
+		assertThat(client.prompt("second").stream().content().collectList().block())
+			.containsExactly("<think>a", "</think>b");
+	}
+
+	@Test
+	void callPrependsTheWholeReasoning() {
+		StubChatModel model = new StubChatModel(chunk("ab", "c"));
+
+		assertThat(client(model, false).prompt("question").call().content()).isEqualTo("<think>ab</think>c");
+		assertThat(client(model, true).prompt("question").call().content()).isEqualTo("c");
+	}
+
+	private static List<String> stream(ChatModel model, boolean dropReasoning) {
+		return client(model, dropReasoning).prompt("question").stream().content().collectList().block();
+	}
+
+	private static ChatClient client(ChatModel model, boolean dropReasoning) {
+		return ChatClient.builder(model).defaultAdvisors(new ReasoningContentAdvisor(1, dropReasoning)).build();
+	}
+
+	static ChatResponse reasoning(String reasoning) {
+		return chunk(reasoning, "");
+	}
+
+	static ChatResponse answer(String text) {
+		return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+	}
+
+	static ChatResponse chunk(String reasoning, String text) {
+		AssistantMessage message = AssistantMessage.builder()
+			.content(text)
+			.properties(Map.of(ReasoningContentAdvisor.REASONING_CONTENT, reasoning))
+			.build();
+		return new ChatResponse(List.of(new Generation(message)));
+	}
+
+	/**
+	 * 流式调用依次返回给定的 chunk，非流式调用返回第一个 chunk
+	 */
+	static class StubChatModel implements ChatModel {
+
+		private final List<ChatResponse> chunks;
+
+		StubChatModel(ChatResponse... chunks) {
+			this(List.of(chunks));
+		}
+
+		StubChatModel(List<ChatResponse> chunks) {
+			this.chunks = chunks;
+		}
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			return chunks.get(0);
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.fromIterable(chunks);
+		}
+
+	}
+
+}
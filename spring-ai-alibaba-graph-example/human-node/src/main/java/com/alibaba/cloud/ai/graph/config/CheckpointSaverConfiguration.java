@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.config;
+
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.saver.DeltaCheckpointSaver;
+import com.alibaba.cloud.ai.graph.saver.SegmentFileCheckpointSaver;
+import com.alibaba.cloud.ai.graph.saver.SegmentFileCheckpointSaver.FsyncPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 等待人工反馈的线程会一直停在检查点上，默认写入磁盘，重启后仍可以 resume；
+ * human.checkpoint.store=memory 时只保存在内存中
+ */
+@Configuration
+public class CheckpointSaverConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "human.checkpoint.store", havingValue = "file", matchIfMissing = true)
+    public SegmentFileCheckpointSaver fileCheckpointSaver(
+            @Qualifier("humanGraph") StateGraph humanGraph,
+            @Value("${human.checkpoint.directory:data/human-node-checkpoints}") Path directory,
+            @Value("${human.checkpoint.fsync-policy:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${human.checkpoint.fsync-interval:1s}") Duration fsyncInterval,
+            @Value("${human.checkpoint.ttl:7d}") Duration ttl,
+            @Value("${human.checkpoint.compaction-threshold:16}") int compactionThreshold,
+            @Value("${human.checkpoint.maintenance-interval:1m}") Duration maintenanceInterval) {
+        return SegmentFileCheckpointSaver.builder()
+                .directory(directory)
+                .stateSerializer(humanGraph.getStateSerializer())
+                .fsyncPolicy(fsyncPolicy)
+                .fsyncInterval(fsyncInterval)
+                .ttl(ttl)
+                .compactionThreshold(compactionThreshold)
+                .maintenanceInterval(maintenanceInterval)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "human.checkpoint.store", havingValue = "memory")
+    public DeltaCheckpointSaver memoryCheckpointSaver() {
+        return new DeltaCheckpointSaver();
+    }
+}
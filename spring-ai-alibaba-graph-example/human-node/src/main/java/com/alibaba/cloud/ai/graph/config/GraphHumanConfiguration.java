@@ -27,6 +27,7 @@ import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 import com.alibaba.cloud.ai.graph.node.ExpanderNode;
 import com.alibaba.cloud.ai.graph.node.HumanFeedbackNode;
 import com.alibaba.cloud.ai.graph.node.TranslateNode;
+import com.alibaba.cloud.ai.graph.saver.SharedStateSerializer;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,7 +62,7 @@ public class GraphHumanConfiguration {
                 .addPatternStrategy("translate_content", new ReplaceStrategy())
                 .build();
 
-        StateGraph stateGraph = new StateGraph(keyStrategyFactory)
+        StateGraph stateGraph = new StateGraph(keyStrategyFactory, new SharedStateSerializer(keyStrategyFactory))
                 .addNode("expander", node_async(new ExpanderNode(chatClientBuilder)))
                 .addNode("translate", node_async(new TranslateNode(chatClientBuilder)))
                 .addNode("human_feedback", node_async(new HumanFeedbackNode()))
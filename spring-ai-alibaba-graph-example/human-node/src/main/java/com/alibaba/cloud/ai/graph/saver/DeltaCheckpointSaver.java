@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.saver;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory checkpoint saver that keeps only what each step changed.
+ * <p>
+ * The checkpoints of a thread are versions of one {@link PersistentStateMap}: a step that
+ * changes k keys (reference check first, then equals) allocates O(k) trie paths and shares every
+ * other node, and every value, with the previous checkpoint. Any checkpoint is read directly,
+ * without replaying earlier steps.
+ */
+public class DeltaCheckpointSaver implements BaseCheckpointSaver {
+
+    private final Map<String, ThreadCheckpoints> threads = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        ThreadCheckpoints checkpoints = threads.get(threadId(config));
+        return checkpoints == null ? List.of() : checkpoints.list();
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        ThreadCheckpoints checkpoints = threads.get(threadId(config));
+        if (checkpoints == null) {
+            return Optional.empty();
+        }
+        return config.checkPointId().isPresent()
+                ? checkpoints.get(config.checkPointId().get())
+                : checkpoints.last();
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) {
+        ThreadCheckpoints checkpoints = threads.computeIfAbsent(threadId(config), id -> new ThreadCheckpoints());
+        if (config.checkPointId().isPresent()) {
+            checkpoints.replace(config.checkPointId().get(), checkpoint);
+        }
+        else {
+            checkpoints.append(checkpoint);
+        }
+        return RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
+    }
+
+    @Override
+    public Tag release(RunnableConfig config) {
+        String threadId = threadId(config);
+        ThreadCheckpoints checkpoints = threads.remove(threadId);
+        return new Tag(threadId, checkpoints == null ? List.of() : checkpoints.list());
+    }
+
+    private static String threadId(RunnableConfig config) {
+        return config.threadId().orElse(THREAD_ID_DEFAULT);
+    }
+
+    private record Entry(String id, String nodeId, String nextNodeId, PersistentStateMap state) {
+    }
+
+    private static final class ThreadCheckpoints {
+
+        /**
+         * oldest first
+         */
+        private final List<Entry> entries = new ArrayList<>();
+
+        synchronized void append(Checkpoint checkpoint) {
+            PersistentStateMap previous = entries.isEmpty()
+                    ? PersistentStateMap.EMPTY
+                    : entries.get(entries.size() - 1).state();
+            entries.add(entry(checkpoint, previous));
+        }
+
+        /**
+         * later checkpoints hold their own version, so only this entry changes
+         */
+        synchronized void replace(String id, Checkpoint checkpoint) {
+            int index = indexOf(id);
+            PersistentStateMap previous = index == 0 ? PersistentStateMap.EMPTY : entries.get(index - 1).state();
+            entries.set(index, entry(checkpoint, previous));
+        }
+
+        synchronized Optional<Checkpoint> get(String id) {
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (entries.get(i).id().equals(id)) {
+                    return Optional.of(checkpoint(entries.get(i)));
+                }
+            }
+            return Optional.empty();
+        }
+
+        synchronized Optional<Checkpoint> last() {
+            if (entries.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(checkpoint(entries.get(entries.size() - 1)));
+        }
+
+        /**
+         * newest first, as MemorySaver returns them
+         */
+        synchronized List<Checkpoint> list() {
+            List<Checkpoint> checkpoints = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                checkpoints.add(checkpoint(entry));
+            }
+            Collections.reverse(checkpoints);
+            return checkpoints;
+        }
+
+        private static Entry entry(Checkpoint checkpoint, PersistentStateMap previous) {
+            return new Entry(checkpoint.getId(), checkpoint.getNodeId(), checkpoint.getNextNodeId(),
+                    previous.update(checkpoint.getState()));
+        }
+
+        private int indexOf(String id) {
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (entries.get(i).id().equals(id)) {
+                    return i;
+                }
+            }
+            throw new NoSuchElementException(String.format("Checkpoint with id %s not found!", id));
+        }
+
+        /**
+         * the graph may change the state it resumes from, hand out a mutable copy
+         */
+        private static Checkpoint checkpoint(Entry entry) {
+            return Checkpoint.builder()
+                    .id(entry.id())
+                    .nodeId(entry.nodeId())
+                    .nextNodeId(entry.nextNodeId())
+                    .state(new HashMap<>(entry.state()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.saver;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable state map backed by a hash array mapped trie.
+ * <p>
+ * {@link #with} and {@link #without} return a new version that copies only the path to the
+ * changed key (at most 7 nodes of up to 32 slots) and shares every other node with this one,
+ * so consecutive checkpoints that differ in a few keys share almost all of their structure.
+ */
+final class PersistentStateMap extends AbstractMap<String, Object> {
+
+    static final PersistentStateMap EMPTY = new PersistentStateMap(null, 0);
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Node root;
+
+    private final int size;
+
+    private PersistentStateMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != NOT_FOUND;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = find(key);
+        return value == NOT_FOUND ? null : value;
+    }
+
+    /**
+     * @return this map when {@code key} is already mapped to the same reference
+     */
+    PersistentStateMap with(String key, Object value) {
+        Object old = find(key);
+        if (old == value && old != NOT_FOUND) {
+            return this;
+        }
+        Leaf leaf = new Leaf(key, hash(key), value);
+        Node newRoot = root == null ? leaf : root.with(leaf, 0);
+        return new PersistentStateMap(newRoot, old == NOT_FOUND ? size + 1 : size);
+    }
+
+    PersistentStateMap without(String key) {
+        if (find(key) == NOT_FOUND) {
+            return this;
+        }
+        return new PersistentStateMap(root.without(key, hash(key), 0), size - 1);
+    }
+
+    /**
+     * New version holding exactly the entries of {@code state}. Keys whose value is the same
+     * reference as, or equal to, the current one keep the current value and share its node.
+     */
+    PersistentStateMap update(Map<String, Object> state) {
+        PersistentStateMap result = this;
+        for (Map.Entry<String, Object> entry : state.entrySet()) {
+            Object old = find(entry.getKey());
+            if (old == NOT_FOUND || !Objects.equals(old, entry.getValue())) {
+                result = result.with(entry.getKey(), entry.getValue());
+            }
+        }
+        if (result.size != state.size()) {
+            for (String key : keySet()) {
+                if (!state.containsKey(key)) {
+                    result = result.without(key);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                List<Map.Entry<String, Object>> entries = new ArrayList<>(size);
+                if (root != null) {
+                    root.collect(entries);
+                }
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private Object find(Object key) {
+        if (root == null || !(key instanceof String text)) {
+            return NOT_FOUND;
+        }
+        return root.find(text, hash(text), 0);
+    }
+
+    private static int hash(String key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int index(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    /**
+     * Branch holding two nodes whose hashes differ at or below {@code shift}.
+     */
+    private static Node branch(Node a, int hashA, Node b, int hashB, int shift) {
+        int indexA = index(hashA, shift);
+        int indexB = index(hashB, shift);
+        if (indexA == indexB) {
+            return new Branch(1 << indexA, new Node[] { branch(a, hashA, b, hashB, shift + BITS) });
+        }
+        Node[] children = indexA < indexB ? new Node[] { a, b } : new Node[] { b, a };
+        return new Branch((1 << indexA) | (1 << indexB), children);
+    }
+
+    private interface Node {
+
+        Object find(String key, int hash, int shift);
+
+        Node with(Leaf leaf, int shift);
+
+        /**
+         * @return null when the node becomes empty
+         */
+        Node without(String key, int hash, int shift);
+
+        void collect(List<Map.Entry<String, Object>> entries);
+    }
+
+    private record Leaf(String key, int hash, Object value) implements Node {
+
+        @Override
+        public Object find(String key, int hash, int shift) {
+            return this.key.equals(key) ? value : NOT_FOUND;
+        }
+
+        @Override
+        public Node with(Leaf leaf, int shift) {
+            if (key.equals(leaf.key())) {
+                return leaf;
+            }
+            if (hash == leaf.hash()) {
+                return new Collision(hash, new Leaf[] { this, leaf });
+            }
+            return branch(this, hash, leaf, leaf.hash(), shift);
+        }
+
+        @Override
+        public Node without(String key, int hash, int shift) {
+            return this.key.equals(key) ? null : this;
+        }
+
+        @Override
+        public void collect(List<Map.Entry<String, Object>> entries) {
+            entries.add(new SimpleImmutableEntry<>(key, value));
+        }
+    }
+
+    /**
+     * Keys with the same full hash.
+     */
+    private record Collision(int hash, Leaf[] leaves) implements Node {
+
+        @Override
+        public Object find(String key, int hash, int shift) {
+            for (Leaf leaf : leaves) {
+                if (leaf.key().equals(key)) {
+                    return leaf.value();
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        public Node with(Leaf leaf, int shift) {
+            if (leaf.hash() != hash) {
+                return branch(this, hash, leaf, leaf.hash(), shift);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key().equals(leaf.key())) {
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new Collision(hash, copy);
+                }
+            }
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = leaf;
+            return new Collision(hash, copy);
+        }
+
+        @Override
+        public Node without(String key, int hash, int shift) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key().equals(key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new Collision(hash, copy);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void collect(List<Map.Entry<String, Object>> entries) {
+            for (Leaf leaf : leaves) {
+                leaf.collect(entries);
+            }
+        }
+    }
+
+    /**
+     * One slot per 5-bit hash segment present in {@code bitmap}, children ordered by segment.
+     */
+    private record Branch(int bitmap, Node[] children) implements Node {
+
+        @Override
+        public Object find(String key, int hash, int shift) {
+            int bit = 1 << index(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            return children[slot(bit)].find(key, hash, shift + BITS);
+        }
+
+        @Override
+        public Node with(Leaf leaf, int shift) {
+            int bit = 1 << index(leaf.hash(), shift);
+            int slot = slot(bit);
+            if ((bitmap & bit) == 0) {
+                Node[] copy = new Node[children.length + 1];
+                System.arraycopy(children, 0, copy, 0, slot);
+                copy[slot] = leaf;
+                System.arraycopy(children, slot, copy, slot + 1, children.length - slot);
+                return new Branch(bitmap | bit, copy);
+            }
+            Node[] copy = children.clone();
+            copy[slot] = children[slot].with(leaf, shift + BITS);
+            return new Branch(bitmap, copy);
+        }
+
+        @Override
+        public Node without(String key, int hash, int shift) {
+            int bit = 1 << index(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int slot = slot(bit);
+            Node child = children[slot].without(key, hash, shift + BITS);
+            if (child == children[slot]) {
+                return this;
+            }
+            if (child != null) {
+                // a single leaf or collision below does not need its own branch
+                if (children.length == 1 && !(child instanceof Branch)) {
+                    return child;
+                }
+                Node[] copy = children.clone();
+                copy[slot] = child;
+                return new Branch(bitmap, copy);
+            }
+            if (children.length == 1) {
+                return null;
+            }
+            if (children.length == 2 && !(children[1 - slot] instanceof Branch)) {
+                return children[1 - slot];
+            }
+            Node[] copy = new Node[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, slot);
+            System.arraycopy(children, slot + 1, copy, slot, children.length - slot - 1);
+            return new Branch(bitmap & ~bit, copy);
+        }
+
+        @Override
+        public void collect(List<Map.Entry<String, Object>> entries) {
+            for (Node child : children) {
+                child.collect(entries);
+            }
+        }
+
+        private int slot(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+}
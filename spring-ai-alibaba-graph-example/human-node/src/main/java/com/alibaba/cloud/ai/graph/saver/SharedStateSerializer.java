@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.saver;
+
+import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
+import com.alibaba.cloud.ai.graph.state.strategy.MergeStrategy;
+import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+
+import java.util.HashMap;
+
+/**
+ * Jackson state serializer whose clone shares the state values instead of copying them.
+ * <p>
+ * The graph clones the whole state for every checkpoint. When every update stores a new value
+ * under its key, a new map holding the same references is a consistent snapshot and costs
+ * O(keys) instead of O(state size). A strategy that changes the current value in place would
+ * rewrite earlier checkpoints as well, so only {@link ReplaceStrategy} and {@link MergeStrategy}
+ * are accepted. Nodes must not mutate values read from the state.
+ */
+public class SharedStateSerializer extends SpringAIJacksonStateSerializer {
+
+    /**
+     * @throws IllegalArgumentException if a key uses a strategy that may update a value in place
+     */
+    public SharedStateSerializer(KeyStrategyFactory keyStrategyFactory) {
+        super(OverAllState::new);
+        keyStrategyFactory.apply().forEach((key, strategy) -> {
+            if (!(strategy instanceof ReplaceStrategy) && !(strategy instanceof MergeStrategy)) {
+                throw new IllegalArgumentException(String.format(
+                        "Key '%s' uses %s, which may update its value in place; state values cannot be shared",
+                        key, strategy.getClass().getSimpleName()));
+            }
+        });
+    }
+
+    @Override
+    public OverAllState cloneObject(OverAllState state) {
+        return stateFactory().apply(new HashMap<>(state.data()));
+    }
+}
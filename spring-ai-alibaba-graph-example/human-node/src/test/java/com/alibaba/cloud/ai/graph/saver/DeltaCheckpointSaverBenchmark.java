@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.saver;
+
+import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
+import com.alibaba.cloud.ai.graph.KeyStrategyFactoryBuilder;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
+import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 50-step run over a 5 MB state (50 keys of 100 KB), where every step replaces one key: each
+ * step clones the state and stores a checkpoint, then all checkpoints are read back as a resume
+ * or history request would. {@code memory} is MemorySaver with the Jackson serializer, which
+ * deep-copies the whole state per step; {@code delta} is DeltaCheckpointSaver with
+ * SharedStateSerializer. Add {@code -prof gc} to compare the bytes allocated per run.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.graph.saver.DeltaCheckpointSaverBenchmark}
+ * or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeltaCheckpointSaverBenchmark {
+
+    private static final int STEPS = 50;
+
+    private static final int KEYS = 50;
+
+    private static final int VALUE_SIZE = 100 * 1024;
+
+    @Param({"memory", "delta"})
+    public String saver;
+
+    private StateSerializer serializer;
+
+    private Map<String, Object> initial;
+
+    private String[] updates;
+
+    @Setup
+    public void setUp() {
+        KeyStrategyFactoryBuilder builder = new KeyStrategyFactoryBuilder();
+        initial = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            builder.addPatternStrategy("key-" + i, new ReplaceStrategy());
+            initial.put("key-" + i, value('a', i));
+        }
+        KeyStrategyFactory factory = builder.build();
+        serializer = "delta".equals(saver)
+                ? new SharedStateSerializer(factory)
+                : new SpringAIJacksonStateSerializer(OverAllState::new);
+
+        updates = new String[STEPS];
+        for (int step = 0; step < STEPS; step++) {
+            updates[step] = value('b', step);
+        }
+    }
+
+    @Benchmark
+    public Collection<Checkpoint> run() throws Exception {
+        BaseCheckpointSaver checkpointSaver = "delta".equals(saver) ? new DeltaCheckpointSaver() : new MemorySaver();
+        RunnableConfig config = RunnableConfig.builder().threadId("benchmark").build();
+
+        OverAllState state = new OverAllState(new HashMap<>(initial));
+        for (int step = 0; step < STEPS; step++) {
+            OverAllState next = serializer.cloneObject(state);
+            next.updateState(Map.of("key-" + step % KEYS, updates[step]));
+            checkpointSaver.put(config, Checkpoint.builder()
+                    .nodeId("node-" + step)
+                    .nextNodeId("node-" + (step + 1))
+                    .state(next.data())
+                    .build());
+            state = next;
+        }
+        return checkpointSaver.list(config);
+    }
+
+    private static String value(char fill, int index) {
+        return index + String.valueOf(fill).repeat(VALUE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DeltaCheckpointSaverBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.saver;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeltaCheckpointSaverTest {
+
+    private final DeltaCheckpointSaver saver = new DeltaCheckpointSaver();
+
+    private final RunnableConfig thread = RunnableConfig.builder().threadId("thread").build();
+
+    @Test
+    void everyCheckpointReadsBackItsOwnState() {
+        List<String> ids = new ArrayList<>();
+        List<Map<String, Object>> states = new ArrayList<>();
+
+        // 50 步，每步修改一个 key，每 7 步删除一个 key
+        Map<String, Object> state = new HashMap<>();
+        for (int step = 0; step < 50; step++) {
+            state.put("key-" + step % 12, "value-" + step);
+            if (step % 7 == 6) {
+                state.remove("key-" + (step + 1) % 12);
+            }
+            Checkpoint checkpoint = checkpoint("node-" + step, state);
+            saver.put(thread, checkpoint);
+            ids.add(checkpoint.getId());
+            states.add(new HashMap<>(state));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            Checkpoint read = saver.get(at(ids.get(i))).orElseThrow();
+            assertThat(read.getState()).isEqualTo(states.get(i));
+            assertThat(read.getNodeId()).isEqualTo("node-" + i);
+        }
+        assertThat(saver.get(thread).orElseThrow().getState()).isEqualTo(state);
+
+        // list 按从新到旧返回
+        List<Checkpoint> listed = new ArrayList<>(saver.list(thread));
+        assertThat(listed).hasSize(50);
+        for (int i = 0; i < listed.size(); i++) {
+            assertThat(listed.get(i).getId()).isEqualTo(ids.get(49 - i));
+            assertThat(listed.get(i).getState()).isEqualTo(states.get(49 - i));
+        }
+    }
+
+    @Test
+    void replaceOnlyChangesThatCheckpoint() {
+        Checkpoint first = checkpoint("a", Map.of("query", "q"));
+        Checkpoint second = checkpoint("b", Map.of("query", "q", "expander_content", "e"));
+        Checkpoint third = checkpoint("c", Map.of("query", "q", "expander_content", "e", "feed_back", true));
+        saver.put(thread, first);
+        saver.put(thread, second);
+        saver.put(thread, third);
+
+        Checkpoint replacement = Checkpoint.builder()
+                .id(second.getId())
+                .nodeId("b")
+                .nextNodeId("human_feedback")
+                .state(Map.of("query", "q", "expander_content", "edited"))
+                .build();
+        RunnableConfig updated = saver.put(at(second.getId()), replacement);
+
+        assertThat(updated.checkPointId()).contains(second.getId());
+        assertThat(saver.get(at(second.getId())).orElseThrow().getState())
+                .isEqualTo(Map.of("query", "q", "expander_content", "edited"));
+        assertThat(saver.get(at(second.getId())).orElseThrow().getNextNodeId()).isEqualTo("human_feedback");
+        assertThat(saver.get(at(first.getId())).orElseThrow().getState()).isEqualTo(Map.of("query", "q"));
+        assertThat(saver.get(at(third.getId())).orElseThrow().getState())
+                .isEqualTo(Map.of("query", "q", "expander_content", "e", "feed_back", true));
+        assertThat(saver.list(thread)).extracting(Checkpoint::getId)
+                .containsExactly(third.getId(), second.getId(), first.getId());
+    }
+
+    @Test
+    void valuesAreSharedBetweenCheckpoints() {
+        Object content = new StringBuilder("large value");
+        saver.put(thread, checkpoint("a", Map.of("content", content, "step", 1)));
+        saver.put(thread, checkpoint("b", Map.of("content", content, "step", 2)));
+
+        List<Checkpoint> listed = new ArrayList<>(saver.list(thread));
+        assertThat(listed.get(0).getState().get("content")).isSameAs(content);
+        assertThat(listed.get(1).getState().get("content")).isSameAs(content);
+    }
+
+    @Test
+    void checkpointsCanBeChangedByTheCaller() {
+        saver.put(thread, checkpoint("a", Map.of("query", "q")));
+
+        saver.get(thread).orElseThrow().getState().put("query", "changed");
+
+        assertThat(saver.get(thread).orElseThrow().getState()).isEqualTo(Map.of("query", "q"));
+    }
+
+    @Test
+    void releaseDropsTheThread() {
+        Checkpoint checkpoint = checkpoint("a", Map.of("query", "q"));
+        saver.put(thread, checkpoint);
+
+        assertThat(saver.release(thread).checkpoints()).extracting(Checkpoint::getId)
+                .containsExactly(checkpoint.getId());
+        assertThat(saver.get(thread)).isEmpty();
+        assertThat(saver.list(thread)).isEmpty();
+    }
+
+    private RunnableConfig at(String checkpointId) {
+        return RunnableConfig.builder(thread).checkPointId(checkpointId).build();
+    }
+
+    static Checkpoint checkpoint(String nodeId, Map<String, Object> state) {
+        return Checkpoint.builder().nodeId(nodeId).nextNodeId("next").state(new HashMap<>(state)).build();
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.saver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentStateMapTest {
+
+    @Test
+    void randomUpdatesMatchHashMapAndKeepOlderVersions() {
+        Random random = new Random(42);
+        List<PersistentStateMap> versions = new ArrayList<>();
+        List<Map<String, Object>> expected = new ArrayList<>();
+
+        PersistentStateMap map = PersistentStateMap.EMPTY;
+        Map<String, Object> reference = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String key = "key-" + random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                map = map.without(key);
+                reference.remove(key);
+            }
+            else {
+                map = map.with(key, i);
+                reference.put(key, i);
+            }
+            if (i % 1_000 == 0) {
+                versions.add(map);
+                expected.add(new HashMap<>(reference));
+            }
+        }
+
+        assertThat(map).isEqualTo(reference);
+        for (int i = 0; i < versions.size(); i++) {
+            assertThat(versions.get(i)).isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    void keysWithTheSameHashAreKeptApart() {
+        // "Aa" 与 "BB" 的 hashCode 相同
+        PersistentStateMap map = PersistentStateMap.EMPTY.with("Aa", 1).with("BB", 2).with("AaAa", 3).with("BBBB", 4);
+
+        assertThat(map).containsOnly(Map.entry("Aa", 1), Map.entry("BB", 2), Map.entry("AaAa", 3),
+                Map.entry("BBBB", 4));
+        assertThat(map.without("Aa")).containsOnly(Map.entry("BB", 2), Map.entry("AaAa", 3), Map.entry("BBBB", 4));
+        assertThat(map.with("BB", 5).get("BB")).isEqualTo(5);
+        assertThat(map.without("Aa").without("BB").without("AaAa").without("BBBB")).isEmpty();
+    }
+
+    @Test
+    void unchangedValuesReturnTheSameVersion() {
+        Object value = new Object();
+        PersistentStateMap map = PersistentStateMap.EMPTY.with("a", value);
+
+        assertThat(map.with("a", value)).isSameAs(map);
+        assertThat(map.without("missing")).isSameAs(map);
+        assertThat(map.update(Map.of("a", value))).isSameAs(map);
+    }
+
+    @Test
+    void updateReplacesChangedKeysAndDropsMissingOnes() {
+        PersistentStateMap map = PersistentStateMap.EMPTY.with("a", "1").with("b", "2").with("c", "3");
+
+        PersistentStateMap updated = map.update(Map.of("a", "1", "b", "changed", "d", "4"));
+
+        assertThat(updated).containsOnly(Map.entry("a", "1"), Map.entry("b", "changed"), Map.entry("d", "4"));
+        assertThat(map).containsOnly(Map.entry("a", "1"), Map.entry("b", "2"), Map.entry("c", "3"));
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.saver;
+
+import com.alibaba.cloud.ai.graph.CompileConfig;
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
+import com.alibaba.cloud.ai.graph.KeyStrategyFactoryBuilder;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.action.AsyncEdgeAction;
+import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
+import com.alibaba.cloud.ai.graph.dispatcher.HumanFeedbackDispatcher;
+import com.alibaba.cloud.ai.graph.node.HumanFeedbackNode;
+import com.alibaba.cloud.ai.graph.state.StateSnapshot;
+import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
+import com.alibaba.cloud.ai.graph.state.strategy.MergeStrategy;
+import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SharedStateSerializerTest {
+
+    @Test
+    void strategiesThatUpdateInPlaceAreRejected() {
+        KeyStrategyFactory factory = new KeyStrategyFactoryBuilder()
+                .addPatternStrategy("query", new ReplaceStrategy())
+                .addPatternStrategy("messages", new AppendStrategy())
+                .build();
+
+        assertThatThrownBy(() -> new SharedStateSerializer(factory))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'messages'")
+                .hasMessageContaining("AppendStrategy");
+    }
+
+    @Test
+    void cloneSharesValuesButNotTheMap() {
+        KeyStrategyFactory factory = new KeyStrategyFactoryBuilder()
+                .addPatternStrategy("content", new ReplaceStrategy())
+                .addPatternStrategy("metadata", new MergeStrategy())
+                .build();
+        SharedStateSerializer serializer = new SharedStateSerializer(factory);
+        Object content = new StringBuilder("large value");
+        OverAllState state = new OverAllState(Map.of("content", content, "metadata", Map.of("a", 1)));
+
+        OverAllState clone = serializer.cloneObject(state);
+        clone.updateState(Map.of("content", "changed", "metadata", Map.of("b", 2)));
+
+        assertThat(clone.data().get("content")).isEqualTo("changed");
+        assertThat(state.data().get("content")).isSameAs(content);
+        assertThat(state.data().get("metadata")).isEqualTo(Map.of("a", 1));
+    }
+
+    /**
+     * 与 human-node 相同的图结构，节点不调用模型：在 human_feedback 前中断，更新反馈后 resume，
+     * 每个检查点读回的状态只包含截至该节点写入的内容
+     */
+    @Test
+    void interruptedGraphResumesFromTheDeltaCheckpoints() throws Exception {
+        KeyStrategyFactory factory = new KeyStrategyFactoryBuilder()
+                .addPatternStrategy("query", new ReplaceStrategy())
+                .addPatternStrategy("expander_content", new ReplaceStrategy())
+                .addPatternStrategy("feed_back", new ReplaceStrategy())
+                .addPatternStrategy("human_next_node", new ReplaceStrategy())
+                .addPatternStrategy("translate_content", new ReplaceStrategy())
+                .build();
+        StateGraph graph = new StateGraph(factory, new SharedStateSerializer(factory))
+                .addNode("expander", node_async(state -> Map.of("expander_content", List.of("a", "b"))))
+                .addNode("human_feedback", node_async(new HumanFeedbackNode()))
+                .addNode("translate", node_async(state -> Map.of("translate_content", "translated")))
+                .addEdge(StateGraph.START, "expander")
+                .addEdge("expander", "human_feedback")
+                .addConditionalEdges("human_feedback", AsyncEdgeAction.edge_async(new HumanFeedbackDispatcher()),
+                        Map.of("translate", "translate", StateGraph.END, StateGraph.END))
+                .addEdge("translate", StateGraph.END);
+        CompiledGraph compiledGraph = graph.compile(CompileConfig.builder()
+                .saverConfig(SaverConfig.builder().register(new DeltaCheckpointSaver()).build())
+                .interruptBefore("human_feedback")
+                .build());
+        RunnableConfig config = RunnableConfig.builder().threadId("resume").build();
+
+        compiledGraph.invoke(Map.of("query", "hello"), config);
+
+        StateSnapshot paused = compiledGraph.stateOf(config).orElseThrow();
+        assertThat(paused.next()).isEqualTo("human_feedback");
+        assertThat(paused.state().data()).containsEntry("expander_content", List.of("a", "b"))
+                .doesNotContainKey("translate_content");
+
+        RunnableConfig resumed = compiledGraph.updateState(config, Map.of("feed_back", true), null);
+        OverAllState result = compiledGraph.invoke((Map<String, Object>) null, resumed).orElseThrow();
+
+        assertThat(result.data()).containsEntry("query", "hello")
+                .containsEntry("feed_back", true)
+                .containsEntry("translate_content", "translated");
+        // 从新到旧：updateState 追加了带反馈的检查点，中断时的检查点保持不变
+        List<StateSnapshot> history = new ArrayList<>(compiledGraph.getStateHistory(config));
+        assertThat(history).extracting(StateSnapshot::node)
+                .containsExactly("translate", "human_feedback", "expander", "expander", StateGraph.START);
+        assertThat(history.get(4).state().data()).isEqualTo(Map.of("query", "hello"));
+        assertThat(history.get(3).state().data())
+                .isEqualTo(Map.of("query", "hello", "expander_content", List.of("a", "b")));
+        assertThat(history.get(2).state().data()).containsEntry("feed_back", true)
+                .doesNotContainKey("human_next_node");
+        assertThat(history.get(1).state().data()).containsEntry("human_next_node", "translate")
+                .doesNotContainKey("translate_content");
+    }
+
+}
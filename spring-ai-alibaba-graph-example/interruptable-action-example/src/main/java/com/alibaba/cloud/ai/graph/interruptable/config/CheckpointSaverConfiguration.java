@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.interruptable.config;
+
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.interruptable.saver.SegmentFileCheckpointSaver;
+import com.alibaba.cloud.ai.graph.interruptable.saver.SegmentFileCheckpointSaver.FsyncPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 中断的工作流会一直停在检查点上，检查点写入磁盘，重启后可以继续恢复执行
+ */
+@Configuration
+public class CheckpointSaverConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SegmentFileCheckpointSaver checkpointSaver(
+            @Qualifier("orderApprovalGraph") StateGraph orderApprovalGraph,
+            @Value("${interruptable.checkpoint.directory:data/interruptable-checkpoints}") Path directory,
+            @Value("${interruptable.checkpoint.fsync-policy:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${interruptable.checkpoint.fsync-interval:1s}") Duration fsyncInterval,
+            @Value("${interruptable.checkpoint.ttl:7d}") Duration ttl,
+            @Value("${interruptable.checkpoint.compaction-threshold:16}") int compactionThreshold,
+            @Value("${interruptable.checkpoint.maintenance-interval:1m}") Duration maintenanceInterval) {
+        return SegmentFileCheckpointSaver.builder()
+            .directory(directory)
+            .stateSerializer(orderApprovalGraph.getStateSerializer())
+            .fsyncPolicy(fsyncPolicy)
+            .fsyncInterval(fsyncInterval)
+            .ttl(ttl)
+            .compactionThreshold(compactionThreshold)
+            .maintenanceInterval(maintenanceInterval)
+            .build();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.interruptable.saver;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 100,000 order approvals paused on their checkpoint, as after the interrupt before the
+ * approval node. {@code pause} stores the checkpoint of one more paused run; {@code resume} picks
+ * a random paused run, reads its latest checkpoint and stores the approved state over it, as
+ * {@code CompiledGraph.updateState} does before the run continues. {@code resumeAfterRestart}
+ * does the same on a saver reopened on the same directory at the start of every iteration, so
+ * most calls first recover the thread's log from disk.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.graph.interruptable.saver.SegmentFileCheckpointSaverBenchmark}
+ * or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentFileCheckpointSaverBenchmark {
+
+    private static final int PAUSED_THREADS = 100_000;
+
+    @Param({"INTERVAL", "ALWAYS"})
+    public SegmentFileCheckpointSaver.FsyncPolicy fsyncPolicy;
+
+    private final AtomicInteger nextThread = new AtomicInteger(PAUSED_THREADS);
+
+    private Path directory;
+
+    private SegmentFileCheckpointSaver saver;
+
+    private SegmentFileCheckpointSaver restarted;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("segment-checkpoint-benchmark");
+        try (SegmentFileCheckpointSaver loader = saver(SegmentFileCheckpointSaver.FsyncPolicy.NEVER)) {
+            for (int i = 0; i < PAUSED_THREADS; i++) {
+                loader.put(thread(i), paused(i));
+            }
+        }
+        saver = saver(fsyncPolicy);
+        for (int i = 0; i < PAUSED_THREADS; i++) {
+            saver.get(thread(i)).orElseThrow();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void restart() {
+        if (restarted != null) {
+            restarted.close();
+        }
+        restarted = saver(fsyncPolicy);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        restarted.close();
+        saver.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public RunnableConfig pause() throws Exception {
+        int order = nextThread.getAndIncrement();
+        return saver.put(thread(order), paused(order));
+    }
+
+    @Benchmark
+    public RunnableConfig resume() throws Exception {
+        return resume(saver);
+    }
+
+    @Benchmark
+    public RunnableConfig resumeAfterRestart() throws Exception {
+        return resume(restarted);
+    }
+
+    private static RunnableConfig resume(SegmentFileCheckpointSaver saver) throws Exception {
+        RunnableConfig config = thread(ThreadLocalRandom.current().nextInt(PAUSED_THREADS));
+        Checkpoint paused = saver.get(config).orElseThrow();
+        Checkpoint approved = Checkpoint.builder()
+            .id(paused.getId())
+            .nodeId(paused.getNodeId())
+            .nextNodeId(paused.getNextNodeId())
+            .state(Map.of("orderId", paused.getState().get("orderId"), "approved", true))
+            .build();
+        return saver.put(RunnableConfig.builder(config).checkPointId(paused.getId()).build(), approved);
+    }
+
+    private SegmentFileCheckpointSaver saver(SegmentFileCheckpointSaver.FsyncPolicy policy) {
+        return SegmentFileCheckpointSaver.builder()
+            .directory(directory)
+            .stateSerializer(new SpringAIJacksonStateSerializer(OverAllState::new))
+            .fsyncPolicy(policy)
+            .maintenanceInterval(Duration.ofMinutes(1))
+            .build();
+    }
+
+    private static RunnableConfig thread(int order) {
+        return RunnableConfig.builder().threadId("order-" + order).build();
+    }
+
+    private static Checkpoint paused(int order) {
+        return Checkpoint.builder()
+            .nodeId("validate")
+            .nextNodeId("approval")
+            .state(Map.of("orderId", "order-" + order, "amount", order % 1_000))
+            .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SegmentFileCheckpointSaverBenchmark.class.getSimpleName()).build())
+            .run();
+    }
+
+}
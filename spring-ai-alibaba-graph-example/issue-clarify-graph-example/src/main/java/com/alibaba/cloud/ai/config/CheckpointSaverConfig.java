@@ -0,0 +1,41 @@
+package com.alibaba.cloud.ai.config;
+
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.saver.SegmentFileCheckpointSaver;
+import com.alibaba.cloud.ai.saver.SegmentFileCheckpointSaver.FsyncPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 检查点保存器配置类
+ * <p>
+ * 等待用户补充槽位的会话会停在 ClarifyWaitNode 的检查点上，检查点写入磁盘，
+ * 服务重启后相同 chatId 的请求仍然可以继续之前的会话；超过 ttl 未访问的会话会被清理
+ */
+@Configuration
+public class CheckpointSaverConfig {
+
+    @Bean(destroyMethod = "close")
+    public SegmentFileCheckpointSaver checkpointSaver(
+            StateGraph issueClarifyGraph,
+            @Value("${issue-clarify.checkpoint.directory:data/issue-clarify-checkpoints}") Path directory,
+            @Value("${issue-clarify.checkpoint.fsync-policy:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${issue-clarify.checkpoint.fsync-interval:1s}") Duration fsyncInterval,
+            @Value("${issue-clarify.checkpoint.ttl:7d}") Duration ttl,
+            @Value("${issue-clarify.checkpoint.compaction-threshold:16}") int compactionThreshold,
+            @Value("${issue-clarify.checkpoint.maintenance-interval:1m}") Duration maintenanceInterval) {
+        return SegmentFileCheckpointSaver.builder()
+                .directory(directory)
+                .stateSerializer(issueClarifyGraph.getStateSerializer())
+                .fsyncPolicy(fsyncPolicy)
+                .fsyncInterval(fsyncInterval)
+                .ttl(ttl)
+                .compactionThreshold(compactionThreshold)
+                .maintenanceInterval(maintenanceInterval)
+                .build();
+    }
+}
@@ -7,9 +7,9 @@ import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
-import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 import com.alibaba.cloud.ai.graph.state.StateSnapshot;
+import com.alibaba.cloud.ai.saver.SegmentFileCheckpointSaver;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -48,17 +48,17 @@ public class GraphController {
     private final CompiledGraph compiledGraph;
 
     /**
-     * 构造函数：编译状态图并配置内存状态保存器
+     * 构造函数：编译状态图并配置文件状态保存器
      *
      * @param issueClarifyGraph 注入的状态图 Bean
+     * @param checkpointSaver   文件检查点保存器，服务重启后会话仍可恢复
      * @throws GraphStateException 图编译异常
      */
-    public GraphController(StateGraph issueClarifyGraph) throws GraphStateException {
-        // 创建内存保存器，用于持久化会话状态（支持多轮对话）
-        var saver = new MemorySaver();
+    public GraphController(StateGraph issueClarifyGraph, SegmentFileCheckpointSaver checkpointSaver) throws GraphStateException {
+        // 文件保存器，用于持久化会话状态（支持多轮对话）
         var compileConfig = CompileConfig.builder()
                 .saverConfig(SaverConfig.builder()
-                        .register(saver)
+                        .register(checkpointSaver)
                         .build())
                 .build();
         // 编译状态图，生成可执行的工作流
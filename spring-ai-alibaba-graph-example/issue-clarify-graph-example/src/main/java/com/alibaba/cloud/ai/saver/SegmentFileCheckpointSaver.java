@@ -0,0 +1,617 @@
+package com.alibaba.cloud.ai.saver;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoint saver that appends every checkpoint to a log file per thread id.
+ * <p>
+ * Each record is {@code [length][crc32][id, replacedId, nodeId, nextNodeId, state]}. Updating a
+ * checkpoint appends a new record that names the checkpoint it replaces, and the in-memory index
+ * keeps the offset of the latest record per checkpoint in insertion order. Resuming therefore reads a single record at a known offset.
+ * A thread's index is loaded lazily from its log the first time it is used, and a torn record
+ * at the end of the log is truncated.
+ * <p>
+ * A background task rewrites logs whose superseded records outnumber the live ones, deletes
+ * logs of threads not touched within the TTL and, with {@link FsyncPolicy#INTERVAL}, syncs
+ * the logs written since the last pass.
+ */
+public class SegmentFileCheckpointSaver implements BaseCheckpointSaver, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentFileCheckpointSaver.class);
+
+    public static final String EXTENSION = ".log";
+
+    private static final int HEADER_SIZE = 8;
+
+    public enum FsyncPolicy {
+
+        /**
+         * sync after every write, a checkpoint survives a crash once put returns
+         */
+        ALWAYS,
+
+        /**
+         * sync written logs every fsyncInterval
+         */
+        INTERVAL,
+
+        /**
+         * leave it to the operating system
+         */
+        NEVER
+    }
+
+    private final Path directory;
+
+    private final StateSerializer stateSerializer;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final Duration ttl;
+
+    private final int compactionThreshold;
+
+    private final Map<String, ThreadLog> threads = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    private SegmentFileCheckpointSaver(Builder builder) {
+        this.directory = Objects.requireNonNull(builder.directory, "directory cannot be null");
+        this.stateSerializer = Objects.requireNonNull(builder.stateSerializer, "stateSerializer cannot be null");
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.ttl = builder.ttl;
+        this.compactionThreshold = builder.compactionThreshold;
+        try {
+            Files.createDirectories(directory);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to create checkpoint directory " + directory, e);
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long maintenance = builder.maintenanceInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintain, maintenance, maintenance, TimeUnit.MILLISECONDS);
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            long fsync = builder.fsyncInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::syncAll, fsync, fsync, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        ThreadLog log = existing(threadId(config));
+        if (log == null) {
+            return List.of();
+        }
+        synchronized (log) {
+            return log.readAll();
+        }
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        ThreadLog log = existing(threadId(config));
+        if (log == null) {
+            return Optional.empty();
+        }
+        synchronized (log) {
+            String id = config.checkPointId().orElse(log.latestId);
+            Long offset = id == null ? null : log.offsets.get(id);
+            return offset == null ? Optional.empty() : Optional.of(log.read(offset));
+        }
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        String threadId = threadId(config);
+        while (true) {
+            ThreadLog log = threads.computeIfAbsent(threadId, this::load);
+            synchronized (log) {
+                if (log.closed) {
+                    continue;
+                }
+                String replacedId = config.checkPointId().orElse(null);
+                if (replacedId != null && !log.offsets.containsKey(replacedId)) {
+                    throw new NoSuchElementException(String.format("Checkpoint with id %s not found!", replacedId));
+                }
+                log.append(checkpoint, replacedId);
+                return RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
+            }
+        }
+    }
+
+    @Override
+    public Tag release(RunnableConfig config) throws Exception {
+        String threadId = threadId(config);
+        ThreadLog log = existing(threadId);
+        if (log == null) {
+            return new Tag(threadId, List.of());
+        }
+        List<Checkpoint> checkpoints;
+        synchronized (log) {
+            checkpoints = log.closed ? List.of() : log.readAll();
+            log.delete();
+        }
+        // never touch the map while holding a log monitor
+        threads.remove(threadId, log);
+        return new Tag(threadId, checkpoints);
+    }
+
+    /**
+     * Stops the maintenance task and syncs every log written since the last sync. A pass that is
+     * already running is left to finish: interrupting it would close the channel it is forcing.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Checkpoint maintenance did not finish within 30s");
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            syncAll();
+        }
+    }
+
+    private static String threadId(RunnableConfig config) {
+        return config.threadId().orElse(THREAD_ID_DEFAULT);
+    }
+
+    private Path path(String threadId) {
+        String name = Base64.getUrlEncoder().withoutPadding().encodeToString(threadId.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(name + EXTENSION);
+    }
+
+    private ThreadLog existing(String threadId) {
+        ThreadLog log = threads.get(threadId);
+        if (log != null || !Files.exists(path(threadId))) {
+            return log;
+        }
+        return threads.computeIfAbsent(threadId, this::load);
+    }
+
+    private ThreadLog load(String threadId) {
+        ThreadLog log = new ThreadLog(threadId, path(threadId));
+        try {
+            log.recover();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to load checkpoint log " + log.path, e);
+        }
+        return log;
+    }
+
+    /**
+     * Compacts or evicts the loaded logs, then evicts expired logs that were never loaded.
+     * <p>
+     * A log is only locked through its own monitor, and the map is updated after leaving it,
+     * the same order release follows, so maintenance cannot deadlock with callers.
+     */
+    void maintain() {
+        long expiredBefore = System.currentTimeMillis() - ttl.toMillis();
+        for (ThreadLog log : threads.values()) {
+            maintain(log, expiredBefore);
+            if (log.closed) {
+                threads.remove(log.threadId, log);
+            }
+        }
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path path : logs) {
+                String name = path.getFileName().toString();
+                String threadId = new String(Base64.getUrlDecoder()
+                        .decode(name.substring(0, name.length() - EXTENSION.length())), StandardCharsets.UTF_8);
+                // holding the entry keeps a concurrent load from reading the file while it is deleted
+                threads.compute(threadId, (key, log) -> log != null ? log : evictUnloaded(path, expiredBefore));
+            }
+        }
+        catch (Exception e) {
+            logger.warn("Checkpoint maintenance failed", e);
+        }
+    }
+
+    private void maintain(ThreadLog log, long expiredBefore) {
+        synchronized (log) {
+            if (log.closed) {
+                return;
+            }
+            try {
+                if (log.lastAccess < expiredBefore) {
+                    log.delete();
+                    logger.debug("Evicted abandoned checkpoint thread {}", log.threadId);
+                }
+                else if (log.stale >= compactionThreshold && log.stale > log.offsets.size()) {
+                    log.compact();
+                }
+            }
+            catch (IOException e) {
+                logger.warn("Failed to maintain checkpoint log {}", log.path, e);
+            }
+        }
+    }
+
+    /**
+     * runs inside threads.compute for a thread nobody has loaded, so it takes no monitor
+     */
+    private ThreadLog evictUnloaded(Path path, long expiredBefore) {
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() < expiredBefore) {
+                Files.deleteIfExists(path);
+                logger.debug("Evicted abandoned checkpoint log {}", path);
+            }
+        }
+        catch (NoSuchFileException e) {
+            // released after the directory was listed
+        }
+        catch (IOException e) {
+            logger.warn("Failed to evict checkpoint log {}", path, e);
+        }
+        return null;
+    }
+
+    private void syncAll() {
+        for (ThreadLog log : threads.values()) {
+            synchronized (log) {
+                if (!log.dirty || log.closed) {
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(log.path, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                    log.dirty = false;
+                }
+                catch (IOException e) {
+                    logger.warn("Failed to sync checkpoint log {}", log.path, e);
+                }
+            }
+        }
+    }
+
+    private byte[] encode(Checkpoint checkpoint, String replacedId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(new byte[HEADER_SIZE]);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(checkpoint.getId());
+            writeNullableUTF(replacedId, out);
+            out.writeUTF(checkpoint.getNodeId());
+            writeNullableUTF(checkpoint.getNextNodeId(), out);
+            byte[] state = stateSerializer.dataToBytes(checkpoint.getState());
+            out.writeInt(state.length);
+            out.write(state);
+        }
+        byte[] record = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(record, HEADER_SIZE, record.length - HEADER_SIZE);
+        ByteBuffer.wrap(record).putInt(record.length - HEADER_SIZE).putInt((int) crc.getValue());
+        return record;
+    }
+
+    private static void writeNullableUTF(String value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private Checkpoint decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            String id = in.readUTF();
+            readNullableUTF(in);
+            String nodeId = in.readUTF();
+            String nextNodeId = readNullableUTF(in);
+            byte[] state = new byte[in.readInt()];
+            in.readFully(state);
+            return Checkpoint.builder()
+                    .id(id)
+                    .nodeId(nodeId)
+                    .nextNodeId(nextNodeId)
+                    .state(stateSerializer.dataFromBytes(state))
+                    .build();
+        }
+        catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to decode checkpoint", e);
+        }
+    }
+
+    /**
+     * Reads the record body at {@code offset}, or returns null when the record is torn or corrupt.
+     */
+    private static byte[] readBody(FileChannel channel, long offset) throws IOException {
+        long size = channel.size();
+        if (offset + HEADER_SIZE > size) {
+            return null;
+        }
+        ByteBuffer header = readFully(channel, ByteBuffer.allocate(HEADER_SIZE), offset);
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length <= 0 || offset + HEADER_SIZE + length > size) {
+            return null;
+        }
+        ByteBuffer body = readFully(channel, ByteBuffer.allocate(length), offset + HEADER_SIZE);
+        return checksum(body.array()) == checksum ? body.array() : null;
+    }
+
+    /**
+     * Positional reads may return fewer bytes than requested, so keep reading until the buffer is
+     * full. The caller has already checked that the file holds enough bytes.
+     */
+    private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of checkpoint log at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private final class ThreadLog {
+
+        private final String threadId;
+
+        private final Path path;
+
+        /**
+         * checkpoint id to the offset of its latest record, in insertion order
+         */
+        private final LinkedHashMap<String, Long> offsets = new LinkedHashMap<>();
+
+        private String latestId;
+
+        private int stale;
+
+        private long lastAccess = System.currentTimeMillis();
+
+        private boolean dirty;
+
+        private boolean closed;
+
+        ThreadLog(String threadId, Path path) {
+            this.threadId = threadId;
+            this.path = path;
+        }
+
+        void recover() throws IOException {
+            if (!Files.exists(path)) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long offset = 0;
+                byte[] body;
+                while ((body = readBody(channel, offset)) != null) {
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+                    String id = in.readUTF();
+                    index(id, readNullableUTF(in), offset);
+                    offset += HEADER_SIZE + body.length;
+                }
+                if (offset < channel.size()) {
+                    logger.warn("Truncating torn checkpoint record in {} at offset {}", path, offset);
+                    channel.truncate(offset);
+                }
+            }
+        }
+
+        void append(Checkpoint checkpoint, String replacedId) throws IOException {
+            byte[] record = encode(checkpoint, replacedId);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                long offset = channel.size();
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    channel.force(false);
+                }
+                else {
+                    dirty = true;
+                }
+                index(checkpoint.getId(), replacedId, offset);
+            }
+            lastAccess = System.currentTimeMillis();
+        }
+
+        Checkpoint read(long offset) {
+            lastAccess = System.currentTimeMillis();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                byte[] body = readBody(channel, offset);
+                if (body == null) {
+                    throw new IllegalStateException("Corrupt checkpoint record in " + path + " at offset " + offset);
+                }
+                return decode(body);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * newest first, as MemorySaver returns them
+         */
+        List<Checkpoint> readAll() {
+            List<Checkpoint> checkpoints = new ArrayList<>(offsets.size());
+            for (Long offset : offsets.values()) {
+                checkpoints.add(read(offset));
+            }
+            Collections.reverse(checkpoints);
+            return checkpoints;
+        }
+
+        /**
+         * Rewrites the log with only the latest record of every checkpoint.
+         */
+        void compact() throws IOException {
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            LinkedHashMap<String, Long> moved = new LinkedHashMap<>();
+            try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+                    byte[] body = readBody(source, entry.getValue());
+                    if (body == null) {
+                        throw new IOException("Corrupt checkpoint record in " + path + " at offset " + entry.getValue());
+                    }
+                    moved.put(entry.getKey(), target.position());
+                    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + body.length);
+                    buffer.putInt(body.length).putInt(checksum(body)).put(body).flip();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                }
+                if (fsyncPolicy != FsyncPolicy.NEVER) {
+                    target.force(false);
+                }
+            }
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            offsets.putAll(moved);
+            stale = 0;
+            dirty = false;
+            logger.debug("Compacted checkpoint log {} to {} records", path, moved.size());
+        }
+
+        void delete() throws IOException {
+            closed = true;
+            offsets.clear();
+            Files.deleteIfExists(path);
+        }
+
+        /**
+         * A replacing record takes the position of the checkpoint it replaces, like MemorySaver.
+         */
+        private void index(String id, String replacedId, long offset) {
+            if (replacedId == null || !offsets.containsKey(replacedId)) {
+                // a new checkpoint, or a compacted record whose predecessor is gone
+                offsets.put(id, offset);
+                latestId = id;
+                return;
+            }
+            if (!replacedId.equals(id)) {
+                LinkedHashMap<String, Long> renamed = new LinkedHashMap<>();
+                offsets.forEach((key, value) -> renamed.put(key.equals(replacedId) ? id : key, value));
+                offsets.clear();
+                offsets.putAll(renamed);
+                if (replacedId.equals(latestId)) {
+                    latestId = id;
+                }
+            }
+            offsets.put(id, offset);
+            stale++;
+        }
+    }
+
+    public static class Builder {
+
+        private Path directory;
+
+        private StateSerializer stateSerializer;
+
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+
+        private Duration fsyncInterval = Duration.ofSeconds(1);
+
+        private Duration ttl = Duration.ofDays(7);
+
+        private int compactionThreshold = 16;
+
+        private Duration maintenanceInterval = Duration.ofMinutes(1);
+
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder stateSerializer(StateSerializer stateSerializer) {
+            this.stateSerializer = stateSerializer;
+            return this;
+        }
+
+        public Builder fsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        public Builder fsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = fsyncInterval;
+            return this;
+        }
+
+        public Builder ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * minimum number of superseded records before a log is rewritten
+         */
+        public Builder compactionThreshold(int compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        public Builder maintenanceInterval(Duration maintenanceInterval) {
+            this.maintenanceInterval = maintenanceInterval;
+            return this;
+        }
+
+        public SegmentFileCheckpointSaver build() {
+            return new SegmentFileCheckpointSaver(this);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.alibaba.cloud.ai.saver;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+class SegmentFileCheckpointSaverTest {
+
+    private static final int WORKERS = 8;
+
+    private static final int ROUNDS = 200;
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("segment-checkpoints");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void replacedCheckpointKeepsItsPositionAfterCompaction() throws Exception {
+        try (SegmentFileCheckpointSaver saver = saver(Duration.ofDays(7))) {
+            RunnableConfig config = RunnableConfig.builder().threadId("order-1").build();
+            RunnableConfig first = saver.put(config, checkpoint("a", 1));
+            saver.put(config, checkpoint("b", 2));
+            saver.put(first, checkpoint("a", 3));
+
+            saver.maintain();
+
+            List<Checkpoint> checkpoints = new ArrayList<>(saver.list(config));
+            assertThat(checkpoints).extracting(Checkpoint::getId).containsExactly("b", "a");
+            assertThat(checkpoints.get(1).getState()).containsEntry("step", 3);
+            assertThat(saver.get(config)).map(Checkpoint::getId).contains("b");
+
+            assertThat(saver.release(config).checkpoints()).hasSize(2);
+            assertThat(saver.list(config)).isEmpty();
+            assertThat(logs()).isEmpty();
+        }
+    }
+
+    @Test
+    void reopenedSaverRecoversCheckpointsAndDropsTornTail() throws Exception {
+        RunnableConfig config = RunnableConfig.builder().threadId("order-2").build();
+        try (SegmentFileCheckpointSaver saver = saver(Duration.ofDays(7))) {
+            saver.put(config, checkpoint("a", 1));
+            saver.put(config, checkpoint("b", 2));
+        }
+        Path log = logs().get(0);
+        long size = Files.size(log);
+        // a record whose header claims more bytes than were written, as after a crash mid-append
+        Files.write(log, new byte[] { 0, 0, 1, 0, 0, 0, 0, 0, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        try (SegmentFileCheckpointSaver saver = saver(Duration.ofDays(7))) {
+            List<Checkpoint> checkpoints = new ArrayList<>(saver.list(config));
+            assertThat(checkpoints).extracting(Checkpoint::getId).containsExactly("b", "a");
+            assertThat(checkpoints.get(1).getState()).containsEntry("step", 1);
+            assertThat(Files.size(log)).isEqualTo(size);
+
+            saver.put(config, checkpoint("c", 3));
+            assertThat(saver.get(config)).map(Checkpoint::getId).contains("c");
+        }
+    }
+
+    @Test
+    void maintenanceRacingReleaseDoesNotDeadlock() throws Exception {
+        // every log compacts on each pass
+        race(Duration.ofDays(7), true);
+    }
+
+    @Test
+    void evictionRacingReleaseDoesNotDeadlock() throws Exception {
+        // every log is expired on each pass
+        race(Duration.ZERO, false);
+    }
+
+    private void race(Duration ttl, boolean replace) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WORKERS + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (SegmentFileCheckpointSaver saver = saver(ttl)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < WORKERS; worker++) {
+                String threadId = "thread-" + worker;
+                workers.add(executor.submit(() -> {
+                    RunnableConfig config = RunnableConfig.builder().threadId(threadId).build();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        RunnableConfig first = saver.put(config, checkpoint(UUID.randomUUID().toString(), round));
+                        saver.put(replace ? first : config, checkpoint(UUID.randomUUID().toString(), round));
+                        saver.release(config);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> maintenance = executor.submit(() -> {
+                while (running.get()) {
+                    saver.maintain();
+                }
+            });
+
+            for (Future<?> worker : workers) {
+                awaitOrDump(worker);
+            }
+            running.set(false);
+            awaitOrDump(maintenance);
+
+            saver.maintain();
+            assertThat(logs()).isEmpty();
+        }
+        finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitOrDump(Future<?> future) throws Exception {
+        try {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        catch (TimeoutException e) {
+            long[] deadlocked = ManagementFactory.getThreadMXBean().findDeadlockedThreads();
+            fail("Timed out, deadlocked threads: " + Arrays.toString(deadlocked));
+        }
+    }
+
+    private SegmentFileCheckpointSaver saver(Duration ttl) {
+        return SegmentFileCheckpointSaver.builder()
+            .directory(directory)
+            .stateSerializer(new SpringAIJacksonStateSerializer(OverAllState::new))
+            .fsyncPolicy(SegmentFileCheckpointSaver.FsyncPolicy.NEVER)
+            .ttl(ttl)
+            .compactionThreshold(1)
+            .maintenanceInterval(Duration.ofHours(1))
+            .build();
+    }
+
+    private List<Path> logs() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.toString().endsWith(SegmentFileCheckpointSaver.EXTENSION)).toList();
+        }
+    }
+
+    private static Checkpoint checkpoint(String id, int step) {
+        return Checkpoint.builder()
+            .id(id)
+            .nodeId("approval")
+            .nextNodeId("final")
+            .state(Map.of("step", step))
+            .build();
+    }
+}
@@ -19,13 +19,13 @@ import com.alibaba.cloud.ai.graph.GraphRepresentation;
 import com.alibaba.cloud.ai.graph.KeyStrategy;
 import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
 import com.alibaba.cloud.ai.graph.KeyStrategyFactoryBuilder;
-import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
-import com.alibaba.cloud.ai.graph.model.NodeStatus;
 import com.alibaba.cloud.ai.graph.node.ExpanderNode;
+import com.alibaba.cloud.ai.graph.node.MergeResultsNode;
 import com.alibaba.cloud.ai.graph.node.TranslateNode;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,9 +33,6 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
 
 /**
@@ -48,7 +45,25 @@ public class GraphConfiguration {
     private static final Logger logger = LoggerFactory.getLogger(GraphConfiguration.class);
 
     @Bean
-    public StateGraph parallelStreamGraph(ChatClient.Builder chatClientBuilder) throws GraphStateException {
+    public StateGraph parallelStreamGraph(ChatClient.Builder chatClientBuilder, ParallelBranchScheduler scheduler) throws GraphStateException {
+        StateGraph stateGraph = buildGraph(new ExpanderNode(chatClientBuilder, scheduler),
+                new TranslateNode(chatClientBuilder, scheduler), scheduler);
+
+        // 添加 PlantUML 打印
+        GraphRepresentation representation = stateGraph.getGraph(GraphRepresentation.Type.PLANTUML,
+                "expander flow");
+        logger.info("\n=== expander UML Flow ===");
+        logger.info(representation.content());
+        logger.info("==================================\n");
+
+        return stateGraph;
+    }
+
+    /**
+     * 两个分支并行后在 merge 汇合，分支节点可以替换成不调用模型的实现
+     */
+    public static StateGraph buildGraph(NodeAction expanderNode, NodeAction translateNode,
+                                        ParallelBranchScheduler scheduler) throws GraphStateException {
         KeyStrategyFactory keyStrategyFactory = new KeyStrategyFactoryBuilder()
                 .addPatternStrategy("query", new ReplaceStrategy())
                 .addPatternStrategy("expander_number", new ReplaceStrategy())
@@ -56,14 +71,13 @@ public class GraphConfiguration {
                 .addPatternStrategy("translate_language", new ReplaceStrategy())
                 .addPatternStrategy("translate_content", new ReplaceStrategy())
                 .addPatternStrategy("merge_result", new ReplaceStrategy())
+                .addPatternStrategy("fork_id", new ReplaceStrategy())
                 .build();
 
-        Map<String, NodeStatus> node2Status = new HashMap<>();
-
-        StateGraph stateGraph = new StateGraph(keyStrategyFactory)
-                .addNode(ExpanderNode.NODE_NAME, node_async(new ExpanderNode(chatClientBuilder, node2Status)))
-                .addNode(TranslateNode.NODE_NAME, node_async(new TranslateNode(chatClientBuilder, node2Status)))
-                .addNode(MergeResultsNode.NODE_NAME, node_async(new MergeResultsNode(node2Status)))
+        return new StateGraph(keyStrategyFactory)
+                .addNode(ExpanderNode.NODE_NAME, node_async(expanderNode))
+                .addNode(TranslateNode.NODE_NAME, node_async(translateNode))
+                .addNode(MergeResultsNode.NODE_NAME, node_async(new MergeResultsNode(scheduler)))
 
                 .addEdge(StateGraph.START, TranslateNode.NODE_NAME)
                 .addEdge(StateGraph.START, ExpanderNode.NODE_NAME)
@@ -72,43 +86,5 @@ public class GraphConfiguration {
                 .addEdge(ExpanderNode.NODE_NAME, MergeResultsNode.NODE_NAME)
 
                 .addEdge(MergeResultsNode.NODE_NAME, StateGraph.END);
-
-        // 添加 PlantUML 打印
-        GraphRepresentation representation = stateGraph.getGraph(GraphRepresentation.Type.PLANTUML,
-                "expander flow");
-        logger.info("\n=== expander UML Flow ===");
-        logger.info(representation.content());
-        logger.info("==================================\n");
-
-        return stateGraph;
-    }
-
-    private class MergeResultsNode implements NodeAction {
-
-        public static final String NODE_NAME = "merge";
-
-        private final Map<String, NodeStatus> node2Status;
-
-        public MergeResultsNode(Map<String, NodeStatus> node2Status) {
-            this.node2Status = node2Status;
-        }
-
-        @Override
-        public Map<String, Object> apply(OverAllState state) {
-            if (!isDone(node2Status)) {
-                return Map.of();
-            }
-
-            Object expanderContent = state.value("expander_content").orElse("unknown");
-            String translateContent = (String) state.value("translate_content").orElse("");
-
-            return Map.of("merge_result", Map.of("expander_content", expanderContent,
-                    "translate_content", translateContent));
-        }
-
-        private boolean isDone(Map<String, NodeStatus> node2Status) {
-            return node2Status.get(ExpanderNode.NODE_NAME) == NodeStatus.COMPLETED
-                    && node2Status.get(TranslateNode.NODE_NAME) == NodeStatus.COMPLETED;
-        }
     }
 }
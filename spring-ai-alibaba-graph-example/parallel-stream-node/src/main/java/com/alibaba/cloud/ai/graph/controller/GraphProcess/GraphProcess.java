@@ -17,13 +17,16 @@ package com.alibaba.cloud.ai.graph.controller.GraphProcess;
 
 import com.alibaba.cloud.ai.graph.CompiledGraph;
 import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler.BranchChunk;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
+
+import java.util.Set;
 
 /**
  * @author yingzi
@@ -34,37 +37,58 @@ public class GraphProcess {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphProcess.class);
 
+    private static final String PARALLEL_NODE_PREFIX = "__PARALLEL__";
+
     private CompiledGraph compiledGraph;
 
     public GraphProcess(CompiledGraph compiledGraph) {
         this.compiledGraph = compiledGraph;
     }
 
-    public void processStream(Flux<NodeOutput> nodeOutputFlux, Sinks.Many<ServerSentEvent<ChatMessage>> sink) {
-        nodeOutputFlux
-                .doOnNext(output -> {
-                    logger.info("output = {}", output);
+    /**
+     * 并行分支的 chunk 直接从 branchChunks 交织输出，不等图汇合；图里同一分支的 StreamingOutput 不再重复发送。
+     * 返回的流由 SSE 订阅，客户端读得慢时会一路反压到分支模型
+     */
+    public Flux<ServerSentEvent<ChatMessage>> processStream(Flux<NodeOutput> nodeOutputFlux, Flux<BranchChunk> branchChunks,
+                                                            Set<String> branchNodes) {
+        Flux<ChatMessage> nodeMessages = nodeOutputFlux
+                .doOnNext(output -> logger.info("output = {}", output))
+                .handle((output, sink) -> {
                     String nodeName = output.node();
-                    ChatMessage chatMessage = null;
                     if (output instanceof StreamingOutput<?> streamingOutput) {
                         String chunk = streamingOutput.chunk();
-                        if (chunk != null && !chunk.isEmpty()) {
-                            chatMessage = new ChatMessage(nodeName, chunk);
+                        if (!isBranch(nodeName, branchNodes) && chunk != null && !chunk.isEmpty()) {
+                            sink.next(new ChatMessage(nodeName, chunk));
                         }
                     } else {
-                        chatMessage = new ChatMessage(nodeName, output.state().data());
+                        sink.next(new ChatMessage(nodeName, output.state().data()));
                     }
-                    sink.tryEmitNext(ServerSentEvent.builder(chatMessage).build());
-                })
-                .doOnComplete(() -> {
-                    // 正常完成
-                    sink.tryEmitComplete();
-                })
-                .doOnError(e -> {
-                    logger.error("Error occurred during streaming", e);
-                    sink.tryEmitError(e);
-                })
-                .subscribe();
+                });
+
+        Flux<ChatMessage> branchMessages = branchChunks
+                .handle((branchChunk, sink) -> {
+                    String text = text(branchChunk.chunk());
+                    if (text != null && !text.isEmpty()) {
+                        sink.next(new ChatMessage(branchChunk.branch(), text));
+                    }
+                });
+
+        return Flux.merge(nodeMessages, branchMessages)
+                .map(chatMessage -> ServerSentEvent.builder(chatMessage).build());
+    }
+
+    /**
+     * 并行分支在图里输出的 StreamingOutput 用的是并行节点的 id（__PARALLEL__(…)），不是分支名
+     */
+    private static boolean isBranch(String nodeName, Set<String> branchNodes) {
+        return branchNodes.contains(nodeName) || nodeName.startsWith(PARALLEL_NODE_PREFIX);
+    }
+
+    private static String text(Object chunk) {
+        if (chunk instanceof ChatResponse chatResponse && chatResponse.getResult() != null) {
+            return chatResponse.getResult().getOutput().getText();
+        }
+        return chunk == null ? null : chunk.toString();
     }
 
     public record ChatMessage(@JsonProperty("node_name") String nodeName, @JsonProperty("type") Object data) {
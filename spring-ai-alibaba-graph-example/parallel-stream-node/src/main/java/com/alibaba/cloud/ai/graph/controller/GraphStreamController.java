@@ -22,6 +22,9 @@ import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.controller.GraphProcess.GraphProcess;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
+import com.alibaba.cloud.ai.graph.node.ExpanderNode;
+import com.alibaba.cloud.ai.graph.node.TranslateNode;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -32,10 +35,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * @author yingzi
@@ -49,8 +53,11 @@ public class GraphStreamController {
 
     private final CompiledGraph compiledGraph;
 
-    public GraphStreamController(@Qualifier("parallelStreamGraph")StateGraph stateGraph) throws GraphStateException {
+    private final ParallelBranchScheduler scheduler;
+
+    public GraphStreamController(@Qualifier("parallelStreamGraph")StateGraph stateGraph, ParallelBranchScheduler scheduler) throws GraphStateException {
         this.compiledGraph = stateGraph.compile();
+        this.scheduler = scheduler;
     }
 
     @GetMapping(value = "/expand-translate", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -58,18 +65,25 @@ public class GraphStreamController {
                                                 @RequestParam(value = "expander_number", defaultValue = "3", required = false) Integer  expanderNumber,
                                                 @RequestParam(value = "translate_language", defaultValue = "english", required = false) String translateLanguage,
                                                 @RequestParam(value = "thread_id", defaultValue = "yingzi", required = false) String threadId) throws GraphRunnerException {
-        RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
+        RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId)
+                .defaultParallelExecutor(scheduler.executor())
+                .build();
+        // 每次执行单独一个 fork，并发请求之间互不影响
+        String forkId = UUID.randomUUID().toString();
+        Set<String> branches = Set.of(ExpanderNode.NODE_NAME, TranslateNode.NODE_NAME);
         Map<String, Object> objectMap = new HashMap<>();
+        objectMap.put("fork_id", forkId);
         objectMap.put("query", query);
         objectMap.put("expander_number", expanderNumber);
         objectMap.put("translate_language", translateLanguage);
 
         GraphProcess graphProcess = new GraphProcess(this.compiledGraph);
-        Sinks.Many<ServerSentEvent<GraphProcess.ChatMessage>> sink = Sinks.many().unicast().onBackpressureBuffer();
-        Flux<NodeOutput> nodeOutputFlux = compiledGraph.stream(objectMap, runnableConfig);
-        graphProcess.processStream(nodeOutputFlux, sink);
-
-        return sink.asFlux()
+        // 订阅时才登记 fork，没有订阅者时不会泄漏；SSE 结束或断开时释放
+        return scheduler.forked(forkId, branches, fork -> graphProcess.processStream(
+                        // 图执行结束或客户端断开即释放：未启动的分支流不再等待，运行中的分支取消模型流
+                        compiledGraph.stream(objectMap, runnableConfig)
+                                .doFinally(signal -> scheduler.release(forkId)),
+                        scheduler.stream(forkId), branches))
                 .doOnCancel(() -> logger.info("Client disconnected from stream"))
                 .doOnError(e -> logger.error("Error occurred during streaming", e));
     }
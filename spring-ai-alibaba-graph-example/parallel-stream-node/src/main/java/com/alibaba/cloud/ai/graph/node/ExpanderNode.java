@@ -17,7 +17,7 @@ package com.alibaba.cloud.ai.graph.node;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
-import com.alibaba.cloud.ai.graph.model.NodeStatus;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.PromptTemplate;
@@ -38,24 +38,23 @@ public class ExpanderNode implements NodeAction {
 
     private final Integer NUMBER = 3;
 
-    private final Map<String, NodeStatus> node2Status;
+    private final ParallelBranchScheduler scheduler;
 
     public static final String NODE_NAME = "expander";
 
-    public ExpanderNode(ChatClient.Builder chatClientBuilder, Map<String, NodeStatus> node2Status) {
+    public ExpanderNode(ChatClient.Builder chatClientBuilder, ParallelBranchScheduler scheduler) {
         this.chatClient = chatClientBuilder.build();
-        this.node2Status = node2Status;
+        this.scheduler = scheduler;
     }
 
     @Override
     public Map<String, Object> apply(OverAllState state) {
-        node2Status.put(NODE_NAME, NodeStatus.RUNNING);
-
         String query = state.value("query", "");
         Integer expanderNumber = state.value("expander_number", this.NUMBER);
 
         Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt().user((user) -> user.text(DEFAULT_PROMPT_TEMPLATE.getTemplate()).param("number", expanderNumber).param("query", query)).stream().chatResponse();
 
-        return Map.of("expander_content", chatResponseFlux);
+        String forkId = state.value("fork_id", "");
+        return Map.of("expander_content", scheduler.branch(forkId, NODE_NAME, chatResponseFlux));
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.GraphResponse;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AbstractMessage;
+
+import java.util.Map;
+import java.util.Optional;
+
+public class MergeResultsNode implements NodeAction {
+
+    private static final Logger logger = LoggerFactory.getLogger(MergeResultsNode.class);
+
+    public static final String NODE_NAME = "merge";
+
+    private final ParallelBranchScheduler scheduler;
+
+    public MergeResultsNode(ParallelBranchScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Map<String, Object> apply(OverAllState state) {
+        // 汇合计数归零且没有分支失败时才合并，同一次执行只合并一次
+        String forkId = state.value("fork_id", "");
+        if (!scheduler.tryMerge(forkId)) {
+            logger.warn("Fork {} is not ready to merge, skipping", forkId);
+            return Map.of();
+        }
+
+        Object expanderContent = text(state, "expander_content").orElse("unknown");
+        String translateContent = text(state, "translate_content").orElse("");
+
+        return Map.of("merge_result", Map.of("expander_content", expanderContent,
+                "translate_content", translateContent));
+    }
+
+    /**
+     * 并行分支的流结束后，状态里放的是 GraphResponse，结果值按 key 保存拼接好的 AssistantMessage
+     */
+    private static Optional<String> text(OverAllState state, String key) {
+        return state.value(key)
+                .map(value -> value instanceof GraphResponse<?> response
+                        ? response.resultValue().map(result -> result instanceof Map<?, ?> map ? map.get(key) : result)
+                                .orElse(null)
+                        : value)
+                .map(value -> value instanceof AbstractMessage message ? message.getText() : value.toString());
+    }
+}
@@ -17,7 +17,7 @@ package com.alibaba.cloud.ai.graph.node;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
-import com.alibaba.cloud.ai.graph.model.NodeStatus;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.PromptTemplate;
@@ -38,25 +38,24 @@ public class TranslateNode implements NodeAction {
 
     private final String  TARGET_LANGUAGE= "English";
 
-    private final Map<String, NodeStatus> node2Status;
+    private final ParallelBranchScheduler scheduler;
 
     public static final String NODE_NAME = "translate";
 
 
-    public TranslateNode(ChatClient.Builder chatClientBuilder, Map<String, NodeStatus> node2Status) {
+    public TranslateNode(ChatClient.Builder chatClientBuilder, ParallelBranchScheduler scheduler) {
         this.chatClient = chatClientBuilder.build();
-        this.node2Status = node2Status;
+        this.scheduler = scheduler;
     }
 
     @Override
     public Map<String, Object> apply(OverAllState state) {
-        node2Status.put(NODE_NAME, NodeStatus.RUNNING);
-
         String query = state.value("query", "");
         String targetLanguage = state.value("translate_language", TARGET_LANGUAGE);
 
         Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt().user((user) -> user.text(DEFAULT_PROMPT_TEMPLATE.getTemplate()).param("targetLanguage", targetLanguage).param("query", query)).stream().chatResponse();
 
-        return Map.of("translate_content", chatResponseFlux);
+        String forkId = state.value("fork_id", "");
+        return Map.of("translate_content", scheduler.branch(forkId, NODE_NAME, chatResponseFlux));
     }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.parallel;
+
+import com.alibaba.cloud.ai.graph.model.NodeStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 并行分支调度：每个图执行一个有界线程池，每次执行（fork）一个无锁的汇合计数器。
+ * 分支的流同时交给图和 SSE，两边按较慢的一方拉取，缓冲区大小有上限
+ */
+@Component
+public class ParallelBranchScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelBranchScheduler.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration branchTimeout;
+
+    private final int streamBufferSize;
+
+    private final Map<String, Fork> forks = new ConcurrentHashMap<>();
+
+    public ParallelBranchScheduler(@Value("${parallel.executor.core-size:8}") int coreSize,
+                                   @Value("${parallel.executor.max-size:32}") int maxSize,
+                                   @Value("${parallel.executor.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${parallel.branch-timeout:60s}") Duration branchTimeout,
+                                   @Value("${parallel.stream-buffer-size:64}") int streamBufferSize) {
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(coreSize, maxSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "parallel-branch-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.branchTimeout = branchTimeout;
+        this.streamBufferSize = streamBufferSize;
+    }
+
+    /**
+     * 传给 RunnableConfig.defaultParallelExecutor，队列满时拒绝而不是无限堆积
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * 为一次图执行登记需要汇合的分支
+     */
+    public Fork fork(String forkId, Set<String> branches) {
+        Fork fork = new Fork(forkId, branches);
+        if (forks.putIfAbsent(forkId, fork) != null) {
+            throw new IllegalStateException("Fork " + forkId + " already exists");
+        }
+        return fork;
+    }
+
+    /**
+     * 订阅时登记 fork 再执行 body，结束、出错或取消时释放；没有订阅者时不会登记
+     */
+    public <T> Flux<T> forked(String forkId, Set<String> branches, Function<Fork, Flux<T>> body) {
+        return Flux.using(() -> fork(forkId, branches), body, fork -> release(forkId));
+    }
+
+    /**
+     * 为分支流加上超时，失败时取消兄弟分支；没有登记的 fork 原样返回
+     */
+    public <T> Flux<T> branch(String forkId, String branch, Flux<T> flux) {
+        Fork fork = forks.get(forkId);
+        if (fork == null) {
+            logger.warn("No fork {} registered, branch {} runs without join tracking", forkId, branch);
+            return flux;
+        }
+        Flux<T> tracked = flux.timeout(branchTimeout)
+                .takeUntilOther(fork.cancelled.asMono())
+                .doOnComplete(() -> fork.arrive(branch))
+                .doOnError(e -> fork.fail(branch, e))
+                .doOnCancel(() -> fork.fail(branch, null));
+
+        Sinks.One<Flux<?>> stream = fork.streams.get(branch);
+        if (stream == null || fork.streamClosed.get()) {
+            return tracked;
+        }
+        // 图和 SSE 各订阅一次后才开始拉取，上游按较慢的订阅者请求，最多预取 streamBufferSize 个
+        Flux<T> shared = tracked.publish(streamBufferSize).autoConnect(2);
+        stream.tryEmitValue(shared);
+        return shared;
+    }
+
+    /**
+     * 把一次执行中各分支的 chunk 按产生顺序交织成一个流，每个 chunk 带上分支名
+     */
+    public Flux<BranchChunk> stream(String forkId) {
+        Fork fork = forks.get(forkId);
+        if (fork == null) {
+            return Flux.empty();
+        }
+        List<Flux<BranchChunk>> branches = fork.streams.entrySet().stream()
+                .map(entry -> entry.getValue().asMono()
+                        .flatMapMany(flux -> flux.map(chunk -> new BranchChunk(entry.getKey(), chunk))))
+                .toList();
+        return Flux.merge(Flux.fromIterable(branches), Math.max(1, branches.size()), streamBufferSize)
+                .doFinally(signal -> fork.closeStream());
+    }
+
+    /**
+     * 所有分支都完成时返回 true，同一个 fork 只会返回一次
+     */
+    public boolean tryMerge(String forkId) {
+        Fork fork = forks.get(forkId);
+        return fork != null && fork.tryMerge();
+    }
+
+    public void release(String forkId) {
+        Fork fork = forks.remove(forkId);
+        if (fork != null) {
+            fork.finish();
+        }
+    }
+
+    int activeForks() {
+        return forks.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record BranchChunk(String branch, Object chunk) {
+    }
+
+    public static final class Fork {
+
+        private final String id;
+
+        private final AtomicInteger remaining;
+
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private final AtomicBoolean merged = new AtomicBoolean();
+
+        private final Sinks.Empty<Void> cancelled = Sinks.empty();
+
+        private final Map<String, NodeStatus> status = new ConcurrentHashMap<>();
+
+        private final Map<String, Sinks.One<Flux<?>>> streams = new ConcurrentHashMap<>();
+
+        private final AtomicBoolean streamClosed = new AtomicBoolean();
+
+        private Fork(String id, Set<String> branches) {
+            this.id = id;
+            this.remaining = new AtomicInteger(branches.size());
+            branches.forEach(branch -> {
+                status.put(branch, NodeStatus.RUNNING);
+                streams.put(branch, Sinks.one());
+            });
+        }
+
+        public NodeStatus status(String branch) {
+            return status.get(branch);
+        }
+
+        private void arrive(String branch) {
+            // 被取消的分支同样以 complete 结束，不能计入汇合
+            if (failed.get() || !status.replace(branch, NodeStatus.RUNNING, NodeStatus.COMPLETED)) {
+                return;
+            }
+            remaining.decrementAndGet();
+        }
+
+        private void fail(String branch, Throwable e) {
+            if (status.replace(branch, NodeStatus.RUNNING, NodeStatus.FAILED) && failed.compareAndSet(false, true)) {
+                logger.warn("Branch {} of fork {} failed, cancelling sibling branches", branch, id, e);
+                cancelled.tryEmitEmpty();
+            }
+        }
+
+        /**
+         * 图执行结束或客户端断开：没有运行的分支不再等待，还在运行的分支取消模型流。
+         * 图不会把下游的取消传给节点返回的流，只能在这里取消
+         */
+        private void finish() {
+            cancelled.tryEmitEmpty();
+            streams.values().forEach(stream -> stream.tryEmitValue(Flux.empty()));
+        }
+
+        /**
+         * SSE 断开后，已共享的分支流补一个立即取消的订阅，图那一侧不会卡在 autoConnect 上
+         */
+        private void closeStream() {
+            streamClosed.set(true);
+            streams.values().forEach(stream -> stream.asMono()
+                    .subscribe(flux -> flux.subscribe(chunk -> {
+                    }, e -> {
+                    }).dispose()));
+        }
+
+        private boolean tryMerge() {
+            return remaining.get() == 0 && !failed.get() && merged.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.controller.GraphProcess;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.controller.GraphProcess.GraphProcess.ChatMessage;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler.BranchChunk;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphProcessTest {
+
+    private static final Set<String> BRANCHES = Set.of("expander", "translate");
+
+    private final GraphProcess graphProcess = new GraphProcess(null);
+
+    private final OverAllState state = new OverAllState(Map.of("query", "q"));
+
+    @Test
+    void branchChunksAreSentAsTheyArriveAndNotRepeatedFromTheGraph() {
+        Sinks.Many<NodeOutput> graph = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<BranchChunk> branches = Sinks.many().unicast().onBackpressureBuffer();
+        List<ChatMessage> received = new CopyOnWriteArrayList<>();
+        graphProcess.processStream(graph.asFlux(), branches.asFlux(), BRANCHES)
+                .map(ServerSentEvent::data)
+                .subscribe(received::add);
+
+        graph.tryEmitNext(NodeOutput.of(StateGraph.START, null, state, null));
+        branches.tryEmitNext(new BranchChunk("expander", chatResponse("e0")));
+        branches.tryEmitNext(new BranchChunk("translate", chatResponse("t0")));
+        // 图里同一分支的输出，包括以并行节点 id 命名的，都已经从分支流发过
+        graph.tryEmitNext(new StreamingOutput<>("e0", "expander", "graph", state));
+        graph.tryEmitNext(new StreamingOutput<>("t0", "__PARALLEL__(__START__)_parallel_0", "graph", state));
+        branches.tryEmitNext(new BranchChunk("expander", chatResponse("")));
+        branches.tryEmitNext(new BranchChunk("expander", "e1"));
+        graph.tryEmitNext(new StreamingOutput<>("m0", "merge", "graph", state));
+        branches.tryEmitNext(new BranchChunk("translate", chatResponse("t1")));
+        graph.tryEmitNext(NodeOutput.of(StateGraph.END, null, state, null));
+        graph.tryEmitComplete();
+        branches.tryEmitComplete();
+
+        assertThat(received).containsExactly(
+                new ChatMessage(StateGraph.START, Map.of("query", "q")),
+                new ChatMessage("expander", "e0"),
+                new ChatMessage("translate", "t0"),
+                new ChatMessage("expander", "e1"),
+                new ChatMessage("merge", "m0"),
+                new ChatMessage("translate", "t1"),
+                new ChatMessage(StateGraph.END, Map.of("query", "q")));
+    }
+
+    /**
+     * 客户端只请求 1 条时，分支上游最多多产生合并的预取量，不会把整个流读进内存
+     */
+    @Test
+    void slowClientBackpressuresTheBranches() {
+        AtomicInteger produced = new AtomicInteger();
+        Flux<BranchChunk> branches = Flux.range(0, 10_000)
+                .doOnNext(i -> produced.incrementAndGet())
+                .map(i -> new BranchChunk("expander", "chunk-" + i));
+        RequestingSubscriber client = new RequestingSubscriber();
+
+        graphProcess.processStream(Flux.never(), branches, BRANCHES).subscribe(client);
+        client.request(1);
+
+        assertThat(client.received).hasValue(1);
+        assertThat(produced.get()).isLessThanOrEqualTo(64);
+
+        client.request(Long.MAX_VALUE);
+        assertThat(client.received).hasValue(10_000);
+        assertThat(produced).hasValue(10_000);
+        client.dispose();
+    }
+
+    @Test
+    void clientDisconnectCancelsGraphAndBranches() {
+        AtomicBoolean graphCancelled = new AtomicBoolean();
+        AtomicBoolean branchesCancelled = new AtomicBoolean();
+        Sinks.Many<BranchChunk> branches = Sinks.many().unicast().onBackpressureBuffer();
+        List<ChatMessage> received = new CopyOnWriteArrayList<>();
+
+        Disposable client = graphProcess.processStream(
+                        Flux.<NodeOutput>never().doOnCancel(() -> graphCancelled.set(true)),
+                        branches.asFlux().doOnCancel(() -> branchesCancelled.set(true)), BRANCHES)
+                .map(ServerSentEvent::data)
+                .subscribe(received::add);
+        branches.tryEmitNext(new BranchChunk("expander", "e0"));
+        client.dispose();
+
+        assertThat(received).containsExactly(new ChatMessage("expander", "e0"));
+        assertThat(graphCancelled).isTrue();
+        assertThat(branchesCancelled).isTrue();
+        assertThat(branches.tryEmitNext(new BranchChunk("expander", "e1")).isFailure()).isTrue();
+    }
+
+    private static ChatResponse chatResponse(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static final class RequestingSubscriber extends BaseSubscriber<ServerSentEvent<ChatMessage>> {
+
+        private final AtomicInteger received = new AtomicInteger();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<ChatMessage> value) {
+            received.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.parallel;
+
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Graph executions per second through the parallel-stream graph: both branches are stub nodes
+ * streaming {@code chunks} chunks, joined by MergeResultsNode, and every execution is driven the way
+ * GraphStreamController does it, with up to {@code concurrency} executions in flight.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.graph.parallel.ParallelBranchSchedulerBenchmark}
+ * or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBranchSchedulerBenchmark {
+
+    private static final int EXECUTIONS = 1_000;
+
+    @Param({"1", "64", "1000"})
+    public int concurrency;
+
+    @Param({"3", "100"})
+    public int chunks;
+
+    private final AtomicLong nextFork = new AtomicLong();
+
+    private ParallelBranchScheduler scheduler;
+
+    private Scheduler branchScheduler;
+
+    private CompiledGraph graph;
+
+    @Setup
+    public void setUp() throws Exception {
+        scheduler = new ParallelBranchScheduler(8, 32, 2 * EXECUTIONS, Duration.ofSeconds(30), 64);
+        branchScheduler = Schedulers.fromExecutor(scheduler.executor());
+        graph = ParallelBranchSchedulerTest.compile(scheduler, chunks, branchScheduler);
+    }
+
+    @TearDown
+    public void tearDown() {
+        branchScheduler.dispose();
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EXECUTIONS)
+    public Long executions() {
+        return Flux.range(0, EXECUTIONS)
+                .flatMap(i -> ParallelBranchSchedulerTest.execute(graph, scheduler, "fork-" + nextFork.incrementAndGet())
+                        .count(), concurrency)
+                .reduce(0L, Long::sum)
+                .block(Duration.ofMinutes(5));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelBranchSchedulerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
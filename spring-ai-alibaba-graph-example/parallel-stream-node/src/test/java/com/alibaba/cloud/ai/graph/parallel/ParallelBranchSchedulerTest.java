@@ -0,0 +1,337 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.parallel;
+
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.config.GraphConfiguration;
+import com.alibaba.cloud.ai.graph.controller.GraphProcess.GraphProcess;
+import com.alibaba.cloud.ai.graph.controller.GraphProcess.GraphProcess.ChatMessage;
+import com.alibaba.cloud.ai.graph.model.NodeStatus;
+import com.alibaba.cloud.ai.graph.node.ExpanderNode;
+import com.alibaba.cloud.ai.graph.node.TranslateNode;
+import com.alibaba.cloud.ai.graph.parallel.ParallelBranchScheduler.BranchChunk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelBranchSchedulerTest {
+
+    private static final int EXECUTIONS = 10_000;
+
+    private static final int CHUNKS = 3;
+
+    static final Set<String> BRANCHES = Set.of(ExpanderNode.NODE_NAME, TranslateNode.NODE_NAME);
+
+    private ParallelBranchScheduler scheduler;
+
+    private Scheduler branchScheduler;
+
+    @BeforeEach
+    void setUp() {
+        // 两个分支节点各占一个任务，队列要放得下所有执行同时提交的任务
+        scheduler = new ParallelBranchScheduler(8, 32, 2 * EXECUTIONS, Duration.ofSeconds(30), 16);
+        branchScheduler = Schedulers.fromExecutor(scheduler.executor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        branchScheduler.dispose();
+        scheduler.shutdown();
+    }
+
+    /**
+     * 10000 次执行同时在编译后的图上运行，分支节点不调用模型，每次执行都经过 MergeResultsNode 合并一次
+     */
+    @Test
+    void concurrentExecutionsEachMergeOnceThroughTheGraph() throws Exception {
+        CompiledGraph graph = compile(scheduler, CHUNKS, branchScheduler);
+
+        List<List<ChatMessage>> executions = Flux.range(0, EXECUTIONS)
+                .flatMap(i -> execute(graph, scheduler, "fork-" + i)
+                        .map(ServerSentEvent::data)
+                        .collectList(), EXECUTIONS)
+                .collectList()
+                .block(Duration.ofMinutes(2));
+
+        assertThat(executions).hasSize(EXECUTIONS);
+        for (List<ChatMessage> messages : executions) {
+            for (String branch : BRANCHES) {
+                assertThat(messages).filteredOn(message -> message.nodeName().equals(branch))
+                        .extracting(ChatMessage::data)
+                        .containsExactly(text(branch, 0), text(branch, 1), text(branch, 2));
+            }
+            assertThat(messages).extracting(ChatMessage::nodeName).noneMatch(name -> name.startsWith("__PARALLEL__"));
+            // 图结束时的状态带着 MergeResultsNode 合并出的结果
+            ChatMessage end = messages.get(messages.size() - 1);
+            assertThat(end.nodeName()).isEqualTo(StateGraph.END);
+            assertThat(((Map<?, ?>) end.data()).get("merge_result")).isEqualTo(Map.of(
+                    "expander_content", joined(ExpanderNode.NODE_NAME),
+                    "translate_content", joined(TranslateNode.NODE_NAME)));
+        }
+        assertThat(scheduler.activeForks()).isZero();
+    }
+
+    @Test
+    void branchChunksInterleaveInArrivalOrder() {
+        ParallelBranchScheduler.Fork fork = scheduler.fork("interleave", BRANCHES);
+        List<BranchChunk> streamed = new CopyOnWriteArrayList<>();
+        scheduler.stream("interleave").subscribe(streamed::add);
+        Sinks.Many<String> expander = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<String> translate = Sinks.many().unicast().onBackpressureBuffer();
+        List<String> graphSide = new CopyOnWriteArrayList<>();
+        scheduler.branch("interleave", ExpanderNode.NODE_NAME, expander.asFlux()).subscribe(graphSide::add);
+        scheduler.branch("interleave", TranslateNode.NODE_NAME, translate.asFlux()).subscribe(graphSide::add);
+
+        expander.tryEmitNext("e0");
+        translate.tryEmitNext("t0");
+        translate.tryEmitNext("t1");
+        expander.tryEmitNext("e1");
+        expander.tryEmitComplete();
+        translate.tryEmitComplete();
+
+        assertThat(streamed).containsExactly(
+                new BranchChunk(ExpanderNode.NODE_NAME, "e0"),
+                new BranchChunk(TranslateNode.NODE_NAME, "t0"),
+                new BranchChunk(TranslateNode.NODE_NAME, "t1"),
+                new BranchChunk(ExpanderNode.NODE_NAME, "e1"));
+        assertThat(graphSide).containsExactly("e0", "t0", "t1", "e1");
+        assertThat(fork.status(ExpanderNode.NODE_NAME)).isEqualTo(NodeStatus.COMPLETED);
+        assertThat(scheduler.tryMerge("interleave")).isTrue();
+        scheduler.release("interleave");
+    }
+
+    /**
+     * 图一侧不限速，SSE 一侧每次只请求 1 个：分支上游按较慢的一方拉取，最多预取两级缓冲
+     */
+    @Test
+    void branchIsPulledAtTheSlowerSubscribersPace() {
+        scheduler.fork("backpressure", Set.of(ExpanderNode.NODE_NAME));
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger streamed = new AtomicInteger();
+        BaseSubscriber<BranchChunk> client = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+            }
+
+            @Override
+            protected void hookOnNext(BranchChunk value) {
+                streamed.incrementAndGet();
+            }
+        };
+        scheduler.stream("backpressure").subscribe(client);
+        AtomicInteger graphSide = new AtomicInteger();
+        scheduler.branch("backpressure", ExpanderNode.NODE_NAME,
+                        Flux.range(0, 10_000).doOnNext(i -> produced.incrementAndGet()))
+                .subscribe(i -> graphSide.incrementAndGet());
+
+        client.request(1);
+
+        // publish 与 stream 的 merge 各预取 stream-buffer-size (16) 个
+        assertThat(streamed).hasValue(1);
+        assertThat(produced.get()).isLessThanOrEqualTo(2 * 16 + 1);
+        assertThat(graphSide.get()).isLessThanOrEqualTo(produced.get());
+
+        client.request(Long.MAX_VALUE);
+        assertThat(streamed).hasValue(10_000);
+        assertThat(graphSide).hasValue(10_000);
+        scheduler.release("backpressure");
+    }
+
+    /**
+     * SSE 断开后，已经开始和还没开始的分支在图一侧都能跑完，不会卡在 autoConnect 上
+     */
+    @Test
+    void streamDisconnectDoesNotStallTheGraph() {
+        scheduler.fork("disconnect", BRANCHES);
+        Disposable client = scheduler.stream("disconnect").subscribe();
+        Sinks.Many<String> started = Sinks.many().unicast().onBackpressureBuffer();
+        List<String> graphSide = new CopyOnWriteArrayList<>();
+        scheduler.branch("disconnect", ExpanderNode.NODE_NAME, started.asFlux()).subscribe(graphSide::add);
+        started.tryEmitNext("e0");
+
+        client.dispose();
+        started.tryEmitNext("e1");
+        started.tryEmitComplete();
+        List<String> notStarted = scheduler.branch("disconnect", TranslateNode.NODE_NAME, Flux.just("t0", "t1"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(graphSide).containsExactly("e0", "e1");
+        assertThat(notStarted).containsExactly("t0", "t1");
+        assertThat(scheduler.tryMerge("disconnect")).isTrue();
+        scheduler.release("disconnect");
+    }
+
+    /**
+     * 通过编译后的图执行，客户端收到前几个 chunk 后断开：分支模型流被取消，fork 被释放
+     */
+    @Test
+    void clientDisconnectCancelsTheBranchModels() throws Exception {
+        AtomicInteger cancelled = new AtomicInteger();
+        Flux<ChatResponse> endless = Flux.<ChatResponse, Integer>generate(() -> 0, (i, sink) -> {
+                    sink.next(chatResponse("chunk-" + i));
+                    return i + 1;
+                })
+                .delayElements(Duration.ofMillis(5))
+                .doOnCancel(cancelled::incrementAndGet);
+        CompiledGraph graph = GraphConfiguration.buildGraph(
+                streamingNode(scheduler, ExpanderNode.NODE_NAME, "expander_content", () -> endless),
+                streamingNode(scheduler, TranslateNode.NODE_NAME, "translate_content", () -> endless),
+                scheduler).compile();
+
+        List<ChatMessage> received = execute(graph, scheduler, "disconnect")
+                .map(ServerSentEvent::data)
+                .filter(message -> BRANCHES.contains(message.nodeName()))
+                .take(4)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(received).hasSize(4);
+        // 取消在分支线程上传播，等它到达模型流
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((cancelled.get() < BRANCHES.size() || scheduler.activeForks() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cancelled).hasValue(BRANCHES.size());
+        assertThat(scheduler.activeForks()).isZero();
+    }
+
+    @Test
+    void forkIsOnlyRegisteredWhileSubscribed() {
+        Flux<Object> never = scheduler.forked("lazy", BRANCHES, fork -> Flux.never());
+        assertThat(scheduler.activeForks()).isZero();
+
+        Disposable subscription = never.subscribe();
+        assertThat(scheduler.activeForks()).isEqualTo(1);
+
+        subscription.dispose();
+        assertThat(scheduler.activeForks()).isZero();
+
+        scheduler.forked("done", BRANCHES, fork -> Flux.just(1)).blockLast(Duration.ofSeconds(5));
+        assertThat(scheduler.activeForks()).isZero();
+
+        scheduler.forked("failed", BRANCHES, fork -> Flux.error(new IllegalStateException("boom")))
+                .onErrorResume(e -> Flux.empty())
+                .blockLast(Duration.ofSeconds(5));
+        assertThat(scheduler.activeForks()).isZero();
+    }
+
+    @Test
+    void failedBranchCancelsSiblingAndBlocksMerge() {
+        AtomicReference<ParallelBranchScheduler.Fork> registered = new AtomicReference<>();
+
+        Boolean merged = scheduler.forked("failing", BRANCHES, fork -> {
+            registered.set(fork);
+            scheduler.stream("failing").subscribe(chunk -> {
+            }, e -> {
+            });
+            Flux<String> failing = scheduler.branch("failing", ExpanderNode.NODE_NAME,
+                    Flux.<String>error(new IllegalStateException("boom")).subscribeOn(branchScheduler));
+            Flux<String> sibling = scheduler.branch("failing", TranslateNode.NODE_NAME,
+                    Flux.<String>never().subscribeOn(branchScheduler));
+            return Flux.merge(failing.onErrorResume(e -> Flux.empty()), sibling)
+                    .then(Mono.fromCallable(() -> scheduler.tryMerge("failing")))
+                    .flux();
+        }).blockLast(Duration.ofSeconds(5));
+
+        assertThat(merged).isFalse();
+        assertThat(registered.get().status(ExpanderNode.NODE_NAME)).isEqualTo(NodeStatus.FAILED);
+        assertThat(registered.get().status(TranslateNode.NODE_NAME)).isEqualTo(NodeStatus.RUNNING);
+        assertThat(scheduler.activeForks()).isZero();
+    }
+
+    /**
+     * 与 GraphConfiguration 相同的图，expander 和 translate 换成各流出 {@code chunks} 个 chunk 的桩节点
+     */
+    static CompiledGraph compile(ParallelBranchScheduler scheduler, int chunks, Scheduler on) throws Exception {
+        return GraphConfiguration.buildGraph(
+                streamingNode(scheduler, ExpanderNode.NODE_NAME, "expander_content", chunks, on),
+                streamingNode(scheduler, TranslateNode.NODE_NAME, "translate_content", chunks, on),
+                scheduler).compile();
+    }
+
+    /**
+     * 与 GraphStreamController 相同的执行方式：订阅时登记 fork，图结束时释放
+     */
+    static Flux<ServerSentEvent<ChatMessage>> execute(CompiledGraph graph, ParallelBranchScheduler scheduler,
+                                                      String forkId) {
+        RunnableConfig config = RunnableConfig.builder().threadId(forkId)
+                .defaultParallelExecutor(scheduler.executor())
+                .build();
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put("fork_id", forkId);
+        inputs.put("query", "query");
+        GraphProcess graphProcess = new GraphProcess(graph);
+        return scheduler.forked(forkId, BRANCHES, fork -> graphProcess.processStream(
+                Flux.defer(() -> graph.stream(inputs, config)).doFinally(signal -> scheduler.release(forkId)),
+                scheduler.stream(forkId), BRANCHES));
+    }
+
+    static NodeAction streamingNode(ParallelBranchScheduler scheduler, String branch, String key, int chunks,
+                                    Scheduler on) {
+        return streamingNode(scheduler, branch, key, () -> Flux.range(0, chunks)
+                .map(i -> chatResponse(text(branch, i)))
+                .subscribeOn(on));
+    }
+
+    /**
+     * 与 ExpanderNode、TranslateNode 一样把模型流交给 scheduler.branch，模型换成 {@code model}
+     */
+    static NodeAction streamingNode(ParallelBranchScheduler scheduler, String branch, String key,
+                                    Supplier<Flux<ChatResponse>> model) {
+        return state -> Map.of(key, scheduler.branch(state.value("fork_id", ""), branch, model.get()));
+    }
+
+    static ChatResponse chatResponse(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String text(String branch, int index) {
+        return branch + "-" + index;
+    }
+
+    private static String joined(String branch) {
+        return text(branch, 0) + text(branch, 1) + text(branch, 2);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.parallel;
+
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.config.GraphConfiguration;
+import com.alibaba.cloud.ai.graph.controller.GraphProcess.GraphProcess.ChatMessage;
+import com.alibaba.cloud.ai.graph.node.ExpanderNode;
+import com.alibaba.cloud.ai.graph.node.TranslateNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time to first token and end-to-end time of one parallel-stream execution, with the real
+ * ExpanderNode on a fast stub model ({@value #FAST_TOKEN_MILLIS} ms per token) and the real
+ * TranslateNode on a slow one ({@value #SLOW_TOKEN_MILLIS} ms per token), each streaming
+ * {@value #TOKENS} tokens. {@code fastModelFirstToken} and {@code slowModelFirstToken} end at
+ * that branch's first SSE message and then disconnect, so the fast branch should not wait for the
+ * slow one; {@code fullStream} reads every message, and {@code 2 * TOKENS} divided by its time
+ * is the token throughput of one execution. Add {@code -t 64} to measure 64 concurrent clients.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.graph.parallel.ParallelStreamLatencyBenchmark}
+ * or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelStreamLatencyBenchmark {
+
+    private static final int TOKENS = 50;
+
+    private static final int FAST_TOKEN_MILLIS = 2;
+
+    private static final int SLOW_TOKEN_MILLIS = 20;
+
+    private final AtomicLong nextFork = new AtomicLong();
+
+    private ParallelBranchScheduler scheduler;
+
+    private CompiledGraph graph;
+
+    @Setup
+    public void setUp() throws Exception {
+        scheduler = new ParallelBranchScheduler(8, 32, 1000, Duration.ofSeconds(30), 64);
+        ChatClient.Builder fast = ChatClient.builder(new StubStreamingChatModel(Duration.ofMillis(FAST_TOKEN_MILLIS)));
+        ChatClient.Builder slow = ChatClient.builder(new StubStreamingChatModel(Duration.ofMillis(SLOW_TOKEN_MILLIS)));
+        graph = GraphConfiguration.buildGraph(new ExpanderNode(fast, scheduler), new TranslateNode(slow, scheduler),
+                scheduler).compile();
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    public ChatMessage fastModelFirstToken() {
+        return firstToken(ExpanderNode.NODE_NAME);
+    }
+
+    @Benchmark
+    public ChatMessage slowModelFirstToken() {
+        return firstToken(TranslateNode.NODE_NAME);
+    }
+
+    @Benchmark
+    public Long fullStream() {
+        return execute().count().block(Duration.ofMinutes(1));
+    }
+
+    private ChatMessage firstToken(String branch) {
+        return execute().map(ServerSentEvent::data)
+                .filter(message -> message.nodeName().equals(branch))
+                .next()
+                .block(Duration.ofMinutes(1));
+    }
+
+    private Flux<ServerSentEvent<ChatMessage>> execute() {
+        return ParallelBranchSchedulerTest.execute(graph, scheduler, "fork-" + nextFork.incrementAndGet());
+    }
+
+    /**
+     * Streams {@value #TOKENS} tokens, one every {@code tokenDelay}.
+     */
+    static final class StubStreamingChatModel implements ChatModel {
+
+        private final Duration tokenDelay;
+
+        StubStreamingChatModel(Duration tokenDelay) {
+            this.tokenDelay = tokenDelay;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return stream(prompt).last().block();
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.range(0, TOKENS)
+                    .delayElements(tokenDelay)
+                    .map(i -> new ChatResponse(List.of(new Generation(new AssistantMessage("token-" + i + " ")))));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelStreamLatencyBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
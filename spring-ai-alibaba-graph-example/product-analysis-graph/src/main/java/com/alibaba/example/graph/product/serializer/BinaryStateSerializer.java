@@ -0,0 +1,396 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.example.graph.product.serializer;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.state.AgentStateFactory;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary StateSerializer with a record registry instead of Jackson default typing.
+ * <p>
+ * Every value is written as a one byte tag followed by its payload. Strings, collections and
+ * byte arrays are prefixed with a varint length and written straight to the stream, so there is
+ * no 64 KB limit as with {@code writeUTF}. Records kept in the state must be registered with a
+ * stable id and are looked up by their exact class, records cannot be subclassed; unregistered
+ * types fail fast instead of being deserialized by class name.
+ * {@link #cloneObject(OverAllState)} copies the state structurally without encoding it.
+ */
+public class BinaryStateSerializer extends StateSerializer {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BYTES = 7;
+    private static final byte LIST = 8;
+    private static final byte SET = 9;
+    private static final byte MAP = 10;
+    private static final byte TYPED = 11;
+
+    private final Map<Integer, RecordCodec<?>> codecsById = new HashMap<>();
+
+    private final Map<Class<?>, RecordCodec<?>> codecsByType = new HashMap<>();
+
+    public BinaryStateSerializer(AgentStateFactory<OverAllState> stateFactory) {
+        super(stateFactory);
+    }
+
+    /**
+     * Register a record type, its components are written in declaration order.
+     * Ids are written to the stream and must stay stable.
+     */
+    public <T extends Record> BinaryStateSerializer registerRecord(int id, Class<T> type) {
+        if (codecsById.containsKey(id) || codecsByType.containsKey(type)) {
+            throw new IllegalArgumentException("Type id " + id + " or " + type.getName() + " is already registered");
+        }
+        RecordCodec<T> codec = new RecordCodec<>(id, type);
+        codecsById.put(id, codec);
+        codecsByType.put(type, codec);
+        return this;
+    }
+
+    @Override
+    public void writeData(Map<String, Object> data, ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        new Output(out).writeValue(data);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> readData(ObjectInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported state format version: " + version);
+        }
+        return (Map<String, Object>) new Input(in).readValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public OverAllState cloneObject(OverAllState state) throws IOException {
+        return stateFactory().apply((Map<String, Object>) copy(state.data()));
+    }
+
+    /**
+     * Deep copy of mutable containers, immutable scalars are shared.
+     */
+    @SuppressWarnings("unchecked")
+    private Object copy(Object value) throws IOException {
+        if (value == null || value instanceof String || value instanceof Boolean
+                || value instanceof Integer || value instanceof Long
+                || value instanceof Float || value instanceof Double) {
+            return value;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copy(item));
+            }
+            return copy;
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new LinkedHashSet<>(Math.max(16, set.size() * 4 / 3 + 1));
+            for (Object item : set) {
+                copy.add(copy(item));
+            }
+            return copy;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(Math.max(16, map.size() * 4 / 3 + 1));
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return copy;
+        }
+        return ((RecordCodec<Object>) codec(value.getClass())).copy(value, this);
+    }
+
+    private RecordCodec<?> codec(Class<?> type) throws IOException {
+        RecordCodec<?> codec = codecsByType.get(type);
+        if (codec == null) {
+            throw new IOException("Unregistered state value type: " + type.getName());
+        }
+        return codec;
+    }
+
+    private final class Output {
+
+        private final ObjectOutput out;
+
+        private Output(ObjectOutput out) {
+            this.out = out;
+        }
+
+        @SuppressWarnings("unchecked")
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            }
+            else if (value instanceof String s) {
+                out.writeByte(STRING);
+                writeString(s);
+            }
+            else if (value instanceof Boolean b) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            }
+            else if (value instanceof Integer i) {
+                out.writeByte(INT);
+                out.writeInt(i);
+            }
+            else if (value instanceof Long l) {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            }
+            else if (value instanceof Float f) {
+                out.writeByte(FLOAT);
+                out.writeFloat(f);
+            }
+            else if (value instanceof Double d) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            else if (value instanceof byte[] bytes) {
+                out.writeByte(BYTES);
+                writeVarInt(bytes.length);
+                out.write(bytes);
+            }
+            else if (value instanceof List<?> list) {
+                out.writeByte(LIST);
+                writeVarInt(list.size());
+                for (Object item : list) {
+                    writeValue(item);
+                }
+            }
+            else if (value instanceof Set<?> set) {
+                out.writeByte(SET);
+                writeVarInt(set.size());
+                for (Object item : set) {
+                    writeValue(item);
+                }
+            }
+            else if (value instanceof Map<?, ?> map) {
+                out.writeByte(MAP);
+                writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            }
+            else {
+                RecordCodec<Object> codec = (RecordCodec<Object>) codec(value.getClass());
+                out.writeByte(TYPED);
+                writeVarInt(codec.id);
+                codec.write(value, this);
+            }
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    private final class Input {
+
+        private final ObjectInput in;
+
+        private Input(ObjectInput in) {
+            this.in = in;
+        }
+
+        Object readValue() throws IOException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readString();
+                case BOOLEAN:
+                    return in.readBoolean();
+                case INT:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case FLOAT:
+                    return in.readFloat();
+                case DOUBLE:
+                    return in.readDouble();
+                case BYTES: {
+                    byte[] bytes = new byte[readVarInt()];
+                    in.readFully(bytes);
+                    return bytes;
+                }
+                case LIST: {
+                    int size = readVarInt();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case SET: {
+                    int size = readVarInt();
+                    Set<Object> set = new LinkedHashSet<>(Math.max(16, size * 4 / 3 + 1));
+                    for (int i = 0; i < size; i++) {
+                        set.add(readValue());
+                    }
+                    return set;
+                }
+                case MAP: {
+                    int size = readVarInt();
+                    Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, size * 4 / 3 + 1));
+                    for (int i = 0; i < size; i++) {
+                        map.put(readValue(), readValue());
+                    }
+                    return map;
+                }
+                case TYPED: {
+                    int id = readVarInt();
+                    RecordCodec<?> codec = codecsById.get(id);
+                    if (codec == null) {
+                        throw new IOException("Unregistered state type id: " + id);
+                    }
+                    return codec.read(this);
+                }
+                default:
+                    throw new IOException("Unknown state value tag: " + tag);
+            }
+        }
+
+        String readString() throws IOException {
+            byte[] bytes = new byte[readVarInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = in.readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+
+    /**
+     * Writes record components in declaration order and rebuilds through the canonical constructor.
+     */
+    private static final class RecordCodec<T> {
+
+        private final int id;
+
+        private final RecordComponent[] components;
+
+        private final Constructor<T> constructor;
+
+        private RecordCodec(int id, Class<T> type) {
+            this.id = id;
+            this.components = type.getRecordComponents();
+            try {
+                this.constructor = type.getDeclaredConstructor(
+                        Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+                this.constructor.setAccessible(true);
+            }
+            catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("No canonical constructor for " + type.getName(), e);
+            }
+        }
+
+        void write(T value, Output out) throws IOException {
+            for (Object component : components(value)) {
+                out.writeValue(component);
+            }
+        }
+
+        T read(Input in) throws IOException {
+            Object[] args = new Object[components.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = in.readValue();
+            }
+            return newInstance(args);
+        }
+
+        T copy(T value, BinaryStateSerializer serializer) throws IOException {
+            Object[] args = components(value);
+            for (int i = 0; i < args.length; i++) {
+                args[i] = serializer.copy(args[i]);
+            }
+            return newInstance(args);
+        }
+
+        private Object[] components(T value) throws IOException {
+            Object[] values = new Object[components.length];
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    values[i] = components[i].getAccessor().invoke(value);
+                }
+            }
+            catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IOException("Failed to read record " + value.getClass().getName(), e);
+            }
+            return values;
+        }
+
+        private T newInstance(Object[] args) throws IOException {
+            try {
+                return constructor.newInstance(args);
+            }
+            catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IOException("Failed to create record " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.alibaba.cloud.ai.graph.conf;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.state.AgentStateFactory;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary StateSerializer with a type registry instead of Jackson default typing.
+ * <p>
+ * Every value is written as a one byte tag followed by its payload. Strings, collections and
+ * byte arrays are prefixed with a varint length and written straight to the stream, so there is
+ * no 64 KB limit as with {@code writeUTF}. Custom types must be registered with a stable id and a
+ * {@link Codec}; unregistered types fail fast instead of being deserialized by class name.
+ * A subclass of a registered type uses the first matching registration in registration order,
+ * so register more specific types first.
+ * {@link #cloneObject(OverAllState)} copies the state structurally without encoding it.
+ */
+public class BinaryStateSerializer extends StateSerializer {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BYTES = 7;
+    private static final byte LIST = 8;
+    private static final byte SET = 9;
+    private static final byte MAP = 10;
+    private static final byte TYPED = 11;
+
+    /**
+     * registration order, used to resolve subclasses deterministically
+     */
+    private final Map<Integer, Registration<?>> registrationsById = new LinkedHashMap<>();
+
+    private final Map<Class<?>, Registration<?>> registrationsByType = new ConcurrentHashMap<>();
+
+    public BinaryStateSerializer(AgentStateFactory<OverAllState> stateFactory) {
+        super(stateFactory);
+    }
+
+    /**
+     * Register a custom value type. Ids are written to the stream and must stay stable.
+     */
+    public <T> BinaryStateSerializer register(int id, Class<T> type, Codec<T> codec) {
+        if (registrationsById.containsKey(id)) {
+            throw new IllegalArgumentException("Type id " + id + " is already registered");
+        }
+        if (registrationsByType.containsKey(type)) {
+            throw new IllegalArgumentException("Type " + type.getName() + " is already registered");
+        }
+        Registration<T> registration = new Registration<>(id, type, codec);
+        registrationsById.put(id, registration);
+        registrationsByType.put(type, registration);
+        return this;
+    }
+
+    @Override
+    public void writeData(Map<String, Object> data, ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        new Output(out).writeValue(data);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> readData(ObjectInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported state format version: " + version);
+        }
+        return (Map<String, Object>) new Input(in).readValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public OverAllState cloneObject(OverAllState state) throws IOException {
+        return stateFactory().apply((Map<String, Object>) copy(state.data()));
+    }
+
+    /**
+     * Deep copy of mutable containers, immutable scalars are shared.
+     */
+    @SuppressWarnings("unchecked")
+    public Object copy(Object value) throws IOException {
+        if (value == null || value instanceof String || value instanceof Boolean
+                || value instanceof Integer || value instanceof Long
+                || value instanceof Float || value instanceof Double) {
+            return value;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copy(item));
+            }
+            return copy;
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new LinkedHashSet<>(Math.max(16, set.size() * 4 / 3 + 1));
+            for (Object item : set) {
+                copy.add(copy(item));
+            }
+            return copy;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(Math.max(16, map.size() * 4 / 3 + 1));
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return copy;
+        }
+        Registration<Object> registration = (Registration<Object>) registration(value.getClass());
+        return registration.codec().copy(value, this);
+    }
+
+    private Registration<?> registration(Class<?> type) throws IOException {
+        Registration<?> registration = registrationsByType.get(type);
+        if (registration == null) {
+            // subclasses of a registered type, e.g. vendor specific message implementations,
+            // resolved by registration order
+            for (Registration<?> candidate : registrationsById.values()) {
+                if (candidate.type().isAssignableFrom(type)) {
+                    registration = candidate;
+                    registrationsByType.put(type, candidate);
+                    break;
+                }
+            }
+        }
+        if (registration == null) {
+            throw new IOException("Unregistered state value type: " + type.getName());
+        }
+        return registration;
+    }
+
+    /**
+     * Encodes and decodes one registered type. Values are treated as immutable by default,
+     * override {@link #copy} when the type holds mutable state.
+     */
+    public interface Codec<T> {
+
+        void write(T value, Output out) throws IOException;
+
+        T read(Input in) throws IOException;
+
+        default T copy(T value, BinaryStateSerializer serializer) throws IOException {
+            return value;
+        }
+    }
+
+    public final class Output {
+
+        private final ObjectOutput out;
+
+        private Output(ObjectOutput out) {
+            this.out = out;
+        }
+
+        public boolean isSupported(Object value) {
+            if (value == null || value instanceof String || value instanceof Boolean
+                    || value instanceof Integer || value instanceof Long || value instanceof Float
+                    || value instanceof Double || value instanceof byte[] || value instanceof List<?>
+                    || value instanceof Set<?> || value instanceof Map<?, ?>) {
+                return true;
+            }
+            try {
+                registration(value.getClass());
+                return true;
+            }
+            catch (IOException e) {
+                return false;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            }
+            else if (value instanceof String s) {
+                out.writeByte(STRING);
+                writeString(s);
+            }
+            else if (value instanceof Boolean b) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            }
+            else if (value instanceof Integer i) {
+                out.writeByte(INT);
+                out.writeInt(i);
+            }
+            else if (value instanceof Long l) {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            }
+            else if (value instanceof Float f) {
+                out.writeByte(FLOAT);
+                out.writeFloat(f);
+            }
+            else if (value instanceof Double d) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            else if (value instanceof byte[] bytes) {
+                out.writeByte(BYTES);
+                writeVarInt(bytes.length);
+                out.write(bytes);
+            }
+            else if (value instanceof List<?> list) {
+                out.writeByte(LIST);
+                writeVarInt(list.size());
+                for (Object item : list) {
+                    writeValue(item);
+                }
+            }
+            else if (value instanceof Set<?> set) {
+                out.writeByte(SET);
+                writeVarInt(set.size());
+                for (Object item : set) {
+                    writeValue(item);
+                }
+            }
+            else if (value instanceof Map<?, ?> map) {
+                out.writeByte(MAP);
+                writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            }
+            else {
+                Registration<Object> registration = (Registration<Object>) registration(value.getClass());
+                out.writeByte(TYPED);
+                writeVarInt(registration.id());
+                registration.codec().write(value, this);
+            }
+        }
+
+        public void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        public void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    public final class Input {
+
+        private final ObjectInput in;
+
+        private Input(ObjectInput in) {
+            this.in = in;
+        }
+
+        public Object readValue() throws IOException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readString();
+                case BOOLEAN:
+                    return in.readBoolean();
+                case INT:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case FLOAT:
+                    return in.readFloat();
+                case DOUBLE:
+                    return in.readDouble();
+                case BYTES: {
+                    byte[] bytes = new byte[readVarInt()];
+                    in.readFully(bytes);
+                    return bytes;
+                }
+                case LIST: {
+                    int size = readVarInt();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case SET: {
+                    int size = readVarInt();
+                    Set<Object> set = new LinkedHashSet<>(Math.max(16, size * 4 / 3 + 1));
+                    for (int i = 0; i < size; i++) {
+                        set.add(readValue());
+                    }
+                    return set;
+                }
+                case MAP: {
+                    int size = readVarInt();
+                    Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, size * 4 / 3 + 1));
+                    for (int i = 0; i < size; i++) {
+                        map.put(readValue(), readValue());
+                    }
+                    return map;
+                }
+                case TYPED: {
+                    int id = readVarInt();
+                    Registration<?> registration = registrationsById.get(id);
+                    if (registration == null) {
+                        throw new IOException("Unregistered state type id: " + id);
+                    }
+                    return registration.codec().read(this);
+                }
+                default:
+                    throw new IOException("Unknown state value tag: " + tag);
+            }
+        }
+
+        public String readString() throws IOException {
+            byte[] bytes = new byte[readVarInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = in.readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+
+    private record Registration<T>(int id, Class<T> type, Codec<T> codec) {
+    }
+}
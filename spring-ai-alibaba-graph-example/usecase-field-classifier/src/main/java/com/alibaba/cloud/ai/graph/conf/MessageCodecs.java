@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.alibaba.cloud.ai.graph.conf;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.AssistantMessage.ToolCall;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BinaryStateSerializer codecs for the Spring AI messages kept in the graph state.
+ */
+public final class MessageCodecs {
+
+    public static final int ASSISTANT_MESSAGE_TYPE_ID = 1;
+
+    public static final int TOOL_RESPONSE_MESSAGE_TYPE_ID = 2;
+
+    private MessageCodecs() {
+    }
+
+    public static BinaryStateSerializer.Codec<AssistantMessage> assistantMessage() {
+        return new BinaryStateSerializer.Codec<>() {
+
+            @Override
+            public void write(AssistantMessage value, BinaryStateSerializer.Output out) throws IOException {
+                out.writeValue(value.getText());
+                writeMetadata(value.getMetadata(), out);
+                out.writeVarInt(value.getToolCalls().size());
+                for (ToolCall toolCall : value.getToolCalls()) {
+                    out.writeValue(toolCall.id());
+                    out.writeValue(toolCall.type());
+                    out.writeValue(toolCall.name());
+                    out.writeValue(toolCall.arguments());
+                }
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public AssistantMessage read(BinaryStateSerializer.Input in) throws IOException {
+                String text = (String) in.readValue();
+                Map<String, Object> metadata = (Map<String, Object>) in.readValue();
+                int size = in.readVarInt();
+                List<ToolCall> toolCalls = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    toolCalls.add(new ToolCall((String) in.readValue(), (String) in.readValue(),
+                            (String) in.readValue(), (String) in.readValue()));
+                }
+                return AssistantMessage.builder()
+                        .content(text)
+                        .properties(metadata)
+                        .toolCalls(toolCalls)
+                        .build();
+            }
+        };
+    }
+
+    public static BinaryStateSerializer.Codec<ToolResponseMessage> toolResponseMessage() {
+        return new BinaryStateSerializer.Codec<>() {
+
+            @Override
+            public void write(ToolResponseMessage value, BinaryStateSerializer.Output out) throws IOException {
+                out.writeVarInt(value.getResponses().size());
+                for (ToolResponseMessage.ToolResponse response : value.getResponses()) {
+                    out.writeValue(response.id());
+                    out.writeValue(response.name());
+                    out.writeValue(response.responseData());
+                }
+                writeMetadata(value.getMetadata(), out);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public ToolResponseMessage read(BinaryStateSerializer.Input in) throws IOException {
+                int size = in.readVarInt();
+                List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    responses.add(new ToolResponseMessage.ToolResponse((String) in.readValue(),
+                            (String) in.readValue(), (String) in.readValue()));
+                }
+                return ToolResponseMessage.builder()
+                        .responses(responses)
+                        .metadata((Map<String, Object>) in.readValue())
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * 元数据只用于展示，跳过没有注册 codec 的值（例如模型返回的用量对象）
+     */
+    private static void writeMetadata(Map<String, Object> metadata, BinaryStateSerializer.Output out) throws IOException {
+        Map<String, Object> supported = new LinkedHashMap<>();
+        metadata.forEach((key, value) -> {
+            if (out.isSupported(value)) {
+                supported.put(key, value);
+            }
+        });
+        out.writeValue(supported);
+    }
+}
@@ -35,9 +35,6 @@ import com.alibaba.cloud.ai.graph.nodes.ClftNode;
 import com.alibaba.cloud.ai.graph.nodes.HumanFeedbackNode;
 import com.alibaba.cloud.ai.graph.nodes.SensitiveWordDecNode;
 import com.alibaba.cloud.ai.graph.tools.FieldSaveTool;
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.module.SimpleModule;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.AssistantMessage;
@@ -82,20 +79,10 @@ public class SecGraphBuilder {
                 .build();
 
         AgentStateFactory<OverAllState> factory = OverAllState::new;
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.activateDefaultTyping(
-                mapper.getPolymorphicTypeValidator(),
-                ObjectMapper.DefaultTyping.NON_FINAL,
-                JsonTypeInfo.As.PROPERTY
-        );
-
-        // 注册反序列化器
-        SimpleModule module = new SimpleModule();
-        module.addDeserializer(AssistantMessage.class, new AssistantMessageDeserializer());
-        module.addDeserializer(ToolResponseMessage.class, new ToolResponseMessageDeserializer());
-        mapper.registerModule(module);
-
-        JsonStateSerializerWithTypeInfo serializer = new JsonStateSerializerWithTypeInfo(factory, mapper);
+        // 二进制序列化，state 中的消息对象通过注册的 codec 读写
+        BinaryStateSerializer serializer = new BinaryStateSerializer(factory)
+                .register(MessageCodecs.ASSISTANT_MESSAGE_TYPE_ID, AssistantMessage.class, MessageCodecs.assistantMessage())
+                .register(MessageCodecs.TOOL_RESPONSE_MESSAGE_TYPE_ID, ToolResponseMessage.class, MessageCodecs.toolResponseMessage());
 
         StateGraph stateGraph = new StateGraph(keyStrategyFactory, serializer);
         stateGraph.addEdge(START, "sensitive")
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.alibaba.cloud.ai.graph.conf;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write, read and clone cost of a field classifier state with 1 KB, 100 KB and 10 MB fields.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.graph.conf.BinaryStateSerializerBenchmark}
+ * or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryStateSerializerBenchmark {
+
+    @Param({"1024", "102400", "10485760"})
+    public int fieldSize;
+
+    private BinaryStateSerializer serializer;
+
+    private OverAllState state;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        serializer = BinaryStateSerializerTest.messageSerializer();
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("field", "x".repeat(fieldSize));
+        data.put("thread_id", "benchmark");
+        data.put("is_sensitive", false);
+        data.put("clft_res", AssistantMessage.builder()
+                .content("classified")
+                .toolCalls(List.of(new AssistantMessage.ToolCall("call-1", "function", "save", "{\"field\":\"a\"}")))
+                .build());
+        data.put("save_result", ToolResponseMessage.builder()
+                .responses(List.of(new ToolResponseMessage.ToolResponse("call-1", "save", "ok")))
+                .build());
+        state = new OverAllState(data);
+        encoded = write();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            serializer.writeData(state.data(), out);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Map<String, Object> read() throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(encoded))) {
+            return serializer.readData(in);
+        }
+    }
+
+    @Benchmark
+    public OverAllState cloneState() throws IOException {
+        return serializer.cloneObject(state);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BinaryStateSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.alibaba.cloud.ai.graph.conf;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryStateSerializerTest {
+
+    @Test
+    void messagesAndLargeValuesRoundTrip() throws IOException {
+        BinaryStateSerializer serializer = messageSerializer();
+
+        AssistantMessage assistant = AssistantMessage.builder()
+                .content("classify")
+                .toolCalls(List.of(new AssistantMessage.ToolCall("call-1", "function", "save", "{\"field\":\"a\"}")))
+                .build();
+        ToolResponseMessage toolResponse = ToolResponseMessage.builder()
+                .responses(List.of(new ToolResponseMessage.ToolResponse("call-1", "save", "ok")))
+                .build();
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("field", "x".repeat(200_000));
+        data.put("clft_res", assistant);
+        data.put("save_result", toolResponse);
+        data.put("nested", Map.of("list", List.of(1, 2L, 3.0, true)));
+
+        Map<String, Object> read = roundTrip(serializer, data);
+
+        assertThat(read.get("field")).isEqualTo(data.get("field"));
+        assertThat(read.get("nested")).isEqualTo(data.get("nested"));
+        AssistantMessage readAssistant = (AssistantMessage) read.get("clft_res");
+        assertThat(readAssistant.getText()).isEqualTo("classify");
+        assertThat(readAssistant.getToolCalls()).isEqualTo(assistant.getToolCalls());
+        assertThat(((ToolResponseMessage) read.get("save_result")).getResponses())
+                .isEqualTo(toolResponse.getResponses());
+    }
+
+    @Test
+    void cloneCopiesContainersAndSharesScalars() throws IOException {
+        BinaryStateSerializer serializer = messageSerializer();
+        List<Object> list = new ArrayList<>(List.of("a"));
+        OverAllState state = new OverAllState(new LinkedHashMap<>(Map.of("list", list, "field", "value")));
+
+        OverAllState clone = serializer.cloneObject(state);
+        list.add("b");
+
+        assertThat(clone.data().get("list")).isEqualTo(List.of("a"));
+        assertThat(clone.data().get("field")).isSameAs(state.data().get("field"));
+    }
+
+    @Test
+    void subclassesResolveByRegistrationOrder() throws IOException {
+        BinaryStateSerializer specificFirst = new BinaryStateSerializer(OverAllState::new)
+                .register(1, Dog.class, new NamedCodec<>("dog", Dog::new))
+                .register(2, Animal.class, new NamedCodec<>("animal", Animal::new));
+        BinaryStateSerializer generalFirst = new BinaryStateSerializer(OverAllState::new)
+                .register(2, Animal.class, new NamedCodec<>("animal", Animal::new))
+                .register(1, Dog.class, new NamedCodec<>("dog", Dog::new));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(roundTrip(specificFirst, Map.of("pet", new Puppy())).get("pet")).isExactlyInstanceOf(Dog.class);
+            assertThat(roundTrip(generalFirst, Map.of("pet", new Puppy())).get("pet")).isExactlyInstanceOf(Animal.class);
+        }
+    }
+
+    @Test
+    void unregisteredTypesAndDuplicateRegistrationsAreRejected() {
+        BinaryStateSerializer serializer = messageSerializer();
+
+        assertThatThrownBy(() -> roundTrip(serializer, Map.of("pet", new Animal())))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining(Animal.class.getName());
+        assertThatThrownBy(() -> serializer.register(3, AssistantMessage.class, MessageCodecs.assistantMessage()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> serializer.register(1, Animal.class, new NamedCodec<>("animal", Animal::new)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static BinaryStateSerializer messageSerializer() {
+        return new BinaryStateSerializer(OverAllState::new)
+                .register(MessageCodecs.ASSISTANT_MESSAGE_TYPE_ID, AssistantMessage.class, MessageCodecs.assistantMessage())
+                .register(MessageCodecs.TOOL_RESPONSE_MESSAGE_TYPE_ID, ToolResponseMessage.class, MessageCodecs.toolResponseMessage());
+    }
+
+    private static Map<String, Object> roundTrip(BinaryStateSerializer serializer, Map<String, Object> data)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            serializer.writeData(data, out);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return serializer.readData(in);
+        }
+    }
+
+    static class Animal {
+    }
+
+    static class Dog extends Animal {
+    }
+
+    static class Puppy extends Dog {
+    }
+
+    /**
+     * writes a fixed marker and rebuilds through the given factory
+     */
+    private record NamedCodec<T>(String name, Supplier<T> factory)
+            implements BinaryStateSerializer.Codec<T> {
+
+        @Override
+        public void write(T value, BinaryStateSerializer.Output out) throws IOException {
+            out.writeString(name);
+        }
+
+        @Override
+        public T read(BinaryStateSerializer.Input in) throws IOException {
+            in.readString();
+            return factory.get();
+        }
+    }
+}
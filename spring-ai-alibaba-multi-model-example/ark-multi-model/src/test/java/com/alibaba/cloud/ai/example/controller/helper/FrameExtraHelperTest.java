@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.controller.helper;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.content.Media;
+import org.springframework.util.MimeTypeUtils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FrameExtraHelperTest {
+
+	/**
+	 * 40 秒视频，每秒一个关键帧，关键帧数多于缓存上限 32
+	 */
+	private static final int KEY_FRAMES = 40;
+
+	private File video;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		video = Files.createTempFile("frames", ".mp4").toFile();
+		generate(video, KEY_FRAMES, 10);
+		FrameExtraHelper.useVideo(video);
+	}
+
+	@AfterEach
+	void tearDown() {
+		video.delete();
+	}
+
+	@Test
+	void keyFrameIndexIsBuiltOnFirstUseWithoutDecodingFrames() {
+		assertThat(FrameExtraHelper.isIndexed()).isFalse();
+
+		long[] index = FrameExtraHelper.getKeyFrameIndex();
+
+		assertThat(FrameExtraHelper.isIndexed()).isTrue();
+		assertThat(FrameExtraHelper.cachedTimestamps()).isEmpty();
+		assertThat(index).hasSize(KEY_FRAMES).isSorted();
+		for (int i = 0; i < KEY_FRAMES; i++) {
+			assertThat(index[i]).isCloseTo(i * 1_000_000L, within(100_000L));
+		}
+		assertThat(FrameExtraHelper.getKeyFrameIndex()).isSameAs(index);
+	}
+
+	@Test
+	void onlyRequestedFramesAreDecodedAndCached() {
+		List<Media> frames = FrameExtraHelper.createMediaList(4);
+
+		long[] index = FrameExtraHelper.getKeyFrameIndex();
+		assertThat(frames).hasSize(4)
+			.allSatisfy(frame -> assertThat(frame.getMimeType()).isEqualTo(MimeTypeUtils.IMAGE_JPEG));
+		// 4 个区间的中点：5、15、25、35
+		assertThat(FrameExtraHelper.cachedTimestamps()).containsExactly(index[5], index[15], index[25], index[35]);
+
+		List<Media> again = FrameExtraHelper.createMediaList(4);
+
+		assertThat(FrameExtraHelper.cachedTimestamps()).hasSize(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(again.get(i).getDataAsByteArray()).isEqualTo(frames.get(i).getDataAsByteArray());
+		}
+	}
+
+	@Test
+	void cacheKeepsTheMostRecentlyUsed32Frames() {
+		// 先访问中间的第 20 帧，之后全量请求时它会被再次命中并移到队尾
+		FrameExtraHelper.createMediaList(1);
+
+		List<Media> frames = FrameExtraHelper.createMediaList(KEY_FRAMES);
+
+		long[] index = FrameExtraHelper.getKeyFrameIndex();
+		assertThat(frames).hasSize(KEY_FRAMES);
+		// 按插入顺序淘汰会先丢掉第 20 帧；按访问顺序淘汰的是最早插入且未再访问的 0~7
+		assertThat(FrameExtraHelper.cachedTimestamps()).hasSize(32)
+			.containsExactly(LongStream.range(8, KEY_FRAMES).map(i -> index[(int) i]).boxed().toArray(Long[]::new));
+	}
+
+	private static void generate(File file, int seconds, int fps) throws Exception {
+		try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(file, 160, 120, 0);
+			 Java2DFrameConverter converter = new Java2DFrameConverter()) {
+			recorder.setFormat("mp4");
+			recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+			recorder.setFrameRate(fps);
+			recorder.setGopSize(fps);
+			recorder.start();
+
+			BufferedImage image = new BufferedImage(160, 120, BufferedImage.TYPE_3BYTE_BGR);
+			for (int i = 0; i < seconds * fps; i++) {
+				Graphics2D graphics = image.createGraphics();
+				graphics.setColor(new Color((i * 6) % 256, 128, 255 - (i * 6) % 256));
+				graphics.fillRect(0, 0, 160, 120);
+				graphics.dispose();
+				recorder.record(converter.convert(image));
+			}
+			recorder.stop();
+		}
+	}
+
+}
@@ -17,18 +17,21 @@
 package com.alibaba.cloud.ai.example.multi.helper;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 
-import jakarta.annotation.PreDestroy;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.avformat.AVFormatContext;
+import org.bytedeco.ffmpeg.avformat.AVStream;
+import org.bytedeco.ffmpeg.avutil.AVRational;
 import org.bytedeco.javacv.FFmpegFrameGrabber;
 import org.bytedeco.javacv.Frame;
 import org.bytedeco.javacv.Java2DFrameConverter;
@@ -36,112 +39,216 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.content.Media;
-import org.springframework.boot.ApplicationArguments;
-import org.springframework.boot.ApplicationRunner;
-import org.springframework.core.io.PathResource;
-import org.springframework.stereotype.Component;
-import org.springframework.util.MimeType;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.MimeTypeUtils;
 
-import static org.bytedeco.javacpp.Loader.deleteDirectory;
+import static org.bytedeco.ffmpeg.global.avcodec.AV_PKT_FLAG_KEY;
+import static org.bytedeco.ffmpeg.global.avutil.AVMEDIA_TYPE_VIDEO;
+import static org.bytedeco.ffmpeg.global.avutil.AV_NOPTS_VALUE;
 
 /**
+ * 视频帧按需提取：
+ * 1. 第一次请求时只读取 packet 建立关键帧时间索引，不解码任何帧；
+ * 2. 请求的帧 seek 到对应关键帧后解码，编码为 JPEG 放入有界 LRU 缓存；
+ * 3. 不再在启动时解码整个视频，也不写任何临时文件。
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
 
-@Component
-public final class FrameExtraHelper implements ApplicationRunner {
+public final class FrameExtraHelper {
 
 	private FrameExtraHelper() {
 	}
 
-	private static final Map<String, List<String>> IMAGE_CACHE = new ConcurrentHashMap<>();
-
-	private static final File videoUrl = new File(
+	private static File videoUrl = new File(
 			"spring-ai-alibaba-multi-model-example/dashscope-multi-model/src/main/resources/multimodel/video.mp4");
 
-	private static final String framePath = "spring-ai-alibaba-multi-model-example/dashscope-multi-model/src/main/resources/multimodel/frame/";
+	private static final int MAX_CACHED_FRAMES = 32;
 
 	private static final Logger log = LoggerFactory.getLogger(FrameExtraHelper.class);
 
-	public static void getVideoPic() {
+	/**
+	 * 关键帧时间戳（微秒）-> JPEG
+	 */
+	private static final Map<Long, byte[]> FRAME_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+			return size() > MAX_CACHED_FRAMES;
+		}
+	};
+
+	private static volatile long[] keyFrameIndex;
+
+	/**
+	 * 在视频中均匀选取 numberOfImages 个关键帧，关键帧数量不足时全部返回
+	 */
+	public static List<Media> createMediaList(int numberOfImages) {
 
-		List<String> strList = new ArrayList<>();
-		File dir = new File(framePath);
-		if (!dir.exists()) {
-			dir.mkdirs();
+		long[] keyFrames = getKeyFrameIndex();
+		if (keyFrames.length == 0) {
+			throw new IllegalStateException("No key frame found in video: " + videoUrl.getPath());
 		}
 
-		try (FFmpegFrameGrabber ff = new FFmpegFrameGrabber(videoUrl.getPath());
-				Java2DFrameConverter converter = new Java2DFrameConverter()) {
-			ff.start();
-			ff.setFormat("mp4");
+		int count = Math.min(numberOfImages, keyFrames.length);
+		List<Long> timestamps = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			timestamps.add(keyFrames[(int) ((long) keyFrames.length * (2L * i + 1) / (2L * count))]);
+		}
 
-			int length = ff.getLengthInFrames();
+		return getFrames(timestamps).stream()
+			.map(image -> new Media(MimeTypeUtils.IMAGE_JPEG, new ByteArrayResource(image)))
+			.toList();
+	}
 
-			Frame frame;
-			for (int i = 1; i < length; i++) {
-				frame = ff.grabFrame();
-				if (frame.image == null) {
-					continue;
+	/**
+	 * 切换视频并清空关键帧索引和帧缓存，供测试使用
+	 */
+	static synchronized void useVideo(File video) {
+
+		videoUrl = video;
+		keyFrameIndex = null;
+		FRAME_CACHE.clear();
+	}
+
+	/**
+	 * 当前缓存的关键帧时间戳，按最近访问顺序排列（最久未访问的在前）
+	 */
+	static synchronized List<Long> cachedTimestamps() {
+
+		return new ArrayList<>(FRAME_CACHE.keySet());
+	}
+
+	/**
+	 * 关键帧索引是否已建立
+	 */
+	static boolean isIndexed() {
+
+		return keyFrameIndex != null;
+	}
+
+	/**
+	 * 关键帧时间戳（微秒），按升序排列
+	 */
+	public static long[] getKeyFrameIndex() {
+
+		long[] index = keyFrameIndex;
+		if (index == null) {
+			synchronized (FrameExtraHelper.class) {
+				index = keyFrameIndex;
+				if (index == null) {
+					index = buildKeyFrameIndex();
+					keyFrameIndex = index;
 				}
-				BufferedImage image = converter.getBufferedImage(frame);
-				;
-				String path = framePath + i + ".png";
-				File picFile = new File(path);
-				ImageIO.write(image, "png", picFile);
-				strList.add(path);
 			}
-			IMAGE_CACHE.put("img", strList);
-			ff.stop();
-		}
-		catch (Exception e) {
-			log.error(e.getMessage());
 		}
 
+		return index;
 	}
 
-	@Override
-	public void run(ApplicationArguments args) throws Exception {
+	private static long[] buildKeyFrameIndex() {
 
-		log.info("Starting to extract video frames");
+		long start = System.nanoTime();
+		long[] timestamps = new long[64];
+		int size = 0;
 
-		getVideoPic();
+		try (FFmpegFrameGrabber ff = new FFmpegFrameGrabber(videoUrl.getPath())) {
+			ff.start();
 
-		log.info("Extracting video frames is complete");
+			AVFormatContext formatContext = ff.getFormatContext();
+			int videoStream = -1;
+			for (int i = 0; i < formatContext.nb_streams(); i++) {
+				if (formatContext.streams(i).codecpar().codec_type() == AVMEDIA_TYPE_VIDEO) {
+					videoStream = i;
+					break;
+				}
+			}
+			if (videoStream < 0) {
+				return new long[0];
+			}
 
-	}
+			AVStream stream = formatContext.streams(videoStream);
+			AVRational timeBase = stream.time_base();
+			long startTime = stream.start_time() == AV_NOPTS_VALUE ? 0 : stream.start_time();
 
-	@PreDestroy
-	public void destroy() {
+			// 只读取 packet，不解码
+			AVPacket packet;
+			while ((packet = ff.grabPacket()) != null) {
+				if (packet.stream_index() != videoStream || (packet.flags() & AV_PKT_FLAG_KEY) == 0
+						|| packet.pts() == AV_NOPTS_VALUE) {
+					continue;
+				}
 
-		try {
-			deleteDirectory(new File(framePath));
+				if (size == timestamps.length) {
+					timestamps = Arrays.copyOf(timestamps, size * 2);
+				}
+				timestamps[size++] = (packet.pts() - startTime) * 1_000_000L * timeBase.num() / timeBase.den();
+			}
 		}
-		catch (IOException e) {
-			log.error(e.getMessage());
+		catch (Exception e) {
+			throw new IllegalStateException("Failed to index video: " + videoUrl.getPath(), e);
 		}
 
-		log.info("Delete temporary files...");
+		long[] index = Arrays.copyOf(timestamps, size);
+		Arrays.sort(index);
+		log.info("Indexed {} key frames in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+
+		return index;
 	}
 
-	public static List<String> getFrameList() {
+	/**
+	 * 缓存中没有的帧在同一次打开的视频中依次 seek 解码
+	 */
+	private static synchronized List<byte[]> getFrames(List<Long> timestamps) {
+
+		List<byte[]> frames = new ArrayList<>(timestamps.size());
+		FFmpegFrameGrabber ff = null;
+
+		try (Java2DFrameConverter converter = new Java2DFrameConverter()) {
+			for (Long timestamp : timestamps) {
+				byte[] image = FRAME_CACHE.get(timestamp);
+				if (image == null) {
+					if (ff == null) {
+						ff = new FFmpegFrameGrabber(videoUrl.getPath());
+						ff.start();
+					}
+					image = decode(ff, converter, timestamp);
+					FRAME_CACHE.put(timestamp, image);
+				}
+				frames.add(image);
+			}
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Failed to extract video frames: " + videoUrl.getPath(), e);
+		}
+		finally {
+			if (ff != null) {
+				try {
+					ff.close();
+				}
+				catch (Exception e) {
+					log.warn(e.getMessage());
+				}
+			}
+		}
 
-		assert IMAGE_CACHE.get("img") != null;
-		return IMAGE_CACHE.get("img");
+		return frames;
 	}
 
-	public static List<Media> createMediaList(int numberOfImages) {
+	private static byte[] decode(FFmpegFrameGrabber ff, Java2DFrameConverter converter, long timestamp)
+			throws IOException {
 
-		List<String> imgList = IMAGE_CACHE.get("img");
+		ff.setTimestamp(timestamp, true);
+		Frame frame = ff.grabImage();
+		if (frame == null) {
+			throw new IOException("No frame at " + timestamp + "us");
+		}
 
-		int totalFrames = imgList.size();
-		int interval = Math.max(totalFrames / numberOfImages, 1);
+		BufferedImage image = converter.getBufferedImage(frame);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpeg", output);
 
-		return IntStream.range(0, numberOfImages)
-			.mapToObj(i -> imgList.get(i * interval))
-			.map(image -> new Media(MimeType.valueOf("image/png"), new PathResource(image)))
-			.collect(Collectors.toList());
+		return output.toByteArray();
 	}
 
 }
@@ -16,31 +16,52 @@
 
 package com.alibaba.cloud.ai.application.advisor;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
 import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.util.StringUtils;
 
-import java.util.List;
-import java.util.Objects;
-
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  *
- * Incorporate DeepSeek-R1's reasoning content into the output
+ * Incorporate DeepSeek-R1's reasoning content into the output.
+ * <p>
+ * 流式输出时按状态机处理每个 chunk：第一个推理 chunk 前输出一次 {@code <think>}，
+ * 第一个回答 chunk 前（或流结束时）输出一次 {@code </think>}，中间的推理 chunk 原样作为文本输出，不做字符串拼接。
+ * dropReasoning 为 true 时不输出推理内容，只包含推理内容的 chunk 直接丢弃。
  */
 
 public class ReasoningContentAdvisor implements BaseAdvisor {
 
+	public static final String REASONING_CONTENT = "reasoningContent";
+
+	private static final String THINK_START = "<think>";
+
+	private static final String THINK_END = "</think>";
+
 	private final int order;
 
+	private final boolean dropReasoning;
+
 	public ReasoningContentAdvisor(Integer order) {
+		this(order, false);
+	}
+
+	public ReasoningContentAdvisor(Integer order, boolean dropReasoning) {
 		this.order = order != null ? order : 0;
+		this.dropReasoning = dropReasoning;
 	}
 
 	@Override
@@ -48,43 +69,168 @@ public class ReasoningContentAdvisor implements BaseAdvisor {
 
 		return this.order;
 	}
-	
+
 	@Override
 	public ChatClientRequest before(final ChatClientRequest chatClientRequest, final AdvisorChain advisorChain) {
 		return chatClientRequest;
 	}
-	
+
+	/**
+	 * 非流式调用，完整的推理内容一次性拼接到回答之前
+	 */
 	@Override
 	public ChatClientResponse after(final ChatClientResponse chatClientResponse, final AdvisorChain advisorChain) {
-		
+
 		ChatResponse resp = chatClientResponse.chatResponse();
+		if (resp == null || resp.getResult() == null || dropReasoning) {
+			return chatClientResponse;
+		}
 
-		if (Objects.isNull(resp)) {
+		AssistantMessage output = resp.getResult().getOutput();
+		String reasoningContent = reasoningContent(output);
+		if (reasoningContent == null) {
 			return chatClientResponse;
 		}
 
-		// 注释，避免冗长的日志打印
-		// logger.debug("Advisor metadata output: {}", resp.getResults().get(0).getOutput().getMetadata());
-		String reasoningContent = String.valueOf(resp.getResults().get(0).getOutput().getMetadata().get("reasoningContent"));
-		// logger.debug("Advisor reasoning content: {}", reasoningContent);
-		if (StringUtils.hasText(reasoningContent)) {
-			List<Generation> thinkGenerations = resp.getResults().stream()
-					.map(generation -> {
-						AssistantMessage output = generation.getOutput();
-						AssistantMessage thinkAssistantMessage = AssistantMessage.builder()
-							.content(String.format("<think>%s</think>", reasoningContent) + output.getText())
-							.properties(output.getMetadata())
-							.toolCalls(output.getToolCalls())
-							.media(output.getMedia())
-							.build();
-						return new Generation(thinkAssistantMessage, generation.getMetadata());
-					}).toList();
-			
-			ChatResponse thinkChatResp = ChatResponse.builder().from(resp).generations(thinkGenerations).build();
-			return ChatClientResponse.builder().context(chatClientResponse.context()).chatResponse(thinkChatResp).build();
-			
+		String text = output.getText() != null ? output.getText() : "";
+		String content = new StringBuilder(THINK_START.length() + reasoningContent.length() + THINK_END.length() + text.length())
+				.append(THINK_START)
+				.append(reasoningContent)
+				.append(THINK_END)
+				.append(text)
+				.toString();
+
+		return rewrite(chatClientResponse, content);
+	}
+
+	@Override
+	public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+
+		// 每次订阅使用独立的状态
+		return Flux.defer(() -> {
+			ThinkState state = new ThinkState();
+			return streamAdvisorChain.nextStream(chatClientRequest)
+					.mapNotNull(state::next)
+					.concatWith(Mono.fromSupplier(state::complete));
+		});
+	}
+
+	/**
+	 * @return 没有推理内容时返回 null
+	 */
+	private static String reasoningContent(AssistantMessage output) {
+
+		Object reasoningContent = output.getMetadata().get(REASONING_CONTENT);
+		return reasoningContent instanceof String text && !text.isEmpty() ? text : null;
+	}
+
+	/**
+	 * 只替换第一个 generation 的文本，其余字段保持不变
+	 */
+	private static ChatClientResponse rewrite(ChatClientResponse chatClientResponse, String content) {
+
+		ChatResponse resp = chatClientResponse.chatResponse();
+		Generation generation = resp.getResult();
+		AssistantMessage output = generation.getOutput();
+
+		AssistantMessage message = AssistantMessage.builder()
+				.content(content)
+				.properties(output.getMetadata())
+				.toolCalls(output.getToolCalls())
+				.media(output.getMedia())
+				.build();
+
+		List<Generation> generations = new ArrayList<>(resp.getResults());
+		generations.set(0, new Generation(message, generation.getMetadata()));
+
+		return ChatClientResponse.builder()
+				.context(chatClientResponse.context())
+				.chatResponse(ChatResponse.builder().from(resp).generations(generations).build())
+				.build();
+	}
+
+	private final class ThinkState {
+
+		private boolean thinking;
+
+		private boolean answered;
+
+		private ChatClientResponse last;
+
+		/**
+		 * @return 需要丢弃的 chunk 返回 null
+		 */
+		private ChatClientResponse next(ChatClientResponse response) {
+
+			ChatResponse resp = response.chatResponse();
+			if (resp == null || resp.getResult() == null) {
+				return response;
+			}
+			last = response;
+
+			AssistantMessage output = resp.getResult().getOutput();
+			String reasoningContent = reasoningContent(output);
+			String text = output.getText();
+			boolean answering = StringUtils.hasLength(text) || output.hasToolCalls();
+
+			if (dropReasoning || answered) {
+				return reasoningContent != null && !answering ? null : response;
+			}
+
+			if (answering) {
+				answered = true;
+				if (!thinking && reasoningContent == null) {
+					return response;
+				}
+
+				// 推理结束，补齐 </think> 后接回答文本
+				StringBuilder content = new StringBuilder();
+				if (!thinking) {
+					content.append(THINK_START);
+				}
+				if (reasoningContent != null) {
+					content.append(reasoningContent);
+				}
+				content.append(THINK_END);
+				if (text != null) {
+					content.append(text);
+				}
+				thinking = false;
+
+				return rewrite(response, content.toString());
+			}
+
+			if (reasoningContent == null) {
+				return response;
+			}
+			if (thinking) {
+				return rewrite(response, reasoningContent);
+			}
+
+			thinking = true;
+			return rewrite(response, THINK_START.concat(reasoningContent));
+		}
+
+		/**
+		 * 流结束时仍在推理中，补一个只包含 </think> 的 chunk
+		 */
+		private ChatClientResponse complete() {
+
+			if (!thinking || last == null) {
+				return null;
+			}
+			thinking = false;
+
+			ChatResponse closing = ChatResponse.builder()
+					.generations(List.of(new Generation(new AssistantMessage(THINK_END))))
+					.build();
+
+			return ChatClientResponse.builder()
+					.context(last.context())
+					.chatResponse(closing)
+					.build();
 		}
-		
-		return chatClientResponse;
+
 	}
+
 }
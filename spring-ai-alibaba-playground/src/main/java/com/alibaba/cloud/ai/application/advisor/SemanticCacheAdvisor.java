@@ -0,0 +1,365 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.advisor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * 语义缓存 Advisor：对归一化后的用户问题做 embedding，命中相似问题的历史回答时直接返回，不再请求模型。
+ * <p>
+ * 只缓存会话中的第一轮问题，避免多轮对话中依赖上下文的追问命中其他会话的回答。
+ * 需要放在 MessageChatMemoryAdvisor 之后执行，命中的回答仍然会写入会话记忆。
+ */
+
+public class SemanticCacheAdvisor implements BaseAdvisor {
+
+	private static final Logger logger = LoggerFactory.getLogger(SemanticCacheAdvisor.class);
+
+	public static final String CACHE_HIT = "semantic_cache_hit";
+
+	private static final int DEFAULT_ORDER = Advisor.DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER + 1;
+
+	private final EmbeddingModel embeddingModel;
+
+	private final SemanticResponseCache cache;
+
+	private final int order;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong lookupNanos = new AtomicLong();
+
+	private final Counter hitCounter;
+
+	private final Counter missCounter;
+
+	private final Timer lookupTimer;
+
+	private SemanticCacheAdvisor(Builder builder) {
+
+		Assert.notNull(builder.embeddingModel, "embeddingModel must not be null");
+		Assert.notNull(builder.cache, "cache must not be null");
+		Assert.notNull(builder.meterRegistry, "meterRegistry must not be null");
+
+		this.embeddingModel = builder.embeddingModel;
+		this.cache = builder.cache;
+		this.order = builder.order;
+
+		this.hitCounter = Counter.builder("playground.semantic.cache.requests")
+				.tag("result", "hit")
+				.register(builder.meterRegistry);
+		this.missCounter = Counter.builder("playground.semantic.cache.requests")
+				.tag("result", "miss")
+				.register(builder.meterRegistry);
+		this.lookupTimer = Timer.builder("playground.semantic.cache.lookup")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(builder.meterRegistry);
+	}
+
+	@Override
+	public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+
+		Lookup lookup = lookup(chatClientRequest);
+		if (lookup == null) {
+			return callAdvisorChain.nextCall(chatClientRequest);
+		}
+		if (lookup.answer() != null) {
+			return replay(chatClientRequest, lookup.answer());
+		}
+
+		ChatClientResponse response = callAdvisorChain.nextCall(chatClientRequest);
+		store(lookup, response);
+
+		return response;
+	}
+
+	@Override
+	public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+
+		// embedding 为阻塞调用，切换到 scheduler 执行
+		return Mono.fromCallable(() -> Optional.ofNullable(lookup(chatClientRequest)))
+				.subscribeOn(getScheduler())
+				.flatMapMany(lookup -> {
+					if (lookup.isEmpty()) {
+						return streamAdvisorChain.nextStream(chatClientRequest);
+					}
+					if (lookup.get().answer() != null) {
+						return Flux.just(replay(chatClientRequest, lookup.get().answer()));
+					}
+
+					return new ChatClientMessageAggregator().aggregateChatClientResponse(
+							streamAdvisorChain.nextStream(chatClientRequest),
+							aggregated -> store(lookup.get(), aggregated)
+					);
+				});
+	}
+
+	@Override
+	public ChatClientRequest before(ChatClientRequest chatClientRequest, AdvisorChain advisorChain) {
+
+		return chatClientRequest;
+	}
+
+	@Override
+	public ChatClientResponse after(ChatClientResponse chatClientResponse, AdvisorChain advisorChain) {
+
+		return chatClientResponse;
+	}
+
+	@Override
+	public int getOrder() {
+
+		return this.order;
+	}
+
+	/**
+	 * 缓存统计信息
+	 */
+	public Map<String, Object> stats() {
+
+		long hitCount = hits.get();
+		long missCount = misses.get();
+		long total = hitCount + missCount;
+
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", cache.size());
+		stats.put("hits", hitCount);
+		stats.put("misses", missCount);
+		stats.put("hitRate", total == 0 ? 0 : (double) hitCount / total);
+		stats.put("avgLookupMillis", total == 0 ? 0 : lookupNanos.get() / total / 1_000_000.0);
+
+		return stats;
+	}
+
+	/**
+	 * @return 不适用缓存时返回 null
+	 */
+	private Lookup lookup(ChatClientRequest request) {
+
+		Prompt prompt = request.prompt();
+		if (!isCacheable(prompt)) {
+			return null;
+		}
+
+		String partition = partition(prompt);
+		String text = normalize(prompt.getUserMessage().getText());
+
+		long start = System.nanoTime();
+		try {
+			Optional<String> exact = cache.getExact(partition, text);
+			if (exact.isPresent()) {
+				return hit(partition, text, exact.get());
+			}
+
+			float[] embedding = embeddingModel.embed(text);
+			Optional<String> similar = cache.getSimilar(partition, embedding);
+			if (similar.isPresent()) {
+				return hit(partition, text, similar.get());
+			}
+
+			misses.incrementAndGet();
+			missCounter.increment();
+			return new Lookup(partition, text, embedding, null);
+		}
+		finally {
+			long elapsed = System.nanoTime() - start;
+			lookupNanos.addAndGet(elapsed);
+			lookupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Lookup hit(String partition, String text, String answer) {
+
+		logger.debug("Semantic cache hit, partition: {}, prompt: {}", partition, text);
+		hits.incrementAndGet();
+		hitCounter.increment();
+
+		return new Lookup(partition, text, null, answer);
+	}
+
+	private void store(Lookup lookup, ChatClientResponse response) {
+
+		ChatResponse chatResponse = response.chatResponse();
+		if (chatResponse == null || chatResponse.getResult() == null) {
+			return;
+		}
+
+		AssistantMessage output = chatResponse.getResult().getOutput();
+		if (output.hasToolCalls() || !StringUtils.hasText(output.getText())) {
+			return;
+		}
+
+		cache.put(lookup.partition(), lookup.text(), lookup.embedding(), output.getText());
+	}
+
+	private ChatClientResponse replay(ChatClientRequest request, String answer) {
+
+		ChatResponse chatResponse = ChatResponse.builder()
+				.generations(List.of(new Generation(
+						new AssistantMessage(answer),
+						ChatGenerationMetadata.builder().finishReason("STOP").build()
+				)))
+				.metadata(CACHE_HIT, true)
+				.build();
+
+		return ChatClientResponse.builder()
+				.chatResponse(chatResponse)
+				.context(request.context())
+				.build();
+	}
+
+	/**
+	 * 只缓存单轮、纯文本的问题
+	 */
+	private static boolean isCacheable(Prompt prompt) {
+
+		List<UserMessage> userMessages = prompt.getUserMessages();
+		if (userMessages.size() != 1 || !userMessages.get(0).getMedia().isEmpty()) {
+			return false;
+		}
+
+		boolean hasHistory = prompt.getInstructions().stream()
+				.anyMatch(message -> message.getMessageType() == MessageType.ASSISTANT
+						|| message.getMessageType() == MessageType.TOOL);
+
+		return !hasHistory && StringUtils.hasText(userMessages.get(0).getText());
+	}
+
+	/**
+	 * 模型、参数以及系统提示词不同的回答互不命中；使用完整的系统提示词，避免哈希碰撞导致串用回答。
+	 * 参数取 options 的全部 JSON 字段（包括 topP、maxTokens、seed 以及 DashScope 的 enableSearch 等特有参数），
+	 * 再加上工具列表，工具不参与 JSON 序列化
+	 */
+	static String partition(Prompt prompt) {
+
+		ChatOptions options = prompt.getOptions();
+		String system = prompt.getSystemMessage().getText();
+		if (options == null) {
+			return "null|" + system;
+		}
+
+		StringBuilder partition = new StringBuilder(options.getClass().getName())
+				.append('|')
+				.append(ModelOptionsUtils.toJsonString(options));
+		if (options instanceof ToolCallingChatOptions toolOptions) {
+			Set<String> tools = new TreeSet<>(toolOptions.getToolNames());
+			toolOptions.getToolCallbacks().forEach(callback -> tools.add(callback.getToolDefinition().name()));
+			partition.append('|').append(tools);
+		}
+
+		return partition.append('|').append(system).toString();
+	}
+
+	private static String normalize(String text) {
+
+		return text.trim()
+				.toLowerCase(Locale.ROOT)
+				.replaceAll("\\s+", " ")
+				.replaceAll("[\\p{Punct}？！。，、；：]+$", "");
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param embedding 未命中时的问题向量，命中时为 null
+	 * @param answer    命中的回答，未命中时为 null
+	 */
+	private record Lookup(String partition, String text, float[] embedding, String answer) {
+	}
+
+	public static final class Builder {
+
+		private EmbeddingModel embeddingModel;
+
+		private SemanticResponseCache cache;
+
+		private MeterRegistry meterRegistry;
+
+		private int order = DEFAULT_ORDER;
+
+		private Builder() {
+		}
+
+		public Builder embeddingModel(EmbeddingModel embeddingModel) {
+			this.embeddingModel = embeddingModel;
+			return this;
+		}
+
+		public Builder cache(SemanticResponseCache cache) {
+			this.cache = cache;
+			return this;
+		}
+
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
+		public Builder order(int order) {
+			this.order = order;
+			return this;
+		}
+
+		public SemanticCacheAdvisor build() {
+			return new SemanticCacheAdvisor(this);
+		}
+
+	}
+
+}
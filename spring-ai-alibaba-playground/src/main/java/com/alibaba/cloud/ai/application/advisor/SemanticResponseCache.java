@@ -0,0 +1,334 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.advisor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.util.Assert;
+
+/**
+ * 以向量为 key 的进程内回答缓存。
+ * <p>
+ * 1. 按 partition（模型 + 参数 + 系统提示词）隔离，不同模型的回答不会互相命中；
+ * 2. 归一化后文本完全相同时直接命中，不需要向量计算；
+ * 3. 否则在 partition 内按余弦相似度查找，超过阈值视为命中；
+ * 4. 条目超过 TTL 失效，总条目数超过上限时淘汰最久未访问的条目。
+ * <p>
+ * 所有条目放在一个按访问顺序排列的 LinkedHashMap 中，命中时移到队尾，超出上限时从队首淘汰，
+ * 写入、命中和淘汰都是 O(1)。每个 partition 另外维护一个紧凑数组供相似度扫描，删除时用末尾元素填补空位，
+ * 扫描只持有该 partition 的读锁，不会阻塞其他 partition 的查询。
+ * <p>
+ * 过期条目在查询时跳过并删除，没有再被访问的过期条目会沉到 LRU 队首，由后续写入淘汰。
+ */
+
+public class SemanticResponseCache {
+
+	private final double similarityThreshold;
+
+	private final Duration ttl;
+
+	private final int maxSize;
+
+	private final Clock clock;
+
+	/**
+	 * 保护 lru 以及所有 partition 的修改；需要同时持有 partition 写锁时总是先拿这个锁
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final LinkedHashMap<Key, Entry> lru = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+	public SemanticResponseCache(double similarityThreshold, Duration ttl, int maxSize) {
+		this(similarityThreshold, ttl, maxSize, Clock.systemUTC());
+	}
+
+	SemanticResponseCache(double similarityThreshold, Duration ttl, int maxSize, Clock clock) {
+
+		Assert.isTrue(similarityThreshold > 0 && similarityThreshold <= 1, "similarityThreshold must be in (0, 1]");
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+		Assert.notNull(ttl, "ttl must not be null");
+
+		this.similarityThreshold = similarityThreshold;
+		this.ttl = ttl;
+		this.maxSize = maxSize;
+		this.clock = clock;
+	}
+
+	/**
+	 * 按归一化文本精确查找
+	 */
+	public Optional<String> getExact(String partition, String text) {
+
+		long now = clock.millis();
+		lock.lock();
+		try {
+			Entry entry = lru.get(new Key(partition, text));
+			if (entry == null) {
+				return Optional.empty();
+			}
+			if (entry.isExpired(now)) {
+				remove(entry);
+				return Optional.empty();
+			}
+			return Optional.of(entry.answer);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 在 partition 内查找与 embedding 最相似且超过阈值的回答
+	 */
+	public Optional<String> getSimilar(String partition, float[] embedding) {
+
+		Partition entries = partitions.get(partition);
+		if (entries == null) {
+			return Optional.empty();
+		}
+
+		float[] query = normalize(embedding);
+		long now = clock.millis();
+		Entry best = null;
+		double bestScore = similarityThreshold;
+
+		// 过期条目只跳过，由 LRU 淘汰
+		entries.rw.readLock().lock();
+		try {
+			for (int i = 0; i < entries.count; i++) {
+				Entry entry = entries.entries[i];
+				if (entry.isExpired(now)) {
+					continue;
+				}
+
+				double score = dot(query, entry.embedding);
+				if (score >= bestScore) {
+					best = entry;
+					bestScore = score;
+				}
+			}
+		}
+		finally {
+			entries.rw.readLock().unlock();
+		}
+
+		if (best == null) {
+			return Optional.empty();
+		}
+
+		// 移到 LRU 队尾；扫描后条目可能已被替换或淘汰，此时不再更新
+		lock.lock();
+		try {
+			lru.get(best.key);
+		}
+		finally {
+			lock.unlock();
+		}
+		return Optional.of(best.answer);
+	}
+
+	public void put(String partition, String text, float[] embedding, String answer) {
+
+		long now = clock.millis();
+		Entry entry = new Entry(new Key(partition, text), normalize(embedding), answer, now + ttl.toMillis());
+
+		lock.lock();
+		try {
+			Entry previous = lru.put(entry.key, entry);
+			if (previous != null) {
+				partitions.get(partition).remove(previous);
+			}
+			partitions.computeIfAbsent(partition, key -> new Partition()).add(entry);
+
+			Iterator<Entry> eldest = lru.values().iterator();
+			while (lru.size() > maxSize) {
+				Entry evicted = eldest.next();
+				eldest.remove();
+				detach(evicted);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+
+		lock.lock();
+		try {
+			return lru.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+
+		lock.lock();
+		try {
+			lru.clear();
+			partitions.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 需持有 lock
+	 */
+	private void remove(Entry entry) {
+
+		lru.remove(entry.key, entry);
+		detach(entry);
+	}
+
+	/**
+	 * 从 partition 的扫描数组中移除，partition 为空时一并移除；需持有 lock
+	 */
+	private void detach(Entry entry) {
+
+		Partition entries = partitions.get(entry.key.partition());
+		entries.remove(entry);
+		if (entries.count == 0) {
+			partitions.remove(entry.key.partition());
+		}
+	}
+
+	private static float[] normalize(float[] vector) {
+
+		double norm = 0;
+		for (float v : vector) {
+			norm += v * v;
+		}
+		norm = Math.sqrt(norm);
+
+		float[] normalized = new float[vector.length];
+		if (norm == 0) {
+			return normalized;
+		}
+		for (int i = 0; i < vector.length; i++) {
+			normalized[i] = (float) (vector[i] / norm);
+		}
+
+		return normalized;
+	}
+
+	private static double dot(float[] a, float[] b) {
+
+		if (a.length != b.length) {
+			return -1;
+		}
+
+		double sum = 0;
+		for (int i = 0; i < a.length; i++) {
+			sum += a[i] * b[i];
+		}
+
+		return sum;
+	}
+
+	/**
+	 * 修改需同时持有缓存的 lock 和本 partition 的写锁，相似度扫描只需读锁
+	 */
+	private static final class Partition {
+
+		private final ReentrantReadWriteLock rw = new ReentrantReadWriteLock();
+
+		private Entry[] entries = new Entry[8];
+
+		private int count;
+
+		private void add(Entry entry) {
+
+			rw.writeLock().lock();
+			try {
+				if (count == entries.length) {
+					entries = Arrays.copyOf(entries, count * 2);
+				}
+				entry.index = count;
+				entries[count++] = entry;
+			}
+			finally {
+				rw.writeLock().unlock();
+			}
+		}
+
+		/**
+		 * 用末尾条目填补被删除的位置
+		 */
+		private void remove(Entry entry) {
+
+			rw.writeLock().lock();
+			try {
+				Entry last = entries[--count];
+				entries[entry.index] = last;
+				last.index = entry.index;
+				entries[count] = null;
+			}
+			finally {
+				rw.writeLock().unlock();
+			}
+		}
+
+	}
+
+	private record Key(String partition, String text) {
+	}
+
+	private static final class Entry {
+
+		private final Key key;
+
+		private final float[] embedding;
+
+		private final String answer;
+
+		private final long expireAt;
+
+		/**
+		 * 在 partition 扫描数组中的位置
+		 */
+		private int index;
+
+		private Entry(Key key, float[] embedding, String answer, long expireAt) {
+			this.key = key;
+			this.embedding = embedding;
+			this.answer = answer;
+			this.expireAt = expireAt;
+		}
+
+		private boolean isExpired(long now) {
+
+			return now >= expireAt;
+		}
+
+	}
+
+}
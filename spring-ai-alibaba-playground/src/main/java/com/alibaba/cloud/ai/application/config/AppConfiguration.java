@@ -16,11 +16,21 @@
 
 package com.alibaba.cloud.ai.application.config;
 
+import com.alibaba.cloud.ai.application.advisor.SemanticCacheAdvisor;
+import com.alibaba.cloud.ai.application.advisor.SemanticResponseCache;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -32,6 +42,7 @@ import org.springframework.context.annotation.Configuration;
  */
 
 @Configuration
+@EnableConfigurationProperties(SemanticCacheProperties.class)
 public class AppConfiguration {
 
 	private static final String AI_DASHSCOPE_API_KEY_PREFIX = "AI_DASHSCOPE_API_KEY";
@@ -49,6 +60,24 @@ public class AppConfiguration {
 		return MessageChatMemoryAdvisor.builder(chatMemory).build();
 	}
 
+	/**
+	 * 语义缓存，相同或相似的首轮问题直接返回缓存的回答
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = SemanticCacheProperties.SEMANTIC_CACHE_PREFIX, name = "enabled", havingValue = "true")
+	public SemanticCacheAdvisor semanticCacheAdvisor(
+			SemanticCacheProperties properties,
+			@Qualifier("dashscopeEmbeddingModel") EmbeddingModel embeddingModel,
+			ObjectProvider<MeterRegistry> meterRegistry
+	) {
+
+		return SemanticCacheAdvisor.builder()
+				.embeddingModel(embeddingModel)
+				.cache(new SemanticResponseCache(properties.similarityThreshold(), properties.ttl(), properties.maxSize()))
+				.meterRegistry(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry))
+				.build();
+	}
+
 	@Bean
 	public ToolCallingManager toolCallingManager() {
 
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import com.alibaba.cloud.ai.application.mcp.McpServerUtils;
+import com.alibaba.cloud.ai.application.utils.ModelsUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpStdioClientProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * models.yaml 和 mcp-config.yml 的解析结果快照：
+ * 1. 启动时解析一次，请求中只读取不可变的快照，模型名校验为 Set 查找；
+ * 2. 配置文件位于文件系统时（非 jar 包运行）通过 WatchService 监听变更，重新解析成功后整体替换快照；
+ * 3. 重新解析失败时保留上一份快照；
+ * 4. 快照替换后通知监听器，例如按新的 mcp-config.yml 刷新 McpServerContainer。
+ */
+
+@Component
+public class ConfigSnapshotService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotService.class);
+
+	private static final String MODELS_FILE_PATH = "models.yaml";
+
+	private static final String MCP_CONFIG_FILE_PATH = "mcp-config.yml";
+
+	private static final List<String> WATCHED_FILES = List.of(MODELS_FILE_PATH, MCP_CONFIG_FILE_PATH);
+
+	private final boolean watch;
+
+	private volatile Snapshot snapshot;
+
+	private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+
+	private WatchService watchService;
+
+	public ConfigSnapshotService(@Value("${spring.ai.alibaba.playground.config.watch:true}") boolean watch) {
+
+		this.watch = watch;
+
+		try {
+			this.snapshot = load();
+		}
+		catch (IOException | RuntimeException e) {
+			throw new SAAAppException("Load playground config failed, " + e.getMessage());
+		}
+	}
+
+	public Snapshot getSnapshot() {
+
+		return snapshot;
+	}
+
+	/**
+	 * 注册快照重新加载后的回调，回调在监听线程中执行，启动时的首次加载不会触发
+	 */
+	public void addListener(Consumer<Snapshot> listener) {
+
+		listeners.add(listener);
+	}
+
+	@PostConstruct
+	public void startWatching() throws IOException {
+
+		if (!watch) {
+			return;
+		}
+
+		Set<Path> dirs = new LinkedHashSet<>();
+		for (String file : WATCHED_FILES) {
+			ClassPathResource resource = new ClassPathResource(file);
+			if (resource.isFile()) {
+				dirs.add(resource.getFile().toPath().getParent());
+			}
+		}
+		if (dirs.isEmpty()) {
+			logger.debug("Playground config files are not on the file system, skip watching");
+			return;
+		}
+
+		watchService = FileSystems.getDefault().newWatchService();
+		for (Path dir : dirs) {
+			dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		}
+
+		Thread watcher = new Thread(this::watchLoop, "config-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+
+		logger.info("Watching playground config files in {}", dirs);
+	}
+
+	@PreDestroy
+	public void stopWatching() throws IOException {
+
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+
+	private void watchLoop() {
+
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.context() instanceof Path path && WATCHED_FILES.contains(path.getFileName().toString())) {
+						changed = true;
+					}
+				}
+				key.reset();
+
+				if (changed) {
+					reload();
+				}
+			}
+		}
+		catch (ClosedWatchServiceException e) {
+			logger.debug("Config watcher closed");
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	void reload() {
+
+		Snapshot reloaded;
+		try {
+			reloaded = load();
+		}
+		catch (IOException | RuntimeException e) {
+			logger.warn("Reload playground config failed, keep previous snapshot: {}", e.getMessage());
+			return;
+		}
+
+		snapshot = reloaded;
+		logger.info("Reloaded playground config, {} models, {} mcp servers",
+				reloaded.modelNames().size(), reloaded.mcpServers().size());
+
+		for (Consumer<Snapshot> listener : listeners) {
+			try {
+				listener.accept(reloaded);
+			}
+			catch (RuntimeException e) {
+				logger.warn("Playground config listener failed: {}", e.getMessage());
+			}
+		}
+	}
+
+	private static Snapshot load() throws IOException {
+
+		Set<Map<String, String>> models = ModelsUtils.getDashScopeModels().stream()
+				.map(Collections::unmodifiableMap)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+
+		Set<String> modelNames = models.stream()
+				.map(model -> model.get(ModelsUtils.MODEL))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet());
+
+		// 丢弃 McpServerUtils 中缓存的配置，读取文件的最新内容；返回的已经是独立的副本
+		McpServerUtils.invalidateMcpServerConfig();
+		Map<String, McpStdioClientProperties.Parameters> mcpServers = McpServerUtils.getMcpServerConfig().getMcpServers();
+
+		return new Snapshot(
+				Collections.unmodifiableSet(models),
+				modelNames,
+				Collections.unmodifiableMap(mcpServers)
+		);
+	}
+
+	/**
+	 * @param dashScopeModels 模型列表，每个元素包含 model 和 desc
+	 * @param modelNames      模型名集合，用于请求中的模型校验
+	 * @param mcpServers      MCP Server 名称到启动参数的映射
+	 */
+	public record Snapshot(Set<Map<String, String>> dashScopeModels,
+						   Set<String> modelNames,
+						   Map<String, McpStdioClientProperties.Parameters> mcpServers) {
+	}
+
+}
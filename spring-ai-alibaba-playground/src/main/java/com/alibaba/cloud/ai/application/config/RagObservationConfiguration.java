@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config;
+
+import com.alibaba.cloud.ai.application.observation.RagStageObservationHandler;
+import com.alibaba.cloud.ai.application.observation.RagStageObserver;
+import com.alibaba.cloud.ai.application.observation.RagStageRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RAG 各阶段耗时统计
+ */
+
+@Configuration
+public class RagObservationConfiguration {
+
+	@Bean
+	public RagStageRecorder ragStageRecorder() {
+
+		return new RagStageRecorder();
+	}
+
+	@Bean
+	public RagStageObserver ragStageObserver(
+			ObjectProvider<ObservationRegistry> observationRegistry,
+			ObjectProvider<MeterRegistry> meterRegistry,
+			RagStageRecorder ragStageRecorder
+	) {
+
+		// 未引入 actuator 时容器中没有 ObservationRegistry，创建一个只用于 RAG 阶段统计的 registry
+		ObservationRegistry registry = observationRegistry.getIfAvailable(ObservationRegistry::create);
+		registry.observationConfig().observationHandler(new RagStageObservationHandler(
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+				ragStageRecorder
+		));
+
+		return new RagStageObserver(registry);
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 对话语义缓存配置
+ *
+ * @param enabled             是否开启
+ * @param similarityThreshold 余弦相似度阈值，超过该值视为相同问题
+ * @param ttl                 缓存条目有效期
+ * @param maxSize             缓存条目上限，超出后按 LRU 淘汰
+ */
+@ConfigurationProperties(prefix = SemanticCacheProperties.SEMANTIC_CACHE_PREFIX)
+public record SemanticCacheProperties(Boolean enabled,
+									  Double similarityThreshold,
+									  Duration ttl,
+									  Integer maxSize) {
+
+	public static final String SEMANTIC_CACHE_PREFIX = "spring.ai.alibaba.playground.semantic-cache";
+
+	public SemanticCacheProperties {
+		// 未命中时会多一次 embedding 调用，默认关闭
+		enabled = enabled != null && enabled;
+		similarityThreshold = similarityThreshold == null ? 0.95 : similarityThreshold;
+		ttl = ttl == null ? Duration.ofHours(1) : ttl;
+		maxSize = maxSize == null ? 10_000 : maxSize;
+	}
+}
@@ -31,6 +31,11 @@ import java.lang.reflect.Field;
 
 public class SyncMcpToolCallbackWrapper {
 
+	/**
+	 * 反射字段只查找一次
+	 */
+	private static final Field MCP_CLIENT_FIELD = mcpClientField();
+
 	private final SyncMcpToolCallback callback;
 
 	public SyncMcpToolCallbackWrapper(SyncMcpToolCallback callback) {
@@ -39,12 +44,21 @@ public class SyncMcpToolCallbackWrapper {
 
 	public McpSyncClient getMcpClient() {
 
+		try {
+			return (McpSyncClient) MCP_CLIENT_FIELD.get(callback);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static Field mcpClientField() {
+
 		try {
 			Field field = SyncMcpToolCallback.class.getDeclaredField("mcpClient");
 			field.setAccessible(true);
-			return (McpSyncClient) field.get(callback);
-		} catch (NoSuchFieldException | IllegalAccessException e) {
-			throw new RuntimeException(e);
+			return field;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(e);
 		}
 	}
 
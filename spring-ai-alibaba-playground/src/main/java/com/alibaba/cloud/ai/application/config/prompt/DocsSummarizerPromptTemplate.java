@@ -58,4 +58,25 @@ public class DocsSummarizerPromptTemplate {
 		);
 	}
 
+	/**
+	 * 长文档 map-reduce 摘要中，对单个分段（或下一层的多个分段摘要）进行摘要
+	 */
+	@Bean
+	public PromptTemplate chunkSummarizerPromptTemplate() {
+
+		return new PromptTemplate(
+				"""
+				You are an AI assistant specialized in summarizing documents. You will receive one part of a longer document,
+				or several summaries of consecutive parts. Summarize it so that it can later be merged with the summaries of the other parts:
+				
+					Keep every main point, key fact, number, name and conclusion; drop examples and repetition.
+					Keep the original order of the content.
+					Do not add an introduction or a closing remark, and do not mention that this is a part of a document.
+					The summary should be no longer than 3 paragraphs.
+				
+				Except for Code. Aside from the specific name and citation, your answer must be written in the same language as the text.
+				"""
+		);
+	}
+
 }
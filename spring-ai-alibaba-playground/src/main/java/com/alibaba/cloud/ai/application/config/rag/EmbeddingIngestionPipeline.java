@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.util.Assert;
+
+/**
+ * 向量存储写入管道：
+ * 1. 按 token 数（同时限制文档数）切分批次；
+ * 2. 限制同时进行的 embedding 请求数，批次完成即写入向量存储；
+ * 3. 单个批次遇到临时错误时按指数退避重试。
+ */
+
+public class EmbeddingIngestionPipeline {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmbeddingIngestionPipeline.class);
+
+	private final VectorStore vectorStore;
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	private final int maxTokensPerBatch;
+
+	private final int maxDocumentsPerBatch;
+
+	private final int maxConcurrency;
+
+	private final int maxRetries;
+
+	private final Duration retryBackoff;
+
+	private final Scheduler scheduler;
+
+	private EmbeddingIngestionPipeline(Builder builder) {
+
+		Assert.notNull(builder.vectorStore, "vectorStore must not be null");
+		Assert.isTrue(builder.maxTokensPerBatch > 0, "maxTokensPerBatch must be greater than 0");
+		Assert.isTrue(builder.maxDocumentsPerBatch > 0, "maxDocumentsPerBatch must be greater than 0");
+		Assert.isTrue(builder.maxConcurrency > 0, "maxConcurrency must be greater than 0");
+
+		this.vectorStore = builder.vectorStore;
+		this.tokenCountEstimator = builder.tokenCountEstimator;
+		this.maxTokensPerBatch = builder.maxTokensPerBatch;
+		this.maxDocumentsPerBatch = builder.maxDocumentsPerBatch;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.maxRetries = builder.maxRetries;
+		this.retryBackoff = builder.retryBackoff;
+		this.scheduler = builder.scheduler;
+	}
+
+	/**
+	 * 写入全部文档，阻塞直到所有批次完成。任一批次重试耗尽后抛出异常。
+	 */
+	public IngestionResult ingest(List<Document> documents) {
+
+		if (documents.isEmpty()) {
+			return new IngestionResult(0, 0, 0, 0);
+		}
+
+		List<List<Document>> batches = batch(documents);
+		List<Long> batchLatencies = Collections.synchronizedList(new ArrayList<>(batches.size()));
+		AtomicInteger completed = new AtomicInteger();
+		long start = System.nanoTime();
+
+		Flux.fromIterable(batches)
+				.flatMap(batch -> Mono.fromRunnable(() -> {
+									long batchStart = System.nanoTime();
+									vectorStore.add(batch);
+									batchLatencies.add(System.nanoTime() - batchStart);
+								})
+								.subscribeOn(scheduler)
+								.retryWhen(Retry.backoff(maxRetries, retryBackoff)
+										.filter(e -> !(e instanceof NonTransientAiException))
+										.doBeforeRetry(signal -> logger.warn("Embedding batch of {} documents failed, retry {}/{}: {}",
+												batch.size(), signal.totalRetries() + 1, maxRetries, signal.failure().getMessage())))
+								.doOnSuccess(ignored -> logger.debug("Embedding batch {}/{} completed", completed.incrementAndGet(), batches.size())),
+						maxConcurrency)
+				.then()
+				.block();
+
+		long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+		IngestionResult result = new IngestionResult(documents.size(), batches.size(), elapsedMillis, p99Millis(batchLatencies));
+
+		logger.info("Ingested {} documents in {} batches, {} ms, {} docs/sec, p99 batch latency {} ms",
+				result.documents(), result.batches(), result.elapsedMillis(),
+				String.format("%.1f", result.documentsPerSecond()), result.p99BatchMillis());
+
+		return result;
+	}
+
+	/**
+	 * 按 token 数和文档数切分批次，单个超出 token 上限的文档独占一个批次。
+	 */
+	List<List<Document>> batch(List<Document> documents) {
+
+		List<List<Document>> batches = new ArrayList<>();
+		List<Document> current = new ArrayList<>();
+		int currentTokens = 0;
+
+		for (Document document : documents) {
+			int tokens = tokenCountEstimator.estimate(document.getText());
+
+			if (!current.isEmpty() && (currentTokens + tokens > maxTokensPerBatch || current.size() >= maxDocumentsPerBatch)) {
+				batches.add(current);
+				current = new ArrayList<>();
+				currentTokens = 0;
+			}
+
+			current.add(document);
+			currentTokens += tokens;
+		}
+
+		if (!current.isEmpty()) {
+			batches.add(current);
+		}
+
+		return batches;
+	}
+
+	private static long p99Millis(List<Long> latencies) {
+
+		List<Long> sorted;
+		synchronized (latencies) {
+			sorted = new ArrayList<>(latencies);
+		}
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+
+		Collections.sort(sorted);
+		int index = (int) Math.ceil(sorted.size() * 0.99) - 1;
+		return Duration.ofNanos(sorted.get(Math.max(index, 0))).toMillis();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param documents        写入的文档数
+	 * @param batches          批次数
+	 * @param elapsedMillis    总耗时
+	 * @param p99BatchMillis   单批次耗时 p99
+	 */
+	public record IngestionResult(int documents, int batches, long elapsedMillis, long p99BatchMillis) {
+
+		public double documentsPerSecond() {
+
+			return elapsedMillis == 0 ? documents : documents * 1000.0 / elapsedMillis;
+		}
+
+	}
+
+	public static final class Builder {
+
+		private VectorStore vectorStore;
+
+		private TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+
+		// DashScope text-embedding 单次请求最多 25 条文本
+		private int maxDocumentsPerBatch = 25;
+
+		private int maxTokensPerBatch = 8192;
+
+		private int maxConcurrency = 4;
+
+		private int maxRetries = 3;
+
+		private Duration retryBackoff = Duration.ofMillis(500);
+
+		private Scheduler scheduler = Schedulers.boundedElastic();
+
+		private Builder() {
+		}
+
+		public Builder vectorStore(VectorStore vectorStore) {
+			this.vectorStore = vectorStore;
+			return this;
+		}
+
+		public Builder tokenCountEstimator(TokenCountEstimator tokenCountEstimator) {
+			this.tokenCountEstimator = tokenCountEstimator;
+			return this;
+		}
+
+		public Builder maxTokensPerBatch(int maxTokensPerBatch) {
+			this.maxTokensPerBatch = maxTokensPerBatch;
+			return this;
+		}
+
+		public Builder maxDocumentsPerBatch(int maxDocumentsPerBatch) {
+			this.maxDocumentsPerBatch = maxDocumentsPerBatch;
+			return this;
+		}
+
+		public Builder maxConcurrency(int maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		public Builder maxRetries(int maxRetries) {
+			this.maxRetries = maxRetries;
+			return this;
+		}
+
+		public Builder retryBackoff(Duration retryBackoff) {
+			this.retryBackoff = retryBackoff;
+			return this;
+		}
+
+		public Builder scheduler(Scheduler scheduler) {
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		public EmbeddingIngestionPipeline build() {
+			return new EmbeddingIngestionPipeline(this);
+		}
+
+	}
+
+}
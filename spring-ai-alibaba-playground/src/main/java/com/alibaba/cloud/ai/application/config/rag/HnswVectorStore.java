@@ -0,0 +1,844 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
+import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
+import org.springframework.ai.vectorstore.filter.converter.SimpleVectorStoreFilterExpressionConverter;
+import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
+import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.Assert;
+
+/**
+ * 基于 HNSW（Hierarchical Navigable Small World）图的内存向量存储，可替代 SimpleVectorStore。
+ * <p>
+ * SimpleVectorStore 每次检索都要和全部向量计算相似度，耗时随文档数线性增长；
+ * HNSW 只访问图中很少的一部分节点，检索耗时近似对数增长，代价是结果为近似最近邻。
+ * <ul>
+ *     <li>m：每个节点每层的最大连接数（第 0 层为 2m），越大召回越高、内存越大；</li>
+ *     <li>efConstruction：建图时的候选集大小，越大图质量越好、写入越慢；</li>
+ *     <li>efSearch：检索时的候选集大小，越大召回越高、检索越慢。</li>
+ * </ul>
+ * 过滤表达式与 SimpleVectorStore 一致（转换为 SpEL 对 metadata 求值），过滤后结果不足 topK 时会扩大候选集重新检索。
+ * 删除只标记节点，被删除的节点仍参与图的导航，但不会出现在检索结果中；
+ * 被删除节点超过 rebuildThreshold 比例时用已有向量重建图（不重新 embedding），保存前也会先压缩，
+ * 持久化文件中不保留被删除的节点。
+ */
+
+public class HnswVectorStore extends AbstractObservationVectorStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(HnswVectorStore.class);
+
+	/**
+	 * "HNSW"
+	 */
+	private static final int MAGIC = 0x484E5357;
+
+	private static final int VERSION = 1;
+
+	/**
+	 * 观测中的向量库名称，VectorStoreProvider 中没有对应的值
+	 */
+	public static final String PROVIDER = "in_memory_hnsw";
+
+	private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+
+	private final int m;
+
+	private final int maxM0;
+
+	private final int efConstruction;
+
+	private final int efSearch;
+
+	private final double levelMultiplier;
+
+	private final double rebuildThreshold;
+
+	private final Random random;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ExpressionParser expressionParser = new SpelExpressionParser();
+
+	private final FilterExpressionConverter filterExpressionConverter = new SimpleVectorStoreFilterExpressionConverter();
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private List<Node> nodes = new ArrayList<>();
+
+	private Map<String, Integer> ids = new HashMap<>();
+
+	private int entryPoint = -1;
+
+	private int maxLevel = -1;
+
+	private int dimensions = -1;
+
+	private int deletedCount;
+
+	protected HnswVectorStore(HnswVectorStoreBuilder builder) {
+
+		super(builder);
+
+		Assert.isTrue(builder.m >= 2, "m must be greater than or equal to 2");
+		Assert.isTrue(builder.efConstruction > 0, "efConstruction must be greater than 0");
+		Assert.isTrue(builder.efSearch > 0, "efSearch must be greater than 0");
+		Assert.isTrue(builder.rebuildThreshold > 0 && builder.rebuildThreshold <= 1, "rebuildThreshold must be in (0, 1]");
+
+		this.m = builder.m;
+		this.maxM0 = builder.m * 2;
+		this.efConstruction = builder.efConstruction;
+		this.efSearch = builder.efSearch;
+		this.levelMultiplier = 1 / Math.log(builder.m);
+		this.random = new Random(builder.seed);
+		this.rebuildThreshold = builder.rebuildThreshold;
+	}
+
+	public static HnswVectorStoreBuilder builder(EmbeddingModel embeddingModel) {
+
+		return new HnswVectorStoreBuilder(embeddingModel);
+	}
+
+	@Override
+	public void doAdd(List<Document> documents) {
+
+		// embedding 在锁外完成，写锁只覆盖建图
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(), this.batchingStrategy);
+
+		lock.writeLock().lock();
+		try {
+			for (int i = 0; i < documents.size(); i++) {
+				Document document = documents.get(i);
+				// 相同 id 视为更新，旧节点标记删除
+				markDeleted(ids.remove(document.getId()));
+				insert(document.getId(), document.getText(), new HashMap<>(document.getMetadata()), normalize(embeddings.get(i)));
+			}
+			rebuildIfNeeded();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void doDelete(List<String> idList) {
+
+		lock.writeLock().lock();
+		try {
+			for (String id : idList) {
+				markDeleted(ids.remove(id));
+			}
+			rebuildIfNeeded();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	protected void doDelete(Filter.Expression filterExpression) {
+
+		Predicate<Node> predicate = filterPredicate(filterExpression);
+
+		lock.writeLock().lock();
+		try {
+			for (int i = 0; i < nodes.size(); i++) {
+				Node node = nodes.get(i);
+				if (!node.deleted && predicate.test(node)) {
+					ids.remove(node.id);
+					markDeleted(i);
+				}
+			}
+			rebuildIfNeeded();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Document> doSimilaritySearch(SearchRequest request) {
+
+		float[] query = normalize(this.embeddingModel.embed(request.getQuery()));
+		Predicate<Node> predicate = request.hasFilterExpression()
+				? filterPredicate(request.getFilterExpression())
+				: node -> true;
+
+		lock.readLock().lock();
+		try {
+			if (entryPoint < 0) {
+				return List.of();
+			}
+			checkDimensions(query);
+
+			int ep = entryPoint;
+			for (int level = maxLevel; level > 0; level--) {
+				ep = greedyClosest(query, ep, level);
+			}
+
+			int ef = Math.max(efSearch, request.getTopK());
+			while (true) {
+				List<Candidate> found = searchLayer(query, new int[] { ep }, ef, 0);
+
+				List<Document> documents = new ArrayList<>(request.getTopK());
+				for (Candidate candidate : found) {
+					Node node = nodes.get(candidate.node());
+					double similarity = 1 - candidate.distance();
+					if (!node.deleted && similarity >= request.getSimilarityThreshold() && predicate.test(node)) {
+						documents.add(toDocument(node, similarity));
+						if (documents.size() >= request.getTopK()) {
+							break;
+						}
+					}
+				}
+
+				// 结果足够、已遍历全部可达节点，或最远的候选已低于阈值时，扩大候选集也不会有更多结果
+				boolean exhausted = found.size() < ef || ef >= nodes.size();
+				boolean belowThreshold = !found.isEmpty()
+						&& 1 - found.get(found.size() - 1).distance() < request.getSimilarityThreshold();
+				if (documents.size() >= request.getTopK() || exhausted || belowThreshold) {
+					return documents;
+				}
+
+				ef = Math.min(ef * 2, nodes.size());
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public VectorStoreObservationContext.Builder createObservationContextBuilder(String operationName) {
+
+		return VectorStoreObservationContext.builder(PROVIDER, operationName)
+				.dimensions(this.embeddingModel.dimensions())
+				.collectionName("in-memory-hnsw")
+				.similarityMetric(VectorStoreSimilarityMetric.COSINE.value());
+	}
+
+	/**
+	 * 未删除的文档数
+	 */
+	public int size() {
+
+		lock.readLock().lock();
+		try {
+			return ids.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 图中的节点数，包含尚未清理的被删除节点
+	 */
+	public int nodeCount() {
+
+		lock.readLock().lock();
+		try {
+			return nodes.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 丢弃被删除的节点，用剩余节点的向量重建图
+	 */
+	public void compact() {
+
+		lock.writeLock().lock();
+		try {
+			if (deletedCount > 0) {
+				rebuild();
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 先压缩，再以二进制格式保存图结构、向量和文档内容，先写临时文件再替换。
+	 */
+	public void save(File file) {
+
+		compact();
+
+		Path target = file.toPath();
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		int count;
+
+		lock.readLock().lock();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(dimensions);
+			out.writeInt(m);
+			out.writeInt(entryPoint);
+			out.writeInt(maxLevel);
+			count = nodes.size();
+			out.writeInt(count);
+
+			for (Node node : nodes) {
+				out.writeBoolean(node.deleted);
+				// 被删除的节点只保留向量和连接，用于导航
+				if (!node.deleted) {
+					writeString(out, node.id);
+					writeString(out, node.text);
+					writeString(out, objectMapper.writeValueAsString(node.metadata));
+				}
+				for (float v : node.vector) {
+					out.writeFloat(v);
+				}
+				out.writeInt(node.neighbors.length);
+				for (int[] links : node.neighbors) {
+					out.writeInt(links.length);
+					for (int link : links) {
+						out.writeInt(link);
+					}
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Failed to save hnsw index to " + file, e);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		try {
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Failed to save hnsw index to " + file, e);
+		}
+
+		logger.debug("Save hnsw index with {} nodes to {}", count, file.getAbsolutePath());
+	}
+
+	/**
+	 * 从 {@link #save(File)} 写入的文件加载，替换当前全部内容。
+	 */
+	public void load(File file) {
+
+		List<Node> loadedNodes;
+		Map<String, Integer> loadedIds = new HashMap<>();
+		int loadedDeleted = 0;
+		int loadedDimensions;
+		int loadedEntryPoint;
+		int loadedMaxLevel;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != MAGIC) {
+				throw new IllegalStateException("Not a hnsw index file: " + file);
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IllegalStateException("Unsupported hnsw index version " + version + ": " + file);
+			}
+
+			loadedDimensions = in.readInt();
+			int savedM = in.readInt();
+			if (savedM != m) {
+				logger.warn("Hnsw index {} was built with m={}, current m={}", file, savedM, m);
+			}
+			loadedEntryPoint = in.readInt();
+			loadedMaxLevel = in.readInt();
+
+			int count = in.readInt();
+			loadedNodes = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				boolean deleted = in.readBoolean();
+				String id = null;
+				String text = null;
+				Map<String, Object> metadata = Map.of();
+				if (!deleted) {
+					id = readString(in);
+					text = readString(in);
+					metadata = objectMapper.readValue(readString(in), new TypeReference<>() {
+					});
+				}
+
+				float[] vector = new float[loadedDimensions];
+				for (int d = 0; d < loadedDimensions; d++) {
+					vector[d] = in.readFloat();
+				}
+
+				int[][] neighbors = new int[in.readInt()][];
+				for (int level = 0; level < neighbors.length; level++) {
+					neighbors[level] = new int[in.readInt()];
+					for (int j = 0; j < neighbors[level].length; j++) {
+						neighbors[level][j] = in.readInt();
+					}
+				}
+
+				Node node = new Node(id, text, metadata, vector, neighbors);
+				node.deleted = deleted;
+				loadedNodes.add(node);
+				if (deleted) {
+					loadedDeleted++;
+				}
+				else {
+					loadedIds.put(id, i);
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Failed to load hnsw index from " + file, e);
+		}
+
+		lock.writeLock().lock();
+		try {
+			this.nodes = loadedNodes;
+			this.ids = loadedIds;
+			this.dimensions = loadedDimensions;
+			this.entryPoint = loadedEntryPoint;
+			this.maxLevel = loadedMaxLevel;
+			this.deletedCount = loadedDeleted;
+			// save 在压缩之后才拿读锁，期间发生的删除会以被删除节点写入文件
+			rebuildIfNeeded();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+
+		logger.debug("Load hnsw index with {} documents from {}", loadedIds.size(), file.getAbsolutePath());
+	}
+
+	private void markDeleted(Integer index) {
+
+		if (index != null && !nodes.get(index).deleted) {
+			nodes.get(index).deleted = true;
+			deletedCount++;
+		}
+	}
+
+	private void rebuildIfNeeded() {
+
+		if (deletedCount > 0 && deletedCount >= nodes.size() * rebuildThreshold) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * 调用方需持有写锁
+	 */
+	private void rebuild() {
+
+		List<Node> live = nodes.stream().filter(node -> !node.deleted).toList();
+		logger.debug("Rebuild hnsw index, drop {} deleted nodes, keep {} nodes", deletedCount, live.size());
+
+		nodes = new ArrayList<>(live.size());
+		ids = new HashMap<>();
+		entryPoint = -1;
+		maxLevel = -1;
+		deletedCount = 0;
+		for (Node node : live) {
+			insert(node.id, node.text, node.metadata, node.vector);
+		}
+	}
+
+	/**
+	 * 调用方需持有写锁，vector 已归一化
+	 */
+	private void insert(String id, String text, Map<String, Object> metadata, float[] vector) {
+
+		checkDimensions(vector);
+
+		int level = randomLevel();
+		int index = nodes.size();
+		int[][] neighbors = new int[level + 1][];
+		Arrays.fill(neighbors, new int[0]);
+
+		Node node = new Node(id, text, metadata, vector, neighbors);
+		nodes.add(node);
+		ids.put(id, index);
+
+		if (entryPoint < 0) {
+			entryPoint = index;
+			maxLevel = level;
+			return;
+		}
+
+		int ep = entryPoint;
+		for (int lc = maxLevel; lc > level; lc--) {
+			ep = greedyClosest(vector, ep, lc);
+		}
+
+		int[] entryPoints = { ep };
+		for (int lc = Math.min(level, maxLevel); lc >= 0; lc--) {
+			List<Candidate> found = searchLayer(vector, entryPoints, efConstruction, lc);
+			int maxConnections = lc == 0 ? maxM0 : m;
+
+			node.neighbors[lc] = selectNeighbors(found, m);
+			for (int neighbor : node.neighbors[lc]) {
+				connect(neighbor, index, lc, maxConnections);
+			}
+
+			entryPoints = found.stream().mapToInt(Candidate::node).toArray();
+		}
+
+		if (level > maxLevel) {
+			maxLevel = level;
+			entryPoint = index;
+		}
+	}
+
+	private void connect(int from, int to, int level, int maxConnections) {
+
+		Node node = nodes.get(from);
+		int[] links = Arrays.copyOf(node.neighbors[level], node.neighbors[level].length + 1);
+		links[links.length - 1] = to;
+
+		if (links.length > maxConnections) {
+			List<Candidate> candidates = new ArrayList<>(links.length);
+			for (int link : links) {
+				candidates.add(new Candidate(link, distance(node.vector, nodes.get(link).vector)));
+			}
+			candidates.sort(NEAREST_FIRST);
+			links = selectNeighbors(candidates, maxConnections);
+		}
+
+		node.neighbors[level] = links;
+	}
+
+	/**
+	 * 启发式选择邻居：候选点离已选邻居比离目标点更近时跳过，使连接分布在不同方向上；
+	 * 数量不足时再用跳过的候选补齐。
+	 *
+	 * @param candidates 按距离升序排列的候选
+	 */
+	private int[] selectNeighbors(List<Candidate> candidates, int maxConnections) {
+
+		List<Candidate> selected = new ArrayList<>(maxConnections);
+		List<Candidate> pruned = new ArrayList<>();
+
+		for (Candidate candidate : candidates) {
+			if (selected.size() >= maxConnections) {
+				break;
+			}
+
+			boolean diverse = true;
+			float[] vector = nodes.get(candidate.node()).vector;
+			for (Candidate chosen : selected) {
+				if (distance(vector, nodes.get(chosen.node()).vector) < candidate.distance()) {
+					diverse = false;
+					break;
+				}
+			}
+
+			if (diverse) {
+				selected.add(candidate);
+			}
+			else {
+				pruned.add(candidate);
+			}
+		}
+
+		for (int i = 0; i < pruned.size() && selected.size() < maxConnections; i++) {
+			selected.add(pruned.get(i));
+		}
+
+		return selected.stream().mapToInt(Candidate::node).toArray();
+	}
+
+	private int greedyClosest(float[] query, int entry, int level) {
+
+		int current = entry;
+		double currentDistance = distance(query, nodes.get(current).vector);
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int neighbor : nodes.get(current).neighbors[level]) {
+				double d = distance(query, nodes.get(neighbor).vector);
+				if (d < currentDistance) {
+					current = neighbor;
+					currentDistance = d;
+					changed = true;
+				}
+			}
+		}
+
+		return current;
+	}
+
+	/**
+	 * @return 按距离升序排列的最多 ef 个最近节点
+	 */
+	private List<Candidate> searchLayer(float[] query, int[] entryPoints, int ef, int level) {
+
+		BitSet visited = new BitSet(nodes.size());
+		PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+		PriorityQueue<Candidate> results = new PriorityQueue<>(NEAREST_FIRST.reversed());
+
+		for (int ep : entryPoints) {
+			if (!visited.get(ep)) {
+				visited.set(ep);
+				Candidate candidate = new Candidate(ep, distance(query, nodes.get(ep).vector));
+				candidates.add(candidate);
+				results.add(candidate);
+				if (results.size() > ef) {
+					results.poll();
+				}
+			}
+		}
+
+		while (!candidates.isEmpty()) {
+			Candidate closest = candidates.poll();
+			if (closest.distance() > results.peek().distance()) {
+				break;
+			}
+
+			for (int neighbor : nodes.get(closest.node()).neighbors[level]) {
+				if (visited.get(neighbor)) {
+					continue;
+				}
+				visited.set(neighbor);
+
+				double d = distance(query, nodes.get(neighbor).vector);
+				if (results.size() < ef || d < results.peek().distance()) {
+					Candidate candidate = new Candidate(neighbor, d);
+					candidates.add(candidate);
+					results.add(candidate);
+					if (results.size() > ef) {
+						results.poll();
+					}
+				}
+			}
+		}
+
+		List<Candidate> sorted = new ArrayList<>(results);
+		sorted.sort(NEAREST_FIRST);
+
+		return sorted;
+	}
+
+	private Predicate<Node> filterPredicate(Filter.Expression filterExpression) {
+
+		Expression expression = expressionParser.parseExpression(filterExpressionConverter.convertExpression(filterExpression));
+
+		return node -> {
+			StandardEvaluationContext context = new StandardEvaluationContext();
+			context.setVariable("metadata", node.metadata);
+			return Boolean.TRUE.equals(expression.getValue(context, Boolean.class));
+		};
+	}
+
+	private Document toDocument(Node node, double similarity) {
+
+		Map<String, Object> metadata = new HashMap<>(node.metadata);
+		metadata.put(DocumentMetadata.DISTANCE.value(), (float) (1 - similarity));
+
+		return Document.builder()
+				.id(node.id)
+				.text(node.text)
+				.metadata(metadata)
+				.score(similarity)
+				.build();
+	}
+
+	private void checkDimensions(float[] vector) {
+
+		if (dimensions < 0) {
+			dimensions = vector.length;
+		}
+		else if (dimensions != vector.length) {
+			throw new IllegalArgumentException("Embedding dimensions mismatch, expected " + dimensions + " but was " + vector.length);
+		}
+	}
+
+	private int randomLevel() {
+
+		return (int) Math.floor(-Math.log(1 - random.nextDouble()) * levelMultiplier);
+	}
+
+	/**
+	 * 向量在写入时已归一化，余弦距离即 1 - 点积
+	 */
+	private static double distance(float[] a, float[] b) {
+
+		double dot = 0;
+		for (int i = 0; i < a.length; i++) {
+			dot += a[i] * b[i];
+		}
+
+		return 1 - dot;
+	}
+
+	private static float[] normalize(float[] vector) {
+
+		double norm = 0;
+		for (float v : vector) {
+			norm += v * v;
+		}
+		norm = Math.sqrt(norm);
+
+		float[] normalized = new float[vector.length];
+		if (norm == 0) {
+			return normalized;
+		}
+		for (int i = 0; i < vector.length; i++) {
+			normalized[i] = (float) (vector[i] / norm);
+		}
+
+		return normalized;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+
+		byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private record Candidate(int node, double distance) {
+	}
+
+	private static final class Node {
+
+		private final String id;
+
+		private final String text;
+
+		private final Map<String, Object> metadata;
+
+		private final float[] vector;
+
+		/**
+		 * 每层的邻居，下标为层号
+		 */
+		private final int[][] neighbors;
+
+		private boolean deleted;
+
+		private Node(String id, String text, Map<String, Object> metadata, float[] vector, int[][] neighbors) {
+			this.id = id;
+			this.text = text;
+			this.metadata = metadata;
+			this.vector = vector;
+			this.neighbors = neighbors;
+		}
+
+	}
+
+	public static final class HnswVectorStoreBuilder extends AbstractVectorStoreBuilder<HnswVectorStoreBuilder> {
+
+		private int m = 16;
+
+		private int efConstruction = 200;
+
+		private int efSearch = 100;
+
+		private long seed = 42;
+
+		private double rebuildThreshold = 0.2;
+
+		private HnswVectorStoreBuilder(EmbeddingModel embeddingModel) {
+			super(embeddingModel);
+		}
+
+		public HnswVectorStoreBuilder m(int m) {
+			this.m = m;
+			return this;
+		}
+
+		public HnswVectorStoreBuilder efConstruction(int efConstruction) {
+			this.efConstruction = efConstruction;
+			return this;
+		}
+
+		public HnswVectorStoreBuilder efSearch(int efSearch) {
+			this.efSearch = efSearch;
+			return this;
+		}
+
+		/**
+		 * 节点层数的随机种子，相同的写入顺序会得到相同的图
+		 */
+		public HnswVectorStoreBuilder seed(long seed) {
+			this.seed = seed;
+			return this;
+		}
+
+		/**
+		 * 被删除节点占比达到该值时重建图
+		 */
+		public HnswVectorStoreBuilder rebuildThreshold(double rebuildThreshold) {
+			this.rebuildThreshold = rebuildThreshold;
+			return this;
+		}
+
+		@Override
+		public HnswVectorStore build() {
+			return new HnswVectorStore(this);
+		}
+
+	}
+
+}
@@ -16,6 +16,13 @@
 
 package com.alibaba.cloud.ai.application.config.rag;
 
+import java.io.File;
+import java.nio.file.Paths;
+
+import com.alibaba.cloud.ai.application.observation.RagStageObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
@@ -23,24 +30,61 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class SimpleVectorStoreConfiguration {
 
+	private static final Logger logger = LoggerFactory.getLogger(SimpleVectorStoreConfiguration.class);
+
 	@Value("${spring.ai.alibaba.playground.bailian.enable:false}")
 	private Boolean enable;
 
+	/**
+	 * 向量索引持久化目录，重启时只对变更的文档重新做 embedding
+	 */
+	@Value("${spring.ai.alibaba.playground.vector-store.index-dir:${user.dir}/rag/index}")
+	private String indexDir;
+
+	/**
+	 * 启动时同时进行的 embedding 请求数
+	 */
+	@Value("${spring.ai.alibaba.playground.vector-store.ingest-concurrency:4}")
+	private int ingestConcurrency;
+
+	/**
+	 * analyticdb 集合名，和存储类型一起区分索引清单
+	 */
+	@Value("${spring.ai.vectorstore.analytic.collectName:saa}")
+	private String analyticdbCollection;
+
+	/**
+	 * HNSW 索引参数，VECTOR_STORE_TYPE=hnsw 时生效
+	 */
+	@Value("${spring.ai.alibaba.playground.vector-store.hnsw.m:16}")
+	private int hnswM;
+
+	@Value("${spring.ai.alibaba.playground.vector-store.hnsw.ef-construction:200}")
+	private int hnswEfConstruction;
+
+	@Value("${spring.ai.alibaba.playground.vector-store.hnsw.ef-search:100}")
+	private int hnswEfSearch;
+
+	@Value("${spring.ai.alibaba.playground.vector-store.hnsw.rebuild-threshold:0.2}")
+	private double hnswRebuildThreshold;
+
 	@Bean
 	CommandLineRunner ingestTermOfServiceToVectorStore(VectorStoreDelegate vectorStoreDelegate) {
 		return args -> {
 			// 百炼知识库和向量存储初始化
 			// 如果未启用百炼知识库，则默认用向量存储服务
 			if (!enable) {
-				String type = System.getenv("VECTOR_STORE_TYPE");
-				VectorStoreInitializer initializer = new VectorStoreInitializer();
-				initializer.init(vectorStoreDelegate.getVectorStore(type));
+				String type = vectorStoreDelegate.resolveType(System.getenv("VECTOR_STORE_TYPE"));
+				String storeKey = "analyticdb".equals(type) ? type + "-" + analyticdbCollection : type;
+				VectorStoreInitializer initializer = new VectorStoreInitializer(Paths.get(indexDir), ingestConcurrency);
+				initializer.init(vectorStoreDelegate.getVectorStore(type), storeKey);
 			}
 		};
 	}
@@ -48,25 +92,90 @@ public class SimpleVectorStoreConfiguration {
 	/**
 	 * 提供基于内存的向量存储（SimpleVectorStore）
 	 * <p>
-	 * 依赖 EmbeddingModel（自动注入，Alibaba 的嵌入模型）
+	 * 依赖 EmbeddingModel（自动注入，Alibaba 的嵌入模型），
+	 * 索引目录中存在已持久化的向量时直接加载，无需重新 embedding
 	 * @param embeddingModel
 	 * @return
 	 */
 	@Bean
 	public VectorStore simpleVectorStore(
-			@Qualifier("dashscopeEmbeddingModel") EmbeddingModel embeddingModel
+			@Qualifier("dashscopeEmbeddingModel") EmbeddingModel embeddingModel,
+			RagStageObserver ragStageObserver
 	) {
 
-		return SimpleVectorStore.builder(embeddingModel).build();
+		SimpleVectorStore simpleVectorStore = buildSimpleVectorStore(embeddingModel, ragStageObserver);
+
+		File vectorsFile = Paths.get(indexDir, VectorStoreInitializer.VECTORS_FILE_NAME).toFile();
+		if (vectorsFile.exists()) {
+			try {
+				simpleVectorStore.load(vectorsFile);
+				logger.info("Load persisted vectors from {}", vectorsFile.getAbsolutePath());
+			}
+			catch (Exception e) {
+				// 向量文件损坏时回退为空存储，由 VectorStoreInitializer 重建
+				logger.warn("Failed to load persisted vectors from {}, {}", vectorsFile.getAbsolutePath(), e.getMessage());
+				simpleVectorStore = buildSimpleVectorStore(embeddingModel, ragStageObserver);
+			}
+		}
+
+		return simpleVectorStore;
+	}
+
+	private SimpleVectorStore buildSimpleVectorStore(EmbeddingModel embeddingModel, RagStageObserver ragStageObserver) {
+
+		// 向量存储的 query 观测计入 RAG retrieve 阶段耗时
+		return SimpleVectorStore.builder(embeddingModel)
+				.observationRegistry(ragStageObserver.getObservationRegistry())
+				.build();
+	}
+
+	/**
+	 * 提供基于 HNSW 图的内存向量存储，文档较多时检索耗时远低于 SimpleVectorStore；
+	 * 只在 VECTOR_STORE_TYPE=hnsw 时创建并加载索引
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "VECTOR_STORE_TYPE", havingValue = "hnsw")
+	public VectorStore hnswVectorStore(
+			@Qualifier("dashscopeEmbeddingModel") EmbeddingModel embeddingModel,
+			RagStageObserver ragStageObserver
+	) {
+
+		HnswVectorStore hnswVectorStore = buildHnswVectorStore(embeddingModel, ragStageObserver);
+
+		File indexFile = Paths.get(indexDir, VectorStoreInitializer.HNSW_FILE_NAME).toFile();
+		if (indexFile.exists()) {
+			try {
+				hnswVectorStore.load(indexFile);
+				logger.info("Load persisted hnsw index from {}", indexFile.getAbsolutePath());
+			}
+			catch (Exception e) {
+				logger.warn("Failed to load persisted hnsw index from {}, {}", indexFile.getAbsolutePath(), e.getMessage());
+				hnswVectorStore = buildHnswVectorStore(embeddingModel, ragStageObserver);
+			}
+		}
+
+		return hnswVectorStore;
+	}
+
+	private HnswVectorStore buildHnswVectorStore(EmbeddingModel embeddingModel, RagStageObserver ragStageObserver) {
+
+		return HnswVectorStore.builder(embeddingModel)
+				.observationRegistry(ragStageObserver.getObservationRegistry())
+				.m(hnswM)
+				.efConstruction(hnswEfConstruction)
+				.efSearch(hnswEfSearch)
+				.rebuildThreshold(hnswRebuildThreshold)
+				.build();
 	}
 
 	@Bean
 	public VectorStoreDelegate vectorStoreDelegate(
 			@Qualifier("simpleVectorStore") VectorStore simpleVectorStore,
+			@Qualifier("hnswVectorStore") @Autowired(required = false) VectorStore hnswVectorStore,
 			@Qualifier("analyticdbVectorStore") @Autowired(required = false) VectorStore analyticdbVectorStore
 	) {
 
-		return new VectorStoreDelegate(simpleVectorStore, analyticdbVectorStore);
+		return new VectorStoreDelegate(simpleVectorStore, hnswVectorStore, analyticdbVectorStore);
 	}
 
 }
@@ -24,19 +24,38 @@ public class VectorStoreDelegate {
 
 	private VectorStore simpleVectorStore;
 
+	private VectorStore hnswVectorStore;
+
 	private VectorStore analyticdbVectorStore;
 
-	public VectorStoreDelegate(VectorStore simpleVectorStore, VectorStore analyticdbVectorStore) {
+	public VectorStoreDelegate(VectorStore simpleVectorStore, VectorStore hnswVectorStore, VectorStore analyticdbVectorStore) {
 		this.simpleVectorStore = simpleVectorStore;
+		this.hnswVectorStore = hnswVectorStore;
 		this.analyticdbVectorStore = analyticdbVectorStore;
 	}
 
 	public VectorStore getVectorStore(String vectorStoreType) {
 
+		return switch (resolveType(vectorStoreType)) {
+			case "analyticdb" -> analyticdbVectorStore;
+			case "hnsw" -> hnswVectorStore;
+			default -> simpleVectorStore;
+		};
+	}
+
+	/**
+	 * @return 实际使用的向量存储类型，未配置或对应存储不可用时为 simple
+	 */
+	public String resolveType(String vectorStoreType) {
+
 		if (Objects.equals(vectorStoreType, "analyticdb") && analyticdbVectorStore != null) {
-			return analyticdbVectorStore;
+			return "analyticdb";
+		}
+
+		if (Objects.equals(vectorStoreType, "hnsw") && hnswVectorStore != null) {
+			return "hnsw";
 		}
 
-		return simpleVectorStore;
+		return "simple";
 	}
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 向量索引清单：记录每个 markdown 文件的内容哈希以及其切分后的 chunk id。
+ * <p>
+ * chunk id 由文件位置和 chunk 文本计算得到，内容不变则 id 不变，
+ * 启动时只需要对新增或变更的 chunk 做 embedding。
+ */
+
+public record VectorStoreIndexManifest(Map<String, Source> sources) {
+
+	public VectorStoreIndexManifest {
+		sources = sources == null ? new HashMap<>() : new HashMap<>(sources);
+	}
+
+	public static VectorStoreIndexManifest empty() {
+
+		return new VectorStoreIndexManifest(null);
+	}
+
+	/**
+	 * @param contentHash 文件内容的 sha-256
+	 * @param chunkIds    文件切分后写入向量存储的 chunk id
+	 */
+	public record Source(String contentHash, List<String> chunkIds) {
+	}
+
+}
@@ -16,57 +16,285 @@
 
 package com.alibaba.cloud.ai.application.config.rag;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.markdown.MarkdownDocumentReader;
+import org.springframework.ai.reader.markdown.config.MarkdownDocumentReaderConfig;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
 
 /**
+ * 增量初始化向量存储。
+ * <p>
+ * 指定索引目录后，chunk 的向量（SimpleVectorStore）和索引清单会持久化到磁盘，
+ * 再次启动时只对新增或变更的 chunk 做 embedding，并删除已移除文件对应的 chunk。
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
 public class VectorStoreInitializer {
 
+	public static final String VECTORS_FILE_NAME = "vectors.json";
+
+	public static final String HNSW_FILE_NAME = "vectors.hnsw";
+
 	private final Logger logger = LoggerFactory.getLogger(VectorStoreInitializer.class);
 
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+	@Nullable
+	private final Path indexDir;
+
+	private final int ingestConcurrency;
+
+	public VectorStoreInitializer() {
+		this(null, 4);
+	}
+
+	/**
+	 * @param indexDir          索引持久化目录，为 null 时每次启动全量加载
+	 * @param ingestConcurrency 同时进行的 embedding 请求数
+	 */
+	public VectorStoreInitializer(@Nullable Path indexDir, int ingestConcurrency) {
+		this.indexDir = indexDir;
+		this.ingestConcurrency = ingestConcurrency;
+	}
+
 	public void init(VectorStore vectorStore) throws Exception {
-		List<MarkdownDocumentReader> markdownDocumentReaderList = loadMarkdownDocuments();
 
-		int size = 0;
-		if (markdownDocumentReaderList.isEmpty()) {
+		init(vectorStore, defaultStoreKey(vectorStore));
+	}
+
+	/**
+	 * @param storeKey 向量存储类型及集合名，例如 simple、hnsw、analyticdb-saa；
+	 *                 每个 key 单独记录清单，切换向量存储时不会误用其他存储的清单而跳过 embedding
+	 */
+	public void init(VectorStore vectorStore, String storeKey) throws Exception {
+		Map<String, Resource> markdownResources = loadMarkdownResources();
+
+		if (markdownResources.isEmpty()) {
 			logger.warn("No markdown documents found in the directory.");
 			return;
 		}
 
 		logger.debug("Start to load markdown documents into vector store......");
-		for (MarkdownDocumentReader markdownDocumentReader : markdownDocumentReaderList) {
-			List<Document> documents = new TokenTextSplitter(2000, 1024, 10, 10000, true).transform(markdownDocumentReader.get());
-			size += documents.size();
-
-			// 拆分 documents 列表为最大 25 个元素的子列表
-			for (int i = 0; i < documents.size(); i += 25) {
-				int end = Math.min(i + 25, documents.size());
-				List<Document> subList = documents.subList(i, end);
-				vectorStore.add(subList);
+		VectorStoreIndexManifest indexed = loadManifest(vectorStore, storeKey);
+		VectorStoreIndexManifest current = VectorStoreIndexManifest.empty();
+
+		boolean dirty = false;
+		List<Document> pendingChunks = new ArrayList<>();
+		List<String> staleIds = new ArrayList<>();
+		for (Map.Entry<String, Resource> entry : markdownResources.entrySet()) {
+			String location = entry.getKey();
+			String contentHash = sha256(entry.getValue().getContentAsByteArray());
+
+			VectorStoreIndexManifest.Source indexedSource = indexed.sources().remove(location);
+			if (indexedSource != null && Objects.equals(indexedSource.contentHash(), contentHash)) {
+				// 文件未变更，直接复用已有向量
+				current.sources().put(location, indexedSource);
+				continue;
 			}
+
+			List<Document> chunks = split(location, entry.getValue());
+			List<String> chunkIds = chunks.stream().map(Document::getId).toList();
+
+			Set<String> indexedIds = indexedSource == null ? Set.of() : new HashSet<>(indexedSource.chunkIds());
+			List<Document> newChunks = chunks.stream()
+					.filter(chunk -> !indexedIds.contains(chunk.getId()))
+					.toList();
+			Set<String> currentIds = new HashSet<>(chunkIds);
+			indexedIds.stream()
+					.filter(id -> !currentIds.contains(id))
+					.forEach(staleIds::add);
+			pendingChunks.addAll(newChunks);
+
+			current.sources().put(location, new VectorStoreIndexManifest.Source(contentHash, chunkIds));
+			dirty = true;
+		}
+
+		// 剩余的都是已经被删除的文件
+		for (Map.Entry<String, VectorStoreIndexManifest.Source> entry : indexed.sources().entrySet()) {
+			logger.debug("Markdown document {} was removed, evict {} chunks.", entry.getKey(), entry.getValue().chunkIds().size());
+			staleIds.addAll(entry.getValue().chunkIds());
+			dirty = true;
 		}
-		logger.debug("Load markdown documents into vector store successfully. Load {} documents.", size);
+
+		if (!staleIds.isEmpty()) {
+			vectorStore.delete(staleIds);
+		}
+
+		EmbeddingIngestionPipeline.builder()
+				.vectorStore(vectorStore)
+				.maxConcurrency(ingestConcurrency)
+				.build()
+				.ingest(pendingChunks);
+
+		if (dirty) {
+			persist(vectorStore, storeKey, current);
+		}
+
+		logger.debug("Load markdown documents into vector store successfully. Embedded {} chunks, evicted {} chunks, {} sources indexed.",
+				pendingChunks.size(), staleIds.size(), current.sources().size());
+	}
+
+	private List<Document> split(String location, Resource resource) {
+
+		MarkdownDocumentReader reader = new MarkdownDocumentReader(resource, MarkdownDocumentReaderConfig.defaultConfig());
+		List<Document> documents = new TokenTextSplitter(2000, 1024, 10, 10000, true).transform(reader.get());
+
+		// 以 文件位置 + chunk 文本 计算 id，内容不变则 id 不变
+		List<Document> chunks = new ArrayList<>(documents.size());
+		Set<String> seen = new HashSet<>();
+		for (Document document : documents) {
+			String id = UUID.nameUUIDFromBytes((location + "\n" + document.getText()).getBytes(StandardCharsets.UTF_8)).toString();
+			if (seen.add(id)) {
+				chunks.add(Document.builder()
+						.id(id)
+						.text(document.getText())
+						.metadata(document.getMetadata())
+						.build());
+			}
+		}
+
+		return chunks;
 	}
 
-	private List<MarkdownDocumentReader> loadMarkdownDocuments() throws IOException, URISyntaxException {
-		List<MarkdownDocumentReader> readers;
+	private VectorStoreIndexManifest loadManifest(VectorStore vectorStore, String storeKey) {
+
+		if (indexDir == null) {
+			return VectorStoreIndexManifest.empty();
+		}
+
+		Path manifestFile = indexDir.resolve(manifestFileName(storeKey));
+		if (!Files.exists(manifestFile)) {
+			return VectorStoreIndexManifest.empty();
+		}
+
+		// 本地向量存储的向量文件丢失时，清单已经失效
+		String vectorsFileName = vectorsFileName(vectorStore);
+		if (vectorsFileName != null && !Files.exists(indexDir.resolve(vectorsFileName))) {
+			logger.warn("Vectors file not found in {}, rebuild the whole index.", indexDir);
+			return VectorStoreIndexManifest.empty();
+		}
+
+		try {
+			return objectMapper.readValue(manifestFile.toFile(), VectorStoreIndexManifest.class);
+		}
+		catch (IOException e) {
+			logger.warn("Failed to read vector store manifest {}, rebuild the whole index. {}", manifestFile, e.getMessage());
+			return VectorStoreIndexManifest.empty();
+		}
+	}
+
+	private void persist(VectorStore vectorStore, String storeKey, VectorStoreIndexManifest manifest) throws IOException {
+
+		if (indexDir == null) {
+			return;
+		}
+
+		Files.createDirectories(indexDir);
+
+		if (vectorStore instanceof SimpleVectorStore simpleVectorStore) {
+			File vectorsFile = indexDir.resolve(VECTORS_FILE_NAME).toFile();
+			simpleVectorStore.save(vectorsFile);
+		}
+		else if (vectorStore instanceof HnswVectorStore hnswVectorStore) {
+			hnswVectorStore.save(indexDir.resolve(HNSW_FILE_NAME).toFile());
+		}
+
+		// 先写临时文件再替换，避免进程中断时留下不完整的清单
+		String manifestFileName = manifestFileName(storeKey);
+		Path manifestFile = indexDir.resolve(manifestFileName);
+		Path tmpFile = indexDir.resolve(manifestFileName + ".tmp");
+		objectMapper.writeValue(tmpFile.toFile(), manifest);
+		Files.move(tmpFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		logger.debug("Persist vector store index to {}", indexDir);
+	}
+
+	/**
+	 * @return manifest-&lt;storeKey&gt;.json，key 中文件名不允许的字符替换为 _
+	 */
+	public static String manifestFileName(String storeKey) {
+
+		return "manifest-" + storeKey.replaceAll("[^A-Za-z0-9._-]", "_") + ".json";
+	}
+
+	private static String defaultStoreKey(VectorStore vectorStore) {
+
+		if (vectorStore instanceof SimpleVectorStore) {
+			return "simple";
+		}
+		if (vectorStore instanceof HnswVectorStore) {
+			return "hnsw";
+		}
+
+		return vectorStore.getName();
+	}
+
+	/**
+	 * @return 本地向量存储持久化的向量文件名，远程向量存储返回 null
+	 */
+	@Nullable
+	private static String vectorsFileName(VectorStore vectorStore) {
+
+		if (vectorStore instanceof SimpleVectorStore) {
+			return VECTORS_FILE_NAME;
+		}
+		if (vectorStore instanceof HnswVectorStore) {
+			return HNSW_FILE_NAME;
+		}
+
+		return null;
+	}
+
+	private static String sha256(byte[] content) {
+
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return 文件位置 -> markdown 资源
+	 */
+	private Map<String, Resource> loadMarkdownResources() throws IOException, URISyntaxException {
+		List<String> locations;
 		
 		// 首先检查jar包当前运行目录是否存在markdown文件
 		Path currentDirPath = Paths.get(System.getProperty("user.dir"), "rag", "markdown");
@@ -81,13 +309,10 @@ public class VectorStoreInitializer {
 				
 				if (!markdownFiles.isEmpty()) {
 					logger.debug("Loading {} markdown files from current directory", markdownFiles.size());
-					readers = markdownFiles.stream()
-							.map(path -> {
-								String filePath = path.toAbsolutePath().toString();
-								return new MarkdownDocumentReader("file:" + filePath);
-							})
+					locations = markdownFiles.stream()
+							.map(path -> "file:" + path.toAbsolutePath())
 							.collect(Collectors.toList());
-					return readers;
+					return toResources(locations);
 				} else {
 					logger.debug("No markdown files found in current directory, falling back to resources");
 				}
@@ -101,17 +326,23 @@ public class VectorStoreInitializer {
 		logger.debug("Loading markdown files from resources directory: {}", markdownDir);
 
 		try (Stream<Path> paths = Files.walk(markdownDir)) {
-			readers = paths.filter(Files::isRegularFile)
+			locations = paths.filter(Files::isRegularFile)
 					.filter(path -> path.toString().endsWith(".md"))
-					.map(path -> {
-						String fileName = path.getFileName().toString();
-						String classpathPath = "classpath:rag/markdown/" + fileName;
-						return new MarkdownDocumentReader(classpathPath);
-					})
+					.map(path -> "classpath:rag/markdown/" + path.getFileName())
 					.collect(Collectors.toList());
 		}
 
-		return readers;
+		return toResources(locations);
+	}
+
+	private Map<String, Resource> toResources(List<String> locations) {
+
+		Map<String, Resource> resources = new LinkedHashMap<>();
+		for (String location : locations.stream().sorted().toList()) {
+			resources.put(location, resourceLoader.getResource(location));
+		}
+
+		return resources;
 	}
 
 }
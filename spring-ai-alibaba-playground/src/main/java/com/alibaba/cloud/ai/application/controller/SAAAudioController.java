@@ -20,11 +20,17 @@ import com.alibaba.cloud.ai.application.entity.result.Result;
 import com.alibaba.cloud.ai.application.service.SAAAudioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * 浏览器的语音 API 不好交互，此功能仅作为演示，切勿直接用于生产环境。
@@ -76,4 +82,49 @@ public class SAAAudioController {
 		return Result.success(audioService.text2audio(prompt));
 	}
 
+	/**
+	 * used to convert audio to text output, partial transcripts are streamed as they are recognized
+	 */
+	@PostMapping("/audio2text/stream")
+	@Operation(summary = "DashScope Streaming Audio Transcription")
+	public Flux<String> audioToTextStream(
+			@Validated @RequestParam("audio") MultipartFile audio
+	) {
+
+		if (audio.isEmpty()) {
+			return Flux.just("No audio file provided");
+		}
+
+		return audioService.audio2textStream(audio);
+	}
+
+	/**
+	 * used to convert text into speech output, audio chunks are written as soon as each sentence is synthesized.
+	 * 客户端断开时写入抛出 IOException，关闭 Stream 会取消上游的合成请求
+	 */
+	@GetMapping("/text2audio/stream")
+	@Operation(summary = "DashScope Streaming Speech Synthesis")
+	public ResponseEntity<StreamingResponseBody> textToAudioStream(
+			@Validated @RequestParam("prompt") String prompt
+	) {
+
+		if (prompt.isEmpty()) {
+			return ResponseEntity.badRequest().build();
+		}
+
+		StreamingResponseBody body = outputStream -> {
+			try (Stream<byte[]> chunks = audioService.text2audioStream(prompt).toStream()) {
+				Iterator<byte[]> iterator = chunks.iterator();
+				while (iterator.hasNext()) {
+					outputStream.write(iterator.next());
+					outputStream.flush();
+				}
+			}
+		};
+
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType("audio/mpeg"))
+				.body(body);
+	}
+
 }
@@ -24,6 +24,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -31,9 +32,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * @author yuluo
@@ -71,14 +70,8 @@ public class SAAChatController {
 			@RequestHeader(value = "chatId", required = false, defaultValue = "spring-ai-alibaba-playground-chat") String chatId
 	) {
 
-		Set<Map<String, String>> dashScope = baseService.getDashScope();
-		List<String> modelName = dashScope.stream()
-				.flatMap(map -> map.keySet().stream().map(map::get))
-				.distinct()
-				.toList();
-
 		if (StringUtils.hasText(model)) {
-			if (!modelName.contains(model)) {
+			if (!baseService.isSupportedModel(model)) {
 				return Flux.just("Input model not support.");
 			}
 		}
@@ -98,14 +91,8 @@ public class SAAChatController {
 			@RequestHeader(value = "chatId", required = false, defaultValue = "spring-ai-alibaba-playground-deepthink-chat") String chatId
 	) {
 
-		Set<Map<String, String>> dashScope = baseService.getDashScope();
-		List<String> modelName = dashScope.stream()
-				.flatMap(map -> map.keySet().stream().map(map::get))
-				.distinct()
-				.toList();
-
 		if (StringUtils.hasText(model)) {
-			if (!modelName.contains(model)) {
+			if (!baseService.isSupportedModel(model)) {
 				return Flux.just("Input model not support.");
 			}
 		}
@@ -117,4 +104,11 @@ public class SAAChatController {
 		return chatService.deepThinkingChat(chatId, model, prompt);
 	}
 
+	@GetMapping("/chat/cache-stats")
+	@Operation(summary = "Semantic cache statistics")
+	public Map<String, Object> cacheStats() {
+
+		return chatService.cacheStats();
+	}
+
 }
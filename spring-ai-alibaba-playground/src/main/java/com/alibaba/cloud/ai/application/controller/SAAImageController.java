@@ -64,14 +64,12 @@ public class SAAImageController {
 			return Flux.just("No image file provided");
 		}
 
-		Flux<String> res;
 		try {
-			 res = imageService.image2Text(prompt, image);
+			return imageService.image2Text(prompt, image)
+					.onErrorResume(e -> Flux.just(e.getMessage()));
 		} catch (Exception e) {
 			return Flux.just(e.getMessage());
 		}
-
-		return res;
 	}
 
 	@GetMapping("/text2image")
@@ -16,6 +16,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.observation.RagStageRecorder;
 import com.alibaba.cloud.ai.application.service.ISAARAGService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -45,11 +46,14 @@ public class SAARAGController {
 
 	private final Map<String,ISAARAGService> ragServiceMap;
 
+	private final RagStageRecorder ragStageRecorder;
+
 	@Value("${spring.ai.alibaba.playground.bailian.enable:false}")
 	private Boolean enable;
 
-	public SAARAGController(Map<String,ISAARAGService> ragServiceMap) {
+	public SAARAGController(Map<String,ISAARAGService> ragServiceMap, RagStageRecorder ragStageRecorder) {
 		this.ragServiceMap = ragServiceMap;
+		this.ragStageRecorder = ragStageRecorder;
 	}
 
 	@GetMapping("/rag")
@@ -70,4 +74,11 @@ public class SAARAGController {
 		return ragService.ragChat(chatId, prompt);
 	}
 
+	@GetMapping("/rag/stage-report")
+	@Operation(summary = "RAG stage latency report")
+	public Map<String, RagStageRecorder.StageStats> stageReport() {
+
+		return ragStageRecorder.reportByName();
+	}
+
 }
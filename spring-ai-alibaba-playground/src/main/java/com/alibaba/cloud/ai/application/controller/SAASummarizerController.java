@@ -22,6 +22,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
 import reactor.core.publisher.Flux;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -60,4 +62,23 @@ public class SAASummarizerController {
 		return docsSummaryService.summary(file, url);
 	}
 
+	/**
+	 * 请求头 Accept: text/event-stream 时使用：分段进度为 progress 事件，摘要正文为默认的 message 事件
+	 */
+	@Operation(summary = "Docs summary with progress events")
+	@PostMapping(value = "/summarizer", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<String>> summaryEvents(
+			HttpServletResponse response,
+			@RequestParam(value = "file", required = false) MultipartFile file,
+			@RequestParam(value = "url", required = false) String url
+	) {
+
+		if (file == null && (url == null || url.isEmpty())) {
+			return Flux.just(ServerSentEvent.builder("Either 'file' or 'url' must be provided.").build());
+		}
+
+		response.setCharacterEncoding("UTF-8");
+		return docsSummaryService.summaryEvents(file, url);
+	}
+
 }
@@ -63,9 +63,9 @@ public class SAAVideoController {
         }
 
         try {
-            // 调用视频分析服务
-            String analyzeVideo = videoService.analyzeVideo(prompt, video);
-            return Flux.just(analyzeVideo);
+            // 调用视频分析服务，分析结果流式返回
+            return videoService.analyzeVideo(prompt, video)
+                    .onErrorResume(e -> Flux.just("视频处理失败：" + e.getMessage()));
         } catch (Exception e) {
             return Flux.just("视频处理失败：" + e.getMessage());
         }
@@ -20,16 +20,20 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import com.alibaba.cloud.ai.application.config.WebSearchProperties;
 import com.alibaba.cloud.ai.application.entity.dashscope.ChatResponseDTO;
+import com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngine;
 import com.alibaba.cloud.ai.application.service.ISAAWebSearchService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
+import java.util.Map;
+
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -44,12 +48,19 @@ public class SAAWebSearchController {
 
 	private final ISAAWebSearchService webSearch;
 
+	private final IQSSearchEngine searchEngine;
+
 	/**
 	 * 可选注入：spring.ai.alibaba.playground.web-search.type
 	 * DashScope: 阿里云百炼大模型联网搜索功能
 	 * ModuleRag: 基于模块化rag的iqs在线搜索
 	 */
-	public SAAWebSearchController(WebSearchProperties webSearchProperties, ObjectProvider<ISAAWebSearchService> webSearchServiceObjectProvider) {
+	public SAAWebSearchController(
+			WebSearchProperties webSearchProperties,
+			ObjectProvider<ISAAWebSearchService> webSearchServiceObjectProvider,
+			IQSSearchEngine searchEngine
+	) {
+		this.searchEngine = searchEngine;
 		this.webSearch = webSearchServiceObjectProvider.stream()
 				.filter(webSearchService -> webSearchService.type() == webSearchProperties.type())
 				.findFirst()
@@ -67,4 +78,10 @@ public class SAAWebSearchController {
 		return webSearch.chat(prompt);
 	}
 
+	@GetMapping("/search/cache-stats")
+	public Map<String, Object> cacheStats() {
+
+		return searchEngine.cacheStats();
+	}
+
 }
@@ -16,7 +16,9 @@
 
 package com.alibaba.cloud.ai.application.entity.tools;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * @author yuluo
@@ -66,7 +68,7 @@ public class ToolCallResp {
 	private String toolInput;
 
 	/**
-	 * 工具执行耗时
+	 * 工具执行耗时（毫秒），多轮工具调用时为各轮耗时之和，由单调时钟计算
 	 */
 	private Long toolCostTime;
 	/**
@@ -74,6 +76,31 @@ public class ToolCallResp {
 	 */
 	private String toolResponse;
 
+	/**
+	 * 每一次工具调用的执行记录，按调用顺序排列
+	 */
+	private List<ToolExecution> toolExecutions = List.of();
+
+	/**
+	 * @param iteration      第几轮模型请求触发的调用，从 1 开始
+	 * @param toolName       Tool Name
+	 * @param toolParameters Tool 执行参数
+	 * @param status         执行状态
+	 * @param toolResponse   工具返回结果
+	 * @param errorMessage   失败或超时的原因
+	 * @param toolCostTime   工具执行耗时（毫秒）
+	 */
+	public record ToolExecution(
+			int iteration,
+			String toolName,
+			String toolParameters,
+			ToolState status,
+			String toolResponse,
+			String errorMessage,
+			long toolCostTime
+	) {
+	}
+
 	public enum ToolState {
 		/**
 		 * 工具执行成功
@@ -173,6 +200,14 @@ public class ToolCallResp {
 		this.toolResponse = toolResponse;
 	}
 
+	public List<ToolExecution> getToolExecutions() {
+		return toolExecutions;
+	}
+
+	public void setToolExecutions(List<ToolExecution> toolExecutions) {
+		this.toolExecutions = toolExecutions;
+	}
+
 	@Override
 	public String toString() {
 		return "ToolCallResp{" +
@@ -186,6 +221,7 @@ public class ToolCallResp {
 				", toolInput='" + toolInput + '\'' +
 				", toolCostTime=" + toolCostTime +
 				", toolResponse='" + toolResponse + '\'' +
+				", toolExecutions=" + toolExecutions +
 				'}';
 	}
 
@@ -213,9 +249,7 @@ public class ToolCallResp {
 		res.setToolResult(toolResult);
 		res.setToolEndTime(LocalDateTime.now());
 		res.setStatus(status);
-		res.setToolCostTime(
-				(long) (res.getToolEndTime().getNano() - toolStartTime.getNano())
-		);
+		res.setToolCostTime(Duration.between(toolStartTime, res.getToolEndTime()).toMillis());
 
 		return res;
 	}
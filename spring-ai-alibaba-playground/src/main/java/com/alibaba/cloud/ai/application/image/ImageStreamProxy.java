@@ -0,0 +1,370 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestClient;
+
+/**
+ * 将远程图片以固定大小的块直接转发到 HttpServletResponse，不在堆中缓存整张图片：
+ * 1. 使用基于 reactor-netty 连接池的 RestClient，设置连接超时和读超时（两次读之间的最大间隔）；
+ * 2. 上游返回 Content-Length 时原样设置到响应上；
+ * 3. 可选的磁盘缓存：按 key（prompt + 参数）保存图片，Content-Type 保存在同名的 .type 文件中，
+ *    超过容量上限时按 LRU 删除。
+ */
+
+public class ImageStreamProxy {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageStreamProxy.class);
+
+	private static final String CACHE_FILE_SUFFIX = ".img";
+
+	private static final String CONTENT_TYPE_FILE_SUFFIX = ".type";
+
+	private final RestClient restClient;
+
+	private final int bufferSize;
+
+	private final Path cacheDir;
+
+	private final long cacheMaxBytes;
+
+	/**
+	 * key -> 缓存项，按访问顺序排列
+	 */
+	private final LinkedHashMap<String, CacheEntry> cacheEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long cacheBytes;
+
+	private ImageStreamProxy(Builder builder) {
+
+		Assert.notNull(builder.connectTimeout, "connectTimeout must not be null");
+		Assert.notNull(builder.readTimeout, "readTimeout must not be null");
+		Assert.isTrue(builder.bufferSize > 0, "bufferSize must be greater than 0");
+
+		this.restClient = RestClient.builder()
+				.requestFactory(ClientHttpRequestFactoryBuilder.reactor().withCustomizer(
+						factory -> {
+							factory.setConnectTimeout(builder.connectTimeout);
+							factory.setReadTimeout(builder.readTimeout);
+						}
+				).build())
+				.build();
+		this.bufferSize = builder.bufferSize;
+		this.cacheDir = builder.cacheDir;
+		this.cacheMaxBytes = builder.cacheMaxBytes;
+
+		if (cacheDir != null) {
+			loadCache();
+		}
+	}
+
+	/**
+	 * 命中磁盘缓存时直接写入响应
+	 * @return 是否命中
+	 */
+	public boolean writeCached(String key, HttpServletResponse response) throws IOException {
+
+		if (cacheDir == null) {
+			return false;
+		}
+
+		Path file = cacheFile(key);
+		CacheEntry entry;
+		synchronized (cacheEntries) {
+			entry = cacheEntries.get(key);
+		}
+		if (entry == null) {
+			return false;
+		}
+
+		// 打开后文件即使被淘汰删除也仍然可读
+		try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+			response.setContentType(entry.contentType());
+			response.setContentLengthLong(channel.size());
+			copy(Channels.newInputStream(channel), response.getOutputStream(), null);
+		}
+		catch (NoSuchFileException e) {
+			// 文件已被淘汰
+			return false;
+		}
+
+		logger.debug("Image cache hit: {}", key);
+		return true;
+	}
+
+	/**
+	 * 流式转发远程图片，启用缓存时同时写入磁盘
+	 */
+	public void write(String imageUrl, String key, HttpServletResponse response) throws IOException {
+
+		Path tempFile = cacheDir != null ? Files.createTempFile(cacheDir, key, ".tmp") : null;
+		boolean cached = false;
+		String[] contentTypeHolder = new String[1];
+		try {
+			restClient.get()
+					.uri(URI.create(imageUrl))
+					.exchange((request, upstream) -> {
+						if (!upstream.getStatusCode().is2xxSuccessful()) {
+							throw new IOException("Failed to fetch image, status: " + upstream.getStatusCode());
+						}
+
+						MediaType contentType = upstream.getHeaders().getContentType();
+						contentTypeHolder[0] = contentType != null && "image".equals(contentType.getType())
+								? contentType.toString()
+								: MediaType.IMAGE_PNG_VALUE;
+						response.setContentType(contentTypeHolder[0]);
+						long contentLength = upstream.getHeaders().getContentLength();
+						if (contentLength >= 0) {
+							response.setContentLengthLong(contentLength);
+						}
+
+						try (InputStream in = upstream.getBody();
+							 OutputStream cacheOut = tempFile != null ? Files.newOutputStream(tempFile) : null) {
+							copy(in, response.getOutputStream(), cacheOut);
+						}
+						return null;
+					}, true);
+
+			if (tempFile != null) {
+				putCache(key, tempFile, contentTypeHolder[0]);
+				cached = true;
+			}
+		}
+		finally {
+			if (tempFile != null && !cached) {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+	}
+
+	/**
+	 * 由 prompt 与参数计算缓存 key
+	 */
+	public static String cacheKey(Object... parts) {
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (Object part : parts) {
+				digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void copy(InputStream in, OutputStream out, OutputStream cacheOut) throws IOException {
+
+		byte[] buffer = new byte[bufferSize];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+			if (cacheOut != null) {
+				cacheOut.write(buffer, 0, read);
+			}
+		}
+		out.flush();
+	}
+
+	private void putCache(String key, Path tempFile, String contentType) throws IOException {
+
+		long size = Files.size(tempFile);
+		if (size > cacheMaxBytes) {
+			Files.deleteIfExists(tempFile);
+			return;
+		}
+
+		// 先写 Content-Type，图片文件出现时类型一定已就绪
+		Files.writeString(contentTypeFile(key), contentType, StandardCharsets.UTF_8);
+		Files.move(tempFile, cacheFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		synchronized (cacheEntries) {
+			CacheEntry previous = cacheEntries.put(key, new CacheEntry(size, contentType));
+			cacheBytes += size - (previous != null ? previous.size() : 0);
+			evict();
+		}
+	}
+
+	private void evict() {
+
+		Iterator<Map.Entry<String, CacheEntry>> iterator = cacheEntries.entrySet().iterator();
+		while (cacheBytes > cacheMaxBytes && iterator.hasNext()) {
+			Map.Entry<String, CacheEntry> eldest = iterator.next();
+			iterator.remove();
+			cacheBytes -= eldest.getValue().size();
+			try {
+				Files.deleteIfExists(cacheFile(eldest.getKey()));
+				Files.deleteIfExists(contentTypeFile(eldest.getKey()));
+			}
+			catch (IOException e) {
+				logger.warn("Failed to delete cached image {}: {}", eldest.getKey(), e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * 启动时按修改时间恢复已有的缓存文件，清理未完成的临时文件；
+	 * 没有 .type 文件的旧缓存按 image/png 处理
+	 */
+	private void loadCache() {
+
+		try {
+			Files.createDirectories(cacheDir);
+			List<Path> files;
+			try (Stream<Path> stream = Files.list(cacheDir)) {
+				files = stream.toList();
+			}
+
+			files.stream()
+					.filter(file -> file.getFileName().toString().endsWith(".tmp") || isOrphanContentType(file))
+					.forEach(file -> file.toFile().delete());
+
+			files.stream()
+					.filter(file -> file.getFileName().toString().endsWith(CACHE_FILE_SUFFIX))
+					.sorted(Comparator.comparingLong(file -> file.toFile().lastModified()))
+					.forEach(file -> {
+						String name = file.getFileName().toString();
+						String key = name.substring(0, name.length() - CACHE_FILE_SUFFIX.length());
+						long size = file.toFile().length();
+						cacheEntries.put(key, new CacheEntry(size, readContentType(key)));
+						cacheBytes += size;
+					});
+
+			evict();
+			logger.info("Loaded {} cached images ({} bytes) from {}", cacheEntries.size(), cacheBytes, cacheDir);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Failed to init image cache dir: " + cacheDir, e);
+		}
+	}
+
+	private boolean isOrphanContentType(Path file) {
+
+		String name = file.getFileName().toString();
+		return name.endsWith(CONTENT_TYPE_FILE_SUFFIX) && !Files.exists(
+				cacheFile(name.substring(0, name.length() - CONTENT_TYPE_FILE_SUFFIX.length())));
+	}
+
+	private String readContentType(String key) {
+
+		try {
+			String contentType = Files.readString(contentTypeFile(key), StandardCharsets.UTF_8).trim();
+			return contentType.isEmpty() ? MediaType.IMAGE_PNG_VALUE : contentType;
+		}
+		catch (IOException e) {
+			return MediaType.IMAGE_PNG_VALUE;
+		}
+	}
+
+	private Path cacheFile(String key) {
+
+		return cacheDir.resolve(key + CACHE_FILE_SUFFIX);
+	}
+
+	private Path contentTypeFile(String key) {
+
+		return cacheDir.resolve(key + CONTENT_TYPE_FILE_SUFFIX);
+	}
+
+	private record CacheEntry(long size, String contentType) {
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static final class Builder {
+
+		private Duration connectTimeout = Duration.ofSeconds(5);
+
+		private Duration readTimeout = Duration.ofSeconds(30);
+
+		private int bufferSize = 64 * 1024;
+
+		private Path cacheDir;
+
+		private long cacheMaxBytes = 256L * 1024 * 1024;
+
+		private Builder() {
+		}
+
+		public Builder connectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+			return this;
+		}
+
+		public Builder readTimeout(Duration readTimeout) {
+			this.readTimeout = readTimeout;
+			return this;
+		}
+
+		public Builder bufferSize(int bufferSize) {
+			this.bufferSize = bufferSize;
+			return this;
+		}
+
+		/**
+		 * 为 null 时不启用磁盘缓存
+		 */
+		public Builder cacheDir(Path cacheDir) {
+			this.cacheDir = cacheDir;
+			return this;
+		}
+
+		public Builder cacheMaxBytes(long cacheMaxBytes) {
+			this.cacheMaxBytes = cacheMaxBytes;
+			return this;
+		}
+
+		public ImageStreamProxy build() {
+			return new ImageStreamProxy(this);
+		}
+
+	}
+
+}
@@ -19,31 +19,174 @@ package com.alibaba.cloud.ai.application.mcp;
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MCP Server 注册表。
+ * <p>
+ * 内部持有不可变快照，读操作直接查快照中的索引（id -> server、name -> server），无需加锁；
+ * 写操作基于当前快照复制出新快照后原子替换，读线程不会看到中间状态。
+ * 快照中保存的是 server 的只读副本，调用 setter 会抛出 UnsupportedOperationException，
+ * 修改传入的对象也不会影响注册表。
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
 
 public class McpServerContainer {
 
-	private static final List<McpServer> mcpServerContainer = new ArrayList<>();
+	private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.of(List.of()));
 
 	public static List<McpServer> getAllServers() {
-		return new ArrayList<>(mcpServerContainer);
+		return snapshot.get().servers();
 	}
 
 	public static Optional<McpServer> getServerById(String id) {
 
-		return mcpServerContainer.stream()
-				.filter(server -> server.getId().equals(id))
-				.findFirst();
+		return Optional.ofNullable(snapshot.get().byId().get(id));
+	}
+
+	public static Optional<McpServer> getServerByName(String name) {
+
+		return Optional.ofNullable(snapshot.get().byName().get(name));
 	}
 
 	public static void addServer(McpServer server) {
-		mcpServerContainer.add(server);
+
+		snapshot.updateAndGet(current -> {
+			List<McpServer> servers = new ArrayList<>(current.servers());
+			servers.removeIf(s -> s.getId().equals(server.getId()));
+			servers.add(ImmutableServer.copyOf(server));
+			return Snapshot.of(servers);
+		});
 	}
 
 	public static boolean removeServerById(String id) {
 
-		return mcpServerContainer.removeIf(server -> server.getId().equals(id));
+		Snapshot previous = snapshot.getAndUpdate(current -> {
+			if (!current.byId().containsKey(id)) {
+				return current;
+			}
+			List<McpServer> servers = new ArrayList<>(current.servers());
+			servers.removeIf(s -> s.getId().equals(id));
+			return Snapshot.of(servers);
+		});
+
+		return previous.byId().containsKey(id);
+	}
+
+	/**
+	 * 使用新的 server 列表整体替换注册表
+	 */
+	public static void refresh(Collection<McpServer> servers) {
+
+		snapshot.set(Snapshot.of(servers));
+	}
+
+	private record Snapshot(List<McpServer> servers, Map<String, McpServer> byId, Map<String, McpServer> byName) {
+
+		static Snapshot of(Collection<McpServer> servers) {
+
+			List<McpServer> copies = new ArrayList<>(servers.size());
+			Map<String, McpServer> byId = new LinkedHashMap<>();
+			Map<String, McpServer> byName = new LinkedHashMap<>();
+			for (McpServer server : servers) {
+				McpServer copy = ImmutableServer.copyOf(server);
+				copies.add(copy);
+				byId.put(copy.getId(), copy);
+				byName.put(copy.getName(), copy);
+			}
+
+			return new Snapshot(List.copyOf(copies), Map.copyOf(byId), Map.copyOf(byName));
+		}
+	}
+
+	/**
+	 * 只读的 McpServer，构造时复制 env 和 toolList
+	 */
+	private static final class ImmutableServer extends McpServer {
+
+		private ImmutableServer(McpServer server) {
+
+			super.setId(server.getId());
+			super.setName(server.getName());
+			super.setDesc(server.getDesc());
+			super.setEnv(server.getEnv() == null ? null
+					: Collections.unmodifiableMap(new LinkedHashMap<>(server.getEnv())));
+			super.setToolList(server.getToolList() == null ? null
+					: server.getToolList().stream().<Tools>map(ImmutableTools::copyOf).toList());
+		}
+
+		static McpServer copyOf(McpServer server) {
+
+			return server instanceof ImmutableServer ? server : new ImmutableServer(server);
+		}
+
+		@Override
+		public void setId(String id) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setName(String name) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setEnv(Map<String, String> env) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setDesc(String desc) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setToolList(List<Tools> toolList) {
+			throw unsupported();
+		}
+	}
+
+	private static final class ImmutableTools extends McpServer.Tools {
+
+		private ImmutableTools(McpServer.Tools tools) {
+
+			super.setName(tools.getName());
+			super.setParams(tools.getParams());
+			super.setDesc(tools.getDesc());
+		}
+
+		static McpServer.Tools copyOf(McpServer.Tools tools) {
+
+			return tools instanceof ImmutableTools ? tools : new ImmutableTools(tools);
+		}
+
+		@Override
+		public void setName(String name) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setParams(String params) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setDesc(String desc) {
+			throw unsupported();
+		}
+	}
+
+	private static UnsupportedOperationException unsupported() {
+
+		return new UnsupportedOperationException("McpServer in McpServerContainer is read-only, use addServer or refresh");
 	}
 
 }
@@ -24,6 +24,7 @@ import com.alibaba.cloud.ai.application.utils.ModelsUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpStdioClientProperties;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.core.io.ClassPathResource;
@@ -34,6 +35,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -48,11 +50,56 @@ public final class McpServerUtils {
 
 	private static final String MCP_CONFIG_FILE_PATH = "mcp-config.yml";
 
+	/**
+	 * 解析后的配置，调用方拿到的是副本，修改不会影响缓存
+	 */
+	private static volatile McpServerConfig cachedMcpServerConfig;
+
 	private McpServerUtils() {
 	}
 
 	public static McpServerConfig getMcpServerConfig() throws IOException {
 
+		McpServerConfig config = cachedMcpServerConfig;
+		if (config == null) {
+			synchronized (McpServerUtils.class) {
+				config = cachedMcpServerConfig;
+				if (config == null) {
+					config = loadMcpServerConfig();
+					cachedMcpServerConfig = config;
+				}
+			}
+		}
+
+		return copyOf(config);
+	}
+
+	/**
+	 * 丢弃缓存的配置，下次读取时重新解析配置文件
+	 */
+	public static void invalidateMcpServerConfig() {
+
+		cachedMcpServerConfig = null;
+	}
+
+	private static McpServerConfig copyOf(McpServerConfig config) {
+
+		Map<String, McpStdioClientProperties.Parameters> servers = new LinkedHashMap<>();
+		config.getMcpServers().forEach((name, parameters) -> servers.put(name, parameters == null ? null
+				: new McpStdioClientProperties.Parameters(
+						parameters.command(),
+						parameters.args() == null ? null : new ArrayList<>(parameters.args()),
+						parameters.env() == null ? null : new HashMap<>(parameters.env())
+				)));
+
+		McpServerConfig copy = new McpServerConfig();
+		copy.setMcpServers(servers);
+
+		return copy;
+	}
+
+	private static McpServerConfig loadMcpServerConfig() throws IOException {
+
 		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
 		InputStream resourceAsStream = ModelsUtils.class.getClassLoader().getResourceAsStream(MCP_CONFIG_FILE_PATH);
 
@@ -126,37 +173,35 @@ public final class McpServerUtils {
 		McpServerConfig mcpServerConfig = McpServerUtils.getMcpServerConfig();
 		Map<String, String> mcpServerDescMap = initMcpServerDescMap();
 
-		mcpServerConfig.getMcpServers().forEach((key, parameters) -> {
-
-			List<McpServer.Tools> toolsList = new ArrayList<>();
-			for (ToolCallback toolCallback : toolCallbackProvider.getToolCallbacks()) {
+		// 一次遍历，按照 mcp server name 聚合 mcp server tools
+		Map<String, List<McpServer.Tools>> toolsByServer = new HashMap<>();
+		for (ToolCallback toolCallback : toolCallbackProvider.getToolCallbacks()) {
 
-				// todo: 拿不到 mcp client, 先用包装器拿吧
-				SyncMcpToolCallback mcpToolCallback = (SyncMcpToolCallback) toolCallback;
-				SyncMcpToolCallbackWrapper syncMcpToolCallbackWrapper = new SyncMcpToolCallbackWrapper(mcpToolCallback);
-				String currentMcpServerName = syncMcpToolCallbackWrapper.getMcpClient().getServerInfo().name();
+			// todo: 拿不到 mcp client, 先用包装器拿吧
+			SyncMcpToolCallback mcpToolCallback = (SyncMcpToolCallback) toolCallback;
+			SyncMcpToolCallbackWrapper syncMcpToolCallbackWrapper = new SyncMcpToolCallbackWrapper(mcpToolCallback);
+			String currentMcpServerName = syncMcpToolCallbackWrapper.getMcpClient().getServerInfo().name();
 
-				// 按照 mcp server name 聚合 mcp server tools
-				if (Objects.equals(key, currentMcpServerName)) {
-					McpServer.Tools tool = new McpServer.Tools();
-					tool.setDesc(toolCallback.getToolDefinition().description());
-					tool.setName(toolCallback.getToolDefinition().name());
-					tool.setParams(toolCallback.getToolDefinition().inputSchema());
+			McpServer.Tools tool = new McpServer.Tools();
+			tool.setDesc(toolCallback.getToolDefinition().description());
+			tool.setName(toolCallback.getToolDefinition().name());
+			tool.setParams(toolCallback.getToolDefinition().inputSchema());
 
-					toolsList.add(tool);
-				}
-			}
-
-			McpServerContainer.addServer(McpServer.builder()
-					.id(getId())
-					.name(key)
-					.env(parameters.env())
-					.desc(mcpServerDescMap.get(key))
-					.toolList(toolsList)
-					.build()
-			);
-		});
+			toolsByServer.computeIfAbsent(currentMcpServerName, k -> new ArrayList<>()).add(tool);
+		}
 
+		List<McpServer> servers = new ArrayList<>();
+		mcpServerConfig.getMcpServers().forEach((key, parameters) -> servers.add(McpServer.builder()
+				// 同名 server 刷新后保持 id 不变，前端持有的 id 仍然有效
+				.id(McpServerContainer.getServerByName(key).map(McpServer::getId).orElseGet(McpServerUtils::getId))
+				.name(key)
+				.env(parameters.env())
+				.desc(mcpServerDescMap.get(key))
+				.toolList(List.copyOf(toolsByServer.getOrDefault(key, List.of())))
+				.build()
+		));
+
+		McpServerContainer.refresh(servers);
 	}
 
 	private static Map<String, String> initMcpServerDescMap() {
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.json.McpJsonMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpStdioClientProperties;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * MCP stdio 客户端会话池，按 command + args + env 的哈希复用已启动的 MCP Server 进程：
+ * 1. 首次请求时才启动进程并完成 initialize 和 listTools，结果随会话缓存，同一配置的并发请求只启动一次；
+ * 2. 会话空闲超过 health-check-interval 后再次使用前先 ping，失败则关闭并重新创建；
+ * 3. 后台定时关闭空闲超过 idle-timeout 的会话，并 ping 其余会话，提前移除已退出的进程；
+ * 4. env 来自请求参数，会话数最多 max-sessions 个，超出时关闭最久未使用的会话；
+ * 其余会话都还在启动中、无法腾出位置时直接拒绝，不再启动新进程。
+ */
+
+@Component
+public class McpStdioClientPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(McpStdioClientPool.class);
+
+	private final ConcurrentHashMap<String, CompletableFuture<Session>> sessions = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService scheduler;
+
+	private final Duration requestTimeout;
+
+	private final Duration idleTimeout;
+
+	private final Duration healthCheckInterval;
+
+	private final int maxSessions;
+
+	public McpStdioClientPool(
+			@Value("${spring.ai.alibaba.playground.mcp.request-timeout:30s}") Duration requestTimeout,
+			@Value("${spring.ai.alibaba.playground.mcp.idle-timeout:10m}") Duration idleTimeout,
+			@Value("${spring.ai.alibaba.playground.mcp.health-check-interval:1m}") Duration healthCheckInterval,
+			@Value("${spring.ai.alibaba.playground.mcp.max-sessions:16}") int maxSessions
+	) {
+
+		this.requestTimeout = requestTimeout;
+		this.idleTimeout = idleTimeout;
+		this.healthCheckInterval = healthCheckInterval;
+		this.maxSessions = maxSessions;
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "mcp-client-pool");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::maintain, healthCheckInterval.toMillis(),
+				healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void destroy() {
+
+		scheduler.shutdownNow();
+		new ArrayList<>(sessions.keySet()).forEach(key -> {
+			CompletableFuture<Session> future = sessions.remove(key);
+			if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+				close(future.join());
+			}
+		});
+	}
+
+	/**
+	 * 获取 MCP Server 的工具列表，会话不存在或已失效时创建新的会话
+	 */
+	public List<ToolCallback> getToolCallbacks(McpStdioClientProperties.Parameters parameters) {
+
+		String key = key(parameters);
+
+		Session session = acquire(key, parameters);
+		if (session.idleNanos() > healthCheckInterval.toNanos() && !session.ping()) {
+			logger.warn("MCP client session {} failed health check, recreating", session.name());
+			evict(key, session);
+			session = acquire(key, parameters);
+		}
+
+		session.touch();
+		return session.toolCallbacks();
+	}
+
+	public int size() {
+
+		return sessions.size();
+	}
+
+	/**
+	 * 该配置当前是否有已建立的会话
+	 */
+	boolean isPooled(McpStdioClientProperties.Parameters parameters) {
+
+		CompletableFuture<Session> future = sessions.get(key(parameters));
+		return future != null && future.isDone() && !future.isCompletedExceptionally();
+	}
+
+	private Session acquire(String key, McpStdioClientProperties.Parameters parameters) {
+
+		CompletableFuture<Session> created = new CompletableFuture<>();
+		CompletableFuture<Session> existing = sessions.putIfAbsent(key, created);
+		if (existing != null) {
+			try {
+				return existing.join();
+			}
+			catch (CompletionException e) {
+				throw new SAAAppException("Failed to start MCP server: " + e.getCause().getMessage());
+			}
+		}
+
+		if (!reserve(key)) {
+			sessions.remove(key, created);
+			created.completeExceptionally(new SAAAppException("Too many MCP client sessions"));
+			throw new SAAAppException("Too many MCP client sessions, at most " + maxSessions + " allowed");
+		}
+
+		try {
+			Session session = open(parameters);
+			created.complete(session);
+			return session;
+		}
+		catch (RuntimeException e) {
+			sessions.remove(key, created);
+			created.completeExceptionally(e);
+			throw new SAAAppException("Failed to start MCP server: " + e.getMessage());
+		}
+	}
+
+	private Session open(McpStdioClientProperties.Parameters parameters) {
+
+		ServerParameters serverParameters = ServerParameters.builder(parameters.command())
+				.args(parameters.args() == null ? List.of() : parameters.args())
+				.env(parameters.env() == null ? Map.of() : parameters.env())
+				.build();
+
+		long start = System.nanoTime();
+		McpSyncClient client = McpClient.sync(new StdioClientTransport(serverParameters, McpJsonMapper.getDefault()))
+				.requestTimeout(requestTimeout)
+				.build();
+
+		try {
+			client.initialize();
+			List<ToolCallback> toolCallbacks = client.listTools().tools().stream()
+					.<ToolCallback>map(tool -> SyncMcpToolCallback.builder()
+							.mcpClient(client)
+							.tool(tool)
+							.build())
+					.toList();
+
+			String name = client.getServerInfo().name();
+			logger.info("Started MCP client session {} with {} tools in {} ms", name, toolCallbacks.size(),
+					Duration.ofNanos(System.nanoTime() - start).toMillis());
+
+			return new Session(name, client, toolCallbacks);
+		}
+		catch (RuntimeException e) {
+			client.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * 会话数超过 max-sessions 时按最近使用时间淘汰已建立的会话，为 key 腾出位置；
+	 * 只剩启动中的会话可淘汰时返回 false
+	 */
+	private synchronized boolean reserve(String key) {
+
+		while (sessions.size() > maxSessions) {
+			String eldestKey = null;
+			Session eldest = null;
+			for (Map.Entry<String, CompletableFuture<Session>> entry : sessions.entrySet()) {
+				CompletableFuture<Session> future = entry.getValue();
+				if (entry.getKey().equals(key) || !future.isDone() || future.isCompletedExceptionally()) {
+					continue;
+				}
+				Session session = future.join();
+				if (eldest == null || session.lastUsedNanos() - eldest.lastUsedNanos() < 0) {
+					eldestKey = entry.getKey();
+					eldest = session;
+				}
+			}
+			if (eldest == null) {
+				return false;
+			}
+
+			logger.info("Closing least recently used MCP client session {}, {} sessions exceed the limit of {}",
+					eldest.name(), sessions.size(), maxSessions);
+			evict(eldestKey, eldest);
+		}
+		return true;
+	}
+
+	/**
+	 * 关闭空闲会话，ping 其余会话
+	 */
+	private void maintain() {
+
+		List<String> keys = new ArrayList<>(sessions.keySet());
+		for (String key : keys) {
+			CompletableFuture<Session> future = sessions.get(key);
+			if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+				continue;
+			}
+
+			Session session = future.join();
+			if (session.idleNanos() > idleTimeout.toNanos()) {
+				logger.info("Closing idle MCP client session {}", session.name());
+				evict(key, session);
+			}
+			else if (!session.ping()) {
+				logger.warn("MCP client session {} failed health check, closing", session.name());
+				evict(key, session);
+			}
+		}
+	}
+
+	/**
+	 * 只移除仍然指向该会话的条目，避免关闭其他线程刚创建的新会话
+	 */
+	private void evict(String key, Session session) {
+
+		CompletableFuture<Session> future = sessions.get(key);
+		if (future == null || !future.isDone() || future.isCompletedExceptionally() || future.join() != session) {
+			return;
+		}
+		if (sessions.remove(key, future)) {
+			close(session);
+		}
+	}
+
+	private static void close(Session session) {
+
+		try {
+			session.client().closeGracefully();
+		}
+		catch (RuntimeException e) {
+			logger.debug("Failed to close MCP client session {}: {}", session.name(), e.getMessage());
+		}
+	}
+
+	/**
+	 * env 按 key 排序，保证相同配置得到相同的 key
+	 */
+	private static String key(McpStdioClientProperties.Parameters parameters) {
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(String.valueOf(parameters.command()).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(String.valueOf(parameters.args()).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(String.valueOf(parameters.env() == null ? null : new TreeMap<>(parameters.env()))
+					.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static final class Session {
+
+		private final String name;
+
+		private final McpSyncClient client;
+
+		private final List<ToolCallback> toolCallbacks;
+
+		private volatile long lastUsedNanos = System.nanoTime();
+
+		private Session(String name, McpSyncClient client, List<ToolCallback> toolCallbacks) {
+			this.name = name;
+			this.client = client;
+			this.toolCallbacks = toolCallbacks;
+		}
+
+		private boolean ping() {
+
+			try {
+				client.ping();
+				return true;
+			}
+			catch (RuntimeException e) {
+				return false;
+			}
+		}
+
+		private void touch() {
+
+			lastUsedNanos = System.nanoTime();
+		}
+
+		private long lastUsedNanos() {
+
+			return lastUsedNanos;
+		}
+
+		private long idleNanos() {
+
+			return System.nanoTime() - lastUsedNanos;
+		}
+
+		private String name() {
+
+			return name;
+		}
+
+		private McpSyncClient client() {
+
+			return client;
+		}
+
+		private List<ToolCallback> toolCallbacks() {
+
+			return toolCallbacks;
+		}
+
+	}
+
+}
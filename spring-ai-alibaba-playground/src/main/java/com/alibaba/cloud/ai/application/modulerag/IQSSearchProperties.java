@@ -16,11 +16,21 @@
 
 package com.alibaba.cloud.ai.application.modulerag;
 
+import java.time.Duration;
+
 /**
  * iqs search properties
  *
+ * @param apiKey       iqs api key
+ * @param cacheTtl     搜索结果缓存时间
+ * @param cacheMaxSize 搜索结果缓存条目上限
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
-public record IQSSearchProperties(String apiKey) {
+public record IQSSearchProperties(String apiKey, Duration cacheTtl, Integer cacheMaxSize) {
+
+	public IQSSearchProperties {
+		cacheTtl = cacheTtl == null ? Duration.ofMinutes(10) : cacheTtl;
+		cacheMaxSize = cacheMaxSize == null ? 1000 : cacheMaxSize;
+	}
 }
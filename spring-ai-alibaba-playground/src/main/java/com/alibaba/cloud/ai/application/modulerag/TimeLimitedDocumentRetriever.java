@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * 为单个查询的检索设置截止时间：超时或失败时返回空结果，不影响其他扩展查询。
+ * <p>
+ * RetrievalAugmentationAdvisor 会在 taskExecutor 上并行检索 MultiQueryExpander 扩展出的查询，
+ * 配合该包装类，整体检索耗时取决于最慢的一次搜索（且不超过截止时间），而不是所有搜索耗时之和。
+ * <p>
+ * 超时后会中断 delegate 所在的线程，但阻塞 IO 不一定响应中断，被放弃的检索可能继续运行到 HTTP 超时。
+ * 因此同时运行的 delegate 调用数（包括已超时但仍未结束的）不超过 maxInFlight，达到上限时直接跳过新的检索，
+ * 而不是继续堆积线程。
+ */
+
+public class TimeLimitedDocumentRetriever implements DocumentRetriever {
+
+	private static final Logger logger = LoggerFactory.getLogger(TimeLimitedDocumentRetriever.class);
+
+	private final DocumentRetriever delegate;
+
+	private final Duration timeout;
+
+	private final Scheduler scheduler;
+
+	private final int maxInFlight;
+
+	private final Semaphore inFlight;
+
+	private TimeLimitedDocumentRetriever(Builder builder) {
+
+		Assert.notNull(builder.delegate, "delegate must not be null");
+		Assert.notNull(builder.timeout, "timeout must not be null");
+		Assert.notNull(builder.scheduler, "scheduler must not be null");
+		Assert.isTrue(builder.maxInFlight > 0, "maxInFlight must be greater than 0");
+
+		this.delegate = builder.delegate;
+		this.timeout = builder.timeout;
+		this.scheduler = builder.scheduler;
+		this.maxInFlight = builder.maxInFlight;
+		this.inFlight = new Semaphore(builder.maxInFlight);
+	}
+
+	@NotNull
+	@Override
+	public List<Document> retrieve(
+			@Nullable Query query
+	) {
+
+		Assert.notNull(query, "query cannot be null");
+
+		long start = System.nanoTime();
+
+		if (!inFlight.tryAcquire()) {
+			logger.warn("Retrieval for query '{}' skipped, {} retrievals are still running", query.text(), maxInFlight);
+			return List.of();
+		}
+
+		// delegate 开始执行后由它自己释放许可；还没开始就超时或取消的，由 doFinally 释放
+		AtomicBoolean claimed = new AtomicBoolean();
+		List<Document> documents = Mono.fromCallable(() -> {
+					if (!claimed.compareAndSet(false, true)) {
+						return List.<Document>of();
+					}
+					try {
+						return delegate.retrieve(query);
+					}
+					finally {
+						inFlight.release();
+					}
+				})
+				.subscribeOn(scheduler)
+				.timeout(timeout)
+				.doFinally(signal -> {
+					if (claimed.compareAndSet(false, true)) {
+						inFlight.release();
+					}
+				})
+				.onErrorResume(e -> {
+					if (e instanceof TimeoutException) {
+						logger.warn("Retrieval for query '{}' exceeded {} ms, skipped", query.text(), timeout.toMillis());
+					}
+					else {
+						logger.warn("Retrieval for query '{}' failed, skipped: {}", query.text(), e.getMessage());
+					}
+					return Mono.just(List.of());
+				})
+				.block();
+
+		logger.debug("Retrieval for query '{}' returned {} documents in {} ms",
+				query.text(), documents.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+
+		return documents;
+	}
+
+	public static TimeLimitedDocumentRetriever.Builder builder() {
+		return new TimeLimitedDocumentRetriever.Builder();
+	}
+
+	public static final class Builder {
+
+		private DocumentRetriever delegate;
+
+		private Duration timeout = Duration.ofSeconds(5);
+
+		private Scheduler scheduler = Schedulers.boundedElastic();
+
+		private int maxInFlight = 16;
+
+		public TimeLimitedDocumentRetriever.Builder delegate(DocumentRetriever delegate) {
+
+			this.delegate = delegate;
+			return this;
+		}
+
+		public TimeLimitedDocumentRetriever.Builder timeout(Duration timeout) {
+
+			this.timeout = timeout;
+			return this;
+		}
+
+		public TimeLimitedDocumentRetriever.Builder scheduler(Scheduler scheduler) {
+
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		public TimeLimitedDocumentRetriever.Builder maxInFlight(int maxInFlight) {
+
+			this.maxInFlight = maxInFlight;
+			return this;
+		}
+
+		public TimeLimitedDocumentRetriever build() {
+
+			return new TimeLimitedDocumentRetriever(this);
+		}
+	}
+
+}
@@ -22,6 +22,12 @@ import com.alibaba.cloud.ai.application.entity.iqs.IQSSearchResponse;
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.modulerag.IQSSearchProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -32,11 +38,18 @@ import org.springframework.util.Assert;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
 
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 
 /**
  * <a href="https://help.aliyun.com/document_detail/2883041.html">通晓搜索</a>
+ * <p>
+ * 搜索结果按归一化后的 query 缓存，MultiQueryExpander 扩展出的重复查询不会重复请求 IQS；
+ * 并发的相同查询只会触发一次上游请求，其余请求等待同一个结果。
  *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -45,8 +58,11 @@ import java.util.function.Consumer;
 @Component
 public class IQSSearchEngine {
 
+	private static final Logger logger = LoggerFactory.getLogger(IQSSearchEngine.class);
+
 	private final RestClient restClient;
 	private final IQSSearchProperties iqsSearchProperties;
+	private final Cache<String, IQSSearchResponse> searchCache;
 	private static final String BASE_URL = "https://cloud-iqs.aliyuncs.com/";
 	private static final String API_PATH = "/search/unified";
 	private static final String DEFAULT_TIME_RANGE = "OneWeek";
@@ -64,10 +80,52 @@ public class IQSSearchEngine {
 				.defaultHeaders(getHeaders())
 				.defaultStatusHandler(responseErrorHandler)
 				.build();
+		this.searchCache = CacheBuilder.newBuilder()
+				.maximumSize(iqsSearchProperties.cacheMaxSize())
+				.expireAfterWrite(iqsSearchProperties.cacheTtl())
+				.recordStats()
+				.build();
 	}
 
 	public IQSSearchResponse search(String query) throws JsonProcessingException {
 
+		String key = normalize(query);
+		try {
+			// Cache#get 保证同一个 key 只有一个线程执行加载
+			return searchCache.get(key, () -> doSearch(query));
+		}
+		catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new SAAAppException("Failed to search: " + e.getCause().getMessage());
+		}
+	}
+
+	/**
+	 * 搜索结果缓存统计信息
+	 */
+	public Map<String, Object> cacheStats() {
+
+		CacheStats stats = searchCache.stats();
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("size", searchCache.size());
+		result.put("hitCount", stats.hitCount());
+		result.put("missCount", stats.missCount());
+		result.put("hitRate", stats.hitRate());
+		result.put("loadCount", stats.loadCount());
+		result.put("loadExceptionCount", stats.loadExceptionCount());
+		result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+		result.put("evictionCount", stats.evictionCount());
+
+		return result;
+	}
+
+	private IQSSearchResponse doSearch(String query) {
+
+		logger.debug("IQS search cache miss, query: {}", query);
+
 		// String encodeQ = URLEncoder.encode(query, StandardCharsets.UTF_8);
 		final IQSSearchRequest request = IQSSearchRequest.builder()
 				.query(query)
@@ -91,6 +149,13 @@ public class IQSSearchEngine {
 		return genericSearchResult(response);
 	}
 
+	private static String normalize(String query) {
+
+		return query.trim()
+				.toLowerCase(Locale.ROOT)
+				.replaceAll("\\s+", " ");
+	}
+
 	private IQSSearchResponse genericSearchResult(ResponseEntity<IQSSearchResponse> response) {
 
 		if ((Objects.equals(response.getStatusCode(), HttpStatus.OK)) && Objects.nonNull(response.getBody())) {
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.postretrieval;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.postretrieval.document.DocumentPostProcessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * 本地 BM25 + 轻量重排：
+ * 1. 对本次请求的候选文档建立倒排索引，计算 query 的 BM25 分数；
+ * 2. 可选使用预先计算好的全局 IDF 表，未收录的词回退为本次候选集的 IDF；
+ * 3. BM25 分数按最大值归一化后与第二阶段打分器的分数加权求和，返回 top-k。
+ * <p>
+ * 中文按相邻两个字切分（bigram），英文和数字按单词切分，整个过程不需要远程调用。
+ */
+
+public class BM25DocumentRanker implements DocumentPostProcessor {
+
+	private static final Logger logger = LoggerFactory.getLogger(BM25DocumentRanker.class);
+
+	private final int topK;
+
+	private final double k1;
+
+	private final double b;
+
+	private final double bm25Weight;
+
+	private final DocumentScorer scorer;
+
+	private final Map<String, Double> idfTable;
+
+	private BM25DocumentRanker(Builder builder) {
+
+		Assert.isTrue(builder.topK > 0, "topK must be greater than 0");
+		Assert.isTrue(builder.bm25Weight >= 0 && builder.bm25Weight <= 1, "bm25Weight must be in [0, 1]");
+		Assert.notNull(builder.scorer, "scorer must not be null");
+
+		this.topK = builder.topK;
+		this.k1 = builder.k1;
+		this.b = builder.b;
+		this.bm25Weight = builder.bm25Weight;
+		this.scorer = builder.scorer;
+		this.idfTable = builder.idfTable;
+	}
+
+	@NotNull
+	@Override
+	public List<Document> process(
+			@Nullable Query query,
+			@Nullable List<Document> documents
+	) {
+
+		Assert.notNull(query, "query cannot be null");
+		Assert.notNull(documents, "documents cannot be null");
+
+		if (documents.isEmpty()) {
+			return documents;
+		}
+
+		long start = System.nanoTime();
+
+		double[] bm25 = bm25Scores(tokenize(query.text()), documents);
+		double maxBm25 = 0;
+		for (double score : bm25) {
+			maxBm25 = Math.max(maxBm25, score);
+		}
+
+		List<Scored> scored = new ArrayList<>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			double lexical = maxBm25 == 0 ? 0 : bm25[i] / maxBm25;
+			double combined = bm25Weight * lexical + (1 - bm25Weight) * scorer.score(query, documents.get(i));
+			scored.add(new Scored(documents.get(i), combined));
+		}
+
+		List<Document> ranked = scored.stream()
+				.sorted(Comparator.comparingDouble(Scored::score).reversed())
+				.limit(topK)
+				.map(s -> s.document().mutate().score(s.score()).build())
+				.toList();
+
+		logger.debug("Ranked {} documents to top {} in {} us",
+				documents.size(), ranked.size(), (System.nanoTime() - start) / 1000);
+
+		return ranked;
+	}
+
+	private double[] bm25Scores(List<String> queryTerms, List<Document> documents) {
+
+		int n = documents.size();
+		List<Map<String, Integer>> termFrequencies = new ArrayList<>(n);
+		Map<String, Integer> documentFrequencies = new HashMap<>();
+		int[] lengths = new int[n];
+		long totalLength = 0;
+
+		for (int i = 0; i < n; i++) {
+			List<String> tokens = tokenize(documents.get(i).getText());
+			Map<String, Integer> tf = new HashMap<>();
+			for (String token : tokens) {
+				tf.merge(token, 1, Integer::sum);
+			}
+			for (String term : tf.keySet()) {
+				documentFrequencies.merge(term, 1, Integer::sum);
+			}
+
+			termFrequencies.add(tf);
+			lengths[i] = tokens.size();
+			totalLength += tokens.size();
+		}
+
+		double avgLength = Math.max(1, (double) totalLength / n);
+		Set<String> terms = new HashSet<>(queryTerms);
+		double[] scores = new double[n];
+
+		for (String term : terms) {
+			Integer df = documentFrequencies.get(term);
+			if (df == null) {
+				continue;
+			}
+			double idf = idfTable.getOrDefault(term, idf(n, df));
+
+			for (int i = 0; i < n; i++) {
+				Integer tf = termFrequencies.get(i).get(term);
+				if (tf == null) {
+					continue;
+				}
+				double norm = k1 * (1 - b + b * lengths[i] / avgLength);
+				scores[i] += idf * tf * (k1 + 1) / (tf + norm);
+			}
+		}
+
+		return scores;
+	}
+
+	private static double idf(long documentCount, long documentFrequency) {
+
+		return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+	}
+
+	/**
+	 * 根据语料计算全局 IDF 表，可通过 {@link Builder#idfTable(Map)} 复用。
+	 */
+	public static Map<String, Double> computeIdfTable(Collection<String> corpus) {
+
+		Map<String, Integer> documentFrequencies = new HashMap<>();
+		for (String text : corpus) {
+			for (String term : new HashSet<>(tokenize(text))) {
+				documentFrequencies.merge(term, 1, Integer::sum);
+			}
+		}
+
+		Map<String, Double> idfTable = new HashMap<>(documentFrequencies.size());
+		documentFrequencies.forEach((term, df) -> idfTable.put(term, idf(corpus.size(), df)));
+
+		return Map.copyOf(idfTable);
+	}
+
+	/**
+	 * 英文和数字按单词切分，中日韩文字按 bigram 切分（单字时保留单字）。
+	 */
+	static List<String> tokenize(String text) {
+
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isEmpty()) {
+			return tokens;
+		}
+
+		String lower = text.toLowerCase(Locale.ROOT);
+		StringBuilder word = new StringBuilder();
+		StringBuilder cjk = new StringBuilder();
+
+		for (int i = 0; i < lower.length(); ) {
+			int cp = lower.codePointAt(i);
+			i += Character.charCount(cp);
+
+			if (isCjk(cp)) {
+				flushWord(word, tokens);
+				cjk.appendCodePoint(cp);
+			}
+			else if (Character.isLetterOrDigit(cp)) {
+				flushCjk(cjk, tokens);
+				word.appendCodePoint(cp);
+			}
+			else {
+				flushWord(word, tokens);
+				flushCjk(cjk, tokens);
+			}
+		}
+		flushWord(word, tokens);
+		flushCjk(cjk, tokens);
+
+		return tokens;
+	}
+
+	private static void flushWord(StringBuilder word, List<String> tokens) {
+
+		if (!word.isEmpty()) {
+			tokens.add(word.toString());
+			word.setLength(0);
+		}
+	}
+
+	private static void flushCjk(StringBuilder cjk, List<String> tokens) {
+
+		if (cjk.isEmpty()) {
+			return;
+		}
+
+		int[] cps = cjk.codePoints().toArray();
+		if (cps.length == 1) {
+			tokens.add(new String(cps, 0, 1));
+		}
+		for (int i = 0; i + 1 < cps.length; i++) {
+			tokens.add(new String(cps, i, 2));
+		}
+		cjk.setLength(0);
+	}
+
+	private static boolean isCjk(int cp) {
+
+		Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+		return script == Character.UnicodeScript.HAN
+				|| script == Character.UnicodeScript.HIRAGANA
+				|| script == Character.UnicodeScript.KATAKANA
+				|| script == Character.UnicodeScript.HANGUL;
+	}
+
+	public static BM25DocumentRanker.Builder builder() {
+		return new BM25DocumentRanker.Builder();
+	}
+
+	private record Scored(Document document, double score) {
+	}
+
+	public static final class Builder {
+
+		private int topK = 5;
+
+		private double k1 = 1.2;
+
+		private double b = 0.75;
+
+		private double bm25Weight = 0.7;
+
+		private DocumentScorer scorer = DocumentScorer.RETRIEVAL_SCORE;
+
+		private Map<String, Double> idfTable = Map.of();
+
+		public BM25DocumentRanker.Builder topK(int topK) {
+
+			this.topK = topK;
+			return this;
+		}
+
+		public BM25DocumentRanker.Builder k1(double k1) {
+
+			this.k1 = k1;
+			return this;
+		}
+
+		public BM25DocumentRanker.Builder b(double b) {
+
+			this.b = b;
+			return this;
+		}
+
+		/**
+		 * BM25 分数在综合分数中的权重，其余为第二阶段打分器的权重
+		 */
+		public BM25DocumentRanker.Builder bm25Weight(double bm25Weight) {
+
+			this.bm25Weight = bm25Weight;
+			return this;
+		}
+
+		public BM25DocumentRanker.Builder scorer(DocumentScorer scorer) {
+
+			this.scorer = scorer;
+			return this;
+		}
+
+		public BM25DocumentRanker.Builder idfTable(Map<String, Double> idfTable) {
+
+			this.idfTable = idfTable == null ? Map.of() : idfTable;
+			return this;
+		}
+
+		public BM25DocumentRanker build() {
+
+			return new BM25DocumentRanker(this);
+		}
+	}
+
+}
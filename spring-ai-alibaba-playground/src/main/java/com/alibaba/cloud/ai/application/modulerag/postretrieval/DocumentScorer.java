@@ -16,5 +16,21 @@
 
 package com.alibaba.cloud.ai.application.modulerag.postretrieval;
 
-// Spring AI 0.8.0 删除了 postRetrieval. 在新版本中用户可以通过实现 DocumentPostProcessor 接口来处理。
-// https://docs.spring.io/spring-ai/reference/api/retrieval-augmented-generation.html#_post_retrieval
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+/**
+ * 排序第二阶段的打分器，返回值应在 [0, 1] 之间。
+ */
+
+@FunctionalInterface
+public interface DocumentScorer {
+
+	/**
+	 * 使用检索阶段返回的分数（例如 IQS 的 rerankScore），没有分数时为 0。
+	 */
+	DocumentScorer RETRIEVAL_SCORE = (query, document) -> document.getScore() == null ? 0 : document.getScore();
+
+	double score(Query query, Document document);
+
+}
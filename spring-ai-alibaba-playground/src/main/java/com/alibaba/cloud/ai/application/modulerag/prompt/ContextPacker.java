@@ -0,0 +1,309 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.prompt;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * 按 token 预算装填上下文：
+ * 1. 按文档分数从高到低依次装填，直到用完预算；
+ * 2. 与已装填文档的 shingle 相似度超过阈值的文档视为重复，跳过；
+ * 3. 单个文档超过单文档上限或剩余预算时，在句子边界处截断；
+ * 4. 引用编号 [[n]] 为文档在检索结果中的位置，跳过或截断文档不会改变其他文档的编号。
+ */
+
+public class ContextPacker {
+
+	private static final Logger logger = LoggerFactory.getLogger(ContextPacker.class);
+
+	/**
+	 * 句子结束符后可能紧跟的引号、括号
+	 */
+	private static final String CLOSING = "[”’」』）)\"']";
+
+	/**
+	 * 句子边界（零宽），结束符后的引号、括号归前一句；
+	 * 英文句号只有后面（跳过引号、括号）是空白或文本结尾时才是边界，小数（3.5）、版本号（v1.2）不会被切开
+	 */
+	private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("(?:(?<=[。！？；!?;\\n]" + CLOSING + "{0,8})"
+			+ "|(?<=\\." + CLOSING + "{0,8})(?=\\s|$))(?!" + CLOSING + ")");
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	private final int maxTokens;
+
+	private final int maxTokensPerDocument;
+
+	private final int minTokensPerDocument;
+
+	private final int shingleSize;
+
+	private final double duplicateThreshold;
+
+	private ContextPacker(Builder builder) {
+
+		Assert.notNull(builder.tokenCountEstimator, "tokenCountEstimator must not be null");
+		Assert.isTrue(builder.maxTokens > 0, "maxTokens must be greater than 0");
+		Assert.isTrue(builder.shingleSize > 0, "shingleSize must be greater than 0");
+
+		this.tokenCountEstimator = builder.tokenCountEstimator;
+		this.maxTokens = builder.maxTokens;
+		this.maxTokensPerDocument = builder.maxTokensPerDocument > 0 ? builder.maxTokensPerDocument : builder.maxTokens;
+		this.minTokensPerDocument = builder.minTokensPerDocument;
+		this.shingleSize = builder.shingleSize;
+		this.duplicateThreshold = builder.duplicateThreshold;
+	}
+
+	/**
+	 * @return 按引用编号升序排列的装填结果
+	 */
+	public List<PackedDocument> pack(List<Document> documents) {
+
+		List<Ranked> ranked = new ArrayList<>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
+			if (StringUtils.hasText(document.getText())) {
+				ranked.add(new Ranked(i + 1, document));
+			}
+		}
+		// 分数相同（或没有分数）时保持检索顺序
+		ranked.sort(Comparator.comparingDouble(Ranked::score).reversed().thenComparingInt(Ranked::number));
+
+		List<PackedDocument> packed = new ArrayList<>();
+		List<Set<Integer>> packedShingles = new ArrayList<>();
+		int remaining = maxTokens;
+		int skippedDuplicates = 0;
+
+		for (Ranked candidate : ranked) {
+			if (remaining < minTokensPerDocument) {
+				break;
+			}
+
+			String text = candidate.document().getText().trim();
+			Set<Integer> shingles = shingles(text);
+			if (isDuplicate(shingles, packedShingles)) {
+				skippedDuplicates++;
+				continue;
+			}
+
+			String fitted = fit(text, Math.min(remaining, maxTokensPerDocument));
+			if (fitted.isEmpty()) {
+				continue;
+			}
+
+			int tokens = tokenCountEstimator.estimate(fitted);
+			packed.add(new PackedDocument(candidate.number(), fitted, tokens));
+			packedShingles.add(shingles);
+			remaining -= tokens;
+		}
+
+		packed.sort(Comparator.comparingInt(PackedDocument::number));
+
+		logger.debug("Packed {}/{} documents into {} tokens, skipped {} duplicates",
+				packed.size(), documents.size(), maxTokens - remaining, skippedDuplicates);
+
+		return packed;
+	}
+
+	/**
+	 * 在预算内尽量保留完整句子；第一句就超出预算时按字符截断。
+	 */
+	private String fit(String text, int budget) {
+
+		if (tokenCountEstimator.estimate(text) <= budget) {
+			return text;
+		}
+
+		StringBuilder result = new StringBuilder();
+		int used = 0;
+		for (String sentence : sentences(text)) {
+			int tokens = tokenCountEstimator.estimate(sentence);
+			if (used + tokens > budget) {
+				break;
+			}
+			result.append(sentence);
+			used += tokens;
+		}
+
+		if (!result.isEmpty()) {
+			return result.toString().trim();
+		}
+
+		return truncate(text, budget);
+	}
+
+	static String[] sentences(String text) {
+
+		return SENTENCE_BOUNDARY.split(text);
+	}
+
+	/**
+	 * 二分查找不超过预算的最长前缀
+	 */
+	private String truncate(String text, int budget) {
+
+		int low = 0;
+		int high = text.length();
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (tokenCountEstimator.estimate(text.substring(0, mid)) <= budget) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+
+		return text.substring(0, low).trim();
+	}
+
+	private boolean isDuplicate(Set<Integer> shingles, List<Set<Integer>> packedShingles) {
+
+		if (shingles.isEmpty()) {
+			return false;
+		}
+
+		for (Set<Integer> other : packedShingles) {
+			int intersection = 0;
+			Set<Integer> smaller = shingles.size() <= other.size() ? shingles : other;
+			Set<Integer> larger = smaller == shingles ? other : shingles;
+			for (Integer hash : smaller) {
+				if (larger.contains(hash)) {
+					intersection++;
+				}
+			}
+
+			int union = shingles.size() + other.size() - intersection;
+			if (union > 0 && (double) intersection / union >= duplicateThreshold) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * 去掉空白并转小写后按固定长度字符切分，对中英文都适用
+	 */
+	private Set<Integer> shingles(String text) {
+
+		String normalized = text.toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+		Set<Integer> shingles = new HashSet<>();
+		for (int i = 0; i + shingleSize <= normalized.length(); i++) {
+			shingles.add(normalized.substring(i, i + shingleSize).hashCode());
+		}
+
+		return shingles;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param number 引用编号，即文档在检索结果中的位置（从 1 开始）
+	 * @param text   装填的文本，可能已截断
+	 * @param tokens 文本的 token 数
+	 */
+	public record PackedDocument(int number, String text, int tokens) {
+	}
+
+	private record Ranked(int number, Document document) {
+
+		double score() {
+			return document.getScore() == null ? 0 : document.getScore();
+		}
+	}
+
+	public static final class Builder {
+
+		private TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+
+		private int maxTokens = 4000;
+
+		private int maxTokensPerDocument = 1500;
+
+		private int minTokensPerDocument = 64;
+
+		private int shingleSize = 8;
+
+		private double duplicateThreshold = 0.8;
+
+		private Builder() {
+		}
+
+		public Builder tokenCountEstimator(TokenCountEstimator tokenCountEstimator) {
+			this.tokenCountEstimator = tokenCountEstimator;
+			return this;
+		}
+
+		/**
+		 * 全部上下文的 token 预算
+		 */
+		public Builder maxTokens(int maxTokens) {
+			this.maxTokens = maxTokens;
+			return this;
+		}
+
+		public Builder maxTokensPerDocument(int maxTokensPerDocument) {
+			this.maxTokensPerDocument = maxTokensPerDocument;
+			return this;
+		}
+
+		/**
+		 * 剩余预算低于该值时不再装填
+		 */
+		public Builder minTokensPerDocument(int minTokensPerDocument) {
+			this.minTokensPerDocument = minTokensPerDocument;
+			return this;
+		}
+
+		public Builder shingleSize(int shingleSize) {
+			this.shingleSize = shingleSize;
+			return this;
+		}
+
+		/**
+		 * shingle Jaccard 相似度达到该值视为重复
+		 */
+		public Builder duplicateThreshold(double duplicateThreshold) {
+			this.duplicateThreshold = duplicateThreshold;
+			return this;
+		}
+
+		public ContextPacker build() {
+			return new ContextPacker(this);
+		}
+
+	}
+
+}
@@ -29,7 +29,6 @@ import org.springframework.util.Assert;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -75,14 +74,26 @@ public class CustomContextQueryAugmenter implements QueryAugmenter {
 
 	private final boolean allowEmptyContext;
 
+	private final ContextPacker contextPacker;
+
 	public CustomContextQueryAugmenter(
 			@Nullable PromptTemplate promptTemplate,
 			@Nullable PromptTemplate emptyPromptTemplate,
 			@Nullable Boolean allowEmptyContext
+	) {
+		this(promptTemplate, emptyPromptTemplate, allowEmptyContext, null);
+	}
+
+	public CustomContextQueryAugmenter(
+			@Nullable PromptTemplate promptTemplate,
+			@Nullable PromptTemplate emptyPromptTemplate,
+			@Nullable Boolean allowEmptyContext,
+			@Nullable ContextPacker contextPacker
 	) {
 		this.promptTemplate = promptTemplate != null ? promptTemplate : DEFAULT_PROMPT_TEMPLATE;
 		this.emptyPromptTemplate = emptyPromptTemplate != null ? emptyPromptTemplate : DEFAULT_EMPTY_PROMPT_TEMPLATE;
 		this.allowEmptyContext = allowEmptyContext != null ? allowEmptyContext : DEFAULT_ALLOW_EMPTY_PROMPT;
+		this.contextPacker = contextPacker != null ? contextPacker : ContextPacker.builder().build();
 
 		logger.debug("CustomContextQueryAugmenter promptTemplate: {}", promptTemplate.getTemplate());
 		logger.debug("CustomContextQueryAugmenter emptyPromptTemplate: {}", emptyPromptTemplate);
@@ -110,13 +121,10 @@ public class CustomContextQueryAugmenter implements QueryAugmenter {
 
 		logger.debug("Documents found. Augmenting query with context.");
 
-		// 1. collect content from documents.
-		AtomicInteger idCounter = new AtomicInteger(1);
-		String documentContext = documents.stream()
-				.map(document -> {
-					String text = document.getText();
-					return "[[" + (idCounter.getAndIncrement()) + "]]" + text;
-				})
+		// 1. collect content from documents within the token budget.
+		// [[n]] is the position in the retrieved documents, so citations stay stable when documents are skipped.
+		String documentContext = contextPacker.pack(documents).stream()
+				.map(packed -> "[[" + packed.number() + "]]" + packed.text())
 				.collect(Collectors.joining("\n-----------------------------------------------\n"));
 
 		// 2. Define prompt parameters.
@@ -148,6 +156,8 @@ public class CustomContextQueryAugmenter implements QueryAugmenter {
 
 		private Boolean allowEmptyContext;
 
+		private ContextPacker contextPacker;
+
 		public Builder() {
 		}
 
@@ -166,8 +176,13 @@ public class CustomContextQueryAugmenter implements QueryAugmenter {
 			return this;
 		}
 
+		public CustomContextQueryAugmenter.Builder withContextPacker(ContextPacker contextPacker) {
+			this.contextPacker = contextPacker;
+			return this;
+		}
+
 		public CustomContextQueryAugmenter build() {
-			return new CustomContextQueryAugmenter(promptTemplate, emptyPromptTemplate, allowEmptyContext);
+			return new CustomContextQueryAugmenter(promptTemplate, emptyPromptTemplate, allowEmptyContext, contextPacker);
 		}
 
 	}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.observation;
+
+/**
+ * RAG 请求的各个阶段
+ */
+
+public enum RagStage {
+
+	EXPAND("expand"),
+
+	RETRIEVE("retrieve"),
+
+	JOIN("join"),
+
+	RANK("rank"),
+
+	AUGMENT("augment"),
+
+	/**
+	 * 从请求开始到模型输出第一个 token
+	 */
+	FIRST_TOKEN("first-token"),
+
+	/**
+	 * 从请求开始到模型输出结束
+	 */
+	COMPLETE("complete");
+
+	private final String value;
+
+	RagStage(String value) {
+		this.value = value;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public static RagStage fromValue(String value) {
+
+		for (RagStage stage : values()) {
+			if (stage.value.equals(value)) {
+				return stage;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown rag stage: " + value);
+	}
+
+}
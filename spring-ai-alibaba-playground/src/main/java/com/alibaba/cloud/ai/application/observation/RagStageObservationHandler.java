@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.observation;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+
+/**
+ * 处理 RAG 阶段观测：记录到 Micrometer 直方图（按 stage、model、vector_store 打标签），
+ * 同时写入 {@link RagStageRecorder}。
+ * <p>
+ * 向量存储自带的 query 观测也会作为 retrieve 阶段记录，
+ * QuestionAnswerAdvisor 内部的检索无需额外包装即可统计。
+ * 出错的观测额外计入 {@value #ERRORS_NAME} 计数；没有收到任何元素的 first-token 观测只计数，不记录耗时。
+ */
+
+public class RagStageObservationHandler implements ObservationHandler<Observation.Context> {
+
+	public static final String ERRORS_NAME = RagStageObserver.OBSERVATION_NAME + ".errors";
+
+	private static final String START_NANOS = RagStageObservationHandler.class.getName() + ".start";
+
+	private final MeterRegistry meterRegistry;
+
+	private final RagStageRecorder recorder;
+
+	public RagStageObservationHandler(MeterRegistry meterRegistry, RagStageRecorder recorder) {
+		this.meterRegistry = meterRegistry;
+		this.recorder = recorder;
+	}
+
+	@Override
+	public void onStart(Observation.Context context) {
+
+		context.put(START_NANOS, System.nanoTime());
+	}
+
+	@Override
+	public void onStop(Observation.Context context) {
+
+		Long start = context.get(START_NANOS);
+		if (start == null) {
+			return;
+		}
+		long nanos = System.nanoTime() - start;
+
+		RagStage stage;
+		String model;
+		String vectorStore;
+		if (context instanceof VectorStoreObservationContext vectorStoreContext) {
+			stage = RagStage.RETRIEVE;
+			model = RagStageObserver.NONE;
+			// 同一 database system 可能有多种实现（如 simple 与 hnsw），带上 collection 区分
+			vectorStore = vectorStoreContext.getCollectionName() == null
+					? vectorStoreContext.getDatabaseSystem()
+					: vectorStoreContext.getDatabaseSystem() + "/" + vectorStoreContext.getCollectionName();
+		}
+		else {
+			stage = RagStage.fromValue(value(context, RagStageObserver.STAGE_KEY));
+			model = value(context, RagStageObserver.MODEL_KEY);
+			vectorStore = value(context, RagStageObserver.VECTOR_STORE_KEY);
+		}
+
+		if (context.getError() != null) {
+			Counter.builder(ERRORS_NAME)
+					.description("Failed, empty or cancelled RAG stages")
+					.tag(RagStageObserver.STAGE_KEY, stage.getValue())
+					.tag(RagStageObserver.MODEL_KEY, model)
+					.tag(RagStageObserver.VECTOR_STORE_KEY, vectorStore)
+					.register(meterRegistry)
+					.increment();
+
+			// 没有第一个 token，耗时没有意义
+			if (stage == RagStage.FIRST_TOKEN) {
+				return;
+			}
+		}
+
+		Timer.builder(RagStageObserver.OBSERVATION_NAME)
+				.description("Latency of each RAG stage")
+				.tag(RagStageObserver.STAGE_KEY, stage.getValue())
+				.tag(RagStageObserver.MODEL_KEY, model)
+				.tag(RagStageObserver.VECTOR_STORE_KEY, vectorStore)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.publishPercentileHistogram()
+				.register(meterRegistry)
+				.record(nanos, TimeUnit.NANOSECONDS);
+
+		recorder.record(stage, Duration.ofNanos(nanos));
+	}
+
+	@Override
+	public boolean supportsContext(Observation.Context context) {
+
+		if (context instanceof VectorStoreObservationContext vectorStoreContext) {
+			return VectorStoreObservationContext.Operation.QUERY.value().equals(vectorStoreContext.getOperationName());
+		}
+
+		return RagStageObserver.OBSERVATION_NAME.equals(context.getName());
+	}
+
+	private static String value(Observation.Context context, String key) {
+
+		KeyValue keyValue = context.getLowCardinalityKeyValue(key);
+		return keyValue == null ? RagStageObserver.NONE : keyValue.getValue();
+	}
+
+}
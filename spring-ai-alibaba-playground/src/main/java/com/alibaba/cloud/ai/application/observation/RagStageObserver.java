@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.observation;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
+import org.springframework.ai.rag.postretrieval.document.DocumentPostProcessor;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.rag.retrieval.join.DocumentJoiner;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+/**
+ * 为 RAG 各个阶段的组件包装观测，每次调用产生一个 {@value #OBSERVATION_NAME} 观测，
+ * 由 {@link RagStageObservationHandler} 统计耗时。
+ */
+
+public class RagStageObserver {
+
+	public static final String OBSERVATION_NAME = "playground.rag.stage";
+
+	public static final String STAGE_KEY = "stage";
+
+	public static final String MODEL_KEY = "model";
+
+	public static final String VECTOR_STORE_KEY = "vector_store";
+
+	public static final String NONE = "none";
+
+	private final ObservationRegistry observationRegistry;
+
+	public RagStageObserver(ObservationRegistry observationRegistry) {
+		this.observationRegistry = observationRegistry;
+	}
+
+	public ObservationRegistry getObservationRegistry() {
+		return observationRegistry;
+	}
+
+	public QueryExpander expander(QueryExpander delegate, String model, String vectorStore) {
+
+		return query -> observation(RagStage.EXPAND, model, vectorStore).observe(() -> delegate.expand(query));
+	}
+
+	public DocumentRetriever retriever(DocumentRetriever delegate, String model, String vectorStore) {
+
+		return query -> observation(RagStage.RETRIEVE, model, vectorStore).observe(() -> delegate.retrieve(query));
+	}
+
+	public DocumentJoiner joiner(DocumentJoiner delegate, String model, String vectorStore) {
+
+		return documentsForQuery -> observation(RagStage.JOIN, model, vectorStore).observe(() -> delegate.join(documentsForQuery));
+	}
+
+	public DocumentPostProcessor ranker(DocumentPostProcessor delegate, String model, String vectorStore) {
+
+		return (query, documents) -> observation(RagStage.RANK, model, vectorStore).observe(() -> delegate.process(query, documents));
+	}
+
+	public QueryAugmenter augmenter(QueryAugmenter delegate, String model, String vectorStore) {
+
+		return (query, documents) -> observation(RagStage.AUGMENT, model, vectorStore).observe(() -> delegate.augment(query, documents));
+	}
+
+	/**
+	 * 记录从订阅开始到第一个元素（first-token）以及到结束（complete）的耗时。
+	 * 流为空、出错或在第一个元素之前被取消时，first-token 观测记录错误后结束，不会一直处于未结束状态。
+	 */
+	public <T> Flux<T> generation(Flux<T> flux, String model, String vectorStore) {
+
+		return Flux.defer(() -> {
+			Observation firstToken = observation(RagStage.FIRST_TOKEN, model, vectorStore).start();
+			Observation complete = observation(RagStage.COMPLETE, model, vectorStore).start();
+			AtomicBoolean received = new AtomicBoolean();
+
+			return flux
+					.doOnNext(element -> {
+						if (received.compareAndSet(false, true)) {
+							firstToken.stop();
+						}
+					})
+					.doOnError(error -> {
+						if (!received.get()) {
+							firstToken.error(error);
+						}
+						complete.error(error);
+					})
+					.doFinally(signal -> {
+						if (received.compareAndSet(false, true)) {
+							if (signal == SignalType.CANCEL) {
+								firstToken.error(new CancellationException("Generation cancelled before the first element"));
+							}
+							else if (signal == SignalType.ON_COMPLETE) {
+								firstToken.error(new IllegalStateException("Generation completed without any element"));
+							}
+							firstToken.stop();
+						}
+						complete.stop();
+					});
+		});
+	}
+
+	private Observation observation(RagStage stage, String model, String vectorStore) {
+
+		return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+				.lowCardinalityKeyValue(STAGE_KEY, stage.getValue())
+				.lowCardinalityKeyValue(MODEL_KEY, model == null ? NONE : model)
+				.lowCardinalityKeyValue(VECTOR_STORE_KEY, vectorStore == null ? NONE : vectorStore);
+	}
+
+}
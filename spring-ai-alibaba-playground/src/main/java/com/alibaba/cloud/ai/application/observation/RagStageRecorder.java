@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.observation;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在内存中保留每个阶段最近的耗时样本，用于输出 p50/p95/p99 报告。
+ */
+
+public class RagStageRecorder {
+
+	private static final int DEFAULT_WINDOW_SIZE = 1024;
+
+	private final int windowSize;
+
+	private final Map<RagStage, Window> windows = new ConcurrentHashMap<>();
+
+	public RagStageRecorder() {
+		this(DEFAULT_WINDOW_SIZE);
+	}
+
+	public RagStageRecorder(int windowSize) {
+		this.windowSize = windowSize;
+	}
+
+	public void record(RagStage stage, Duration duration) {
+
+		windows.computeIfAbsent(stage, k -> new Window(windowSize)).add(duration.toNanos());
+	}
+
+	/**
+	 * @return 阶段 -> 统计信息，按阶段顺序排列，没有样本的阶段不输出
+	 */
+	public Map<RagStage, StageStats> report() {
+
+		Map<RagStage, StageStats> report = new EnumMap<>(RagStage.class);
+		windows.forEach((stage, window) -> {
+			long[] samples = window.snapshot();
+			if (samples.length > 0) {
+				Arrays.sort(samples);
+				report.put(stage, new StageStats(
+						window.count(),
+						percentileMillis(samples, 0.50),
+						percentileMillis(samples, 0.95),
+						percentileMillis(samples, 0.99)
+				));
+			}
+		});
+
+		return report;
+	}
+
+	/**
+	 * 以阶段名为 key 的报告，供接口返回
+	 */
+	public Map<String, StageStats> reportByName() {
+
+		Map<String, StageStats> report = new LinkedHashMap<>();
+		report().forEach((stage, stats) -> report.put(stage.getValue(), stats));
+
+		return report;
+	}
+
+	public void reset() {
+
+		windows.clear();
+	}
+
+	private static double percentileMillis(long[] sorted, double percentile) {
+
+		int index = (int) Math.ceil(sorted.length * percentile) - 1;
+		return sorted[Math.max(index, 0)] / 1_000_000.0;
+	}
+
+	/**
+	 * @param count 累计样本数（不受窗口大小限制）
+	 */
+	public record StageStats(long count, double p50Millis, double p95Millis, double p99Millis) {
+	}
+
+	private static final class Window {
+
+		private final long[] samples;
+
+		private long count;
+
+		private Window(int size) {
+			this.samples = new long[size];
+		}
+
+		synchronized void add(long nanos) {
+			samples[(int) (count % samples.length)] = nanos;
+			count++;
+		}
+
+		synchronized long[] snapshot() {
+			return Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+		}
+
+		synchronized long count() {
+			return count;
+		}
+
+	}
+
+}
@@ -17,13 +17,34 @@
 package com.alibaba.cloud.ai.application.service;
 
 import com.alibaba.cloud.ai.application.utils.FilesUtils;
+import com.alibaba.cloud.ai.dashscope.api.DashScopeAudioSpeechApi;
+import com.alibaba.cloud.ai.dashscope.api.DashScopeAudioTranscriptionApi;
+import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioSpeechOptions;
+import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionOptions;
 import com.alibaba.cloud.ai.dashscope.audio.transcription.AudioTranscriptionModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.audio.transcription.AudioTranscriptionPrompt;
 import org.springframework.ai.audio.tts.TextToSpeechModel;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileUrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * @author yuluo
@@ -33,15 +54,55 @@ import java.io.IOException;
 @Service
 public class SAAAudioService {
 
+	private static final Logger logger = LoggerFactory.getLogger(SAAAudioService.class);
+
+	/**
+	 * 查找 wav fmt 块时最多跳过的块数
+	 */
+	private static final int MAX_WAV_CHUNKS = 16;
+
 	private final AudioTranscriptionModel transcriptionModel;
 
 	private final TextToSpeechModel speechSynthesisModel;
 
+	/**
+	 * 句子结束符后可以紧跟的引号、括号
+	 */
+	private static final String CLOSING = "[”’」』）)\"']*";
+
+	/**
+	 * 句子结束符（含紧随其后的引号、括号），用于流式合成时切分文本；
+	 * 英文句号只有后面（跳过引号、括号）是空白或文本结尾时才作为结束符，小数（3.14）、缩写（U.S.A）不会被切开
+	 */
+	private static final Pattern SENTENCE = Pattern.compile(
+			"(?:[^。！？；!?;.\\n]|\\.(?!" + CLOSING + "(?:\\s|$)))+"
+					+ "(?:[。！？；!?;\\n]|\\.(?=" + CLOSING + "(?:\\s|$)))*" + CLOSING);
+
+	private final String realtimeTranscriptionModel;
+
+	private final int sampleRate;
+
+	private final int maxSentenceLength;
+
+	private final int synthesisPrefetch;
+
 	public SAAAudioService(AudioTranscriptionModel transcriptionModel,
-		@Qualifier("dashScopeSpeechSynthesisModel") TextToSpeechModel speechSynthesisModel) {
+		@Qualifier("dashScopeSpeechSynthesisModel") TextToSpeechModel speechSynthesisModel,
+		@Value("${spring.ai.alibaba.playground.audio.realtime-transcription-model:paraformer-realtime-v2}") String realtimeTranscriptionModel,
+		@Value("${spring.ai.alibaba.playground.audio.sample-rate:16000}") int sampleRate,
+		@Value("${spring.ai.alibaba.playground.audio.max-sentence-length:200}") int maxSentenceLength,
+		@Value("${spring.ai.alibaba.playground.audio.synthesis-prefetch:2}") int synthesisPrefetch) {
+
+		Assert.isTrue(sampleRate > 0, "sample-rate must be greater than 0");
+		Assert.isTrue(maxSentenceLength > 0, "max-sentence-length must be greater than 0");
+		Assert.isTrue(synthesisPrefetch > 0, "synthesis-prefetch must be greater than 0");
 
 		this.transcriptionModel = transcriptionModel;
 		this.speechSynthesisModel = speechSynthesisModel;
+		this.realtimeTranscriptionModel = realtimeTranscriptionModel;
+		this.sampleRate = sampleRate;
+		this.maxSentenceLength = maxSentenceLength;
+		this.synthesisPrefetch = synthesisPrefetch;
 	}
 
 	/**
@@ -62,4 +123,134 @@ public class SAAAudioService {
 		return transcriptionModel.call(new FileUrlResource(filePath));
 	}
 
+	/**
+	 * Convert text to speech, streaming mode.
+	 * 文本按句子切分后依次合成，每句的音频块合成后立即输出；
+	 * 当前句输出时最多预先合成 synthesisPrefetch 句，输出顺序与原文一致。
+	 * 使用 mp3 格式，各句的音频帧可以直接拼接播放。
+	 */
+	public Flux<byte[]> text2audioStream(String prompt) {
+
+		DashScopeAudioSpeechOptions options = DashScopeAudioSpeechOptions.builder()
+				.responseFormat(DashScopeAudioSpeechApi.ResponseFormat.MP3)
+				.build();
+
+		return Flux.fromIterable(splitSentences(prompt))
+				.flatMapSequential(sentence -> speechSynthesisModel.stream(sentence, options), synthesisPrefetch);
+	}
+
+	/**
+	 * Convert speech to text, streaming mode.
+	 * 上传的音频按块读取并通过实时识别接口发送，识别出的句子逐条输出，不需要先保存到磁盘。
+	 */
+	public Flux<String> audio2textStream(MultipartFile file) {
+
+		DashScopeAudioTranscriptionApi.AudioFormat format = audioFormat(file.getOriginalFilename());
+		DashScopeAudioTranscriptionOptions options = DashScopeAudioTranscriptionOptions.builder()
+				.model(realtimeTranscriptionModel)
+				.format(format)
+				.sampleRate(sampleRate(file, format))
+				.build();
+
+		return transcriptionModel.stream(new AudioTranscriptionPrompt(file.getResource(), options))
+				.mapNotNull(response -> response.getResult() != null ? response.getResult().getOutput() : null)
+				.filter(StringUtils::hasText);
+	}
+
+	/**
+	 * 按句子切分，超过 maxSentenceLength 的句子再按长度切分
+	 */
+	List<String> splitSentences(String text) {
+
+		List<String> sentences = new ArrayList<>();
+		Matcher matcher = SENTENCE.matcher(text);
+		while (matcher.find()) {
+			String sentence = matcher.group().trim();
+			for (int start = 0; start < sentence.length(); start += maxSentenceLength) {
+				sentences.add(sentence.substring(start, Math.min(start + maxSentenceLength, sentence.length())));
+			}
+		}
+
+		return sentences;
+	}
+
+	/**
+	 * wav 文件从 fmt 块读取采样率，其他格式或文件头无法解析时使用配置的 sample-rate
+	 */
+	private int sampleRate(MultipartFile file, DashScopeAudioTranscriptionApi.AudioFormat format) {
+
+		if (format != DashScopeAudioTranscriptionApi.AudioFormat.WAV) {
+			return sampleRate;
+		}
+
+		try (InputStream in = file.getInputStream()) {
+			Integer rate = wavSampleRate(in);
+			if (rate != null && rate > 0) {
+				return rate;
+			}
+		}
+		catch (IOException e) {
+			logger.debug("Failed to read wav header of {}: {}", file.getOriginalFilename(), e.getMessage());
+		}
+
+		return sampleRate;
+	}
+
+	/**
+	 * 解析 RIFF/WAVE 文件头，跳过 fmt 之前的其他块
+	 *
+	 * @return 采样率，不是 wav 文件或没有 fmt 块时返回 null
+	 */
+	static Integer wavSampleRate(InputStream in) throws IOException {
+
+		byte[] header = in.readNBytes(12);
+		if (header.length < 12 || !"RIFF".equals(ascii(header, 0)) || !"WAVE".equals(ascii(header, 8))) {
+			return null;
+		}
+
+		for (int i = 0; i < MAX_WAV_CHUNKS; i++) {
+			byte[] chunk = in.readNBytes(8);
+			if (chunk.length < 8) {
+				return null;
+			}
+
+			long size = Integer.toUnsignedLong(littleEndianInt(chunk, 4));
+			if ("fmt ".equals(ascii(chunk, 0))) {
+				// audioFormat(2) + channels(2) + sampleRate(4)
+				byte[] fmt = in.readNBytes(8);
+				return fmt.length < 8 ? null : littleEndianInt(fmt, 4);
+			}
+
+			// 块长度为奇数时有一个填充字节
+			in.skipNBytes(size + (size & 1));
+		}
+
+		return null;
+	}
+
+	private static String ascii(byte[] bytes, int offset) {
+
+		return new String(bytes, offset, 4, StandardCharsets.US_ASCII);
+	}
+
+	private static int littleEndianInt(byte[] bytes, int offset) {
+
+		return ByteBuffer.wrap(bytes, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+	}
+
+	private static DashScopeAudioTranscriptionApi.AudioFormat audioFormat(String filename) {
+
+		String extension = StringUtils.getFilenameExtension(filename);
+		if (extension == null) {
+			return DashScopeAudioTranscriptionApi.AudioFormat.WAV;
+		}
+
+		try {
+			return DashScopeAudioTranscriptionApi.AudioFormat.valueOf(extension.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			return DashScopeAudioTranscriptionApi.AudioFormat.WAV;
+		}
+	}
+
 }
@@ -16,12 +16,10 @@
 
 package com.alibaba.cloud.ai.application.service;
 
-import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
-import com.alibaba.cloud.ai.application.exception.SAAAppException;
-import com.alibaba.cloud.ai.application.utils.ModelsUtils;
+import com.alibaba.cloud.ai.application.config.ConfigSnapshotService;
 
 import org.springframework.stereotype.Service;
 
@@ -33,18 +31,20 @@ import org.springframework.stereotype.Service;
 @Service
 public class SAABaseService {
 
+	private final ConfigSnapshotService configSnapshotService;
+
+	public SAABaseService(ConfigSnapshotService configSnapshotService) {
+		this.configSnapshotService = configSnapshotService;
+	}
+
 	public Set<Map<String, String>> getDashScope() {
 
-		Set<Map<String, String>> resultSet;
+		return configSnapshotService.getSnapshot().dashScopeModels();
+	}
 
-		try {
-			resultSet = ModelsUtils.getDashScopeModels();
-		}
-		catch (IOException e) {
-			throw new SAAAppException("Get DashScope Model failed, " + e.getMessage());
-		}
+	public boolean isSupportedModel(String model) {
 
-		return resultSet;
+		return configSnapshotService.getSnapshot().modelNames().contains(model);
 	}
 
 }
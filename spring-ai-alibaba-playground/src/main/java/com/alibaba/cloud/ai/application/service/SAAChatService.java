@@ -16,10 +16,12 @@
 
 package com.alibaba.cloud.ai.application.service;
 
+import java.util.Map;
 import java.util.Objects;
 
 import com.alibaba.cloud.ai.advisor.DocumentRetrievalAdvisor;
 import com.alibaba.cloud.ai.application.advisor.ReasoningContentAdvisor;
+import com.alibaba.cloud.ai.application.advisor.SemanticCacheAdvisor;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeResponseFormat;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
@@ -36,6 +38,7 @@ import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -64,27 +67,37 @@ public class SAAChatService {
 
 	private final ReasoningContentAdvisor reasoningContentAdvisor;
 
+	private final SemanticCacheAdvisor semanticCacheAdvisor;
+
 	private DocumentRetrievalAdvisor retrievalAdvisor;
 
 	public SAAChatService(
 			DashScopeApi dashscopeApi,
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
 			MessageChatMemoryAdvisor messageChatMemoryAdvisor,
+			ObjectProvider<SemanticCacheAdvisor> semanticCacheAdvisor,
 			@Qualifier("dashScopeChatModel") ChatModel chatModel,
 			@Qualifier("systemPromptTemplate") PromptTemplate systemPromptTemplate,
-			@Qualifier("deepThinkPromptTemplate") PromptTemplate deepThinkPromptTemplate
+			@Qualifier("deepThinkPromptTemplate") PromptTemplate deepThinkPromptTemplate,
+			@Value("${spring.ai.alibaba.playground.chat.drop-reasoning:false}") boolean dropReasoning
 	) {
 		this.dashscopeApi = dashscopeApi;
-		this.chatClient = ChatClient.builder(chatModel)
+		this.semanticCacheAdvisor = semanticCacheAdvisor.getIfAvailable();
+
+		ChatClient.Builder builder = ChatClient.builder(chatModel)
 				.defaultSystem(
 					systemPromptTemplate.getTemplate()
 				).defaultAdvisors(
 						simpleLoggerAdvisor,
 						messageChatMemoryAdvisor
-				).build();
+				);
+		if (this.semanticCacheAdvisor != null) {
+			builder.defaultAdvisors(this.semanticCacheAdvisor);
+		}
+		this.chatClient = builder.build();
 
 		this.deepThinkPromptTemplate = deepThinkPromptTemplate;
-		this.reasoningContentAdvisor = new ReasoningContentAdvisor(1);
+		this.reasoningContentAdvisor = new ReasoningContentAdvisor(1, dropReasoning);
 	}
 
 	@PostConstruct
@@ -108,11 +121,6 @@ public class SAAChatService {
 
 		log.debug("chat model is: {}", model);
 
-		// check if model == "deepseek-r1", output reasoning content.
-		if (Objects.equals("deepseek-r1", model)) {
-			// add reasoning content advisor.
-			chatClient.prompt().advisors(reasoningContentAdvisor);
-		}
 		var runtimeOptions = DashScopeChatOptions.builder()
 				.withModel(model)
 				.withTemperature(0.8)
@@ -134,6 +142,11 @@ public class SAAChatService {
             clientRequestSpec.advisors(retrievalAdvisor);
         }
 
+        // check if model == "deepseek-r1", output reasoning content.
+        if (Objects.equals("deepseek-r1", model)) {
+            clientRequestSpec.advisors(reasoningContentAdvisor);
+        }
+
         return clientRequestSpec.stream().content();
 	}
 
@@ -159,6 +172,18 @@ public class SAAChatService {
             clientRequestSpec.advisors(retrievalAdvisor);
         }
 
+        // 深度思考模型都会输出推理内容，没有推理内容的 chunk 由 advisor 原样透传
+        clientRequestSpec.advisors(reasoningContentAdvisor);
+
         return clientRequestSpec.stream().content();
     }
+
+	/**
+	 * 语义缓存统计信息，未开启时返回空
+	 */
+	public Map<String, Object> cacheStats() {
+
+		return semanticCacheAdvisor != null ? semanticCacheAdvisor.stats() : Map.of();
+	}
+
 }
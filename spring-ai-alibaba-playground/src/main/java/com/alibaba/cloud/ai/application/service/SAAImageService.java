@@ -16,12 +16,15 @@
 
 package com.alibaba.cloud.ai.application.service;
 
-import com.alibaba.cloud.ai.application.utils.FilesUtils;
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import com.alibaba.cloud.ai.application.image.ImageStreamProxy;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import com.alibaba.cloud.ai.dashscope.chat.MessageFormat;
 import com.alibaba.cloud.ai.dashscope.image.DashScopeImageOptions;
 import com.google.common.collect.Lists;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
@@ -32,18 +35,20 @@ import org.springframework.ai.image.ImageGeneration;
 import org.springframework.ai.image.ImageModel;
 import org.springframework.ai.image.ImagePrompt;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URI;
-import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 
@@ -57,6 +62,8 @@ import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.MESSAG
 @Service
 public class SAAImageService {
 
+	private static final Logger logger = LoggerFactory.getLogger(SAAImageService.class);
+
 	private static final String DEFAULT_TEXT2IMAGE_MODEL = "qwen-vl-max-latest";
 
 	private static final String DEFAULT_IMAGE_MODEL = "wanx2.1-t2i-turbo";
@@ -71,36 +78,54 @@ public class SAAImageService {
 	 */
 	private final ChatClient daschScopeChatClient;
 
+	/**
+	 * Streams generated images to the client
+	 */
+	private final ImageStreamProxy imageStreamProxy;
+
 	public SAAImageService(
 			@Qualifier("dashScopeChatModel") ChatModel chatModel,
-			@Qualifier("dashScopeImageModel") ImageModel imageModel
+			@Qualifier("dashScopeImageModel") ImageModel imageModel,
+			@Value("${spring.ai.alibaba.playground.image.connect-timeout:5s}") Duration connectTimeout,
+			@Value("${spring.ai.alibaba.playground.image.read-timeout:30s}") Duration readTimeout,
+			@Value("${spring.ai.alibaba.playground.image.cache-dir:}") String cacheDir,
+			@Value("${spring.ai.alibaba.playground.image.cache-max-size:256MB}") DataSize cacheMaxSize
 	) {
 
 		this.imageModel = imageModel;
+		this.imageStreamProxy = ImageStreamProxy.builder()
+				.connectTimeout(connectTimeout)
+				.readTimeout(readTimeout)
+				.cacheDir(StringUtils.hasText(cacheDir) ? Path.of(cacheDir) : null)
+				.cacheMaxBytes(cacheMaxSize.toBytes())
+				.build();
 		this.daschScopeChatClient = ChatClient
 				.builder(chatModel)
 				.build();
 	}
 
+	/**
+	 * 图片在方法返回前读入内存（Media 会立即读取内容），不落盘；
+	 * 模型输出按 token 流式转发，客户端断开时取消上游请求。
+	 */
 	public Flux<String> image2Text(String prompt, MultipartFile file) throws IOException {
 
-		String filePath = FilesUtils.saveTempFile(file, "/tmp/image/");
-//		UserMessage message = new UserMessage(
-//				prompt,
-//				new Media(
-//						MimeTypeUtils.IMAGE_PNG,
-//						new FileSystemResource(filePath)
-//				)
-//		);
+		if (file == null || file.isEmpty()) {
+			throw new SAAAppException("File is null or empty");
+		}
+
+		MimeType mimeType = file.getContentType() != null
+				? MimeTypeUtils.parseMimeType(file.getContentType())
+				: MimeTypeUtils.IMAGE_PNG;
 		List<Media> mediaList = Lists.newArrayList(new Media(
-				MimeTypeUtils.IMAGE_PNG,
-				new FileSystemResource(filePath)
+				mimeType,
+				new ByteArrayResource(file.getBytes())
 		));
 		UserMessage message =
 				UserMessage.builder().text(prompt).media(mediaList).metadata(new HashMap<>()).build();
 		message.getMetadata().put(MESSAGE_FORMAT, MessageFormat.IMAGE);
 
-		List<ChatResponse> response = daschScopeChatClient.prompt(
+		return daschScopeChatClient.prompt(
 						new Prompt(
 								message,
 								DashScopeChatOptions.builder()
@@ -109,18 +134,12 @@ public class SAAImageService {
 										.build())
 				).stream()
 				.chatResponse()
-				.collectList()
-				.block();
-
-		StringBuilder result = new StringBuilder();
-		if (response != null) {
-			for (ChatResponse chatResponse : response) {
-				String outputContent = chatResponse.getResult().getOutput().getText();
-				result.append(outputContent);
-			}
-		}
+				.mapNotNull(SAAImageService::text);
+	}
 
-		return Flux.just(result.toString());
+	private static String text(ChatResponse chatResponse) {
+
+		return chatResponse.getResult() != null ? chatResponse.getResult().getOutput().getText() : null;
 	}
 
 	/**
@@ -131,35 +150,33 @@ public class SAAImageService {
 	 */
 	public void text2Image(String prompt, String resolution, String style, HttpServletResponse response) {
 
-
-		//
-		HttpHeaders headers = new HttpHeaders();
-		headers.add("Content-Security-Policy", "img-src 'self' data:;");
-
-		ImageGeneration result = imageModel.call(
-				new ImagePrompt(
-						prompt,
-						DashScopeImageOptions.builder()
-								.withHeight(Integer.valueOf(resolution.split("\\*")[0]))
-								.withWidth(Integer.valueOf(resolution.split("\\*")[1]))
-								.withStyle(style)
-								.withModel(DEFAULT_IMAGE_MODEL)
-								.build())
-		).getResult();
-
-		String imageUrl = result.getOutput().getUrl();
+		response.setHeader("Content-Security-Policy", "img-src 'self' data:;");
+		String cacheKey = ImageStreamProxy.cacheKey(DEFAULT_IMAGE_MODEL, prompt, resolution, style);
 
 		try {
-			URL url = URI.create(imageUrl).toURL();
-			InputStream in = url.openStream();
+			// 相同 prompt 与参数的图片直接从磁盘缓存返回，不再调用模型
+			if (imageStreamProxy.writeCached(cacheKey, response)) {
+				return;
+			}
 
-			response.setHeader("Content-Security-Policy", "img-src 'self' data:;");
-			response.setHeader("Content-Type", MediaType.IMAGE_PNG_VALUE);
-			response.getOutputStream().write(in.readAllBytes());
-			response.getOutputStream().flush();
+			ImageGeneration result = imageModel.call(
+					new ImagePrompt(
+							prompt,
+							DashScopeImageOptions.builder()
+									.withHeight(Integer.valueOf(resolution.split("\\*")[0]))
+									.withWidth(Integer.valueOf(resolution.split("\\*")[1]))
+									.withStyle(style)
+									.withModel(DEFAULT_IMAGE_MODEL)
+									.build())
+			).getResult();
+
+			imageStreamProxy.write(result.getOutput().getUrl(), cacheKey, response);
 		}
-		catch (IOException e) {
-			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		catch (IOException | RestClientException e) {
+			logger.error("Failed to deliver generated image: {}", e.getMessage());
+			if (!response.isCommitted()) {
+				response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
 		}
 	}
 
@@ -17,35 +17,28 @@
 package com.alibaba.cloud.ai.application.service;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
+import com.alibaba.cloud.ai.application.config.ConfigSnapshotService;
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
 import com.alibaba.cloud.ai.application.mcp.McpServerContainer;
 import com.alibaba.cloud.ai.application.mcp.McpServerUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.alibaba.cloud.ai.application.mcp.McpStdioClientPool;
+import com.alibaba.cloud.ai.application.tools.ParallelToolExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
-import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.prompt.ChatOptions;
-import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpStdioClientProperties;
-import org.springframework.ai.model.tool.ToolCallingChatOptions;
-import org.springframework.ai.model.tool.ToolCallingManager;
-import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
 
 import static com.alibaba.cloud.ai.application.mcp.McpServerUtils.getMcpLibsAbsPath;
@@ -59,120 +52,59 @@ public class SAAMcpService {
 
 	private final ChatClient chatClient;
 
-	private final ObjectMapper objectMapper;
-
 	private final ToolCallbackProvider tools;
 
-	private final ToolCallingManager toolCallingManager;
+	private final ParallelToolExecutor toolExecutor;
+
+	private final McpStdioClientPool mcpStdioClientPool;
 
-	private final McpStdioClientProperties mcpStdioClientProperties;
+	private final ConfigSnapshotService configSnapshotService;
 
 	private static final Logger logger = LoggerFactory.getLogger(SAAMcpService.class);
 
 	public SAAMcpService(
-			ObjectMapper objectMapper,
 			ToolCallbackProvider tools,
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
-			ToolCallingManager toolCallingManager,
-			McpStdioClientProperties mcpStdioClientProperties,
+			ParallelToolExecutor toolExecutor,
+			McpStdioClientPool mcpStdioClientPool,
+			ConfigSnapshotService configSnapshotService,
 			@Qualifier("openAiChatModel") ChatModel chatModel
 	) throws IOException {
 
-		this.objectMapper = objectMapper;
-		this.mcpStdioClientProperties = mcpStdioClientProperties;
+		this.mcpStdioClientPool = mcpStdioClientPool;
+		this.configSnapshotService = configSnapshotService;
 
-		// Initialize chat client with non-blocking configuration
+		// 不配置 defaultToolCallbacks：工具由每次请求传入，run 使用 MCP 会话池中按请求 env 启动的工具
 		this.chatClient = ChatClient.builder(chatModel)
 				.defaultAdvisors(
 						simpleLoggerAdvisor
-				).defaultToolCallbacks(tools)
+				)
 				.build();
 		this.tools = tools;
-		this.toolCallingManager = toolCallingManager;
+		this.toolExecutor = toolExecutor;
 
 		McpServerUtils.initMcpServerContainer(tools);
-	}
 
-	public ToolCallResp chat(String prompt) {
+		// mcp-config.yml 重新加载后按新配置刷新 MCP Server 注册表，同名 server 的 id 保持不变
+		configSnapshotService.addListener(snapshot -> refreshMcpServerContainer());
+	}
 
-		// manual run tools flag
-		ChatOptions chatOptions = ToolCallingChatOptions.builder()
-				.toolCallbacks(tools.getToolCallbacks())
-				.internalToolExecutionEnabled(false)
-				.build();
+	private void refreshMcpServerContainer() {
 
-		ChatResponse response = chatClient.prompt(new Prompt(prompt, chatOptions))
-				.call().chatResponse();
-
-		logger.debug("ChatResponse: {}", response);
-		assert response != null;
-		List<AssistantMessage.ToolCall> toolCalls = response.getResult().getOutput().getToolCalls();
-		logger.debug("ToolCalls: {}", toolCalls);
-		String responseByLLm = response.getResult().getOutput().getText();
-		logger.debug("Response by LLM: {}", responseByLLm);
-
-		// execute tools with no chat memory messages.
-		var tcr = ToolCallResp.TCR();
-		if (!toolCalls.isEmpty()) {
-
-			tcr = ToolCallResp.startExecute(
-					responseByLLm,
-					toolCalls.get(0).name(),
-					toolCalls.get(0).arguments()
-			);
-			tcr.setToolParameters(toolCalls.get(0).arguments());
-			logger.debug("Start ToolCallResp: {}", tcr);
-			ToolExecutionResult toolExecutionResult = null;
-
-			try {
-				toolExecutionResult = toolCallingManager.executeToolCalls(new Prompt(prompt, chatOptions), response);
-
-				tcr.setToolEndTime(LocalDateTime.now());
-			}
-			catch (Exception e) {
-
-				tcr.setStatus(ToolCallResp.ToolState.FAILURE);
-				tcr.setErrorMessage(e.getMessage());
-				tcr.setToolEndTime(LocalDateTime.now());
-				tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
-				logger.error("Error ToolCallResp: {}, msg: {}", tcr, e.getMessage());
-				// throw new RuntimeException("Tool execution failed, please check the logs for details.");
-			}
-
-			String llmCallResponse = "";
-			if (Objects.nonNull(toolExecutionResult)) {
-//				ToolResponseMessage toolResponseMessage = (ToolResponseMessage) toolExecutionResult.conversationHistory()
-//						.get(toolExecutionResult.conversationHistory().size() - 1);
-//				llmCallResponse = toolResponseMessage.getResponses().get(0).responseData();
-				ChatResponse finalResponse = chatClient.prompt().messages(toolExecutionResult.conversationHistory())
-						.call().chatResponse();
-				if (finalResponse != null) {
-					llmCallResponse = finalResponse.getResult().getOutput().getText();
-				}
-
-				StringBuilder sb = new StringBuilder();
-				toolExecutionResult.conversationHistory().stream()
-						.filter(message -> message instanceof ToolResponseMessage)
-						.forEach(message -> {
-							ToolResponseMessage toolResponseMessage = (ToolResponseMessage) message;
-							toolResponseMessage.getResponses().forEach(tooResponse -> {
-								sb.append(tooResponse.responseData());
-							});
-						});
-				tcr.setToolResponse(sb.toString());
-			}
-
-			tcr.setStatus(ToolCallResp.ToolState.SUCCESS);
-			tcr.setToolResult(llmCallResponse);
-			tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
-			logger.debug("End ToolCallResp: {}", tcr);
+		try {
+			McpServerUtils.initMcpServerContainer(tools);
 		}
-		else {
-			logger.debug("ToolCalls is empty, no tool execution needed.");
-			tcr.setToolResult(responseByLLm);
+		catch (IOException e) {
+			logger.warn("Refresh McpServerContainer failed, keep previous servers: {}", e.getMessage());
 		}
+	}
 
-		return tcr;
+	/**
+	 * 模型返回的所有 tool call 并行执行，循环直到模型不再请求工具。
+	 */
+	public ToolCallResp chat(String prompt) {
+
+		return toolExecutor.execute(chatClient, prompt, List.of(tools.getToolCallbacks()));
 	}
 
 	public ToolCallResp run(String id, Map<String, String> envs, String prompt) throws IOException {
@@ -184,25 +116,30 @@ public class SAAMcpService {
 		}
 
 		String runMcpServerName = runMcpServer.get().getName();
-		var mcpServerConfig = McpServerUtils.getMcpServerConfig();
-		McpStdioClientProperties.Parameters parameters = new McpStdioClientProperties.Parameters(
-				mcpServerConfig.getMcpServers().get(runMcpServerName).command(),
-				mcpServerConfig.getMcpServers().get(runMcpServerName).args(),
-				envs
-		);
+		McpStdioClientProperties.Parameters configured = configSnapshotService.getSnapshot()
+				.mcpServers()
+				.get(runMcpServerName);
+		if (configured == null) {
+			logger.error("McpServer config not found, name: {}", runMcpServerName);
+			return ToolCallResp.TCR();
+		}
 
-		if (parameters.command().startsWith("java")) {
-			String oldMcpLibsPath = McpServerUtils.getLibsPath(parameters.args());
-			String rewriteMcpLibsAbsPath = getMcpLibsAbsPath(McpServerUtils.getLibsPath(parameters.args()));
+		// 复制参数列表，不修改配置中的 args
+		List<String> args = new ArrayList<>(configured.args());
+		if (configured.command().startsWith("java")) {
+			String oldMcpLibsPath = McpServerUtils.getLibsPath(args);
+			String rewriteMcpLibsAbsPath = getMcpLibsAbsPath(oldMcpLibsPath);
 
-			parameters.args().remove(oldMcpLibsPath);
-			parameters.args().add(rewriteMcpLibsAbsPath);
+			args.remove(oldMcpLibsPath);
+			args.add(rewriteMcpLibsAbsPath);
 		}
 
-		String mcpServerConfigJSON = objectMapper.writeValueAsString(mcpServerConfig);
-		mcpStdioClientProperties.setServersConfiguration(new ByteArrayResource(mcpServerConfigJSON.getBytes()));
+		// 相同 command、args 和 env 复用已启动的 MCP Server 进程及其工具列表
+		List<ToolCallback> toolCallbacks = mcpStdioClientPool.getToolCallbacks(
+				new McpStdioClientProperties.Parameters(configured.command(), args, envs)
+		);
 
-		return chat(prompt);
+		return toolExecutor.execute(chatClient, prompt, toolCallbacks);
 	}
 
 }
@@ -19,13 +19,18 @@ package com.alibaba.cloud.ai.application.service;
 import com.alibaba.cloud.ai.application.advisor.ReasoningContentAdvisor;
 import com.alibaba.cloud.ai.application.entity.dashscope.ChatResponseDTO;
 import com.alibaba.cloud.ai.application.enums.WebSearchEnum;
+import com.alibaba.cloud.ai.application.modulerag.TimeLimitedDocumentRetriever;
 import com.alibaba.cloud.ai.application.modulerag.WebSearchRetriever;
 import com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngine;
 import com.alibaba.cloud.ai.application.modulerag.data.DataClean;
 import com.alibaba.cloud.ai.application.modulerag.join.ConcatenationDocumentJoiner;
+import com.alibaba.cloud.ai.application.modulerag.postretrieval.BM25DocumentRanker;
+import com.alibaba.cloud.ai.application.modulerag.prompt.ContextPacker;
 import com.alibaba.cloud.ai.application.modulerag.prompt.CustomContextQueryAugmenter;
+import com.alibaba.cloud.ai.application.observation.RagStageObserver;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeModel;
+import jakarta.annotation.PreDestroy;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.model.ChatModel;
@@ -33,10 +38,17 @@ import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
 import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
 import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransformer;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -53,7 +65,19 @@ public class SAAModuleRagWebSearchService implements ISAAWebSearchService {
 
     private final QueryTransformer queryTransformer;
 
-    private final WebSearchRetriever webSearchRetriever;
+    private final DocumentRetriever webSearchRetriever;
+
+    private final ThreadPoolTaskExecutor retrievalExecutor;
+
+    private final BM25DocumentRanker documentRanker;
+
+    private final RagStageObserver ragStageObserver;
+
+    private final ContextPacker contextPacker;
+
+    private static final String MODEL = DashScopeModel.ChatModel.DEEPSEEK_R1.getValue();
+
+    private static final String VECTOR_STORE = "iqs-web-search";
 
     private final SimpleLoggerAdvisor simpleLoggerAdvisor;
 
@@ -67,14 +91,20 @@ public class SAAModuleRagWebSearchService implements ISAAWebSearchService {
             IQSSearchEngine searchEngine,
             QueryTransformer queryTransformer,
             SimpleLoggerAdvisor simpleLoggerAdvisor,
+            RagStageObserver ragStageObserver,
             @Qualifier("dashScopeChatModel") ChatModel chatModel,
-            @Qualifier("queryArgumentPromptTemplate") PromptTemplate queryArgumentPromptTemplate
+            @Qualifier("queryArgumentPromptTemplate") PromptTemplate queryArgumentPromptTemplate,
+            @Value("${spring.ai.alibaba.playground.web-search.retrieval-concurrency:4}") int retrievalConcurrency,
+            @Value("${spring.ai.alibaba.playground.web-search.retrieval-timeout:5s}") Duration retrievalTimeout,
+            @Value("${spring.ai.alibaba.playground.web-search.retrieval-max-in-flight:16}") int retrievalMaxInFlight,
+            @Value("${spring.ai.alibaba.playground.web-search.context-max-tokens:4000}") int contextMaxTokens
     ) {
 
         this.dataCleaner = dataCleaner;
         this.queryTransformer = queryTransformer;
         this.queryExpander = queryExpander;
         this.queryArgumentPromptTemplate = queryArgumentPromptTemplate;
+        this.ragStageObserver = ragStageObserver;
 
         // reasoning content for DeepSeek-r1 is integrated into the output
         this.reasoningContentAdvisor = new ReasoningContentAdvisor(1);
@@ -83,7 +113,7 @@ public class SAAModuleRagWebSearchService implements ISAAWebSearchService {
         this.chatClient = ChatClient.builder(chatModel)
                 .defaultOptions(
                         DashScopeChatOptions.builder()
-                                .withModel(DashScopeModel.ChatModel.DEEPSEEK_R1.getValue())
+                                .withModel(MODEL)
                                 // stream 模式下是否开启增量输出
                                 .withIncrementalOutput(true)
                                 .build()
@@ -91,13 +121,54 @@ public class SAAModuleRagWebSearchService implements ISAAWebSearchService {
 
         this.simpleLoggerAdvisor = simpleLoggerAdvisor;
 
-        this.webSearchRetriever = WebSearchRetriever.builder()
-                .searchEngine(searchEngine)
-                .dataCleaner(dataCleaner)
-                .maxResults(2)
+        // 每个扩展查询单独设置截止时间，超时或失败的查询返回空结果
+        this.webSearchRetriever = TimeLimitedDocumentRetriever.builder()
+                .delegate(WebSearchRetriever.builder()
+                        .searchEngine(searchEngine)
+                        .dataCleaner(dataCleaner)
+                        .maxResults(2)
+                        .build())
+                .timeout(retrievalTimeout)
+                .maxInFlight(retrievalMaxInFlight)
+                .build();
+
+        this.retrievalExecutor = retrievalExecutor(retrievalConcurrency);
+
+        // 本地 BM25 + IQS rerankScore 重排，只保留最相关的文档
+        this.documentRanker = BM25DocumentRanker.builder()
+                .topK(5)
+                .build();
+
+        // 按 token 预算装填上下文，去掉近似重复的网页内容
+        this.contextPacker = ContextPacker.builder()
+                .maxTokens(contextMaxTokens)
+                .maxTokensPerDocument(Math.max(contextMaxTokens / 2, 1))
                 .build();
     }
 
+    /**
+     * 扩展查询并行检索使用的有界线程池。不排队：线程都在忙时由调用线程自己检索，
+     * 否则排队的检索要等前面的请求各自耗尽截止时间才开始，高负载下后面的查询会全部超时
+     */
+    static ThreadPoolTaskExecutor retrievalExecutor(int concurrency) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("web-search-retrieval-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void destroy() {
+
+        this.retrievalExecutor.shutdown();
+    }
+
 
     @Override
     public WebSearchEnum type() {
@@ -107,7 +178,7 @@ public class SAAModuleRagWebSearchService implements ISAAWebSearchService {
     @Override
     public Flux<ChatResponseDTO> chat(String prompt) {
 
-        return chatClient.prompt()
+        Flux<ChatResponseDTO> response = chatClient.prompt()
                 .advisors(
                         createRetrievalAugmentationAdvisor(),
                         reasoningContentAdvisor,
@@ -116,20 +187,27 @@ public class SAAModuleRagWebSearchService implements ISAAWebSearchService {
                 .stream().chatResponse().map(chatResponse
                         -> new ChatResponseDTO(chatResponse.getResult().getOutput().getText())
                 );
+
+        return ragStageObserver.generation(response, MODEL, VECTOR_STORE);
     }
 
     private RetrievalAugmentationAdvisor createRetrievalAugmentationAdvisor() {
 
+        // 各阶段组件包装观测，统计每个阶段的耗时
         return RetrievalAugmentationAdvisor.builder()
-                .documentRetriever(webSearchRetriever)
+                .documentRetriever(ragStageObserver.retriever(webSearchRetriever, MODEL, VECTOR_STORE))
                 .queryTransformers(queryTransformer)
-                .queryAugmenter(
+                .queryAugmenter(ragStageObserver.augmenter(
                         new CustomContextQueryAugmenter(
                                 queryArgumentPromptTemplate,
                                 null,
-                                true)
-                ).queryExpander(queryExpander)
-                .documentJoiner(new ConcatenationDocumentJoiner())
+                                true,
+                                contextPacker),
+                        MODEL, VECTOR_STORE)
+                ).queryExpander(ragStageObserver.expander(queryExpander, MODEL, VECTOR_STORE))
+                .documentJoiner(ragStageObserver.joiner(new ConcatenationDocumentJoiner(), MODEL, VECTOR_STORE))
+                .documentPostProcessors(ragStageObserver.ranker(documentRanker, MODEL, VECTOR_STORE))
+                .taskExecutor(retrievalExecutor)
                 .build();
     }
 
@@ -17,6 +17,7 @@
 package com.alibaba.cloud.ai.application.service;
 
 import com.alibaba.cloud.ai.application.config.rag.VectorStoreDelegate;
+import com.alibaba.cloud.ai.application.observation.RagStageObserver;
 import reactor.core.publisher.Flux;
 
 import org.springframework.ai.chat.client.ChatClient;
@@ -44,8 +45,13 @@ public class SAARAGService4VectorStore implements ISAARAGService {
 
 	private String vectorStoreType;
 
+	private final RagStageObserver ragStageObserver;
+
+	private final String model;
+
 	public SAARAGService4VectorStore(
 			VectorStoreDelegate vectorStoreDelegate,
+			RagStageObserver ragStageObserver,
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
 			MessageChatMemoryAdvisor messageChatMemoryAdvisor,
 			@Qualifier("dashScopeChatModel") ChatModel chatModel,
@@ -54,6 +60,8 @@ public class SAARAGService4VectorStore implements ISAARAGService {
 
 		this.vectorStoreType = System.getenv("VECTOR_STORE_TYPE");
 		this.vectorStoreDelegate = vectorStoreDelegate;
+		this.ragStageObserver = ragStageObserver;
+		this.model = chatModel.getDefaultOptions().getModel();
 		this.client = ChatClient.builder(chatModel)
 				.defaultSystem(
 						systemPromptTemplate.getTemplate()
@@ -65,7 +73,7 @@ public class SAARAGService4VectorStore implements ISAARAGService {
 
 	public Flux<String> ragChat(String chatId, String prompt) {
 
-		return client.prompt()
+		Flux<String> content = client.prompt()
 				.user(prompt)
 				.advisors(memoryAdvisor -> memoryAdvisor
 						.param(ChatMemory.CONVERSATION_ID, chatId)
@@ -82,6 +90,9 @@ public class SAARAGService4VectorStore implements ISAARAGService {
 								.build()
 				).stream()
 				.content();
+
+		// 检索阶段由向量存储的观测统计，这里统计首 token 和完成耗时
+		return ragStageObserver.generation(content, model, vectorStoreType == null ? "simple" : vectorStoreType);
 	}
 
 }
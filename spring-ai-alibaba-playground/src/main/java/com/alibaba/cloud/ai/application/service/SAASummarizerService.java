@@ -16,15 +16,22 @@
 
 package com.alibaba.cloud.ai.application.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
@@ -33,12 +40,17 @@ import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -49,15 +61,51 @@ public class SAASummarizerService {
 
 	private static final Logger logger = LoggerFactory.getLogger(SAASummarizerService.class);
 
+	private static final String SUMMARY_SEPARATOR = "\n\n---\n\n";
+
+	/**
+	 * 分段摘要进度的 SSE 事件类型，摘要正文使用默认事件类型（不设置 event）
+	 */
+	public static final String PROGRESS_EVENT = "progress";
+
 	private final ChatClient chatClient;
 
+	/**
+	 * map-reduce 中间层摘要使用，不带会话记忆
+	 */
+	private final ChatClient chunkChatClient;
+
+	private final TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+
+	private final int maxInputTokens;
+
+	private final int chunkTokens;
+
+	private final int maxConcurrency;
+
+	private final int chunkMaxRetries;
+
+	private final Duration chunkRetryBackoff;
+
 	public SAASummarizerService(
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
 			MessageChatMemoryAdvisor messageChatMemoryAdvisor,
 			@Qualifier("dashScopeChatModel") ChatModel chatModel,
-			@Qualifier("summarizerPromptTemplate") PromptTemplate docsSummaryPromptTemplate
+			@Qualifier("summarizerPromptTemplate") PromptTemplate docsSummaryPromptTemplate,
+			@Qualifier("chunkSummarizerPromptTemplate") PromptTemplate chunkSummaryPromptTemplate,
+			@Value("${spring.ai.alibaba.playground.summarizer.chunk-model:deepseek-r1}") String chunkModel,
+			@Value("${spring.ai.alibaba.playground.summarizer.max-input-tokens:24000}") int maxInputTokens,
+			@Value("${spring.ai.alibaba.playground.summarizer.chunk-tokens:8000}") int chunkTokens,
+			@Value("${spring.ai.alibaba.playground.summarizer.max-concurrency:4}") int maxConcurrency,
+			@Value("${spring.ai.alibaba.playground.summarizer.chunk-max-retries:2}") int chunkMaxRetries,
+			@Value("${spring.ai.alibaba.playground.summarizer.chunk-retry-backoff:1s}") Duration chunkRetryBackoff
 	) {
 
+		if (chunkTokens <= 0 || chunkTokens > maxInputTokens || maxConcurrency <= 0 || chunkMaxRetries < 0) {
+			throw new SAAAppException("Invalid summarizer config: chunk-tokens must be in (0, max-input-tokens], "
+					+ "max-concurrency must be greater than 0 and chunk-max-retries must not be negative");
+		}
+
 		this.chatClient = ChatClient.builder(chatModel)
 				.defaultOptions(
 						DashScopeChatOptions.builder().withModel("deepseek-r1").build()
@@ -67,22 +115,154 @@ public class SAASummarizerService {
 						messageChatMemoryAdvisor,
 						simpleLoggerAdvisor
 				).build();
+
+		this.chunkChatClient = ChatClient.builder(chatModel)
+				.defaultOptions(
+						DashScopeChatOptions.builder().withModel(chunkModel).build()
+				).defaultSystem(
+						chunkSummaryPromptTemplate.getTemplate()
+				).defaultAdvisors(
+						simpleLoggerAdvisor
+				).build();
+
+		this.maxInputTokens = maxInputTokens;
+		this.chunkTokens = chunkTokens;
+		this.maxConcurrency = maxConcurrency;
+		this.chunkMaxRetries = chunkMaxRetries;
+		this.chunkRetryBackoff = chunkRetryBackoff;
 	}
 
 	/**
 	 * Docs Summary not has chat memory.
+	 * 只输出摘要正文，分段进度见 {@link #summaryEvents(MultipartFile, String)}。
 	 */
 	public Flux<String> summary(MultipartFile file, String url) {
 
+		return summaryEvents(file, url)
+				.filter(event -> event.event() == null)
+				.mapNotNull(ServerSentEvent::data);
+	}
+
+	/**
+	 * 文档超过 maxInputTokens 时按 token 切分，分段并行摘要（失败的分段单独重试），再逐层合并直到能放入一次请求。
+	 * 每完成一段输出一个 {@link #PROGRESS_EVENT} 事件，摘要正文为不带 event 的事件。
+	 */
+	public Flux<ServerSentEvent<String>> summaryEvents(MultipartFile file, String url) {
+
 		String text = getText(url, file);
 		if (!StringUtils.hasText(text)) {
 			return Flux.error(new SAAAppException("Invalid file content"));
 		}
 
+		if (tokenCountEstimator.estimate(text) <= maxInputTokens) {
+			return summarize(text);
+		}
+
+		List<String> chunks = new TokenTextSplitter(chunkTokens, 350, 5, 10000, true)
+				.apply(List.of(new Document(text)))
+				.stream()
+				.map(Document::getText)
+				.toList();
+
+		logger.debug("Document exceeds {} tokens, summarizing {} chunks", maxInputTokens, chunks.size());
+		return reduce(chunks, 1);
+	}
+
+	/**
+	 * 并行摘要当前层的所有分段，完成后合并为下一层，直到总长度不超过 maxInputTokens
+	 */
+	private Flux<ServerSentEvent<String>> reduce(List<String> parts, int level) {
+
+		AtomicReferenceArray<String> summaries = new AtomicReferenceArray<>(parts.size());
+		AtomicInteger completed = new AtomicInteger();
+
+		Flux<ServerSentEvent<String>> progress = Flux.range(0, parts.size())
+				.flatMap(index -> summarizeChunk(parts.get(index), index, parts.size())
+								.doOnNext(summary -> summaries.set(index, summary)),
+						maxConcurrency)
+				// flatMap 的输出是串行的，在这里计数保证进度递增
+				.map(ignored -> ServerSentEvent.<String>builder()
+						.event(PROGRESS_EVENT)
+						.data("Level " + level + ": summarized " + completed.incrementAndGet()
+								+ "/" + parts.size() + " parts")
+						.build());
+
+		return progress.concatWith(Flux.defer(() -> {
+			List<String> results = IntStream.range(0, parts.size())
+					.mapToObj(summaries::get)
+					.toList();
+
+			String merged = String.join(SUMMARY_SEPARATOR, results);
+			if (tokenCountEstimator.estimate(merged) <= maxInputTokens) {
+				return summarize(merged);
+			}
+			if (results.size() == 1) {
+				// 单个分段的摘要仍然超长时不再继续合并
+				return summarize(merged);
+			}
+
+			return reduce(group(results), level + 1);
+		}));
+	}
+
+	/**
+	 * 按 chunkTokens 将相邻的摘要分组，作为下一层的分段
+	 */
+	private List<String> group(List<String> summaries) {
+
+		List<String> groups = new ArrayList<>();
+		List<String> current = new ArrayList<>();
+		int currentTokens = 0;
+
+		for (String summary : summaries) {
+			int tokens = tokenCountEstimator.estimate(summary);
+			if (!current.isEmpty() && currentTokens + tokens > chunkTokens) {
+				groups.add(String.join(SUMMARY_SEPARATOR, current));
+				current = new ArrayList<>();
+				currentTokens = 0;
+			}
+			current.add(summary);
+			currentTokens += tokens;
+		}
+
+		if (!current.isEmpty()) {
+			groups.add(String.join(SUMMARY_SEPARATOR, current));
+		}
+
+		// 每组只有一个摘要时无法继续收敛，两两合并
+		if (groups.size() == summaries.size()) {
+			groups = IntStream.range(0, (summaries.size() + 1) / 2)
+					.mapToObj(i -> String.join(SUMMARY_SEPARATOR,
+							summaries.subList(2 * i, Math.min(2 * i + 2, summaries.size()))))
+					.toList();
+		}
+
+		return groups;
+	}
+
+	/**
+	 * 单个分段出错时只重试该分段，重试耗尽后抛出最后一次的异常
+	 */
+	private Mono<String> summarizeChunk(String part, int index, int total) {
+
+		return Flux.defer(() -> chunkChatClient.prompt()
+						.user("Part " + (index + 1) + " of " + total + ":\n\n" + part)
+						.stream()
+						.content())
+				.collect(Collectors.joining())
+				.retryWhen(Retry.backoff(chunkMaxRetries, chunkRetryBackoff)
+						.filter(e -> !(e instanceof NonTransientAiException))
+						.doBeforeRetry(signal -> logger.warn("Summarizing part {}/{} failed, retry {}/{}: {}",
+								index + 1, total, signal.totalRetries() + 1, chunkMaxRetries, signal.failure().getMessage()))
+						.onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+	}
+
+	private Flux<ServerSentEvent<String>> summarize(String text) {
+
 		return chatClient.prompt()
-				.user("Summarize the document")
-				.user(text)
-				.stream().content();
+				.user("Summarize the document:\n\n" + text)
+				.stream().content()
+				.map(content -> ServerSentEvent.builder(content).build());
 	}
 
 	private String getText(String url, MultipartFile file) {
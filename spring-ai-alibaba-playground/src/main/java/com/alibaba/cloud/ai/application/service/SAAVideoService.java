@@ -16,37 +16,33 @@
 
 package com.alibaba.cloud.ai.application.service;
 
+import com.alibaba.cloud.ai.application.video.VideoFrameSampler;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeModel;
 import com.alibaba.cloud.ai.dashscope.video.VideoModel;
 import com.alibaba.cloud.ai.dashscope.video.VideoPrompt;
-import org.bytedeco.javacv.FFmpegFrameGrabber;
-import org.bytedeco.javacv.Frame;
-import org.bytedeco.javacv.Java2DFrameConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.content.Media;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * @author huangzhen
@@ -54,58 +50,77 @@ import java.util.UUID;
 @Service
 public class SAAVideoService  {
 
-    private final VideoModel videoModel;
+    private static final Logger logger = LoggerFactory.getLogger(SAAVideoService.class);
 
-    private static final String TEMP_IMAGE_DIR = "temp-frames";
+    private final VideoModel videoModel;
 
     private final ChatClient daschScopeChatClient;
 
+    private final VideoFrameSampler frameSampler;
+
     public SAAVideoService(
             VideoModel videoModel,
-            @Qualifier("dashScopeChatModel") ChatModel chatModel
+            @Qualifier("dashScopeChatModel") ChatModel chatModel,
+            @Value("${spring.ai.alibaba.playground.video.frame-count:10}") int frameCount,
+            @Value("${spring.ai.alibaba.playground.video.max-resolution:1024}") int maxResolution,
+            @Value("${spring.ai.alibaba.playground.video.jpeg-quality:0.85}") float jpegQuality,
+            @Value("${spring.ai.alibaba.playground.video.seek-mode:KEYFRAME}") VideoFrameSampler.SeekMode seekMode
     ) {
 
         this.videoModel = videoModel;
         this.daschScopeChatClient = ChatClient
                 .builder(chatModel)
                 .build();
+        this.frameSampler = VideoFrameSampler.builder()
+                .frameCount(frameCount)
+                .maxResolution(maxResolution)
+                .jpegQuality(jpegQuality)
+                .seekMode(seekMode)
+                .build();
     }
 
     /**
-     * 分析视频内容并回答用户问题
+     * 分析视频内容并回答用户问题。
+     * 上传的视频在方法返回前写入临时文件，抽帧在 boundedElastic 线程上执行，
+     * 模型输出按 token 流式转发；完成、出错或客户端断开时删除临时文件并取消上游请求。
      * @param prompt 用户问题
      * @param videoFile 上传的视频文件
      * @return AI分析结果
      */
-    public String analyzeVideo(String prompt, MultipartFile videoFile) throws Exception {
+    public Flux<String> analyzeVideo(String prompt, MultipartFile videoFile) throws IOException {
         // 1. 验证视频格式
         if (!isSupportedFormat(videoFile)) {
             throw new IllegalArgumentException("不支持的视频格式");
         }
 
-        // 2. 保存视频到临时文件
-        Path tempVideoPath = Paths.get(System.getProperty("java.io.tmpdir"), videoFile.getOriginalFilename());
-        videoFile.transferTo(tempVideoPath.toFile());
+        // 2. 保存视频到临时文件，FFmpeg 需要可随机访问的输入才能 seek；
+        // 请求结束后 multipart 文件会被清理，因此需要在返回前完成
+        Path tempVideoPath = Files.createTempFile("saa-video-", suffix(videoFile.getOriginalFilename()));
+        try {
+            videoFile.transferTo(tempVideoPath);
+        }
+        catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempVideoPath);
+            throw e;
+        }
 
-        // 3. 从视频中提取10帧
-        List<File> frames = extractFrames(tempVideoPath.toFile(), 10);
+        return Flux.using(
+                () -> tempVideoPath,
+                path -> Mono.fromCallable(() -> frameSampler.sample(path.toFile()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapMany(mediaList -> stream(prompt, mediaList)),
+                SAAVideoService::deleteQuietly
+        );
+    }
 
-        // 4. 准备AI分析所需的媒体列表
-        List<Media> mediaList = new ArrayList<>();
-        for (File frame : frames) {
-            mediaList.add(new Media(
-                    MimeTypeUtils.IMAGE_PNG,
-                    new FileSystemResource(frame)
-            ));
-        }
+    private Flux<String> stream(String prompt, List<Media> mediaList) {
 
-        // 5. 创建包含问题和帧图片的用户消息
-//        UserMessage message = new UserMessage(prompt, mediaList);
+        // 3. 创建包含问题和帧图片的用户消息
         UserMessage message =
                 UserMessage.builder().text(prompt).media(mediaList).metadata(new HashMap<>()).build();
 
-        // 6. 调用AI服务进行分析
-        List<ChatResponse> response = daschScopeChatClient.prompt(
+        // 4. 调用AI服务进行分析，按 token 转发
+        return daschScopeChatClient.prompt(
                         new Prompt(
                                 message,
                                 DashScopeChatOptions.builder()
@@ -115,73 +130,23 @@ public class SAAVideoService  {
                         ))
                 .stream()
                 .chatResponse()
-                .collectList()
-                .block();
-
-        // 7. 处理并返回响应
-        StringBuilder result = new StringBuilder();
-        if (response != null) {
-            for (ChatResponse chatResponse : response) {
-                String outputContent = chatResponse.getResult().getOutput().getText();
-                result.append(outputContent).append("\n");
-            }
-        }
-
-        // 8. 清理临时文件
-        cleanUpFiles(frames);
-        Files.deleteIfExists(tempVideoPath);
-
-        return result.toString();
+                .mapNotNull(chatResponse -> chatResponse.getResult() != null
+                        ? chatResponse.getResult().getOutput().getText()
+                        : null);
     }
 
-    /**
-     * 从视频中提取指定数量的帧
-     * @param videoFile 视频文件
-     * @param frameCount 要提取的帧数
-     * @return 提取的帧图片文件列表
-     */
-    private List<File> extractFrames(File videoFile, int frameCount) throws IOException {
-        List<File> frames = new ArrayList<>();
-        FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFile);
-        grabber.start();
-
+    private static void deleteQuietly(Path path) {
         try {
-            // 创建临时目录（如果不存在）
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"), TEMP_IMAGE_DIR);
-            if (!Files.exists(tempDir)) {
-                Files.createDirectories(tempDir);
-            }
-
-            int totalFrames = grabber.getLengthInFrames();
-            int step = totalFrames / frameCount; // 计算帧间隔
-
-            Java2DFrameConverter converter = new Java2DFrameConverter();
-            for (int i = 0; i < frameCount; i++) {
-                int frameNumber = i * step; // 计算当前帧位置
-                grabber.setFrameNumber(frameNumber);
-                Frame frame = grabber.grabImage();
-                BufferedImage image = converter.convert(frame);
-
-                // 保存帧为PNG图片
-                File outputFile = tempDir.resolve(UUID.randomUUID() + ".png").toFile();
-                ImageIO.write(image, "png", outputFile);
-                frames.add(outputFile);
-            }
-        } finally {
-            grabber.stop();
+            Files.deleteIfExists(path);
+        }
+        catch (IOException e) {
+            logger.warn("Failed to delete temp video {}: {}", path, e.getMessage());
         }
-
-        return frames;
     }
 
-    /**
-     * 清理临时文件
-     * @param files 要删除的文件列表
-     */
-    private void cleanUpFiles(List<File> files) {
-        for (File file : files) {
-            file.delete();
-        }
+    private static String suffix(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        return extension != null && extension.matches("[A-Za-z0-9]+") ? "." + extension : ".mp4";
     }
 
     /**
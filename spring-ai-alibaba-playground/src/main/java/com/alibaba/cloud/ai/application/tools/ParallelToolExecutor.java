@@ -0,0 +1,402 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
+import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp.ToolExecution;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 手动工具调用循环：
+ * 1. 模型一次返回的多个 tool call 并行执行，每个调用单独设置超时，超时或失败的结果作为错误信息返回给模型；
+ * 2. 工具结果追加到对话后再次请求模型，直到模型不再请求工具，最多 maxIterations 轮；
+ * 3. 工具仍由 ToolCallingManager 执行，保留其观测和异常处理，耗时由 System.nanoTime 计算。
+ * <p>
+ * 超时通过 Future.cancel(true) 中断工作线程，只能打断响应中断的阻塞调用。
+ * MCP 工具调用阻塞在 McpSyncClient 的请求上，中断后客户端立即返回，但 MCP Server 进程仍会把该请求执行完，
+ * 其上限由 spring.ai.alibaba.playground.mcp.request-timeout 决定。
+ * 不响应中断的工具会一直占用线程直到返回，因此 tool-timeout 只限制模型等待工具结果的时间，不保证工具本身停止；
+ * 这类被放弃的调用每有一个，线程池就临时多开一个线程，最多 maxAbandoned 个，避免它们挤占正常调用的线程。
+ * 线程和队列都已占满时提交被拒绝，该调用作为失败结果返回给模型。
+ */
+
+@Component
+public class ParallelToolExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelToolExecutor.class);
+
+	private static final int QUEUED = 0;
+
+	private static final int RUNNING = 1;
+
+	private static final int DONE = 2;
+
+	private static final int ABANDONED = 3;
+
+	private final ToolCallingManager toolCallingManager;
+
+	private final ThreadPoolTaskExecutor executor;
+
+	private final Duration toolTimeout;
+
+	private final int maxIterations;
+
+	private final int parallelism;
+
+	private final int maxAbandoned;
+
+	/**
+	 * 已超时但仍未返回的工具调用数
+	 */
+	private final AtomicInteger abandoned = new AtomicInteger();
+
+	public ParallelToolExecutor(
+			ToolCallingManager toolCallingManager,
+			@Value("${spring.ai.alibaba.playground.tool-calling.parallelism:8}") int parallelism,
+			@Value("${spring.ai.alibaba.playground.tool-calling.tool-timeout:30s}") Duration toolTimeout,
+			@Value("${spring.ai.alibaba.playground.tool-calling.max-iterations:5}") int maxIterations,
+			@Value("${spring.ai.alibaba.playground.tool-calling.queue-capacity:100}") int queueCapacity,
+			@Value("${spring.ai.alibaba.playground.tool-calling.max-abandoned:8}") int maxAbandoned
+	) {
+
+		this.toolCallingManager = toolCallingManager;
+		this.toolTimeout = toolTimeout;
+		this.maxIterations = maxIterations;
+		this.parallelism = parallelism;
+		this.maxAbandoned = maxAbandoned;
+
+		this.executor = new ThreadPoolTaskExecutor();
+		this.executor.setCorePoolSize(parallelism);
+		this.executor.setMaxPoolSize(parallelism);
+		this.executor.setQueueCapacity(queueCapacity);
+		this.executor.setThreadNamePrefix("tool-call-");
+		this.executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+		this.executor.initialize();
+	}
+
+	@PreDestroy
+	public void destroy() {
+
+		this.executor.shutdown();
+	}
+
+	/**
+	 * 已超时但仍占用线程的工具调用数
+	 */
+	int abandonedToolCalls() {
+
+		return abandoned.get();
+	}
+
+	/**
+	 * 执行完整的工具调用循环。不使用会话记忆，对话只包含本次请求。
+	 * 只使用传入的 toolCallbacks：ChatClient 会把 defaultToolCallbacks 合并进请求的 options 并直接修改该对象，
+	 * 因此每次请求模型和执行工具都使用新建的 options，chatClient 也不应配置 defaultToolCallbacks。
+	 */
+	public ToolCallResp execute(ChatClient chatClient, String prompt, List<ToolCallback> toolCallbacks) {
+
+		List<Message> messages = new ArrayList<>();
+		messages.add(new UserMessage(prompt));
+
+		List<ToolExecution> executions = new ArrayList<>();
+		ToolCallResp tcr = null;
+		long toolNanos = 0;
+
+		for (int iteration = 1; ; iteration++) {
+			ChatResponse response = chatClient.prompt(new Prompt(List.copyOf(messages), chatOptions(toolCallbacks)))
+					.call()
+					.chatResponse();
+			if (response == null || response.getResult() == null) {
+				return failed(tcr, executions, toolNanos, "Empty response from model");
+			}
+
+			AssistantMessage output = response.getResult().getOutput();
+			logger.debug("Iteration {}, text: {}, tool calls: {}", iteration, output.getText(), output.getToolCalls());
+
+			if (!output.hasToolCalls()) {
+				if (tcr == null) {
+					logger.debug("ToolCalls is empty, no tool execution needed.");
+					tcr = ToolCallResp.TCR();
+					tcr.setToolResult(output.getText());
+					return tcr;
+				}
+				return succeeded(tcr, executions, toolNanos, output.getText());
+			}
+
+			if (iteration > maxIterations) {
+				return failed(tcr, executions, toolNanos, "Reached max tool calling iterations: " + maxIterations);
+			}
+
+			if (tcr == null) {
+				tcr = ToolCallResp.startExecute(
+						output.getText(),
+						output.getToolCalls().stream().map(AssistantMessage.ToolCall::name).collect(Collectors.joining(", ")),
+						output.getToolCalls().stream().map(AssistantMessage.ToolCall::arguments).collect(Collectors.joining("\n"))
+				);
+				logger.debug("Start ToolCallResp: {}", tcr);
+			}
+
+			Prompt toolPrompt = new Prompt(List.copyOf(messages), chatOptions(toolCallbacks));
+			long start = System.nanoTime();
+			List<ToolExecution> batch = executeAll(toolPrompt, output.getToolCalls(), iteration);
+			toolNanos += System.nanoTime() - start;
+			executions.addAll(batch);
+
+			messages.add(output);
+			messages.add(ToolResponseMessage.builder()
+					.responses(IntStream.range(0, batch.size())
+							.mapToObj(i -> new ToolResponseMessage.ToolResponse(
+									output.getToolCalls().get(i).id(),
+									batch.get(i).toolName(),
+									batch.get(i).status() == ToolCallResp.ToolState.SUCCESS
+											? batch.get(i).toolResponse()
+											: batch.get(i).errorMessage()))
+							.toList())
+					.build());
+		}
+	}
+
+	/**
+	 * 同时提交本轮所有 tool call，统一在 toolTimeout 后取消未完成的调用
+	 */
+	private List<ToolExecution> executeAll(Prompt prompt, List<AssistantMessage.ToolCall> toolCalls, int iteration) {
+
+		// 超时后工作线程可能仍在运行，耗时通过 AtomicLong 在线程间传递
+		List<AtomicLong> durations = new ArrayList<>(toolCalls.size());
+		List<AtomicInteger> states = new ArrayList<>(toolCalls.size());
+		List<Future<String>> futures = new ArrayList<>(toolCalls.size());
+		for (AssistantMessage.ToolCall toolCall : toolCalls) {
+			AtomicLong duration = new AtomicLong(-1);
+			AtomicInteger state = new AtomicInteger(QUEUED);
+			durations.add(duration);
+			states.add(state);
+			Future<String> future;
+			try {
+				future = executor.submit(tracked(toolCall, () -> executeOne(prompt, toolCall), duration, state));
+			}
+			catch (RejectedExecutionException e) {
+				future = CompletableFuture.failedFuture(e);
+			}
+			futures.add(future);
+		}
+
+		long deadline = System.nanoTime() + toolTimeout.toNanos();
+		List<ToolExecution> executions = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < toolCalls.size(); i++) {
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			Future<String> future = futures.get(i);
+			ToolCallResp.ToolState status = ToolCallResp.ToolState.SUCCESS;
+			String result = null;
+			String error = null;
+
+			try {
+				result = future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+			}
+			catch (TimeoutException e) {
+				// 只中断工作线程，不等待工具真正结束
+				future.cancel(true);
+				abandonIfRunning(toolCall, states.get(i));
+				status = ToolCallResp.ToolState.FAILURE;
+				error = "Tool " + toolCall.name() + " timed out after " + toolTimeout.toMillis() + " ms";
+			}
+			catch (ExecutionException e) {
+				status = ToolCallResp.ToolState.FAILURE;
+				error = e.getCause() instanceof RejectedExecutionException
+						? "Tool " + toolCall.name() + " was rejected: too many concurrent tool calls"
+						: "Tool " + toolCall.name() + " failed: " + e.getCause().getMessage();
+			}
+			catch (CancellationException e) {
+				status = ToolCallResp.ToolState.FAILURE;
+				error = "Tool " + toolCall.name() + " was cancelled";
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				futures.forEach(f -> f.cancel(true));
+				status = ToolCallResp.ToolState.FAILURE;
+				error = "Tool " + toolCall.name() + " was interrupted";
+			}
+
+			long duration = durations.get(i).get();
+			long nanos = duration >= 0 ? duration : toolTimeout.toNanos();
+			ToolExecution execution = new ToolExecution(iteration, toolCall.name(), toolCall.arguments(), status,
+					result, error, TimeUnit.NANOSECONDS.toMillis(nanos));
+			if (status == ToolCallResp.ToolState.FAILURE) {
+				logger.error("Tool execution failed: {}", execution);
+			}
+			executions.add(execution);
+		}
+
+		return executions;
+	}
+
+	/**
+	 * 单个 tool call 交给 ToolCallingManager 执行，取出其工具响应
+	 */
+	private String executeOne(Prompt prompt, AssistantMessage.ToolCall toolCall) {
+
+		AssistantMessage single = AssistantMessage.builder()
+				.content("")
+				.toolCalls(List.of(toolCall))
+				.build();
+		ToolExecutionResult result = toolCallingManager.executeToolCalls(
+				prompt, new ChatResponse(List.of(new Generation(single))));
+
+		Message last = result.conversationHistory().get(result.conversationHistory().size() - 1);
+		if (last instanceof ToolResponseMessage toolResponseMessage && !toolResponseMessage.getResponses().isEmpty()) {
+			return toolResponseMessage.getResponses().get(0).responseData();
+		}
+
+		return "";
+	}
+
+	private static ToolCallingChatOptions chatOptions(List<ToolCallback> toolCallbacks) {
+
+		return ToolCallingChatOptions.builder()
+				.toolCallbacks(toolCallbacks)
+				.internalToolExecutionEnabled(false)
+				.build();
+	}
+
+	/**
+	 * 记录耗时和执行状态；被放弃的调用最终返回时归还临时线程
+	 */
+	private Callable<String> tracked(AssistantMessage.ToolCall toolCall, Callable<String> task, AtomicLong duration,
+			AtomicInteger state) {
+
+		return () -> {
+			state.set(RUNNING);
+			long start = System.nanoTime();
+			try {
+				return task.call();
+			}
+			finally {
+				duration.set(System.nanoTime() - start);
+				if (!state.compareAndSet(RUNNING, DONE)) {
+					abandoned.decrementAndGet();
+					resizePool();
+					logger.info("Abandoned tool {} returned after {} ms", toolCall.name(),
+							TimeUnit.NANOSECONDS.toMillis(duration.get()));
+				}
+			}
+		};
+	}
+
+	/**
+	 * 超时时工具仍在运行（未响应中断或尚未检查中断标志），为它临时增加一个线程
+	 */
+	private void abandonIfRunning(AssistantMessage.ToolCall toolCall, AtomicInteger state) {
+
+		if (state.compareAndSet(RUNNING, ABANDONED)) {
+			int count = abandoned.incrementAndGet();
+			resizePool();
+			logger.warn("Tool {} is still running after timeout, {} abandoned tool calls hold pool threads",
+					toolCall.name(), count);
+		}
+	}
+
+	/**
+	 * 线程数为 parallelism 加上被放弃的调用数，后者最多 maxAbandoned
+	 */
+	private synchronized void resizePool() {
+
+		int size = parallelism + Math.min(abandoned.get(), maxAbandoned);
+		if (size > executor.getMaxPoolSize()) {
+			executor.setMaxPoolSize(size);
+			executor.setCorePoolSize(size);
+		}
+		else if (size < executor.getMaxPoolSize()) {
+			executor.setCorePoolSize(size);
+			executor.setMaxPoolSize(size);
+		}
+	}
+
+	private static ToolCallResp succeeded(ToolCallResp tcr, List<ToolExecution> executions, long toolNanos,
+			String text) {
+
+		boolean allSucceeded = executions.stream().allMatch(e -> e.status() == ToolCallResp.ToolState.SUCCESS);
+		tcr.setStatus(allSucceeded ? ToolCallResp.ToolState.SUCCESS : ToolCallResp.ToolState.FAILURE);
+		if (!allSucceeded) {
+			tcr.setErrorMessage(executions.stream()
+					.map(ToolExecution::errorMessage)
+					.filter(Objects::nonNull)
+					.collect(Collectors.joining("; ")));
+		}
+		tcr.setToolResult(text);
+		return finish(tcr, executions, toolNanos);
+	}
+
+	private static ToolCallResp failed(ToolCallResp tcr, List<ToolExecution> executions, long toolNanos,
+			String errorMessage) {
+
+		ToolCallResp resp = tcr != null ? tcr : ToolCallResp.TCR();
+		resp.setStatus(ToolCallResp.ToolState.FAILURE);
+		resp.setErrorMessage(errorMessage);
+		logger.error("Error ToolCallResp: {}, msg: {}", resp, errorMessage);
+		return finish(resp, executions, toolNanos);
+	}
+
+	private static ToolCallResp finish(ToolCallResp tcr, List<ToolExecution> executions, long toolNanos) {
+
+		tcr.setToolEndTime(LocalDateTime.now());
+		tcr.setToolCostTime(TimeUnit.NANOSECONDS.toMillis(toolNanos));
+		tcr.setToolExecutions(List.copyOf(executions));
+		tcr.setToolResponse(executions.stream()
+				.map(ToolExecution::toolResponse)
+				.filter(Objects::nonNull)
+				.collect(Collectors.joining()));
+		logger.debug("End ToolCallResp: {}", tcr);
+		return tcr;
+	}
+
+}
@@ -37,7 +37,7 @@ public final class ModelsUtils {
 
 	private final static String MODELS_FILE_PATH = "models.yaml";
 
-	private static final String MODEL = "model";
+	public static final String MODEL = "model";
 
 	private static final String DESC = "desc";
 
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.video;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.content.Media;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * 视频关键帧采样：
+ * 1. 将视频按时长均分为 frameCount 段，直接 seek 到每段中点，不再从头顺序解码；
+ * 2. KEYFRAME 模式下解码器只解码关键帧，取目标时间点之后最近的关键帧，适合长视频；
+ * 3. 由 FFmpeg 缩放到 maxResolution 以内，在内存中编码为 JPEG，不写临时文件。
+ */
+
+public class VideoFrameSampler {
+
+	private static final Logger logger = LoggerFactory.getLogger(VideoFrameSampler.class);
+
+	private final int frameCount;
+
+	private final int maxResolution;
+
+	private final float jpegQuality;
+
+	private final SeekMode seekMode;
+
+	private VideoFrameSampler(Builder builder) {
+
+		Assert.isTrue(builder.frameCount > 0, "frameCount must be greater than 0");
+		Assert.isTrue(builder.maxResolution > 0, "maxResolution must be greater than 0");
+		Assert.isTrue(builder.jpegQuality > 0 && builder.jpegQuality <= 1, "jpegQuality must be in (0, 1]");
+		Assert.notNull(builder.seekMode, "seekMode must not be null");
+
+		this.frameCount = builder.frameCount;
+		this.maxResolution = builder.maxResolution;
+		this.jpegQuality = builder.jpegQuality;
+		this.seekMode = builder.seekMode;
+	}
+
+	/**
+	 * 采样视频帧，返回可直接放入 UserMessage 的 JPEG 图片
+	 */
+	public List<Media> sample(File videoFile) throws IOException {
+
+		long start = System.nanoTime();
+		List<Media> frames = new ArrayList<>(frameCount);
+
+		try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFile);
+			 Java2DFrameConverter converter = new Java2DFrameConverter()) {
+
+			if (seekMode == SeekMode.KEYFRAME) {
+				// 跳过非关键帧的解码，seek 后向前解码到目标时间点的开销接近于零
+				grabber.setVideoOption("skip_frame", "nokey");
+			}
+			grabber.start();
+			scale(grabber);
+
+			long duration = grabber.getLengthInTime();
+			for (int i = 0; i < frameCount; i++) {
+				if (duration > 0) {
+					// 取每段的中点，避开片头黑屏和片尾
+					grabber.setTimestamp(duration * (2L * i + 1) / (2L * frameCount), true);
+				}
+
+				Frame frame = grabber.grabImage();
+				if (frame == null) {
+					break;
+				}
+
+				BufferedImage image = converter.convert(frame);
+				if (image != null) {
+					frames.add(new Media(MimeTypeUtils.IMAGE_JPEG, new ByteArrayResource(encode(image))));
+				}
+			}
+		}
+
+		logger.debug("Sampled {} frames from {} in {} ms, seek mode: {}",
+				frames.size(), videoFile.getName(), (System.nanoTime() - start) / 1_000_000, seekMode);
+
+		return frames;
+	}
+
+	/**
+	 * 长边超过 maxResolution 时按比例缩放，由 swscale 在转换像素格式时一并完成
+	 */
+	private void scale(FFmpegFrameGrabber grabber) {
+
+		int width = grabber.getImageWidth();
+		int height = grabber.getImageHeight();
+		int longest = Math.max(width, height);
+		if (longest <= maxResolution) {
+			return;
+		}
+
+		double ratio = (double) maxResolution / longest;
+		grabber.setImageWidth(Math.max((int) Math.round(width * ratio), 1));
+		grabber.setImageHeight(Math.max((int) Math.round(height * ratio), 1));
+	}
+
+	private byte[] encode(BufferedImage image) throws IOException {
+
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+		if (!writers.hasNext()) {
+			throw new IOException("No JPEG image writer available");
+		}
+
+		ImageWriter writer = writers.next();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(jpegQuality);
+
+			writer.setOutput(imageOutput);
+			writer.write(null, new IIOImage(image, null, null), param);
+		}
+		finally {
+			writer.dispose();
+		}
+
+		return output.toByteArray();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public enum SeekMode {
+
+		/**
+		 * seek 到目标时间点之前的关键帧，再解码到目标时间点
+		 */
+		EXACT,
+
+		/**
+		 * 只解码关键帧，取目标时间点之后最近的关键帧
+		 */
+		KEYFRAME
+
+	}
+
+	public static final class Builder {
+
+		private int frameCount = 10;
+
+		private int maxResolution = 1024;
+
+		private float jpegQuality = 0.85f;
+
+		private SeekMode seekMode = SeekMode.KEYFRAME;
+
+		private Builder() {
+		}
+
+		public Builder frameCount(int frameCount) {
+			this.frameCount = frameCount;
+			return this;
+		}
+
+		/**
+		 * 输出图片长边的最大像素数
+		 */
+		public Builder maxResolution(int maxResolution) {
+			this.maxResolution = maxResolution;
+			return this;
+		}
+
+		public Builder jpegQuality(float jpegQuality) {
+			this.jpegQuality = jpegQuality;
+			return this;
+		}
+
+		public Builder seekMode(SeekMode seekMode) {
+			this.seekMode = seekMode;
+			return this;
+		}
+
+		public VideoFrameSampler build() {
+			return new VideoFrameSampler(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.advisor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+
+/**
+ * 一次 1 万个 chunk（前 5000 个为推理内容，后 5000 个为回答）的流式对话经过 ChatClient 的耗时：
+ * withAdvisor 挂载 ReasoningContentAdvisor，withoutAdvisor 为不处理推理内容的基线，
+ * 两者之差即状态机逐 chunk 处理的开销，与 chunk 数线性相关，不随已输出的内容长度增长。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.advisor.ReasoningContentAdvisorBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReasoningContentAdvisorBenchmark {
+
+	private static final int CHUNKS = 10_000;
+
+	private ChatClient withAdvisor;
+
+	private ChatClient withoutAdvisor;
+
+	@Setup
+	public void setUp() {
+		List<ChatResponse> chunks = new ArrayList<>(CHUNKS);
+		for (int i = 0; i < CHUNKS; i++) {
+			chunks.add(i < CHUNKS / 2 ? ReasoningContentAdvisorTest.reasoning("step " + i + " ")
+					: ReasoningContentAdvisorTest.answer("token " + i + " "));
+		}
+		ReasoningContentAdvisorTest.StubChatModel model = new ReasoningContentAdvisorTest.StubChatModel(chunks);
+
+		withAdvisor = ChatClient.builder(model).defaultAdvisors(new ReasoningContentAdvisor(1)).build();
+		withoutAdvisor = ChatClient.builder(model).build();
+	}
+
+	@Benchmark
+	public List<String> withAdvisor() {
+		return withAdvisor.prompt("question").stream().content().collectList().block();
+	}
+
+	@Benchmark
+	public List<String> withoutAdvisor() {
+		return withoutAdvisor.prompt("question").stream().content().collectList().block();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ReasoningContentAdvisorBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.advisor;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticCacheAdvisorTest {
+
+	@Test
+	void partitionCoversAllOptions() {
+		String base = partition(ChatOptions.builder().model("qwen-max").temperature(0.7).topP(0.8).build());
+
+		assertThat(partition(ChatOptions.builder().model("qwen-max").temperature(0.7).topP(0.8).build()))
+			.isEqualTo(base);
+		assertThat(partition(ChatOptions.builder().model("qwen-max").temperature(0.7).topP(0.5).build()))
+			.isNotEqualTo(base);
+		assertThat(partition(ChatOptions.builder().model("qwen-max").temperature(0.7).topP(0.8).maxTokens(64).build()))
+			.isNotEqualTo(base);
+		assertThat(partition(ChatOptions.builder()
+			.model("qwen-max")
+			.temperature(0.7)
+			.topP(0.8)
+			.stopSequences(List.of("END"))
+			.build())).isNotEqualTo(base);
+	}
+
+	@Test
+	void partitionCoversToolsAndSystemPrompt() {
+		String weather = partition(ToolCallingChatOptions.builder().model("qwen-max").toolNames("weather").build());
+
+		assertThat(partition(ToolCallingChatOptions.builder().model("qwen-max").toolNames("weather").build()))
+			.isEqualTo(weather);
+		assertThat(partition(ToolCallingChatOptions.builder().model("qwen-max").toolNames("search").build()))
+			.isNotEqualTo(weather);
+
+		ChatOptions options = ChatOptions.builder().model("qwen-max").build();
+		assertThat(SemanticCacheAdvisor.partition(prompt("system a", options)))
+			.isNotEqualTo(SemanticCacheAdvisor.partition(prompt("system b", options)));
+	}
+
+	private static String partition(ChatOptions options) {
+		return SemanticCacheAdvisor.partition(prompt("you are a helpful assistant", options));
+	}
+
+	private static Prompt prompt(String system, ChatOptions options) {
+		return new Prompt(List.of(new SystemMessage(system), new UserMessage("what is rag")), options);
+	}
+
+}
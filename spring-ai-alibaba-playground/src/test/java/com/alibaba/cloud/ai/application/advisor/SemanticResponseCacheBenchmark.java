@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.advisor;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 缓存中已有 10 万条目时的查找和写入开销。
+ * getSimilar 使用随机向量，基本不会命中，即扫描整个 partition 的最坏情况；
+ * put 在缓存已满时写入，每次都会触发一次 LRU 淘汰。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.advisor.SemanticResponseCacheBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SemanticResponseCacheBenchmark {
+
+	private static final int ENTRIES = 100_000;
+
+	@Param({ "1", "20" })
+	public int partitions;
+
+	@Param({ "256", "1024" })
+	public int dimensions;
+
+	private SemanticResponseCache cache;
+
+	private SplittableRandom random;
+
+	private float[] query;
+
+	private long next;
+
+	@Setup
+	public void setUp() {
+		cache = new SemanticResponseCache(0.95, Duration.ofHours(1), ENTRIES);
+		random = new SplittableRandom(42);
+		for (int i = 0; i < ENTRIES; i++) {
+			cache.put(partition(i), "question " + i, vector(), "answer " + i);
+		}
+		query = vector();
+		next = ENTRIES;
+	}
+
+	@Benchmark
+	public Optional<String> getExact() {
+		int i = random.nextInt(ENTRIES);
+		return cache.getExact(partition(i), "question " + i);
+	}
+
+	@Benchmark
+	public Optional<String> getSimilar() {
+		return cache.getSimilar(partition(random.nextInt(ENTRIES)), query);
+	}
+
+	@Benchmark
+	public void put() {
+		long i = next++;
+		cache.put(partition(i), "question " + i, query, "answer " + i);
+	}
+
+	private String partition(long i) {
+		return "qwen-max|" + (i % partitions);
+	}
+
+	private float[] vector() {
+		float[] vector = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SemanticResponseCacheBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
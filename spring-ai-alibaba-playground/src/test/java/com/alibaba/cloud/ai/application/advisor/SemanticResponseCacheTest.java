@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.advisor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticResponseCacheTest {
+
+	private final MutableClock clock = new MutableClock();
+
+	private final SemanticResponseCache cache = new SemanticResponseCache(0.95, Duration.ofMinutes(10), 3, clock);
+
+	@Test
+	void exactHit() {
+		cache.put("qwen-max", "what is rag", new float[] {1, 0, 0}, "answer");
+
+		assertThat(cache.getExact("qwen-max", "what is rag")).contains("answer");
+		assertThat(cache.getExact("qwen-max", "what is mcp")).isEmpty();
+	}
+
+	@Test
+	void similarHitAboveThresholdOnly() {
+		cache.put("qwen-max", "what is rag", new float[] {1, 0, 0}, "answer");
+
+		// 向量长度不影响余弦相似度
+		assertThat(cache.getSimilar("qwen-max", new float[] {2, 0.1f, 0})).contains("answer");
+		assertThat(cache.getSimilar("qwen-max", new float[] {1, 1, 0})).isEmpty();
+	}
+
+	@Test
+	void partitionsDoNotShareAnswers() {
+		cache.put("qwen-max|0.7|system a", "what is rag", new float[] {1, 0, 0}, "answer");
+
+		assertThat(cache.getExact("qwen-max|0.7|system b", "what is rag")).isEmpty();
+		assertThat(cache.getSimilar("qwen-max|0.7|system b", new float[] {1, 0, 0})).isEmpty();
+	}
+
+	@Test
+	void expiredEntriesAreNotReturned() {
+		cache.put("qwen-max", "what is rag", new float[] {1, 0, 0}, "answer");
+		clock.advance(Duration.ofMinutes(10));
+
+		assertThat(cache.getExact("qwen-max", "what is rag")).isEmpty();
+		assertThat(cache.getSimilar("qwen-max", new float[] {1, 0, 0})).isEmpty();
+	}
+
+	@Test
+	void replacingTextKeepsOneEntry() {
+		cache.put("qwen-max", "what is rag", new float[] {1, 0, 0}, "old");
+		cache.put("qwen-max", "what is rag", new float[] {1, 0, 0}, "new");
+
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.getExact("qwen-max", "what is rag")).contains("new");
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		cache.put("a", "q1", new float[] {1, 0, 0}, "a1");
+		clock.advance(Duration.ofSeconds(1));
+		cache.put("b", "q2", new float[] {0, 1, 0}, "a2");
+		clock.advance(Duration.ofSeconds(1));
+		cache.put("a", "q3", new float[] {0, 0, 1}, "a3");
+		clock.advance(Duration.ofSeconds(1));
+		cache.getExact("a", "q1");
+		clock.advance(Duration.ofSeconds(1));
+		cache.put("c", "q4", new float[] {1, 1, 0}, "a4");
+
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.getExact("b", "q2")).isEmpty();
+		assertThat(cache.getExact("a", "q1")).contains("a1");
+		assertThat(cache.getExact("c", "q4")).contains("a4");
+	}
+
+	@Test
+	void similarHitRefreshesRecency() {
+		cache.put("a", "q1", new float[] {1, 0, 0}, "a1");
+		cache.put("a", "q2", new float[] {0, 1, 0}, "a2");
+		cache.put("a", "q3", new float[] {0, 0, 1}, "a3");
+		assertThat(cache.getSimilar("a", new float[] {1, 0, 0})).contains("a1");
+
+		cache.put("a", "q4", new float[] {1, 1, 0}, "a4");
+
+		assertThat(cache.getExact("a", "q1")).contains("a1");
+		assertThat(cache.getExact("a", "q2")).isEmpty();
+	}
+
+	@Test
+	void evictedAndReplacedEntriesLeaveTheSimilarityScan() {
+		for (int i = 0; i < 6; i++) {
+			float[] embedding = new float[6];
+			embedding[i] = 1;
+			cache.put("a", "q" + i, embedding, "a" + i);
+		}
+		cache.put("a", "q4", new float[] {0, 0, 0, 0, 1, 0}, "a4 again");
+
+		assertThat(cache.size()).isEqualTo(3);
+		for (int i = 0; i < 3; i++) {
+			float[] embedding = new float[6];
+			embedding[i] = 1;
+			assertThat(cache.getSimilar("a", embedding)).isEmpty();
+		}
+		assertThat(cache.getSimilar("a", new float[] {0, 0, 0, 1, 0, 0})).contains("a3");
+		assertThat(cache.getSimilar("a", new float[] {0, 0, 0, 0, 1, 0})).contains("a4 again");
+		assertThat(cache.getSimilar("a", new float[] {0, 0, 0, 0, 0, 1})).contains("a5");
+	}
+
+	@Test
+	void expiredEntriesAreEvictedFirst() {
+		cache.put("a", "q1", new float[] {1, 0, 0}, "a1");
+		cache.put("a", "q2", new float[] {0, 1, 0}, "a2");
+		clock.advance(Duration.ofMinutes(10));
+		assertThat(cache.getExact("a", "q1")).isEmpty();
+
+		assertThat(cache.size()).isEqualTo(1);
+		cache.put("b", "q3", new float[] {0, 0, 1}, "a3");
+		cache.put("b", "q4", new float[] {1, 1, 0}, "a4");
+		cache.put("b", "q5", new float[] {0, 1, 1}, "a5");
+
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.getExact("b", "q3")).contains("a3");
+	}
+
+	@Test
+	void concurrentReadersAndWritersStayWithinMaxSize() throws Exception {
+		SemanticResponseCache shared = new SemanticResponseCache(0.95, Duration.ofMinutes(10), 100);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				String partition = "p" + (t % 3);
+				int offset = t * 1000;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						float[] embedding = {offset + i, 1, 0};
+						shared.put(partition, "q" + (offset + i), embedding, "a" + i);
+						shared.getSimilar(partition, embedding);
+						shared.getExact(partition, "q" + (offset + i));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(shared.size()).isBetween(1, 100);
+	}
+
+	private static class MutableClock extends Clock {
+
+		private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("UTC");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+	}
+
+}
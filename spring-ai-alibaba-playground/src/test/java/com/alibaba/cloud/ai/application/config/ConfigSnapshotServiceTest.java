@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfigSnapshotServiceTest {
+
+	@Test
+	void reloadSwapsSnapshotAndNotifiesListeners() {
+
+		ConfigSnapshotService service = new ConfigSnapshotService(false);
+		ConfigSnapshotService.Snapshot initial = service.getSnapshot();
+
+		List<ConfigSnapshotService.Snapshot> notified = new ArrayList<>();
+		service.addListener(snapshot -> {
+			throw new IllegalStateException("broken listener");
+		});
+		service.addListener(notified::add);
+
+		service.reload();
+
+		assertThat(service.getSnapshot()).isNotSameAs(initial);
+		assertThat(notified).containsExactly(service.getSnapshot());
+		assertThat(service.getSnapshot().mcpServers()).containsOnlyKeys(initial.mcpServers().keySet());
+	}
+
+	@Test
+	void snapshotIsReadOnly() {
+
+		ConfigSnapshotService.Snapshot snapshot = new ConfigSnapshotService(false).getSnapshot();
+
+		assertThat(snapshot.mcpServers()).isNotEmpty();
+		assertThatThrownBy(() -> snapshot.mcpServers().clear()).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> snapshot.modelNames().clear()).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+}
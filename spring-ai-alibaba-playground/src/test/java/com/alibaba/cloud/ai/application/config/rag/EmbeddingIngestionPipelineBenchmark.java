@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * 文档写入吞吐（docs/sec），embedding 调用由固定延迟的替身模拟。
+ * 每轮结束打印单批次耗时 p99，concurrency=1 即原先的串行写入。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.config.rag.EmbeddingIngestionPipelineBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmbeddingIngestionPipelineBenchmark {
+
+	private static final int DOCUMENTS = 500;
+
+	@Param({ "20", "100" })
+	public long embeddingLatencyMillis;
+
+	@Param({ "1", "4", "8" })
+	public int concurrency;
+
+	private final List<Long> p99Millis = Collections.synchronizedList(new ArrayList<>());
+
+	private List<Document> documents;
+
+	private Scheduler scheduler;
+
+	private EmbeddingIngestionPipeline pipeline;
+
+	@Setup
+	public void setUp() {
+		documents = EmbeddingIngestionPipelineTest.docs(DOCUMENTS);
+		scheduler = Schedulers.newBoundedElastic(concurrency, Integer.MAX_VALUE, "ingest-bench");
+		pipeline = EmbeddingIngestionPipeline.builder()
+			.vectorStore(new EmbeddingIngestionPipelineTest.StubVectorStore(embeddingLatencyMillis))
+			.maxConcurrency(concurrency)
+			.retryBackoff(Duration.ofMillis(10))
+			.scheduler(scheduler)
+			.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		scheduler.dispose();
+		System.out.printf("%nlatency=%d ms, concurrency=%d: p99 batch latency %d ms%n", embeddingLatencyMillis,
+				concurrency, p99Millis.stream().mapToLong(Long::longValue).max().orElse(0));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DOCUMENTS)
+	public EmbeddingIngestionPipeline.IngestionResult ingest() {
+		EmbeddingIngestionPipeline.IngestionResult result = pipeline.ingest(documents);
+		p99Millis.add(result.p99BatchMillis());
+		return result;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(EmbeddingIngestionPipelineBenchmark.class.getSimpleName()).build())
+			.run();
+	}
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.content.MediaContent;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddingIngestionPipelineTest {
+
+	/**
+	 * 每个字符算一个 token，方便直接构造批次边界
+	 */
+	private static final TokenCountEstimator CHARS = new TokenCountEstimator() {
+
+		@Override
+		public int estimate(String text) {
+			return text.length();
+		}
+
+		@Override
+		public int estimate(MediaContent content) {
+			return estimate(content.getText());
+		}
+
+		@Override
+		public int estimate(Iterable<MediaContent> contents) {
+			int tokens = 0;
+			for (MediaContent content : contents) {
+				tokens += estimate(content);
+			}
+			return tokens;
+		}
+
+	};
+
+	@Test
+	void batchesRespectTokenAndDocumentLimits() {
+		EmbeddingIngestionPipeline pipeline = pipeline(new StubVectorStore(0)).maxTokensPerBatch(10)
+			.maxDocumentsPerBatch(3)
+			.build();
+
+		List<List<Document>> batches = pipeline.batch(List.of(doc("aaaa"), doc("bbbb"), doc("cccc"), doc("d"),
+				doc("e"), doc("f"), doc("g"), doc("x".repeat(25)), doc("h")));
+
+		assertThat(batches).extracting(List::size).containsExactly(2, 3, 2, 1, 1);
+		// 超出 token 上限的文档独占一个批次
+		assertThat(batches.get(3)).extracting(Document::getText).containsExactly("x".repeat(25));
+		assertThat(batches).allSatisfy(batch -> assertThat(batch.size()).isLessThanOrEqualTo(3));
+	}
+
+	@Test
+	void everyDocumentIsWrittenWithBoundedConcurrency() {
+		StubVectorStore store = new StubVectorStore(20);
+		EmbeddingIngestionPipeline pipeline = pipeline(store).maxDocumentsPerBatch(5).maxConcurrency(3).build();
+
+		EmbeddingIngestionPipeline.IngestionResult result = pipeline.ingest(docs(100));
+
+		assertThat(result.documents()).isEqualTo(100);
+		assertThat(result.batches()).isEqualTo(20);
+		assertThat(store.added).hasSize(100);
+		assertThat(store.maxInFlight.get()).isEqualTo(3);
+	}
+
+	@Test
+	void transientFailuresAreRetriedPerBatch() {
+		StubVectorStore store = new StubVectorStore(0);
+		store.failuresPerBatch = 2;
+		EmbeddingIngestionPipeline pipeline = pipeline(store).maxDocumentsPerBatch(10).maxRetries(3).build();
+
+		pipeline.ingest(docs(30));
+
+		assertThat(store.added).hasSize(30);
+		// 每个批次失败两次后成功，其他批次不会被重放
+		assertThat(store.attempts.values()).containsOnly(3);
+		assertThat(store.attempts).hasSize(3);
+	}
+
+	@Test
+	void exhaustedRetriesFailTheIngestion() {
+		StubVectorStore store = new StubVectorStore(0);
+		store.failuresPerBatch = 5;
+		EmbeddingIngestionPipeline pipeline = pipeline(store).maxDocumentsPerBatch(10).maxRetries(2).build();
+
+		assertThatThrownBy(() -> pipeline.ingest(docs(10))).hasRootCauseInstanceOf(TransientAiException.class);
+		assertThat(store.attempts.values()).containsOnly(3);
+	}
+
+	@Test
+	void nonTransientFailuresAreNotRetried() {
+		StubVectorStore store = new StubVectorStore(0);
+		store.failuresPerBatch = 1;
+		store.transientFailures = false;
+		EmbeddingIngestionPipeline pipeline = pipeline(store).maxDocumentsPerBatch(10).maxRetries(3).build();
+
+		assertThatThrownBy(() -> pipeline.ingest(docs(10))).isInstanceOf(NonTransientAiException.class);
+		assertThat(store.attempts.values()).containsOnly(1);
+	}
+
+	private static EmbeddingIngestionPipeline.Builder pipeline(VectorStore store) {
+		return EmbeddingIngestionPipeline.builder()
+			.vectorStore(store)
+			.tokenCountEstimator(CHARS)
+			.retryBackoff(Duration.ofMillis(1))
+			.scheduler(Schedulers.boundedElastic());
+	}
+
+	static List<Document> docs(int count) {
+		return IntStream.range(0, count).mapToObj(i -> doc("chunk-" + i)).toList();
+	}
+
+	private static Document doc(String text) {
+		return new Document(text);
+	}
+
+	/**
+	 * embedding + 写入的替身：按首个文档区分批次，记录尝试次数和最大并发数
+	 */
+	static class StubVectorStore implements VectorStore {
+
+		final List<Document> added = new CopyOnWriteArrayList<>();
+
+		final ConcurrentHashMap<String, Integer> attempts = new ConcurrentHashMap<>();
+
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final long latencyMillis;
+
+		int failuresPerBatch;
+
+		boolean transientFailures = true;
+
+		StubVectorStore(long latencyMillis) {
+			this.latencyMillis = latencyMillis;
+		}
+
+		@Override
+		public void add(List<Document> documents) {
+			int attempt = attempts.merge(documents.get(0).getId(), 1, Integer::sum);
+			if (attempt <= failuresPerBatch) {
+				throw transientFailures ? new TransientAiException("429 throttled")
+						: new NonTransientAiException("400 bad request");
+			}
+
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				if (latencyMillis > 0) {
+					Thread.sleep(latencyMillis);
+				}
+				added.addAll(new ArrayList<>(documents));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+		@Override
+		public void delete(List<String> idList) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void delete(Filter.Expression filterExpression) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<Document> similaritySearch(SearchRequest request) {
+			return List.of();
+		}
+
+	}
+
+}
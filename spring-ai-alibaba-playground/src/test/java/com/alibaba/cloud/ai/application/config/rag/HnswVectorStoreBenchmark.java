@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+/**
+ * HNSW 与 SimpleVectorStore（暴力扫描）在 1 万、10 万、100 万条 128 维向量上的 top-10 检索耗时。
+ * 准备阶段用 SimpleVectorStore 的结果作为真值，计算 100 个查询的 recall@10 并打印，
+ * 与 JMH 给出的单次检索耗时一起即为 recall@10 / 延迟 曲线。
+ * <p>
+ * 每组参数都会重新建图，100 万条时单次建图耗时较长、内存约 4 GB，可用 JMH 的 {@code -p vectors=10000} 只跑部分规模。
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.config.rag.HnswVectorStoreBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class HnswVectorStoreBenchmark {
+
+	private static final int DIMENSIONS = 128;
+
+	private static final int QUERIES = 100;
+
+	private static final int TOP_K = 10;
+
+	@Param({ "10000", "100000", "1000000" })
+	public int vectors;
+
+	@Param({ "32", "64", "128", "256" })
+	public int efSearch;
+
+	private HnswVectorStore hnsw;
+
+	private SimpleVectorStore bruteForce;
+
+	private List<SearchRequest> requests;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		float[][] corpus = new float[vectors][];
+		for (int i = 0; i < vectors; i++) {
+			corpus[i] = vector(random);
+		}
+		float[][] queries = new float[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = vector(random);
+		}
+
+		EmbeddingModel embeddingModel = new LookupEmbeddingModel(corpus, queries);
+		List<Document> documents = new ArrayList<>(vectors);
+		for (int i = 0; i < vectors; i++) {
+			documents.add(new Document("doc-" + i, "v" + i, Map.of()));
+		}
+
+		hnsw = HnswVectorStore.builder(embeddingModel).m(16).efConstruction(200).efSearch(efSearch).build();
+		hnsw.add(documents);
+		bruteForce = SimpleVectorStore.builder(embeddingModel).build();
+		bruteForce.add(documents);
+
+		requests = new ArrayList<>(QUERIES);
+		for (int i = 0; i < QUERIES; i++) {
+			requests.add(SearchRequest.builder().query("q" + i).topK(TOP_K).similarityThresholdAll().build());
+		}
+
+		int found = 0;
+		for (SearchRequest request : requests) {
+			Set<String> expected = ids(bruteForce.doSimilaritySearch(request));
+			Set<String> actual = ids(hnsw.doSimilaritySearch(request));
+			actual.retainAll(expected);
+			found += actual.size();
+		}
+		System.out.printf("%nvectors=%d, efSearch=%d: recall@%d = %.4f%n", vectors, efSearch, TOP_K,
+				(double) found / (QUERIES * TOP_K));
+	}
+
+	@Benchmark
+	public List<Document> hnsw() {
+		return hnsw.doSimilaritySearch(nextRequest());
+	}
+
+	@Benchmark
+	public List<Document> bruteForce() {
+		return bruteForce.doSimilaritySearch(nextRequest());
+	}
+
+	private SearchRequest nextRequest() {
+		SearchRequest request = requests.get(next);
+		next = (next + 1) % QUERIES;
+		return request;
+	}
+
+	private static Set<String> ids(List<Document> documents) {
+		Set<String> ids = new HashSet<>();
+		documents.forEach(document -> ids.add(document.getId()));
+		return ids;
+	}
+
+	private static float[] vector(SplittableRandom random) {
+		float[] vector = new float[DIMENSIONS];
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(HnswVectorStoreBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/**
+	 * 文档文本为 v{i}，查询文本为 q{i}，直接返回预先生成的向量
+	 */
+	private static class LookupEmbeddingModel implements EmbeddingModel {
+
+		private final float[][] corpus;
+
+		private final float[][] queries;
+
+		LookupEmbeddingModel(float[][] corpus, float[][] queries) {
+			this.corpus = corpus;
+			this.queries = queries;
+		}
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			List<Embedding> embeddings = new ArrayList<>(request.getInstructions().size());
+			for (String text : request.getInstructions()) {
+				embeddings.add(new Embedding(vector(text), embeddings.size()));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return vector(document.getText());
+		}
+
+		@Override
+		public int dimensions() {
+			return DIMENSIONS;
+		}
+
+		private float[] vector(String text) {
+			int index = Integer.parseInt(text.substring(1));
+			return text.charAt(0) == 'q' ? queries[index] : corpus[index];
+		}
+
+	}
+
+}
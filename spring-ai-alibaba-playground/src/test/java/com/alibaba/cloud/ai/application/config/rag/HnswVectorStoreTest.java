@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswVectorStoreTest {
+
+	private final EmbeddingModel embeddingModel = new HashEmbeddingModel();
+
+	@Test
+	void deletedDocumentsAreNotReturned() {
+		HnswVectorStore store = store(0.5);
+		store.add(documents(20));
+		store.delete(List.of("doc-3"));
+
+		assertThat(store.size()).isEqualTo(19);
+		assertThat(search(store, "text 3", 20)).doesNotContain("doc-3");
+		assertThat(search(store, "text 4", 1)).containsExactly("doc-4");
+	}
+
+	@Test
+	void saveDropsDeletedNodesAndLoadRoundTrips() throws IOException {
+		HnswVectorStore store = store(0.5);
+		store.add(documents(50));
+		store.delete(List.of("doc-1", "doc-2", "doc-3", "doc-4", "doc-5"));
+		assertThat(store.nodeCount()).isEqualTo(50);
+
+		File file = Files.createTempFile("vectors", ".hnsw").toFile();
+		try {
+			store.save(file);
+			assertThat(store.nodeCount()).isEqualTo(45);
+
+			HnswVectorStore loaded = store(0.5);
+			loaded.load(file);
+
+			assertThat(loaded.size()).isEqualTo(45);
+			assertThat(loaded.nodeCount()).isEqualTo(45);
+			assertThat(search(loaded, "text 1", 45)).doesNotContain("doc-1");
+			for (int i = 6; i < 50; i += 7) {
+				assertThat(search(loaded, "text " + i, 1)).containsExactly("doc-" + i);
+			}
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void graphIsRebuiltOnceDeletedNodesPassThreshold() {
+		HnswVectorStore store = store(0.2);
+		store.add(documents(20));
+
+		store.delete(List.of("doc-0", "doc-1", "doc-2"));
+		assertThat(store.nodeCount()).isEqualTo(20);
+
+		store.delete(List.of("doc-3"));
+		assertThat(store.nodeCount()).isEqualTo(16);
+		assertThat(search(store, "text 10", 1)).containsExactly("doc-10");
+	}
+
+	@Test
+	void addingTheSameIdReplacesTheDocument() {
+		HnswVectorStore store = store(0.5);
+		store.add(documents(10));
+		store.add(List.of(new Document("doc-7", "replaced", Map.of())));
+
+		assertThat(store.size()).isEqualTo(10);
+		List<Document> found = store.similaritySearch(SearchRequest.builder().query("replaced").topK(1).build());
+		assertThat(found).extracting(Document::getId).containsExactly("doc-7");
+		assertThat(found).extracting(Document::getText).containsExactly("replaced");
+	}
+
+	private HnswVectorStore store(double rebuildThreshold) {
+		return HnswVectorStore.builder(embeddingModel)
+				.m(8)
+				.efConstruction(64)
+				.efSearch(64)
+				.rebuildThreshold(rebuildThreshold)
+				.build();
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new Document("doc-" + i, "text " + i, Map.of("index", i)))
+				.toList();
+	}
+
+	private static List<String> search(HnswVectorStore store, String query, int topK) {
+		return store.similaritySearch(SearchRequest.builder().query(query).topK(topK).build())
+				.stream()
+				.map(Document::getId)
+				.toList();
+	}
+
+	/**
+	 * 以文本哈希为种子生成随机向量，相同文本得到相同向量
+	 */
+	private static class HashEmbeddingModel implements EmbeddingModel {
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			List<Embedding> embeddings = new ArrayList<>();
+			for (String text : request.getInstructions()) {
+				embeddings.add(new Embedding(vector(text), embeddings.size()));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return vector(document.getText());
+		}
+
+		private static float[] vector(String text) {
+			Random random = new Random(text.hashCode());
+			float[] vector = new float[32];
+			for (int i = 0; i < vector.length; i++) {
+				vector[i] = (float) random.nextGaussian();
+			}
+			return vector;
+		}
+
+	}
+
+}
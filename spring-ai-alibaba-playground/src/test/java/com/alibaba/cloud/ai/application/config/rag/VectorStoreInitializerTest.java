@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VectorStoreInitializerTest {
+
+	private Path indexDir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		indexDir = Files.createTempDirectory("vector-index");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(indexDir)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	void manifestIsKeptPerStoreKey() throws Exception {
+		RecordingVectorStore simple = new RecordingVectorStore();
+		new VectorStoreInitializer(indexDir, 2).init(simple, "simple");
+		assertThat(simple.added).isNotEmpty();
+
+		// 另一种存储不能复用 simple 的清单，否则会跳过 embedding 留下空存储
+		RecordingVectorStore analyticdb = new RecordingVectorStore();
+		new VectorStoreInitializer(indexDir, 2).init(analyticdb, "analyticdb-saa");
+		assertThat(analyticdb.added).hasSameSizeAs(simple.added);
+
+		assertThat(indexDir.resolve(VectorStoreInitializer.manifestFileName("simple"))).exists();
+		assertThat(indexDir.resolve(VectorStoreInitializer.manifestFileName("analyticdb-saa"))).exists();
+	}
+
+	@Test
+	void unchangedDocumentsAreNotEmbeddedAgain() throws Exception {
+		new VectorStoreInitializer(indexDir, 2).init(new RecordingVectorStore(), "analyticdb-saa");
+
+		RecordingVectorStore restarted = new RecordingVectorStore();
+		new VectorStoreInitializer(indexDir, 2).init(restarted, "analyticdb-saa");
+
+		assertThat(restarted.added).isEmpty();
+		assertThat(restarted.deleted).isEmpty();
+	}
+
+	@Test
+	void collectionIsPartOfTheKey() throws Exception {
+		new VectorStoreInitializer(indexDir, 2).init(new RecordingVectorStore(), "analyticdb-saa");
+
+		RecordingVectorStore otherCollection = new RecordingVectorStore();
+		new VectorStoreInitializer(indexDir, 2).init(otherCollection, "analyticdb-other");
+
+		assertThat(otherCollection.added).isNotEmpty();
+	}
+
+	/**
+	 * 远程向量存储的替身，只记录写入和删除
+	 */
+	private static class RecordingVectorStore implements VectorStore {
+
+		private final List<Document> added = new ArrayList<>();
+
+		private final List<String> deleted = new ArrayList<>();
+
+		@Override
+		public synchronized void add(List<Document> documents) {
+			added.addAll(documents);
+		}
+
+		@Override
+		public synchronized void delete(List<String> idList) {
+			deleted.addAll(idList);
+		}
+
+		@Override
+		public void delete(Filter.Expression filterExpression) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<Document> similaritySearch(SearchRequest request) {
+			return List.of();
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.cloud.ai.application.service.SAAAudioService;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SAAAudioControllerTest {
+
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+
+	private final AtomicInteger synthesized = new AtomicInteger();
+
+	private final SAAAudioController controller = new SAAAudioController(new StubAudioService());
+
+	@Test
+	void allChunksAreWrittenInOrder() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		body("3").writeTo(out);
+
+		assertThat(out.toByteArray()).containsExactly(0, 1, 2);
+		assertThat(synthesized).hasValue(3);
+	}
+
+	@Test
+	void clientDisconnectCancelsSynthesis() {
+		// 第二次写入时客户端已断开
+		OutputStream disconnecting = new OutputStream() {
+
+			private int writes;
+
+			@Override
+			public void write(int b) throws IOException {
+				if (++writes > 1) {
+					throw new IOException("Broken pipe");
+				}
+			}
+
+		};
+
+		assertThatThrownBy(() -> body("1000000").writeTo(disconnecting)).isInstanceOf(IOException.class)
+			.hasMessage("Broken pipe");
+
+		assertThat(cancelled).isTrue();
+		assertThat(synthesized.get()).isLessThan(1000);
+	}
+
+	private StreamingResponseBody body(String sentences) {
+		return controller.textToAudioStream(sentences).getBody();
+	}
+
+	/**
+	 * 每个分句合成一个字节，prompt 为分句数
+	 */
+	private class StubAudioService extends SAAAudioService {
+
+		StubAudioService() {
+			super(null, null, "paraformer-realtime-v2", 16000, 200, 2);
+		}
+
+		@Override
+		public Flux<byte[]> text2audioStream(String prompt) {
+			return Flux.range(0, Integer.parseInt(prompt))
+				.map(i -> new byte[] { (byte) synthesized.getAndIncrement() })
+				.doOnCancel(() -> cancelled.set(true));
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.image;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.FileSystemUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageStreamProxyTest {
+
+	private static final byte[] JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 1, 2, 3, 4, 5, 6 };
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private HttpServer server;
+
+	private Path cacheDir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			String contentType = exchange.getRequestURI().getPath().endsWith(".txt") ? "text/plain" : "image/jpeg";
+			exchange.getResponseHeaders().set("Content-Type", contentType);
+			exchange.sendResponseHeaders(200, JPEG.length);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(JPEG);
+			}
+		});
+		server.start();
+		cacheDir = Files.createTempDirectory("image-cache");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		server.stop(0);
+		FileSystemUtils.deleteRecursively(cacheDir);
+	}
+
+	@Test
+	void cachedImageIsReplayedWithTheUpstreamContentType() throws IOException {
+		ImageStreamProxy proxy = proxy(1024);
+
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		proxy.write(url("/a.jpg"), "a", first);
+		MockHttpServletResponse cached = new MockHttpServletResponse();
+
+		assertThat(proxy.writeCached("a", cached)).isTrue();
+		assertThat(first.getContentType()).isEqualTo("image/jpeg");
+		assertThat(cached.getContentType()).isEqualTo("image/jpeg");
+		assertThat(cached.getContentAsByteArray()).isEqualTo(JPEG);
+		assertThat(cached.getContentLengthLong()).isEqualTo(JPEG.length);
+		assertThat(requests).hasValue(1);
+	}
+
+	@Test
+	void contentTypeSurvivesARestart() throws IOException {
+		proxy(1024).write(url("/a.jpg"), "a", new MockHttpServletResponse());
+
+		MockHttpServletResponse cached = new MockHttpServletResponse();
+
+		assertThat(proxy(1024).writeCached("a", cached)).isTrue();
+		assertThat(cached.getContentType()).isEqualTo("image/jpeg");
+	}
+
+	@Test
+	void legacyEntriesWithoutContentTypeFallBackToPng() throws IOException {
+		Files.write(cacheDir.resolve("old.img"), JPEG);
+
+		MockHttpServletResponse cached = new MockHttpServletResponse();
+
+		assertThat(proxy(1024).writeCached("old", cached)).isTrue();
+		assertThat(cached.getContentType()).isEqualTo("image/png");
+	}
+
+	@Test
+	void nonImageUpstreamTypeIsServedAsPng() throws IOException {
+		ImageStreamProxy proxy = proxy(1024);
+		proxy.write(url("/a.txt"), "a", new MockHttpServletResponse());
+
+		MockHttpServletResponse cached = new MockHttpServletResponse();
+
+		assertThat(proxy.writeCached("a", cached)).isTrue();
+		assertThat(cached.getContentType()).isEqualTo("image/png");
+	}
+
+	@Test
+	void evictionRemovesTheContentTypeFile() throws IOException {
+		// 只能放下一张图片
+		ImageStreamProxy proxy = proxy(JPEG.length + 5);
+		proxy.write(url("/a.jpg"), "a", new MockHttpServletResponse());
+		proxy.write(url("/b.jpg"), "b", new MockHttpServletResponse());
+
+		assertThat(proxy.writeCached("a", new MockHttpServletResponse())).isFalse();
+		assertThat(cacheDir.resolve("a.img")).doesNotExist();
+		assertThat(cacheDir.resolve("a.type")).doesNotExist();
+		assertThat(cacheDir.resolve("b.type")).hasContent("image/jpeg");
+	}
+
+	private ImageStreamProxy proxy(long cacheMaxBytes) {
+		return ImageStreamProxy.builder().cacheDir(cacheDir).cacheMaxBytes(cacheMaxBytes).build();
+	}
+
+	private String url(String path) {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+import io.modelcontextprotocol.json.McpJsonMapper;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpStdioClientProperties;
+
+/**
+ * 只提供一个 echo 工具的 stdio MCP Server，返回 ECHO_NAME 环境变量和调用参数，
+ * 用当前 JVM 的 classpath 在子进程中启动
+ */
+public final class EchoMcpServer {
+
+	private EchoMcpServer() {
+	}
+
+	/**
+	 * 启动 EchoMcpServer 的会话参数，name 不同即为不同的会话
+	 */
+	static McpStdioClientProperties.Parameters parameters(String name) {
+
+		String java = System.getProperty("java.home") + "/bin/java";
+		return new McpStdioClientProperties.Parameters(java,
+				List.of("-cp", System.getProperty("java.class.path"), EchoMcpServer.class.getName()),
+				Map.of("ECHO_NAME", name));
+	}
+
+	public static void main(String[] args) {
+
+		// stdout 是协议通道，日志改写到 stderr
+		PrintStream stdout = System.out;
+		System.setOut(System.err);
+
+		McpJsonMapper jsonMapper = McpJsonMapper.getDefault();
+		McpSchema.Tool tool = McpSchema.Tool.builder()
+			.name("echo")
+			.description("Echo the input")
+			.inputSchema(jsonMapper, "{\"type\":\"object\",\"properties\":{\"text\":{\"type\":\"string\"}}}")
+			.build();
+		String name = System.getenv("ECHO_NAME");
+
+		McpServer.sync(new StdioServerTransportProvider(jsonMapper, System.in, stdout))
+			.serverInfo("echo-" + name, "1.0.0")
+			.capabilities(McpSchema.ServerCapabilities.builder().tools(true).build())
+			.tools(McpServerFeatures.SyncToolSpecification.builder()
+				.tool(tool)
+				.callHandler((exchange, request) -> McpSchema.CallToolResult.builder()
+					.addTextContent(name + ":" + request.arguments().get("text"))
+					.build())
+				.build())
+			.build();
+
+		// 正常由客户端关闭，父进程异常退出时随之退出
+		ProcessHandle.current().parent().ifPresent(parent -> parent.onExit().join());
+		System.exit(0);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class McpServerContainerTest {
+
+	@AfterEach
+	void clear() {
+		McpServerContainer.refresh(List.of());
+	}
+
+	@Test
+	void serversAreLookedUpByIdAndName() {
+
+		McpServerContainer.refresh(List.of(server("1", "weather"), server("2", "github")));
+
+		assertThat(McpServerContainer.getServerById("2")).map(McpServer::getName).contains("github");
+		assertThat(McpServerContainer.getServerByName("weather")).map(McpServer::getId).contains("1");
+		assertThat(McpServerContainer.getServerById("3")).isEmpty();
+	}
+
+	@Test
+	void changingTheRegisteredObjectDoesNotChangeTheSnapshot() {
+
+		McpServer server = server("1", "weather");
+		McpServerContainer.addServer(server);
+
+		server.setName("renamed");
+		server.getEnv().put("API_KEY", "changed");
+		server.getToolList().get(0).setName("changed");
+
+		McpServer stored = McpServerContainer.getServerById("1").orElseThrow();
+		assertThat(stored.getName()).isEqualTo("weather");
+		assertThat(stored.getEnv()).containsEntry("API_KEY", "key");
+		assertThat(stored.getToolList()).extracting(McpServer.Tools::getName).containsExactly("getWeather");
+	}
+
+	@Test
+	void snapshotServersAreReadOnly() {
+
+		McpServerContainer.addServer(server("1", "weather"));
+		McpServer stored = McpServerContainer.getServerById("1").orElseThrow();
+
+		assertThatThrownBy(() -> stored.setName("renamed")).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> stored.getEnv().put("API_KEY", "changed"))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> stored.getToolList().get(0).setDesc("changed"))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> McpServerContainer.getAllServers().clear())
+				.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	void addServerReplacesTheSameId() {
+
+		McpServerContainer.addServer(server("1", "weather"));
+		McpServerContainer.addServer(server("1", "github"));
+
+		assertThat(McpServerContainer.getAllServers()).extracting(McpServer::getName).containsExactly("github");
+		assertThat(McpServerContainer.getServerByName("weather")).isEmpty();
+		assertThat(McpServerContainer.removeServerById("1")).isTrue();
+		assertThat(McpServerContainer.removeServerById("1")).isFalse();
+	}
+
+	private static McpServer server(String id, String name) {
+
+		McpServer.Tools tool = new McpServer.Tools();
+		tool.setName("getWeather");
+		tool.setDesc("天气查询");
+
+		Map<String, String> env = new HashMap<>();
+		env.put("API_KEY", "key");
+
+		return McpServer.builder()
+				.id(id)
+				.name(name)
+				.env(env)
+				.toolList(new ArrayList<>(List.of(tool)))
+				.build();
+	}
+
+}
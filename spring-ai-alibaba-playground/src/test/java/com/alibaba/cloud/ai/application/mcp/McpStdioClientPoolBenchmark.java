@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpStdioClientProperties;
+
+/**
+ * 一次 MCP 工具调用（获取工具列表并调用 echo 工具）的耗时：
+ * cold 每次新建连接池，即每次请求都启动 EchoMcpServer 进程并完成 initialize 和 listTools，
+ * 等同于没有会话池时的做法；pooled 复用同一连接池中已建立的会话。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.mcp.McpStdioClientPoolBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class McpStdioClientPoolBenchmark {
+
+	private final McpStdioClientProperties.Parameters parameters = EchoMcpServer.parameters("bench");
+
+	private McpStdioClientPool pool;
+
+	@Setup
+	public void setUp() {
+		pool = pool();
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.destroy();
+	}
+
+	@Benchmark
+	public String cold() {
+		McpStdioClientPool coldPool = pool();
+		try {
+			return McpStdioClientPoolTest.echo(coldPool.getToolCallbacks(parameters), "hello");
+		}
+		finally {
+			coldPool.destroy();
+		}
+	}
+
+	@Benchmark
+	public String pooled() {
+		return McpStdioClientPoolTest.echo(pool.getToolCallbacks(parameters), "hello");
+	}
+
+	private static McpStdioClientPool pool() {
+		return new McpStdioClientPool(Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(1), 16);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(McpStdioClientPoolBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.tool.ToolCallback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class McpStdioClientPoolTest {
+
+	private final McpStdioClientPool pool = new McpStdioClientPool(Duration.ofSeconds(30), Duration.ofMinutes(10),
+			Duration.ofMinutes(1), 2);
+
+	@AfterEach
+	void tearDown() {
+		pool.destroy();
+	}
+
+	@Test
+	void sameConfigurationReusesTheSession() {
+		List<ToolCallback> first = pool.getToolCallbacks(EchoMcpServer.parameters("a"));
+		List<ToolCallback> second = pool.getToolCallbacks(EchoMcpServer.parameters("a"));
+
+		assertThat(second).isSameAs(first);
+		assertThat(pool.size()).isEqualTo(1);
+		assertThat(echo(second, "hi")).contains("a:hi");
+	}
+
+	@Test
+	void leastRecentlyUsedSessionIsClosedWhenTheLimitIsExceeded() {
+		List<ToolCallback> a = pool.getToolCallbacks(EchoMcpServer.parameters("a"));
+		pool.getToolCallbacks(EchoMcpServer.parameters("b"));
+		// a 比 b 更近使用过
+		pool.getToolCallbacks(EchoMcpServer.parameters("a"));
+
+		List<ToolCallback> c = pool.getToolCallbacks(EchoMcpServer.parameters("c"));
+
+		assertThat(pool.size()).isEqualTo(2);
+		assertThat(pool.isPooled(EchoMcpServer.parameters("a"))).isTrue();
+		assertThat(pool.isPooled(EchoMcpServer.parameters("b"))).isFalse();
+		assertThat(pool.isPooled(EchoMcpServer.parameters("c"))).isTrue();
+		assertThat(echo(a, "x")).contains("a:x");
+		assertThat(echo(c, "y")).contains("c:y");
+		// b 的进程已退出
+		assertThat(echoServers()).isEqualTo(2);
+	}
+
+	@Test
+	void evictedConfigurationStartsANewSession() {
+		List<ToolCallback> a = pool.getToolCallbacks(EchoMcpServer.parameters("a"));
+		pool.getToolCallbacks(EchoMcpServer.parameters("b"));
+		pool.getToolCallbacks(EchoMcpServer.parameters("c"));
+
+		List<ToolCallback> restarted = pool.getToolCallbacks(EchoMcpServer.parameters("a"));
+
+		assertThat(restarted).isNotSameAs(a);
+		assertThat(pool.size()).isEqualTo(2);
+		assertThat(pool.isPooled(EchoMcpServer.parameters("b"))).isFalse();
+		assertThat(echo(restarted, "again")).contains("a:again");
+	}
+
+	/**
+	 * 测试进程的子进程都是 echo server
+	 */
+	private static long echoServers() {
+		return ProcessHandle.current().children().count();
+	}
+
+	static String echo(List<ToolCallback> toolCallbacks, String text) {
+		return toolCallbacks.get(0).call("{\"text\":\"" + text + "\"}");
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeLimitedDocumentRetrieverTest {
+
+	private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+	private final CountDownLatch unblock = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		unblock.countDown();
+	}
+
+	@Test
+	void resultWithinDeadlineIsReturned() {
+		TimeLimitedDocumentRetriever retriever = retriever(query -> List.of(new Document(query.text())), 4);
+
+		assertThat(retriever.retrieve(new Query("rag"))).extracting(Document::getText).containsExactly("rag");
+	}
+
+	@Test
+	void failureIsSkipped() {
+		TimeLimitedDocumentRetriever retriever = retriever(query -> {
+			throw new IllegalStateException("iqs down");
+		}, 4);
+
+		assertThat(retriever.retrieve(new Query("rag"))).isEmpty();
+	}
+
+	@Test
+	void slowRetrievalIsInterruptedAtTheDeadline() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		TimeLimitedDocumentRetriever retriever = retriever(query -> {
+			try {
+				Thread.sleep(10_000);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return List.of(new Document("late"));
+		}, 4);
+
+		long start = System.nanoTime();
+		assertThat(retriever.retrieve(new Query("rag"))).isEmpty();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+		assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void abandonedRetrievalsAreBoundedAndReleaseTheirPermits() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		// 不响应中断的阻塞 IO
+		TimeLimitedDocumentRetriever retriever = retriever(query -> {
+			calls.incrementAndGet();
+			if (query.text().equals("stuck")) {
+				awaitUninterruptibly(unblock);
+			}
+			return List.of(new Document(query.text()));
+		}, 2);
+
+		assertThat(retriever.retrieve(new Query("stuck"))).isEmpty();
+		assertThat(retriever.retrieve(new Query("stuck"))).isEmpty();
+
+		// 两个被放弃的检索仍占着许可，新的检索直接跳过，不等待截止时间也不再占用线程
+		long start = System.nanoTime();
+		assertThat(retriever.retrieve(new Query("fast"))).isEmpty();
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(TIMEOUT);
+		assertThat(calls).hasValue(2);
+
+		unblock.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		List<Document> documents = List.of();
+		while (documents.isEmpty() && System.nanoTime() < deadline) {
+			documents = retriever.retrieve(new Query("fast"));
+		}
+		assertThat(documents).extracting(Document::getText).containsExactly("fast");
+	}
+
+	private static TimeLimitedDocumentRetriever retriever(DocumentRetriever delegate, int maxInFlight) {
+		return TimeLimitedDocumentRetriever.builder()
+			.delegate(delegate)
+			.timeout(TIMEOUT)
+			.maxInFlight(maxInFlight)
+			.build();
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				latch.await();
+				break;
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * MultiQueryExpander 式的突发查询：每次调用同时发出 burst 个未缓存的查询，上游 IQS 固定 50 ms 延迟。
+ * identical=true 时查询相同，只会有一次上游请求；false 时查询互不相同，作为对照。
+ * 结束时打印平均每次突发的上游请求数。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngineBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IQSSearchEngineBenchmark {
+
+	@Param({ "4", "16", "64" })
+	public int burst;
+
+	@Param({ "true", "false" })
+	public boolean identical;
+
+	private IQSSearchEngineTest.StubIqs iqs;
+
+	private IQSSearchEngine engine;
+
+	private ExecutorService executor;
+
+	private long bursts;
+
+	@Setup
+	public void setUp() {
+		iqs = new IQSSearchEngineTest.StubIqs(50);
+		engine = IQSSearchEngineTest.engine(iqs);
+		executor = Executors.newFixedThreadPool(burst);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+		System.out.printf("%nburst=%d, identical=%b: %.1f upstream calls per burst%n", burst, identical,
+				(double) iqs.calls.get() / Math.max(bursts, 1));
+	}
+
+	@Benchmark
+	public void search() {
+		long id = bursts++;
+		List<CompletableFuture<Object>> searches = new ArrayList<>(burst);
+		for (int i = 0; i < burst; i++) {
+			String query = identical ? "query " + id : "query " + id + "-" + i;
+			searches.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return engine.search(query);
+				}
+				catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}, executor));
+		}
+		CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).join();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(IQSSearchEngineBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.core;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.cloud.ai.application.config.WebSearchProperties;
+import com.alibaba.cloud.ai.application.entity.iqs.IQSSearchResponse;
+import com.alibaba.cloud.ai.application.enums.WebSearchEnum;
+import com.alibaba.cloud.ai.application.modulerag.IQSSearchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IQSSearchEngineTest {
+
+	private static final int CALLERS = 16;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentIdenticalQueriesShareOneUpstreamCall() throws Exception {
+		StubIqs iqs = new StubIqs(300);
+		IQSSearchEngine engine = engine(iqs);
+
+		// 归一化后相同的查询也合并
+		List<Future<Object>> results = concurrently(caller -> engine.search(caller % 2 == 0 ? "What is RAG" : "  what   is rag "));
+
+		for (Future<Object> result : results) {
+			assertThat(result.get(10, TimeUnit.SECONDS)).isInstanceOf(IQSSearchResponse.class);
+		}
+		assertThat(iqs.calls).hasValue(1);
+
+		engine.search("what is rag");
+		assertThat(iqs.calls).hasValue(1);
+		assertThat(engine.cacheStats()).containsEntry("loadCount", 1L);
+	}
+
+	@Test
+	void differentQueriesAreNotCoalesced() throws Exception {
+		StubIqs iqs = new StubIqs(50);
+		IQSSearchEngine engine = engine(iqs);
+
+		for (Future<Object> result : concurrently(caller -> engine.search("query " + caller % 4))) {
+			result.get(10, TimeUnit.SECONDS);
+		}
+
+		assertThat(iqs.calls).hasValue(4);
+	}
+
+	@Test
+	void failedLoadIsSharedButNotCached() throws Exception {
+		StubIqs iqs = new StubIqs(300);
+		iqs.status = HttpStatus.INTERNAL_SERVER_ERROR;
+		IQSSearchEngine engine = engine(iqs);
+
+		for (Future<Object> result : concurrently(caller -> engine.search("what is rag"))) {
+			assertThat(result).failsWithin(Duration.ofSeconds(10))
+				.withThrowableOfType(ExecutionException.class)
+				.withCauseInstanceOf(HttpServerErrorException.class);
+		}
+		assertThat(iqs.calls).hasValue(1);
+
+		iqs.status = HttpStatus.OK;
+		assertThat(engine.search("what is rag")).isNotNull();
+		assertThat(iqs.calls).hasValue(2);
+	}
+
+	private List<Future<Object>> concurrently(Search search) {
+		CyclicBarrier start = new CyclicBarrier(CALLERS);
+		List<Future<Object>> results = new ArrayList<>();
+		for (int caller = 0; caller < CALLERS; caller++) {
+			int id = caller;
+			results.add(executor.submit(() -> {
+				start.await();
+				return search.run(id);
+			}));
+		}
+		return results;
+	}
+
+	static IQSSearchEngine engine(StubIqs iqs) {
+		WebSearchProperties properties = new WebSearchProperties(WebSearchEnum.ModuleRag,
+				new IQSSearchProperties("test-key", Duration.ofMinutes(10), 1000));
+		return new IQSSearchEngine(RestClient.builder().requestFactory(iqs), properties,
+				new DefaultResponseErrorHandler());
+	}
+
+	@FunctionalInterface
+	private interface Search {
+
+		Object run(int caller) throws Exception;
+
+	}
+
+	/**
+	 * IQS 接口的替身：固定延迟后返回，记录上游请求次数
+	 */
+	static class StubIqs implements ClientHttpRequestFactory {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		private final long latencyMillis;
+
+		volatile HttpStatus status = HttpStatus.OK;
+
+		StubIqs(long latencyMillis) {
+			this.latencyMillis = latencyMillis;
+		}
+
+		@Override
+		public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+			return new MockClientHttpRequest(httpMethod, uri) {
+
+				@Override
+				protected ClientHttpResponse executeInternal() {
+					calls.incrementAndGet();
+					try {
+						Thread.sleep(latencyMillis);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					MockClientHttpResponse response = new MockClientHttpResponse(
+							"{\"requestId\":\"1\",\"pageItems\":[]}".getBytes(StandardCharsets.UTF_8), status);
+					response.getHeaders().set("Content-Type", "application/json");
+					return response;
+				}
+
+			};
+		}
+
+	}
+
+}
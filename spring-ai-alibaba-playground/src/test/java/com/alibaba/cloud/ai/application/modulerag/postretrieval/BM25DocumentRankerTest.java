@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.postretrieval;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BM25DocumentRankerTest {
+
+	private static final Query QUERY = new Query("spring ai alibaba graph");
+
+	@Test
+	void tokenizesWordsAndCjkBigrams() {
+		assertThat(BM25DocumentRanker.tokenize("Spring AI 1.1 的图编排")).containsExactly("spring", "ai", "1", "1", "的图",
+				"图编", "编排");
+		assertThat(BM25DocumentRanker.tokenize("图 a")).containsExactly("图", "a");
+		assertThat(BM25DocumentRanker.tokenize(null)).isEmpty();
+	}
+
+	@Test
+	void lexicalScoresOrderByQueryTermMatches() {
+		BM25DocumentRanker ranker = BM25DocumentRanker.builder().bm25Weight(1).topK(3).build();
+
+		List<Document> ranked = ranker.process(QUERY, List.of(doc("weather", "today is sunny and warm"),
+				doc("one", "spring boot starter for web apps"), doc("all", "spring ai alibaba graph workflow"),
+				doc("two", "spring ai chat client")));
+
+		assertThat(ranked).extracting(Document::getId).containsExactly("all", "two", "one");
+		assertThat(ranked.get(0).getScore()).isEqualTo(1.0);
+		assertThat(ranked).extracting(Document::getScore).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+	}
+
+	@Test
+	void defaultBlendIsSeventyPercentBm25AndThirtyPercentRetrievalScore() {
+		BM25DocumentRanker ranker = BM25DocumentRanker.builder().build();
+
+		List<Document> ranked = ranker.process(QUERY, List.of(doc("lexical", "spring ai alibaba graph", 0.0),
+				doc("reranked", "today is sunny and warm", 1.0), doc("unscored", "nothing relevant here", null)));
+
+		assertThat(ranked).extracting(Document::getId).containsExactly("lexical", "reranked", "unscored");
+		assertThat(ranked.get(0).getScore()).isCloseTo(0.7, within(1e-9));
+		assertThat(ranked.get(1).getScore()).isCloseTo(0.3, within(1e-9));
+		assertThat(ranked.get(2).getScore()).isCloseTo(0.0, within(1e-9));
+	}
+
+	@Test
+	void blendUsesNormalizedBm25AndTheConfiguredScorer() {
+		DocumentScorer byLength = (query, document) -> document.getText().length() > 20 ? 0.5 : 0.1;
+		BM25DocumentRanker ranker = BM25DocumentRanker.builder().bm25Weight(0.5).scorer(byLength).build();
+
+		List<Document> ranked = ranker.process(QUERY,
+				List.of(doc("short", "spring ai"), doc("long", "spring ai alibaba graph example")));
+
+		// long 的 BM25 最高，归一化为 1：0.5 * 1 + 0.5 * 0.5
+		assertThat(ranked.get(0).getId()).isEqualTo("long");
+		assertThat(ranked.get(0).getScore()).isCloseTo(0.75, within(1e-9));
+		assertThat(ranked.get(1).getScore()).isBetween(0.05, 0.55);
+	}
+
+	@Test
+	void retrievalScoreBreaksLexicalTies() {
+		BM25DocumentRanker ranker = BM25DocumentRanker.builder().build();
+
+		List<Document> ranked = ranker.process(QUERY,
+				List.of(doc("low", "spring ai alibaba", 0.2), doc("high", "spring ai alibaba", 0.9)));
+
+		assertThat(ranked).extracting(Document::getId).containsExactly("high", "low");
+		assertThat(ranked.get(0).getScore() - ranked.get(1).getScore()).isCloseTo(0.3 * 0.7, within(1e-9));
+	}
+
+	@Test
+	void globalIdfTableOverridesCandidateIdf() {
+		Map<String, Double> idf = Map.of("graph", 10.0, "spring", 0.01);
+		BM25DocumentRanker ranker = BM25DocumentRanker.builder().bm25Weight(1).idfTable(idf).build();
+
+		List<Document> ranked = ranker.process(new Query("spring graph"),
+				List.of(doc("spring", "spring spring spring"), doc("graph", "graph"), doc("other", "other words")));
+
+		assertThat(ranked).extracting(Document::getId).startsWith("graph", "spring");
+	}
+
+	@Test
+	void emptyCandidatesStayEmpty() {
+		assertThat(BM25DocumentRanker.builder().build().process(QUERY, List.of())).isEmpty();
+	}
+
+	private static Document doc(String id, String text) {
+		return doc(id, text, null);
+	}
+
+	private static Document doc(String id, String text, Double score) {
+		return Document.builder().id(id).text(text).score(score).build();
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.prompt;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContextPackerTest {
+
+	private final TokenCountEstimator estimator = new JTokkitTokenCountEstimator();
+
+	@Test
+	void dotsInsideNumbersAndVersionsAreNotBoundaries() {
+		assertThat(ContextPacker.sentences("Qwen 3.5 beats v1.2 on e.g.tests. Next one."))
+			.containsExactly("Qwen 3.5 beats v1.2 on e.g.tests.", " Next one.");
+	}
+
+	@Test
+	void closingQuotesAndBracketsStayWithTheirSentence() {
+		assertThat(ContextPacker.sentences("He said \"done.\" Then left (quickly.) End"))
+			.containsExactly("He said \"done.\"", " Then left (quickly.)", " End");
+		assertThat(ContextPacker.sentences("他说：“好的。”然后离开了！（完）"))
+			.containsExactly("他说：“好的。”", "然后离开了！", "（完）");
+	}
+
+	@Test
+	void truncationKeepsWholeSentencesWithDecimals() {
+		String first = "Spring AI 3.5 adds v1.2 of the MCP client.";
+		String text = first + " The graph runtime is 2.5x faster. Upgrade soon.";
+		int budget = estimator.estimate(first) + 2;
+
+		ContextPacker packer = ContextPacker.builder()
+			.maxTokens(budget)
+			.maxTokensPerDocument(budget)
+			.minTokensPerDocument(1)
+			.build();
+		List<ContextPacker.PackedDocument> packed = packer.pack(List.of(new Document(text)));
+
+		assertThat(packed).singleElement().extracting(ContextPacker.PackedDocument::text).isEqualTo(first);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.observation;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RagStageObserverTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RagStageRecorder recorder;
+
+	private RagStageObserver observer;
+
+	@BeforeEach
+	void setUp() {
+
+		meterRegistry = new SimpleMeterRegistry();
+		recorder = new RagStageRecorder();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig()
+				.observationHandler(new RagStageObservationHandler(meterRegistry, recorder));
+		observer = new RagStageObserver(observationRegistry);
+	}
+
+	@Test
+	void firstTokenAndCompleteAreRecorded() {
+
+		observer.generation(Flux.just("a", "b"), "qwen", "simple").blockLast();
+
+		assertThat(recorder.report()).containsKeys(RagStage.FIRST_TOKEN, RagStage.COMPLETE);
+		assertThat(errors(RagStage.FIRST_TOKEN)).isZero();
+	}
+
+	@Test
+	void emptyStreamClosesFirstTokenWithError() {
+
+		observer.generation(Flux.empty(), "qwen", "simple").blockLast();
+
+		assertThat(recorder.report()).containsOnlyKeys(RagStage.COMPLETE);
+		assertThat(errors(RagStage.FIRST_TOKEN)).isEqualTo(1);
+	}
+
+	@Test
+	void errorBeforeFirstTokenClosesBothObservations() {
+
+		Flux<String> failing = observer.generation(Flux.error(new IllegalStateException("boom")), "qwen", "simple");
+
+		assertThatThrownBy(failing::blockLast).hasMessage("boom");
+		assertThat(recorder.report()).containsOnlyKeys(RagStage.COMPLETE);
+		assertThat(errors(RagStage.FIRST_TOKEN)).isEqualTo(1);
+		assertThat(errors(RagStage.COMPLETE)).isEqualTo(1);
+	}
+
+	@Test
+	void cancelBeforeFirstTokenClosesFirstToken() {
+
+		Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+		Disposable subscription = observer.generation(sink.asFlux(), "qwen", "simple").subscribe();
+		subscription.dispose();
+
+		assertThat(recorder.report()).containsOnlyKeys(RagStage.COMPLETE);
+		assertThat(errors(RagStage.FIRST_TOKEN)).isEqualTo(1);
+	}
+
+	@Test
+	void cancelAfterFirstTokenKeepsLatency() {
+
+		observer.generation(Flux.interval(Duration.ofMillis(1)), "qwen", "simple").take(1).blockLast();
+
+		assertThat(recorder.report()).containsKeys(RagStage.FIRST_TOKEN, RagStage.COMPLETE);
+		assertThat(errors(RagStage.FIRST_TOKEN)).isZero();
+	}
+
+	private double errors(RagStage stage) {
+
+		Counter counter = meterRegistry.find(RagStageObservationHandler.ERRORS_NAME)
+				.tag(RagStageObserver.STAGE_KEY, stage.getValue())
+				.counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+}
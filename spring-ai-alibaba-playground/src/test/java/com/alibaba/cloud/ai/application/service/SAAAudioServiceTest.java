@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SAAAudioServiceTest {
+
+	@Test
+	void splitsOnSentenceTerminators() {
+
+		assertThat(service(200).splitSentences("你好。今天天气怎么样？很好！"))
+				.containsExactly("你好。", "今天天气怎么样？", "很好！");
+		assertThat(service(200).splitSentences("He said \"hi.\" Then he left."))
+				.containsExactly("He said \"hi.\"", "Then he left.");
+	}
+
+	@Test
+	void dotInsideWordsOrNumbersDoesNotSplit() {
+
+		assertThat(service(200).splitSentences("Pi is 3.14 and e is 2.718. Made in the U.S.A today."))
+				.containsExactly("Pi is 3.14 and e is 2.718.", "Made in the U.S.A today.");
+		assertThat(service(200).splitSentences("Version 1.2.3")).containsExactly("Version 1.2.3");
+	}
+
+	@Test
+	void longSentencesAreSplitByLength() {
+
+		assertThat(service(4).splitSentences("abcdefghij。")).containsExactly("abcd", "efgh", "ij。");
+	}
+
+	@Test
+	void nonPositiveMaxSentenceLengthIsRejected() {
+
+		assertThatThrownBy(() -> service(0)).isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("max-sentence-length");
+	}
+
+	@Test
+	void sampleRateIsReadFromWavHeader() throws IOException {
+
+		assertThat(SAAAudioService.wavSampleRate(new ByteArrayInputStream(wav(44100, false)))).isEqualTo(44100);
+		assertThat(SAAAudioService.wavSampleRate(new ByteArrayInputStream(wav(8000, true)))).isEqualTo(8000);
+	}
+
+	@Test
+	void sampleRateIsNullForOtherFormats() throws IOException {
+
+		byte[] mp3 = "ID3\u0004\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000".getBytes(StandardCharsets.ISO_8859_1);
+		assertThat(SAAAudioService.wavSampleRate(new ByteArrayInputStream(mp3))).isNull();
+		assertThat(SAAAudioService.wavSampleRate(new ByteArrayInputStream(new byte[0]))).isNull();
+	}
+
+	private static SAAAudioService service(int maxSentenceLength) {
+
+		return new SAAAudioService(null, null, "paraformer-realtime-v2", 16000, maxSentenceLength, 2);
+	}
+
+	/**
+	 * @param listChunk 在 fmt 块之前插入一个奇数长度的 LIST 块
+	 */
+	private static byte[] wav(int sampleRate, boolean listChunk) {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.writeBytes("RIFF".getBytes(StandardCharsets.US_ASCII));
+		out.writeBytes(le(0));
+		out.writeBytes("WAVE".getBytes(StandardCharsets.US_ASCII));
+		if (listChunk) {
+			out.writeBytes("LIST".getBytes(StandardCharsets.US_ASCII));
+			out.writeBytes(le(3));
+			out.writeBytes(new byte[] {1, 2, 3, 0});
+		}
+		out.writeBytes("fmt ".getBytes(StandardCharsets.US_ASCII));
+		out.writeBytes(le(16));
+		out.writeBytes(new byte[] {1, 0, 1, 0});
+		out.writeBytes(le(sampleRate));
+		out.writeBytes(le(sampleRate * 2));
+		out.writeBytes(new byte[] {2, 0, 16, 0});
+
+		return out.toByteArray();
+	}
+
+	private static byte[] le(int value) {
+
+		return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array();
+	}
+
+}
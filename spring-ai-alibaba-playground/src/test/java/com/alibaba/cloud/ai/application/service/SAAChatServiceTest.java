@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.cloud.ai.application.advisor.SemanticCacheAdvisor;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SAAChatServiceTest {
+
+	private final SAAChatService service = service();
+
+	@Test
+	void deepThinkingChatWrapsTheReasoningInThinkTags() {
+		assertThat(service.deepThinkingChat("chat", "qwq-plus", "question").collectList().block())
+			.containsExactly("<think>a", "b", "</think>c", "d");
+	}
+
+	@Test
+	void chatOnlyWrapsTheReasoningOfDeepseekR1() {
+		assertThat(service.chat("r1", "deepseek-r1", "question").collectList().block())
+			.containsExactly("<think>a", "b", "</think>c", "d");
+		// 其他模型不输出推理内容
+		assertThat(service.chat("qwen", "qwen-max", "question").collectList().block()).containsExactly("c", "d");
+	}
+
+	private static SAAChatService service() {
+		SAAChatService service = new SAAChatService(null, new SimpleLoggerAdvisor(),
+				MessageChatMemoryAdvisor.builder(MessageWindowChatMemory.builder().build()).build(),
+				new StaticListableBeanFactory().getBeanProvider(SemanticCacheAdvisor.class), new ReasoningChatModel(),
+				new PromptTemplate("You are a helpful assistant."), new PromptTemplate("Think step by step."), false);
+		ReflectionTestUtils.setField(service, "enable", false);
+		return service;
+	}
+
+	/**
+	 * 先输出两段推理内容，再输出两段回答
+	 */
+	private static class ReasoningChatModel implements ChatModel {
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.just(chunk("a", ""), chunk("b", ""), chunk("", "c"), chunk("", "d"));
+		}
+
+		private static ChatResponse chunk(String reasoning, String text) {
+			AssistantMessage message = AssistantMessage.builder()
+				.content(text)
+				.properties(Map.of("reasoningContent", reasoning))
+				.build();
+			return new ChatResponse(List.of(new Generation(message)));
+		}
+
+	}
+
+}
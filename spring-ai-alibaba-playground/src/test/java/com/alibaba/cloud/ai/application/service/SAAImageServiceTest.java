@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 图片上传只读入内存：模型出错或客户端断开时都不会留下临时文件。
+ */
+class SAAImageServiceTest {
+
+	private final StubChatModel chatModel = new StubChatModel();
+
+	private final SAAImageService service = new SAAImageService(chatModel, null, Duration.ofSeconds(1),
+			Duration.ofSeconds(1), "", DataSize.ofMegabytes(1));
+
+	@Test
+	void uploadIsNotSpooledToDiskWhenTheModelFails() throws IOException {
+		chatModel.response = Flux.error(new IllegalStateException("model unavailable"));
+		InMemoryOnlyMultipartFile upload = new InMemoryOnlyMultipartFile();
+
+		Flux<String> answer = service.image2Text("describe", upload);
+
+		assertThatThrownBy(answer::blockLast).hasMessageContaining("model unavailable");
+		assertThat(upload.spooled).isFalse();
+	}
+
+	@Test
+	void uploadIsNotSpooledToDiskWhenTheClientCancels() throws IOException {
+		chatModel.response = Flux.never();
+		InMemoryOnlyMultipartFile upload = new InMemoryOnlyMultipartFile();
+
+		Disposable subscription = service.image2Text("describe", upload).subscribe();
+		subscription.dispose();
+
+		assertThat(chatModel.cancelled).hasValue(1);
+		assertThat(upload.spooled).isFalse();
+	}
+
+	/**
+	 * 任何落盘操作都会被记录
+	 */
+	private static class InMemoryOnlyMultipartFile extends MockMultipartFile {
+
+		private boolean spooled;
+
+		InMemoryOnlyMultipartFile() {
+			super("file", "cat.png", "image/png", new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+		}
+
+		@Override
+		public void transferTo(File dest) throws IOException {
+			spooled = true;
+			super.transferTo(dest);
+		}
+
+		@Override
+		public void transferTo(Path dest) throws IOException {
+			spooled = true;
+			super.transferTo(dest);
+		}
+
+	}
+
+	private static class StubChatModel implements ChatModel {
+
+		private final AtomicInteger cancelled = new AtomicInteger();
+
+		private Flux<ChatResponse> response;
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return response.doOnCancel(cancelled::incrementAndGet);
+		}
+
+	}
+
+}
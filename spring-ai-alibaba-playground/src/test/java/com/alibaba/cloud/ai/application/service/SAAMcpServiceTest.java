@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.alibaba.cloud.ai.application.config.ConfigSnapshotService;
+import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
+import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
+import com.alibaba.cloud.ai.application.mcp.McpServerContainer;
+import com.alibaba.cloud.ai.application.mcp.McpStdioClientPool;
+import com.alibaba.cloud.ai.application.tools.ParallelToolExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpStdioClientProperties;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SAAMcpServiceTest {
+
+	private static final String SERVER_ID = "weather-id";
+
+	private static final String SERVER_NAME = "weather";
+
+	private ParallelToolExecutor toolExecutor;
+
+	private RecordingClientPool clientPool;
+
+	private SAAMcpService mcpService;
+
+	private final List<Consumer<ConfigSnapshotService.Snapshot>> reloadListeners = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		toolExecutor = new ParallelToolExecutor(ToolCallingManager.builder().build(), 2, Duration.ofSeconds(5), 3, 100, 8);
+		clientPool = new RecordingClientPool();
+
+		ConfigSnapshotService configSnapshotService = new ConfigSnapshotService(false) {
+			@Override
+			public Snapshot getSnapshot() {
+				Snapshot snapshot = super.getSnapshot();
+				return new Snapshot(snapshot.dashScopeModels(), snapshot.modelNames(), Map.of(SERVER_NAME,
+						new McpStdioClientProperties.Parameters("npx", List.of("weather-server"), Map.of())));
+			}
+
+			@Override
+			public void addListener(Consumer<Snapshot> listener) {
+				reloadListeners.add(listener);
+			}
+		};
+
+		mcpService = new SAAMcpService(ToolCallbackProvider.from(List.of()), new SimpleLoggerAdvisor(), toolExecutor,
+				clientPool, configSnapshotService, new EchoToolChatModel());
+		McpServerContainer.refresh(List.of(McpServer.builder().id(SERVER_ID).name(SERVER_NAME).build()));
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		toolExecutor.destroy();
+		clientPool.destroy();
+		McpServerContainer.refresh(List.of());
+	}
+
+	@Test
+	void requestEnvReachesThePooledTool() throws IOException {
+
+		ToolCallResp first = mcpService.run(SERVER_ID, Map.of("API_KEY", "first-key"), "weather?");
+		ToolCallResp second = mcpService.run(SERVER_ID, Map.of("API_KEY", "second-key"), "weather?");
+
+		assertThat(first.getToolResult()).isEqualTo("tool said: first-key");
+		assertThat(second.getToolResult()).isEqualTo("tool said: second-key");
+		assertThat(clientPool.requested).extracting(McpStdioClientProperties.Parameters::env)
+				.containsExactly(Map.of("API_KEY", "first-key"), Map.of("API_KEY", "second-key"));
+		assertThat(clientPool.requested).allSatisfy(parameters -> {
+			assertThat(parameters.command()).isEqualTo("npx");
+			assertThat(parameters.args()).containsExactly("weather-server");
+		});
+	}
+
+	@Test
+	void configReloadRefreshesTheServerRegistry() {
+
+		assertThat(McpServerContainer.getServerByName("my-weather-server")).isEmpty();
+
+		reloadListeners.forEach(listener -> listener.accept(null));
+
+		assertThat(McpServerContainer.getAllServers()).extracting(McpServer::getName)
+				.containsExactly("my-weather-server");
+	}
+
+	@Test
+	void unknownServerIdIsNotStarted() throws IOException {
+
+		mcpService.run("missing", Map.of("API_KEY", "key"), "weather?");
+
+		assertThat(clientPool.requested).isEmpty();
+	}
+
+	/**
+	 * 不启动进程，返回的工具直接回显会话的 API_KEY
+	 */
+	private static class RecordingClientPool extends McpStdioClientPool {
+
+		private final List<McpStdioClientProperties.Parameters> requested = new CopyOnWriteArrayList<>();
+
+		RecordingClientPool() {
+			super(Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ofMinutes(1), 16);
+		}
+
+		@Override
+		public List<ToolCallback> getToolCallbacks(McpStdioClientProperties.Parameters parameters) {
+
+			requested.add(parameters);
+			ToolDefinition definition = ToolDefinition.builder()
+					.name("getWeather")
+					.description("weather")
+					.inputSchema("{\"type\":\"object\"}")
+					.build();
+
+			return List.of(new ToolCallback() {
+				@Override
+				public ToolDefinition getToolDefinition() {
+					return definition;
+				}
+
+				@Override
+				public String call(String toolInput) {
+					return parameters.env().get("API_KEY");
+				}
+			});
+		}
+
+	}
+
+	/**
+	 * 第一轮请求 getWeather，拿到工具结果后原样返回
+	 */
+	private static class EchoToolChatModel implements ChatModel {
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+
+			for (var message : prompt.getInstructions()) {
+				if (message instanceof ToolResponseMessage toolResponse) {
+					return new ChatResponse(List.of(new Generation(
+							new AssistantMessage("tool said: " + toolResponse.getResponses().get(0).responseData()))));
+				}
+			}
+
+			AssistantMessage.ToolCall toolCall = new AssistantMessage.ToolCall("call-1", "function", "getWeather", "{}");
+			return new ChatResponse(List.of(new Generation(
+					AssistantMessage.builder().content("").toolCalls(List.of(toolCall)).build())));
+		}
+
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.cloud.ai.application.modulerag.TimeLimitedDocumentRetriever;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SAAModuleRagWebSearchServiceTest {
+
+	private static final Duration TIMEOUT = Duration.ofMillis(300);
+
+	/**
+	 * 上游卡住时前面的请求各占满一个截止时间，后面的请求不能排在它们后面等到自己也超时
+	 */
+	@Test
+	void queriesBehindTimedOutRetrievalsStillRunWithinTheirDeadline() throws Exception {
+		CountDownLatch unblock = new CountDownLatch(1);
+		TimeLimitedDocumentRetriever retriever = TimeLimitedDocumentRetriever.builder()
+			.delegate(query -> {
+				if (query.text().startsWith("stuck")) {
+					try {
+						unblock.await();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return List.of(new Document(query.text()));
+			})
+			.timeout(TIMEOUT)
+			.maxInFlight(64)
+			.build();
+
+		ThreadPoolTaskExecutor executor = SAAModuleRagWebSearchService.retrievalExecutor(4);
+		try {
+			// 与 RetrievalAugmentationAdvisor 相同的提交方式
+			List<CompletableFuture<List<Document>>> stuck = new ArrayList<>();
+			for (int i = 0; i < 12; i++) {
+				Query query = new Query("stuck-" + i);
+				stuck.add(CompletableFuture.supplyAsync(() -> retriever.retrieve(query), executor));
+			}
+
+			long start = System.nanoTime();
+			List<Document> documents = CompletableFuture
+				.supplyAsync(() -> retriever.retrieve(new Query("fresh")), executor)
+				.get(5, TimeUnit.SECONDS);
+
+			assertThat(documents).extracting(Document::getText).containsExactly("fresh");
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(TIMEOUT.multipliedBy(2));
+			for (CompletableFuture<List<Document>> future : stuck) {
+				assertThat(future.get(5, TimeUnit.SECONDS)).isEmpty();
+			}
+		}
+		finally {
+			unblock.countDown();
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * 长文档 map-reduce 摘要的端到端耗时：模型为每个分段请求固定延迟 100 ms 的桩，
+ * 分别测试 1 / 4 / 8 的分段并发度，以及第 3 段首次请求失败时按分段重试的额外开销
+ * （没有分段重试时这一次失败会使整个摘要失败，客户端只能从头再来）。
+ * 切分参数与默认配置一致（max-input-tokens 24000，chunk-tokens 8000），
+ * 1 万句约 13 万 token，5 万句约 65 万 token。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.service.SAASummarizerServiceBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SAASummarizerServiceBenchmark {
+
+	private static final Duration CHUNK_LATENCY = Duration.ofMillis(100);
+
+	@Param({ "10000", "50000" })
+	public int sentences;
+
+	@Param({ "1", "4", "8" })
+	public int maxConcurrency;
+
+	@Param({ "false", "true" })
+	public boolean flakyChunk;
+
+	private SAASummarizerServiceTest.StubChatModel chatModel;
+
+	private SAASummarizerService service;
+
+	private MockMultipartFile document;
+
+	@Setup
+	public void setUp() {
+		chatModel = new SAASummarizerServiceTest.StubChatModel();
+		chatModel.latency = CHUNK_LATENCY;
+		service = SAASummarizerServiceTest.service(chatModel, 24000, 8000, maxConcurrency, 2, Duration.ofMillis(200));
+		document = SAASummarizerServiceTest.document(sentences);
+	}
+
+	@Setup(Level.Invocation)
+	public void reset() {
+		chatModel.attempts.clear();
+		chatModel.failingPart = flakyChunk ? 3 : -1;
+		chatModel.failures = 1;
+	}
+
+	@Benchmark
+	public List<String> summarize() {
+		return service.summary(document, null).collectList().block();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SAASummarizerServiceBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.mock.web.MockMultipartFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SAASummarizerServiceTest {
+
+	private static final int MAX_INPUT_TOKENS = 500;
+
+	private static final int CHUNK_TOKENS = 200;
+
+	private static final int CHUNK_MAX_RETRIES = 2;
+
+	private final StubChatModel chatModel = new StubChatModel();
+
+	private final SAASummarizerService service = service(chatModel, MAX_INPUT_TOKENS, CHUNK_TOKENS, 4,
+			CHUNK_MAX_RETRIES, Duration.ofMillis(1));
+
+	@Test
+	void shortDocumentsAreSummarizedWithoutProgressEvents() {
+		List<ServerSentEvent<String>> events = service.summaryEvents(document(20), null).collectList().block();
+
+		assertThat(events).extracting(ServerSentEvent::event).containsOnlyNulls();
+		assertThat(events).extracting(ServerSentEvent::data).containsExactly("final ", "summary");
+		assertThat(chatModel.attempts).isEmpty();
+	}
+
+	@Test
+	void progressIsEmittedAsSeparateEvents() {
+		List<ServerSentEvent<String>> events = service.summaryEvents(document(1000), null).collectList().block();
+
+		List<ServerSentEvent<String>> progress = events.stream()
+			.filter(event -> SAASummarizerService.PROGRESS_EVENT.equals(event.event()))
+			.toList();
+		int parts = chatModel.attempts.size();
+		assertThat(parts).isGreaterThan(1);
+		assertThat(progress).hasSize(parts);
+		for (int i = 0; i < parts; i++) {
+			assertThat(progress.get(i).data()).isEqualTo("Level 1: summarized " + (i + 1) + "/" + parts + " parts");
+		}
+		// 进度全部在摘要正文之前
+		assertThat(events.subList(parts, events.size())).extracting(ServerSentEvent::event).containsOnlyNulls();
+		assertThat(events.subList(parts, events.size())).extracting(ServerSentEvent::data)
+			.containsExactly("final ", "summary");
+	}
+
+	@Test
+	void summaryStreamCarriesOnlyTheSummaryText() {
+		List<String> summary = service.summary(document(1000), null).collectList().block();
+
+		assertThat(chatModel.attempts.size()).isGreaterThan(1);
+		assertThat(summary).containsExactly("final ", "summary");
+	}
+
+	@Test
+	void failedChunkIsRetriedAloneAndItsPartialOutputDiscarded() {
+		chatModel.failingPart = 2;
+		chatModel.failures = 1;
+
+		List<String> summary = service.summary(document(1000), null).collectList().block();
+
+		assertThat(summary).containsExactly("final ", "summary");
+		chatModel.attempts.forEach((part, attempts) -> assertThat(attempts).hasValue(part == 2 ? 2 : 1));
+		assertThat(chatModel.finalPrompt).contains("summary of part 2").doesNotContain("partial");
+	}
+
+	@Test
+	void chunkErrorIsPropagatedAfterRetriesAreExhausted() {
+		chatModel.failingPart = 2;
+		chatModel.failures = Integer.MAX_VALUE;
+
+		assertThatThrownBy(() -> service.summary(document(1000), null).blockLast())
+			.isInstanceOf(TransientAiException.class)
+			.hasMessage("overloaded");
+		assertThat(chatModel.attempts.get(2)).hasValue(CHUNK_MAX_RETRIES + 1);
+		assertThat(chatModel.finalPrompt).isNull();
+	}
+
+	@Test
+	void nonTransientChunkErrorsAreNotRetried() {
+		chatModel.failingPart = 2;
+		chatModel.failures = Integer.MAX_VALUE;
+		chatModel.error = () -> new NonTransientAiException("bad request");
+
+		assertThatThrownBy(() -> service.summary(document(1000), null).blockLast())
+			.isInstanceOf(NonTransientAiException.class);
+		assertThat(chatModel.attempts.get(2)).hasValue(1);
+	}
+
+	static SAASummarizerService service(ChatModel chatModel, int maxInputTokens, int chunkTokens, int maxConcurrency,
+			int chunkMaxRetries, Duration chunkRetryBackoff) {
+		return new SAASummarizerService(new SimpleLoggerAdvisor(),
+				MessageChatMemoryAdvisor.builder(MessageWindowChatMemory.builder().build()).build(), chatModel,
+				new PromptTemplate("Summarize."), new PromptTemplate("Summarize this part."), "chunk-model",
+				maxInputTokens, chunkTokens, maxConcurrency, chunkMaxRetries, chunkRetryBackoff);
+	}
+
+	static MockMultipartFile document(int sentences) {
+		String text = IntStream.range(0, sentences)
+			.mapToObj(i -> "Sentence " + i + " describes one more detail of the quarterly report.")
+			.collect(Collectors.joining(" "));
+		return new MockMultipartFile("file", "report.txt", "text/plain", text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 分段请求返回 "summary of part n"，最终请求返回 "final summary"；
+	 * failingPart 的前 failures 次请求先输出部分内容再出错
+	 */
+	static class StubChatModel implements ChatModel {
+
+		final Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+		volatile int failingPart = -1;
+
+		volatile int failures;
+
+		volatile Supplier<RuntimeException> error = () -> new TransientAiException("overloaded");
+
+		volatile Duration latency = Duration.ZERO;
+
+		volatile String finalPrompt;
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			String text = prompt.getUserMessage().getText();
+			if (!text.startsWith("Part ")) {
+				finalPrompt = text;
+				return Flux.just(response("final "), response("summary"));
+			}
+
+			int part = Integer.parseInt(text.substring(5, text.indexOf(' ', 5)));
+			int attempt = attempts.computeIfAbsent(part, key -> new AtomicInteger()).incrementAndGet();
+			if (part == failingPart && attempt <= failures) {
+				return Flux.just(response("partial")).concatWith(Flux.error(error.get()));
+			}
+			Flux<ChatResponse> summary = Flux.just(response("summary of part "), response(String.valueOf(part)));
+			return latency.isZero() ? summary : summary.delaySubscription(latency);
+		}
+
+		private static ChatResponse response(String text) {
+			return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+		}
+
+	}
+
+}
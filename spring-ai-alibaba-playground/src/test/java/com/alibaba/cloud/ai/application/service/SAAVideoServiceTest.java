@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.cloud.ai.application.video.VideoFrameSampler;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.mock.web.MockMultipartFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SAAVideoServiceTest {
+
+	private final StreamingChatModel chatModel = new StreamingChatModel();
+
+	private final SAAVideoService service = new SAAVideoService(null, chatModel, 2, 320, 0.85f,
+			VideoFrameSampler.SeekMode.KEYFRAME);
+
+	@Test
+	void tempFileIsDeletedWhenTheUploadCannotBeCopied() {
+		RecordingMultipartFile upload = new RecordingMultipartFile(new byte[] { 1, 2, 3 }, true);
+
+		assertThatThrownBy(() -> service.analyzeVideo("what is this", upload)).isInstanceOf(IOException.class);
+
+		assertThat(upload.destination.get()).isNotNull().doesNotExist();
+	}
+
+	@Test
+	void tempFileIsDeletedWhenSamplingFails() throws Exception {
+		// 内容不是视频，抽帧失败
+		RecordingMultipartFile upload = new RecordingMultipartFile(new byte[] { 1, 2, 3 }, false);
+		Flux<String> answer = service.analyzeVideo("what is this", upload);
+		assertThat(upload.destination.get()).exists();
+
+		assertThatThrownBy(() -> answer.blockLast(Duration.ofSeconds(30))).isNotNull();
+
+		assertThat(upload.destination.get()).doesNotExist();
+		assertThat(chatModel.called.getCount()).isEqualTo(1);
+	}
+
+	@Test
+	void tempFileIsDeletedWhenTheClientCancels() throws Exception {
+		RecordingMultipartFile upload = new RecordingMultipartFile(video(), false);
+		Disposable subscription = service.analyzeVideo("what is this", upload).subscribe();
+
+		// 抽帧完成、模型开始流式输出时临时文件仍在
+		assertThat(chatModel.called.await(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(upload.destination.get()).exists();
+
+		subscription.dispose();
+
+		assertThat(upload.destination.get()).doesNotExist();
+	}
+
+	private static byte[] video() throws IOException {
+		File file = Files.createTempFile("upload", ".mp4").toFile();
+		try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(file, 64, 48, 0);
+			 Java2DFrameConverter converter = new Java2DFrameConverter()) {
+			recorder.setFormat("mp4");
+			recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+			recorder.setFrameRate(10);
+			recorder.start();
+			BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_3BYTE_BGR);
+			for (int i = 0; i < 20; i++) {
+				recorder.record(converter.convert(image));
+			}
+			recorder.stop();
+			return Files.readAllBytes(file.toPath());
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * 记录 transferTo 的目标路径，即服务创建的临时文件
+	 */
+	private static class RecordingMultipartFile extends MockMultipartFile {
+
+		private final AtomicReference<Path> destination = new AtomicReference<>();
+
+		private final boolean failTransfer;
+
+		RecordingMultipartFile(byte[] content, boolean failTransfer) {
+			super("file", "clip.mp4", "video/mp4", content);
+			this.failTransfer = failTransfer;
+		}
+
+		@Override
+		public void transferTo(Path dest) throws IOException {
+			destination.set(dest);
+			if (failTransfer) {
+				throw new IOException("disk full");
+			}
+			super.transferTo(dest);
+		}
+
+	}
+
+	/**
+	 * 流式调用时计数并返回永不结束的响应
+	 */
+	private static class StreamingChatModel implements ChatModel {
+
+		private final CountDownLatch called = new CountDownLatch(1);
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.<ChatResponse>never().doOnSubscribe(subscription -> called.countDown());
+		}
+
+	}
+
+}
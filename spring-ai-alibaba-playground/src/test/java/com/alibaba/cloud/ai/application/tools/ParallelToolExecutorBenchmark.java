@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+
+/**
+ * 模型一次请求 1 / 4 / 8 个工具、每个工具耗时 100 ms 时，一轮工具调用的端到端耗时。
+ * parallel 为 ParallelToolExecutor（并行度 8）；sequential 为 ToolCallingManager 一次执行全部 tool call，
+ * 即框架默认的逐个执行，耗时约为工具数乘以单个工具耗时。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.tools.ParallelToolExecutorBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelToolExecutorBenchmark {
+
+	private static final long TOOL_MILLIS = 100;
+
+	@Param({ "1", "4", "8" })
+	public int tools;
+
+	private ToolCallingManager toolCallingManager;
+
+	private ParallelToolExecutor executor;
+
+	private ChatClient chatClient;
+
+	private List<ToolCallback> toolCallbacks;
+
+	private Prompt prompt;
+
+	private ChatResponse toolCallResponse;
+
+	@Setup
+	public void setUp() {
+		toolCallingManager = ToolCallingManager.builder().build();
+		executor = new ParallelToolExecutor(toolCallingManager, 8, Duration.ofSeconds(30), 3, 100, 8);
+
+		List<String> names = new ArrayList<>(tools);
+		toolCallbacks = new ArrayList<>(tools);
+		for (int i = 0; i < tools; i++) {
+			String name = "tool" + i;
+			names.add(name);
+			toolCallbacks.add(ParallelToolExecutorTest.tool(name,
+					input -> ParallelToolExecutorTest.sleep(TOOL_MILLIS, name)));
+		}
+		chatClient = ParallelToolExecutorTest.client(names);
+
+		prompt = new Prompt("question",
+				ToolCallingChatOptions.builder().toolCallbacks(toolCallbacks).internalToolExecutionEnabled(false).build());
+		List<AssistantMessage.ToolCall> toolCalls = names.stream()
+			.map(name -> new AssistantMessage.ToolCall("call-" + name, "function", name, "{}"))
+			.toList();
+		toolCallResponse = new ChatResponse(
+				List.of(new Generation(AssistantMessage.builder().content("").toolCalls(toolCalls).build())));
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.destroy();
+	}
+
+	@Benchmark
+	public ToolCallResp parallel() {
+		return executor.execute(chatClient, "question", toolCallbacks);
+	}
+
+	@Benchmark
+	public ToolExecutionResult sequential() {
+		return toolCallingManager.executeToolCalls(prompt, toolCallResponse);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ParallelToolExecutorBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
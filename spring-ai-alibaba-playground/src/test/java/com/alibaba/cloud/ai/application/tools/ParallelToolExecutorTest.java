@@ -0,0 +1,282 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
+import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp.ToolExecution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelToolExecutorTest {
+
+	private static final Duration TOOL_TIMEOUT = Duration.ofMillis(300);
+
+	private ParallelToolExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		executor = new ParallelToolExecutor(ToolCallingManager.builder().build(), 4, TOOL_TIMEOUT, 3, 100, 8);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.destroy();
+	}
+
+	@Test
+	void slowToolTimesOutWithoutBlockingTheOthers() throws InterruptedException {
+
+		CountDownLatch interrupted = new CountDownLatch(1);
+		ToolCallback slow = tool("slow", input -> {
+			try {
+				Thread.sleep(10_000);
+				return "slow";
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+				Thread.currentThread().interrupt();
+				return "interrupted";
+			}
+		});
+		ToolCallback fast = tool("fast", input -> sleep(50, "fast"));
+
+		long start = System.nanoTime();
+		ToolCallResp resp = executor.execute(client(List.of("slow", "fast")), "question", List.of(slow, fast));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		Map<String, ToolExecution> executions = byName(resp);
+		assertThat(executions.get("fast").status()).isEqualTo(ToolCallResp.ToolState.SUCCESS);
+		assertThat(executions.get("fast").toolResponse()).contains("fast");
+		assertThat(executions.get("fast").toolCostTime()).isBetween(50L, TOOL_TIMEOUT.toMillis());
+
+		assertThat(executions.get("slow").status()).isEqualTo(ToolCallResp.ToolState.FAILURE);
+		assertThat(executions.get("slow").errorMessage()).contains("timed out");
+		// 工作线程在提交之后才开始计时，耗时可能略小于超时时间
+		assertThat(executions.get("slow").toolCostTime()).isGreaterThanOrEqualTo(TOOL_TIMEOUT.toMillis() - 50);
+
+		assertThat(resp.getStatus()).isEqualTo(ToolCallResp.ToolState.FAILURE);
+		assertThat(resp.getToolResult()).isEqualTo("done: 2 tool responses");
+		assertThat(elapsedMillis).isLessThan(5_000);
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void toolsOfOneRoundRunInParallel() {
+
+		ToolCallback a = tool("a", input -> sleep(200, "a"));
+		ToolCallback b = tool("b", input -> sleep(200, "b"));
+		ToolCallback c = tool("c", input -> sleep(200, "c"));
+
+		long start = System.nanoTime();
+		ToolCallResp resp = executor.execute(client(List.of("a", "b", "c")), "question", List.of(a, b, c));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(resp.getStatus()).isEqualTo(ToolCallResp.ToolState.SUCCESS);
+		assertThat(resp.getToolExecutions()).hasSize(3)
+				.allSatisfy(execution -> assertThat(execution.toolCostTime()).isGreaterThanOrEqualTo(200));
+		assertThat(elapsedMillis).isLessThan(550);
+	}
+
+	@Test
+	void failingToolIsReportedToTheModel() {
+
+		ToolCallback broken = tool("broken", input -> {
+			throw new IllegalStateException("boom");
+		});
+
+		ToolCallResp resp = executor.execute(client(List.of("broken")), "question", List.of(broken));
+
+		assertThat(resp.getToolExecutions()).singleElement()
+				.satisfies(execution -> {
+					assertThat(execution.status()).isEqualTo(ToolCallResp.ToolState.FAILURE);
+					assertThat(execution.errorMessage()).contains("boom");
+				});
+		assertThat(resp.getToolResult()).isEqualTo("done: 1 tool responses");
+	}
+
+	@Test
+	void defaultToolCallbacksDoNotShadowRequestTools() {
+
+		ToolCallback startup = tool("lookup", input -> "startup");
+		ToolCallback pooled = tool("lookup", input -> "pooled");
+		ChatClient chatClient = client(List.of("lookup")).mutate().defaultToolCallbacks(startup).build();
+
+		for (int i = 0; i < 2; i++) {
+			ToolCallResp resp = executor.execute(chatClient, "question", List.of(pooled));
+			assertThat(resp.getToolExecutions()).extracting(ToolExecution::toolResponse).containsExactly("pooled");
+		}
+	}
+
+	@Test
+	void rejectedToolCallIsReportedToTheModel() {
+
+		// 1 个线程、队列长度 1：第三个调用被拒绝
+		ParallelToolExecutor small = new ParallelToolExecutor(ToolCallingManager.builder().build(), 1, TOOL_TIMEOUT, 3,
+				1, 8);
+		try {
+			ToolCallback a = tool("a", input -> sleep(100, "a"));
+			ToolCallback b = tool("b", input -> sleep(100, "b"));
+			ToolCallback c = tool("c", input -> sleep(100, "c"));
+
+			ToolCallResp resp = small.execute(client(List.of("a", "b", "c")), "question", List.of(a, b, c));
+
+			Map<String, ToolExecution> executions = byName(resp);
+			assertThat(executions.get("a").status()).isEqualTo(ToolCallResp.ToolState.SUCCESS);
+			assertThat(executions.get("b").status()).isEqualTo(ToolCallResp.ToolState.SUCCESS);
+			assertThat(executions.get("c").status()).isEqualTo(ToolCallResp.ToolState.FAILURE);
+			assertThat(executions.get("c").errorMessage()).contains("rejected");
+			assertThat(resp.getToolResult()).isEqualTo("done: 3 tool responses");
+		}
+		finally {
+			small.destroy();
+		}
+	}
+
+	@Test
+	void toolIgnoringInterruptsDoesNotStarveLaterCalls() throws InterruptedException {
+
+		ParallelToolExecutor single = new ParallelToolExecutor(ToolCallingManager.builder().build(), 1, TOOL_TIMEOUT,
+				3, 100, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			ToolCallback stubborn = tool("stubborn", input -> {
+				while (true) {
+					try {
+						if (release.await(10, TimeUnit.SECONDS)) {
+							return "late";
+						}
+					}
+					catch (InterruptedException ignored) {
+						// 故意忽略中断
+					}
+				}
+			});
+			ToolCallResp first = single.execute(client(List.of("stubborn")), "question", List.of(stubborn));
+
+			assertThat(first.getToolExecutions()).singleElement()
+					.satisfies(execution -> assertThat(execution.errorMessage()).contains("timed out"));
+			assertThat(single.abandonedToolCalls()).isEqualTo(1);
+
+			// 唯一的线程仍被占用，没有临时线程时这次调用会排队直到超时
+			ToolCallResp second = single.execute(client(List.of("fast")), "question",
+					List.of(tool("fast", input -> sleep(20, "fast"))));
+
+			assertThat(second.getStatus()).isEqualTo(ToolCallResp.ToolState.SUCCESS);
+
+			release.countDown();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (single.abandonedToolCalls() > 0 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(single.abandonedToolCalls()).isZero();
+		}
+		finally {
+			release.countDown();
+			single.destroy();
+		}
+	}
+
+	private static Map<String, ToolExecution> byName(ToolCallResp resp) {
+
+		return resp.getToolExecutions().stream()
+				.collect(Collectors.toMap(ToolExecution::toolName, Function.identity()));
+	}
+
+	static String sleep(long millis, String result) {
+
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return result;
+	}
+
+	/**
+	 * 第一轮请求所有工具，拿到工具结果后返回文本
+	 */
+	static ChatClient client(List<String> toolNames) {
+
+		ChatModel chatModel = new ChatModel() {
+			@Override
+			public ChatResponse call(Prompt prompt) {
+
+				long responses = prompt.getInstructions().stream()
+						.filter(ToolResponseMessage.class::isInstance)
+						.mapToLong(message -> ((ToolResponseMessage) message).getResponses().size())
+						.sum();
+				if (responses > 0) {
+					return new ChatResponse(List.of(new Generation(
+							new AssistantMessage("done: " + responses + " tool responses"))));
+				}
+
+				List<AssistantMessage.ToolCall> toolCalls = toolNames.stream()
+						.map(name -> new AssistantMessage.ToolCall("call-" + name, "function", name, "{}"))
+						.toList();
+				return new ChatResponse(List.of(new Generation(
+						AssistantMessage.builder().content("").toolCalls(toolCalls).build())));
+			}
+		};
+
+		return ChatClient.builder(chatModel).build();
+	}
+
+	static ToolCallback tool(String name, Function<String, String> function) {
+
+		ToolDefinition definition = ToolDefinition.builder()
+				.name(name)
+				.description(name)
+				.inputSchema("{\"type\":\"object\"}")
+				.build();
+
+		return new ToolCallback() {
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return function.apply(toolInput);
+			}
+		};
+	}
+
+}
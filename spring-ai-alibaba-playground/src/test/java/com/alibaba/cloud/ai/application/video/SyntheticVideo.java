@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.video;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+/**
+ * 生成测试用的 MPEG-4 视频：第 n 秒的背景灰度为 {@link #gray(int)}，顶部有一条移动的白条，
+ * 避免整段视频只有几乎不需要解码的静止画面。
+ */
+final class SyntheticVideo {
+
+	private SyntheticVideo() {
+	}
+
+	static void generate(File file, int seconds, int width, int height, int fps, int gopSeconds) throws IOException {
+
+		try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(file, width, height, 0);
+			 Java2DFrameConverter converter = new Java2DFrameConverter()) {
+			recorder.setFormat("mp4");
+			recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+			recorder.setFrameRate(fps);
+			recorder.setGopSize(fps * gopSeconds);
+			recorder.setVideoQuality(2);
+			recorder.start();
+
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+			int barHeight = Math.max(height / 10, 1);
+			for (int i = 0; i < seconds * fps; i++) {
+				Graphics2D graphics = image.createGraphics();
+				int gray = gray(i / fps);
+				graphics.setColor(new Color(gray, gray, gray));
+				graphics.fillRect(0, 0, width, height);
+				graphics.setColor(Color.WHITE);
+				graphics.fillRect((i * 8) % width, 0, width / 20, barHeight);
+				graphics.dispose();
+
+				recorder.record(converter.convert(image));
+			}
+			recorder.stop();
+		}
+	}
+
+	/**
+	 * 第 second 秒的背景灰度，相邻两秒相差 20
+	 */
+	static int gray(int second) {
+
+		return 20 + (second * 20) % 220;
+	}
+
+	/**
+	 * 取画面中心（避开顶部白条）的灰度
+	 */
+	static int centerGray(BufferedImage image) {
+
+		Color color = new Color(image.getRGB(image.getWidth() / 2, image.getHeight() / 2));
+		return (color.getRed() + color.getGreen() + color.getBlue()) / 3;
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.video;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 从 1 分钟、10 分钟、60 分钟的合成视频（640x360、25 fps、10 秒一个关键帧）中取 10 帧的耗时和写盘字节数。
+ * LEGACY 为原先 SAAVideoService 的做法：setFrameNumber 后解码，每帧写一个 PNG 临时文件；
+ * EXACT、KEYFRAME 为 {@link VideoFrameSampler} 的两种 seek 模式，只在内存中编码 JPEG。
+ * 结束时打印每次采样平均写盘字节数。
+ * <p>
+ * 合成视频缓存在 java.io.tmpdir 下，首次运行需要先生成（60 分钟的视频需要数分钟）。
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alibaba.cloud.ai.application.video.VideoFrameSamplerBenchmark}
+ * 或在 IDE 中运行 {@link #main(String[])}。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VideoFrameSamplerBenchmark {
+
+	private static final int FRAMES = 10;
+
+	@Param({ "1", "10", "60" })
+	public int minutes;
+
+	@Param({ "LEGACY", "EXACT", "KEYFRAME" })
+	public String mode;
+
+	private File video;
+
+	private VideoFrameSampler sampler;
+
+	private Path frameDir;
+
+	private long bytesWritten;
+
+	private long samples;
+
+	@Setup
+	public void setUp() throws IOException {
+		video = Path.of(System.getProperty("java.io.tmpdir"), "saa-synthetic-" + minutes + "m.mp4").toFile();
+		if (!video.exists()) {
+			File tmp = new File(video.getPath() + ".tmp.mp4");
+			SyntheticVideo.generate(tmp, minutes * 60, 640, 360, 25, 10);
+			Files.move(tmp.toPath(), video.toPath());
+		}
+
+		if (!"LEGACY".equals(mode)) {
+			sampler = VideoFrameSampler.builder()
+				.frameCount(FRAMES)
+				.seekMode(VideoFrameSampler.SeekMode.valueOf(mode))
+				.build();
+		}
+		frameDir = Files.createTempDirectory("saa-frames");
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(frameDir);
+		System.out.printf("%nminutes=%d, mode=%s: %d bytes written per sample%n", minutes, mode,
+				bytesWritten / Math.max(samples, 1));
+	}
+
+	@Benchmark
+	public Object sample() throws IOException {
+		samples++;
+		return sampler != null ? sampler.sample(video) : legacy();
+	}
+
+	/**
+	 * 原先的取帧方式，写出的 PNG 计入字节数后删除
+	 */
+	private int legacy() throws IOException {
+		int frames = 0;
+		try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video);
+			 Java2DFrameConverter converter = new Java2DFrameConverter()) {
+			grabber.start();
+			int step = grabber.getLengthInFrames() / FRAMES;
+			for (int i = 0; i < FRAMES; i++) {
+				grabber.setFrameNumber(i * step);
+				Frame frame = grabber.grabImage();
+				BufferedImage image = converter.convert(frame);
+
+				File output = frameDir.resolve(UUID.randomUUID() + ".png").toFile();
+				ImageIO.write(image, "png", output);
+				bytesWritten += output.length();
+				output.delete();
+				frames++;
+			}
+		}
+		return frames;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(VideoFrameSamplerBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.video;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.content.Media;
+import org.springframework.util.MimeTypeUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VideoFrameSamplerTest {
+
+	private static final int SECONDS = 10;
+
+	private static final int TOLERANCE = 8;
+
+	private File video;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		video = Files.createTempFile("synthetic", ".mp4").toFile();
+		// 每 2 秒一个关键帧
+		SyntheticVideo.generate(video, SECONDS, 1280, 720, 10, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		video.delete();
+	}
+
+	@Test
+	void exactSeekReturnsTheFrameAtEachSegmentMidpoint() throws IOException {
+		VideoFrameSampler sampler = VideoFrameSampler.builder()
+			.frameCount(5)
+			.seekMode(VideoFrameSampler.SeekMode.EXACT)
+			.build();
+
+		List<Media> frames = sampler.sample(video);
+
+		// 各段中点为 1s、3s、5s、7s、9s，均不在关键帧上，需要从前一个关键帧解码过去
+		assertThat(frames).hasSize(5)
+			.allSatisfy(frame -> assertThat(frame.getMimeType()).isEqualTo(MimeTypeUtils.IMAGE_JPEG));
+		List<Integer> grays = grays(frames);
+		for (int i = 0; i < 5; i++) {
+			assertThat(grays.get(i)).isCloseTo(SyntheticVideo.gray(2 * i + 1), within(TOLERANCE));
+		}
+	}
+
+	@Test
+	void keyframeSeekOnlyReturnsKeyframesAtOrAfterTheTarget() throws IOException {
+		VideoFrameSampler sampler = VideoFrameSampler.builder()
+			.frameCount(4)
+			.seekMode(VideoFrameSampler.SeekMode.KEYFRAME)
+			.build();
+
+		List<Integer> grays = grays(sampler.sample(video));
+
+		// 中点为 1.25s、3.75s、6.25s、8.75s，关键帧在偶数秒；最后一个中点之后已没有关键帧
+		assertThat(grays).isNotEmpty().hasSizeLessThanOrEqualTo(4);
+		int[] keyframeSeconds = { 2, 4, 8 };
+		for (int i = 0; i < Math.min(grays.size(), keyframeSeconds.length); i++) {
+			assertThat(grays.get(i)).isCloseTo(SyntheticVideo.gray(keyframeSeconds[i]), within(TOLERANCE));
+		}
+	}
+
+	@Test
+	void framesAreScaledToTheMaxResolution() throws IOException {
+		VideoFrameSampler sampler = VideoFrameSampler.builder().frameCount(2).maxResolution(640).build();
+
+		List<Media> frames = sampler.sample(video);
+
+		assertThat(frames).hasSize(2);
+		for (Media frame : frames) {
+			BufferedImage image = decode(frame);
+			assertThat(image.getWidth()).isEqualTo(640);
+			assertThat(image.getHeight()).isEqualTo(360);
+		}
+	}
+
+	private static List<Integer> grays(List<Media> frames) throws IOException {
+		List<Integer> grays = new ArrayList<>(frames.size());
+		for (Media frame : frames) {
+			grays.add(SyntheticVideo.centerGray(decode(frame)));
+		}
+		return grays;
+	}
+
+	private static BufferedImage decode(Media frame) throws IOException {
+		return ImageIO.read(new ByteArrayInputStream(frame.getDataAsByteArray()));
+	}
+
+}